@@ -82,6 +82,37 @@ dependencies {
     spotbugsPlugins("com.h3xstream.findsecbugs:findsecbugs-plugin:1.13.0")
 }
 
+// JMH microbenchmarks live in src/jmh/java and run via `./gradlew jmh` (optionally -PjmhIncludes=<regex>).
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[jmh.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[jmh.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
+dependencies {
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+}
+
+tasks.register<JavaExec>("jmh") {
+    group = "verification"
+    description = "Runs JMH microbenchmarks from src/jmh/java."
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    workingDir = projectDir
+    jvmArgs("--sun-misc-unsafe-memory-access=allow")
+    args(listOf("-rf", "json", "-rff", layout.buildDirectory.file("reports/jmh/results.json").get().asFile.path))
+    val includes = providers.gradleProperty("jmhIncludes").orNull
+    if (includes != null) {
+        args(includes)
+    }
+    doFirst {
+        layout.buildDirectory.dir("reports/jmh").get().asFile.mkdirs()
+    }
+}
+
 tasks.withType<Test> {
     useJUnitPlatform()
     systemProperty("spring.classformat.ignore", "true")
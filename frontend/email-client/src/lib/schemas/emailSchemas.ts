@@ -43,7 +43,8 @@ const EmailMessageSchemaShape = z.object({
   recipientEmail: z.string().nullish(),
   subject: z.string(),
   emailBodyRaw: z.string().nullish(),
-  emailBodyTransformedText: z.string(),
+  // Absent on list summaries (mailbox state, bootstrap); present once the full message is loaded
+  emailBodyTransformedText: z.string().nullish(),
   emailBodyTransformedMarkdown: z.string().nullish(),
   emailBodyHtml: z.string().nullish(),
   llmSummary: z.string().nullish(),
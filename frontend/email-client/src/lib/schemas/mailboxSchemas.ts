@@ -19,6 +19,8 @@ export const MailboxStateSnapshotSchema = z
     folderCounts: z.record(z.string(), z.number()),
     placements: z.record(z.string(), z.string()),
     effectiveFolders: z.record(z.string(), z.string()),
+    nextCursor: z.string().nullish(),
+    version: z.string().optional(),
     selectedEmailId: z.string().nullish(),
     emails: z.array(EmailMessageSchema).optional(),
   })
@@ -30,25 +32,22 @@ export type MailboxStateSnapshot = z.infer<typeof MailboxStateSnapshotSchema>;
 
 /**
  * Schema for message move result response.
- * Backend returns either `messages` or `emails` - we accept both.
- * At least one must be present for the response to be valid.
+ * Backend sends a compact delta: the moved message, its folders, the updated counts and the new
+ * mailbox version. The list fields are still accepted for older full-snapshot payloads.
  */
-export const MessageMoveResultSchema = z
-  .object({
-    mailboxId: z.string(),
-    messageId: z.string(),
-    previousFolderId: z.string().nullable(),
-    currentFolderId: z.string().nullable(),
-    updatedMessage: EmailMessageSchema.nullable(),
-    folderCounts: z.record(z.string(), z.number()),
-    placements: z.record(z.string(), z.string()),
-    messages: z.array(EmailMessageSchema).optional(),
-    effectiveFolders: z.record(z.string(), z.string()),
-    selectedEmailId: z.string().nullish(),
-    emails: z.array(EmailMessageSchema).optional(),
-  })
-  .refine((data) => data.messages !== undefined || data.emails !== undefined, {
-    message: "Expected messages or emails in message move result",
-  });
+export const MessageMoveResultSchema = z.object({
+  mailboxId: z.string(),
+  messageId: z.string(),
+  previousFolderId: z.string().nullable(),
+  currentFolderId: z.string().nullable(),
+  updatedMessage: EmailMessageSchema.nullable(),
+  folderCounts: z.record(z.string(), z.number()),
+  version: z.string().optional(),
+  placements: z.record(z.string(), z.string()).optional(),
+  messages: z.array(EmailMessageSchema).optional(),
+  effectiveFolders: z.record(z.string(), z.string()).optional(),
+  selectedEmailId: z.string().nullish(),
+  emails: z.array(EmailMessageSchema).optional(),
+});
 
 export type MessageMoveResult = z.infer<typeof MessageMoveResultSchema>;
@@ -33,6 +33,8 @@ interface ComposePrefillContext {
 
 interface CallOptions {
   contextId?: string | null;
+  /** Ask for the stored context with quoted history and signature kept (new content only by default). */
+  includeQuotedHistory?: boolean;
   subject?: string | null;
   journeyScope?: string;
   journeyScopeTarget?: string | null;
@@ -117,6 +119,7 @@ export function createAiCommandClient({
   async function call(command: string, instruction: string, options: CallOptions = {}) {
     const {
       contextId,
+      includeQuotedHistory = false,
       subject,
       journeyScope = "global",
       journeyScopeTarget = null,
@@ -156,6 +159,9 @@ export function createAiCommandClient({
     const trimmedContextId = typeof contextId === "string" ? contextId.trim() : null;
     if (trimmedContextId) {
       payload.contextId = trimmedContextId;
+      if (includeQuotedHistory) {
+        payload.includeQuotedHistory = true;
+      }
     }
 
     const catalogSnapshot = get(catalog);
@@ -298,6 +304,8 @@ export function createAiCommandClient({
 
     const response = await call(command, instruction, {
       contextId: related?.contextId || related?.id || null,
+      // Replies are drafted against the whole thread, not just the latest message
+      includeQuotedHistory: true,
       subject: detail.subject || related?.subject,
       journeyScope: "compose",
       journeyScopeTarget: windowId,
@@ -174,6 +174,8 @@ async function draftWithAi({
   const instruction = instructionOverride || resolveDefaultInstruction(fn, variant);
   const draftResponse = await callAiCommand(command, instruction, {
     contextId: selectedEmail.contextId,
+    // Replies are drafted against the whole thread, not just the latest message
+    includeQuotedHistory: true,
     subject: descriptor.payload.subject,
     journeyScope: "compose",
     journeyScopeTarget: descriptor.id,
@@ -14,6 +14,7 @@ export interface CatalogCommandInvocation {
   maxResults?: number;
   emailContext?: string | null;
   contextId?: string | null;
+  includeQuotedHistory?: boolean;
   jsonOutput?: boolean;
   aiCommand?: string | null;
   commandVariant?: string | null;
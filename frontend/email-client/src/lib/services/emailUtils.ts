@@ -56,14 +56,17 @@ export function mapEmailMessage(message: MessageLike = {}, index = 0) {
     labels: Array.isArray(message?.labels) ? message.labels : [],
     companyLogoUrl: message?.companyLogoUrl || null,
     contextForAi: message?.contextForAi || null,
+    // List summaries carry no body; the full message is fetched when it is opened
+    bodyLoaded: typeof message?.emailBodyTransformedText === "string",
   };
 }
 
 export function coalescePreview(message: MessageLike) {
-  const text =
+  const source =
     typeof message?.emailBodyTransformedText === "string"
-      ? message.emailBodyTransformedText.trim()
-      : "";
+      ? message.emailBodyTransformedText
+      : message?.preview;
+  const text = typeof source === "string" ? source.trim() : "";
   if (!text) return "";
   const normalized = text.replace(/\s+/g, " ");
   return normalized.length <= 180 ? normalized : `${normalized.slice(0, 177)}...`;
@@ -11,6 +11,7 @@ import {
   type MailboxStateSnapshot,
   type MessageMoveResult,
 } from "../schemas/mailboxSchemas";
+import { EmailMessageSchema, type EmailMessage } from "../schemas/emailSchemas";
 import type { ValidationResult } from "../validation/result";
 
 interface MoveMailboxMessageParams {
@@ -39,6 +40,19 @@ export async function fetchMailboxStateSnapshot(
   return getJsonValidated(url, MailboxStateSnapshotSchema, `mailbox-state:${mailbox}`);
 }
 
+/**
+ * Fetches one full message (bodies, sanitized HTML, AI context); mailbox state only carries list summaries.
+ * Returns discriminated union - callers MUST check success before using data.
+ */
+export async function fetchMailboxMessage(
+  mailboxId: string | null | undefined,
+  messageId: string,
+): Promise<ValidationResult<EmailMessage>> {
+  const mailbox = mailboxId || "primary";
+  const baseUrl = `/api/mailboxes/${encodeURIComponent(mailbox)}/messages/${encodeURIComponent(messageId)}`;
+  return getJsonValidated(withSessionParam(baseUrl), EmailMessageSchema, `mailbox-message:${messageId}`);
+}
+
 /**
  * Moves a message to a target folder with Zod validation.
  * Returns discriminated union - callers MUST check success before using data.
@@ -59,4 +73,4 @@ export async function moveMailboxMessage({
 }
 
 // Re-export types for callers
-export type { MailboxStateSnapshot, MessageMoveResult };
+export type { EmailMessage, MailboxStateSnapshot, MessageMoveResult };
@@ -1,5 +1,6 @@
 import { derived, writable, get, type Readable } from "svelte/store";
 import type { MailboxDataStore } from "./mailboxDataStore";
+import { recordClientDiagnostic } from "../services/clientDiagnosticsService";
 import type { FrontendEmailMessage } from "./mailboxFolderLabels";
 
 export interface MailboxChromeStore {
@@ -50,6 +51,13 @@ export function createMailboxChromeStore({
     selectedEmailId.set(id || null);
     if (id) {
       dataStore.markEmailRead(id);
+      dataStore.loadMessageBody(id).catch((error: unknown) => {
+        recordClientDiagnostic(
+          "warn",
+          "Message body load failed",
+          error instanceof Error ? error : null,
+        );
+      });
     }
   }
 
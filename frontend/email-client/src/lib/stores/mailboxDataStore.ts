@@ -1,7 +1,8 @@
 import { derived, get, writable, type Readable } from "svelte/store";
-import { computeMailboxCounts } from "../services/emailUtils";
+import { computeMailboxCounts, mapEmailMessage } from "../services/emailUtils";
 import { filterEmailsByMailbox } from "../services/mailboxFiltering";
 import {
+  fetchMailboxMessage,
   fetchMailboxStateSnapshot,
   moveMailboxMessage,
   type MailboxStateSnapshot,
@@ -51,6 +52,7 @@ export interface MailboxDataStore {
   selectMailbox: (target: string) => void;
   setSearch: (value: string) => void;
   loadMailboxState: (mailboxId: string) => Promise<MailboxStateSnapshot | null>;
+  loadMessageBody: (messageId: string | null) => Promise<Message | null>;
   moveMessageRemote: (params: {
     mailboxId: string;
     messageId: string;
@@ -81,6 +83,8 @@ export function createMailboxDataStore(
   );
   const pendingMoves = writable<Set<string>>(new Set());
   const moveErrors = writable<Record<string, string>>({});
+  const bodyRequests = new Map<string, Promise<Message | null>>();
+  let remoteMailboxId: string | null = null;
 
   const filteredEmails: Readable<Message[]> = derived(
     [emails, mailbox, search, messageFolders],
@@ -111,12 +115,67 @@ export function createMailboxDataStore(
     nextEmails: unknown[],
     effectiveFoldersOverride: Record<string, string> | null = null,
   ) {
-    const normalized = normalizeMessages(nextEmails);
+    const normalized = keepLoadedBodies(normalizeMessages(nextEmails), get(emails));
     emails.set(normalized);
     mailboxCounts.set(computeMailboxCounts(normalized));
     setEffectiveFolders(effectiveFoldersOverride, normalized);
   }
 
+  /**
+   * Server lists only carry summaries, so bodies already fetched for open messages are carried over.
+   */
+  function keepLoadedBodies(next: Message[], previous: Message[]) {
+    const loaded = new Map<string, Message>();
+    for (const entry of previous) {
+      if (entry.bodyLoaded) loaded.set(entry.id, entry);
+    }
+    if (loaded.size === 0) return next;
+    return next.map((entry) => {
+      const source = entry.bodyLoaded ? null : loaded.get(entry.id);
+      return source ? { ...entry, ...bodyFields(source) } : entry;
+    });
+  }
+
+  function bodyFields(source: Message) {
+    return {
+      contentText: source.contentText,
+      contentMarkdown: source.contentMarkdown,
+      contentHtml: source.contentHtml,
+      contextForAi: source.contextForAi,
+      bodyLoaded: true,
+    };
+  }
+
+  /**
+   * Fetches the full message behind a list summary and merges its bodies into the store.
+   * Resolves right away for messages that already have one (local drafts, earlier loads);
+   * concurrent calls for one message share a request.
+   */
+  function loadMessageBody(messageId: string | null): Promise<Message | null> {
+    if (!messageId) return Promise.resolve(null);
+    const existing = get(emails).find((entry) => entry.id === messageId) || null;
+    if (!existing || existing.bodyLoaded) return Promise.resolve(existing);
+    const inFlight = bodyRequests.get(messageId);
+    if (inFlight) return inFlight;
+    const request = fetchMailboxMessage(remoteMailboxId, messageId)
+      .then((result) => (result.success ? mergeMessageBody(mapEmailMessage(result.data)) : null))
+      .finally(() => bodyRequests.delete(messageId));
+    bodyRequests.set(messageId, request);
+    return request;
+  }
+
+  function mergeMessageBody(full: Message): Message | null {
+    let merged: Message | null = null;
+    emails.update((list) =>
+      list.map((entry) => {
+        if (entry.id !== full.id) return entry;
+        merged = { ...entry, ...bodyFields(full) };
+        return merged;
+      }),
+    );
+    return merged;
+  }
+
   function markEmailRead(id: string | null) {
     if (!id) return;
     emails.update((list) =>
@@ -134,6 +193,7 @@ export function createMailboxDataStore(
 
   async function loadMailboxState(mailboxId: string) {
     if (!mailboxId) return null;
+    remoteMailboxId = mailboxId;
     const validationResult = await fetchMailboxStateSnapshot(mailboxId);
     if (!validationResult.success) {
       // Validation failure already logged by fetchMailboxStateSnapshot
@@ -255,19 +315,35 @@ export function createMailboxDataStore(
     updatePlacementForMessage(messageId, targetMailbox);
   }
 
-  function reconcileMailboxMoveResult(payload: MessageMoveResult | MailboxStateSnapshot | null) {
+  /**
+   * Applies the server's move delta on top of the optimistic update: the moved message's labels and
+   * folder, plus authoritative counts. Older full-snapshot payloads still rehydrate the list.
+   */
+  function reconcileMailboxMoveResult(payload: MessageMoveResult | null) {
     if (!payload) return;
     if (payload.messages) {
       hydrateEmails(payload.messages, payload.effectiveFolders || null);
     }
-    if (payload.folderCounts) {
-      mailboxCounts.set(payload.folderCounts);
+    const updated = payload.updatedMessage;
+    if (updated && !payload.messages) {
+      emails.update((list) =>
+        list.map((entry) =>
+          entry.id === payload.messageId ? { ...entry, labels: [...updated.labels] } : entry,
+        ),
+      );
+    }
+    if (!payload.messages && payload.effectiveFolders) {
+      setEffectiveFolders(payload.effectiveFolders);
+    } else if (payload.currentFolderId) {
+      updateFolderMapping(payload.messageId, payload.currentFolderId);
     }
     if (payload.placements) {
       messagePlacements.set(payload.placements);
+    } else if (payload.currentFolderId) {
+      updatePlacementForMessage(payload.messageId, payload.currentFolderId);
     }
-    if (!payload.messages && payload.effectiveFolders) {
-      setEffectiveFolders(payload.effectiveFolders);
+    if (payload.folderCounts) {
+      mailboxCounts.set(payload.folderCounts);
     }
   }
 
@@ -370,6 +446,7 @@ export function createMailboxDataStore(
     selectMailbox,
     setSearch,
     loadMailboxState,
+    loadMessageBody,
     moveMessageRemote,
     saveDraftSession,
     markDraftAsSent,
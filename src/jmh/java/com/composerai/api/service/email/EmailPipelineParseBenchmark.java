@@ -0,0 +1,74 @@
+package com.composerai.api.service.email;
+
+import com.composerai.api.service.HtmlToText;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the typed single-pass parse ({@link EmailPipeline#parse}) against the previous
+ * JSON round-trip (serialize the document, then read it back into maps) over every fixture in
+ * {@code data/eml}. One operation parses the whole corpus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailPipelineParseBenchmark {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<Path> corpus;
+
+    @Setup
+    public void loadCorpus() {
+        corpus = EmlCorpus.emlFiles();
+    }
+
+    @Benchmark
+    public void typedDocument(Blackhole blackhole) throws Exception {
+        for (Path path : corpus) {
+            blackhole.consume(EmailPipeline.parse(options(path)));
+        }
+    }
+
+    @Benchmark
+    public void jsonRoundTrip(Blackhole blackhole) throws Exception {
+        for (Path path : corpus) {
+            HtmlToText.Options options = options(path);
+            options.jsonOutput = true;
+            String json = EmailPipeline.process(options);
+            Map<String, Object> document = objectMapper.readValue(json, MAP_TYPE);
+            blackhole.consume(objectMapper.convertValue(document.get("content"), MAP_TYPE));
+            blackhole.consume(objectMapper.convertValue(document.get("metadata"), MAP_TYPE));
+        }
+    }
+
+    private static HtmlToText.Options options(Path path) {
+        HtmlToText.Options options = new HtmlToText.Options();
+        options.inputFile = path.toString();
+        options.inputType = "eml";
+        options.format = HtmlToText.OutputFormat.PLAIN;
+        options.urlsPolicy = HtmlToText.UrlPolicy.CLEAN_ONLY;
+        options.includeMetadata = true;
+        options.suppressUtility = true;
+        return options;
+    }
+}
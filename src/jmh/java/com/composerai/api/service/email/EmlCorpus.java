@@ -0,0 +1,34 @@
+package com.composerai.api.service.email;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Locates the sample {@code .eml} fixtures under {@code data/eml} for benchmarks.
+ * Benchmarks run with the project directory as working directory (see the {@code jmh} Gradle task).
+ */
+final class EmlCorpus {
+
+    static final Path DEFAULT_DIRECTORY = Path.of("data", "eml");
+
+    private EmlCorpus() {}
+
+    static List<Path> emlFiles() {
+        try (var stream = Files.list(DEFAULT_DIRECTORY)) {
+            List<Path> files = stream.filter(Files::isRegularFile)
+                    .filter(path -> path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".eml"))
+                    .sorted()
+                    .toList();
+            if (files.isEmpty()) {
+                throw new IllegalStateException("No .eml fixtures found in " + DEFAULT_DIRECTORY.toAbsolutePath());
+            }
+            return files;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list " + DEFAULT_DIRECTORY.toAbsolutePath(), e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.composerai.api.service.email;
+
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * {@link MailDateParser} vs. the former strict-then-lenient chain ({@link StrictThenLenientDateBaseline}).
+ * Inputs are every {@code Date} header and {@code Received} date in {@code data/eml}, which mostly carry a
+ * trailing {@code (PDT)}-style comment and so took the exception path before. One operation parses them all.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MailDateParserBenchmark {
+
+    private List<String> dateHeaders;
+
+    @Setup
+    public void collectCorpusDates() throws Exception {
+        dateHeaders = new ArrayList<>();
+        Session session = Session.getInstance(new Properties());
+        for (Path path : EmlCorpus.emlFiles()) {
+            try (InputStream in = Files.newInputStream(path)) {
+                MimeMessage message = new MimeMessage(session, in);
+                String date = message.getHeader("Date", null);
+                if (date != null) {
+                    dateHeaders.add(date);
+                }
+                String[] received = message.getHeader("Received");
+                for (String header : received == null ? new String[0] : received) {
+                    int semicolon = header.lastIndexOf(';');
+                    if (semicolon >= 0) {
+                        dateHeaders.add(header.substring(semicolon + 1));
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void handWritten(Blackhole blackhole) {
+        for (String header : dateHeaders) {
+            blackhole.consume(MailDateParser.parse(header));
+        }
+    }
+
+    @Benchmark
+    public void strictThenLenientBaseline(Blackhole blackhole) {
+        for (String header : dateHeaders) {
+            blackhole.consume(StrictThenLenientDateBaseline.parseDateHeader(header));
+        }
+    }
+}
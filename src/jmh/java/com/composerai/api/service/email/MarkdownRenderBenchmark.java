@@ -0,0 +1,89 @@
+package com.composerai.api.service.email;
+
+import com.composerai.api.service.HtmlToText;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Multi-threaded throughput of {@link HtmlConverter#markdownToSafeHtml}. The pooled renderer should
+ * scale roughly linearly from 1 to N threads. {@code synchronizedAtMaxThreads} reproduces the former
+ * single-monitor design for comparison: it funnels every render through one shared lock.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MarkdownRenderBenchmark {
+
+    private final Object sharedMonitor = new Object();
+    private List<String> markdownSamples;
+
+    @Setup
+    public void renderCorpusToMarkdown() throws Exception {
+        markdownSamples = new ArrayList<>();
+        for (Path path : EmlCorpus.emlFiles()) {
+            HtmlToText.Options options = new HtmlToText.Options();
+            options.inputFile = path.toString();
+            options.inputType = "eml";
+            options.urlsPolicy = HtmlToText.UrlPolicy.CLEAN_ONLY;
+            options.suppressUtility = true;
+            String markdown = EmailPipeline.parse(options).content().markdown();
+            if (!markdown.isBlank()) {
+                markdownSamples.add(markdown);
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int pooledOneThread() {
+        return renderAll();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int pooledFourThreads() {
+        return renderAll();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public int pooledMaxThreads() {
+        return renderAll();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public int synchronizedAtMaxThreads() {
+        int length = 0;
+        for (String markdown : markdownSamples) {
+            synchronized (sharedMonitor) {
+                length += HtmlConverter.markdownToSafeHtml(markdown).length();
+            }
+        }
+        return length;
+    }
+
+    private int renderAll() {
+        int length = 0;
+        for (String markdown : markdownSamples) {
+            length += HtmlConverter.markdownToSafeHtml(markdown).length();
+        }
+        return length;
+    }
+}
@@ -0,0 +1,235 @@
+package com.composerai.api.service.email;
+
+import com.composerai.api.util.StringUtils;
+import java.util.ArrayList;
+import java.util.List;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+/**
+ * Verbatim copy of the multi-pass {@code sanitize} that {@link EmailHtmlSanitizer}'s single traversal
+ * replaced (select + four {@code getAllElements} walks, regexes compiled per call); kept only as the
+ * benchmark baseline.
+ */
+final class MultiPassSanitizerBaseline {
+
+    private MultiPassSanitizerBaseline() {}
+
+    /**
+     * Sanitize an already-parsed email body; works on a private copy so the shared parse stays intact.
+     */
+    static String sanitize(EmailHtmlDocument document) {
+        if (document == null || document.isBlank()) {
+            return null;
+        }
+
+        String html = document.sourceHtml();
+        try {
+            Document doc = document.workingCopy();
+
+            // Remove dangerous elements that could execute scripts or embed external content
+            doc.select("script, noscript, iframe, object, embed, applet, form").remove();
+
+            // Remove all JavaScript event handlers and javascript: URLs
+            removeJavaScriptHandlers(doc);
+
+            // Neutralize dangerous CSS that could break page layout
+            neutralizeDangerousCss(doc);
+
+            // Clean up <style> blocks to strip harmful constructs without removing formatting entirely
+            sanitizeStyleTags(doc);
+
+            StringBuilder builder = new StringBuilder();
+            appendHeadStyles(doc, builder);
+            builder.append(buildBodyWrapper(doc.body()));
+            String cleaned = builder.toString();
+            return cleaned.trim().isEmpty() ? null : cleaned.trim();
+
+        } catch (Exception e) {
+            throw new IllegalStateException(
+                    String.format("Failed to sanitize HTML content (%d chars)", html.length()), e);
+        }
+    }
+
+    /**
+     * Remove all JavaScript event handlers (onclick, onerror, etc.) and dangerous URLs.
+     * Blocks javascript:, vbscript:, and data: (except for images) schemes.
+     * Also neutralizes SVG xlink:href attributes.
+     */
+    private static void removeJavaScriptHandlers(Document doc) {
+        for (Element el : doc.getAllElements()) {
+            // Remove all on* attributes (iterate over copy to avoid concurrent modification)
+            List<String> attrsToRemove = new ArrayList<>();
+            for (var attr : el.attributes()) {
+                String key = attr.getKey().toLowerCase();
+                if (key.startsWith("on")) {
+                    attrsToRemove.add(attr.getKey());
+                }
+                // Check for xlink:href or href on SVG elements which can be XSS vectors
+                if (key.endsWith(":href") || key.equals("href")) {
+                    String val = attr.getValue().toLowerCase().trim();
+                    // Allow data:image in href/xlink:href as requested, but still block scripts
+                    if (isDangerousUrl(val, true)) {
+                        attrsToRemove.add(attr.getKey());
+                    }
+                }
+            }
+            for (String attrKey : attrsToRemove) {
+                el.removeAttr(attrKey);
+            }
+
+            // Explicitly check src and href for dangerous protocols
+            if (el.hasAttr("src")) {
+                String src = el.attr("src").toLowerCase().trim();
+                // Allow data:image for src, block others
+                if (isDangerousUrl(src, true)) {
+                    el.removeAttr("src");
+                }
+            }
+            if (el.hasAttr("href")) {
+                // Same policy for href: allow images if they are data URIs, block scripts
+                if (isDangerousUrl(el.attr("href").toLowerCase().trim(), true)) {
+                    el.removeAttr("href");
+                }
+            }
+        }
+    }
+
+    private static boolean isDangerousUrl(String url, boolean allowDataImages) {
+        if (url.startsWith("javascript:") || url.startsWith("vbscript:")) {
+            return true;
+        }
+        if (url.startsWith("data:")) {
+            return !(allowDataImages && url.startsWith("data:image/"));
+        }
+        return false;
+    }
+
+    /**
+     * Neutralize CSS that could break the page layout or overlay content.
+     * Specifically targets position:fixed which could escape the iframe.
+     * Preserves background colors and absolute positioning to keep layout fidelity.
+     */
+    private static void neutralizeDangerousCss(Document doc) {
+        for (Element el : doc.getAllElements()) {
+            if (!el.hasAttr("style")) {
+                continue;
+            }
+
+            String style = el.attr("style");
+
+            // Replace position:fixed with position:relative to avoid viewport overlays.
+            String cleanedStyle = style.replaceAll("(?i)position\\s*:\\s*fixed", "position: relative");
+
+            // Sanitize background-image URLs to prevent javascript: injection
+            // but preserve valid http/https/data URLs for background images
+            cleanedStyle = cleanedStyle.replaceAll(
+                    "(?i)background-image\\s*:\\s*url\\s*\\(\\s*['\"]?\\s*javascript:[^)]*\\)", "");
+
+            // Ensure images are constrained
+            if (el.tagName().equalsIgnoreCase("img")) {
+                if (!cleanedStyle.toLowerCase().contains("max-width")) {
+                    cleanedStyle += "; max-width: 100%;";
+                }
+            }
+
+            if (!cleanedStyle.equals(style)) {
+                el.attr("style", cleanedStyle);
+            }
+        }
+    }
+
+    private static void sanitizeStyleTags(Document doc) {
+        for (Element styleTag : doc.select("style")) {
+            String css = styleTag.data();
+            if (css == null || css.isBlank()) {
+                continue;
+            }
+
+            // Remove dangerous CSS while preserving backgrounds and colors
+            String sanitized = css.replaceAll("(?i)expression\\s*\\(", "")
+                    .replaceAll("(?i)url\\s*\\(\\s*['\"]?\\s*javascript:", "url(")
+                    .replaceAll("(?i)@import\\s+['\"]?\\s*javascript:", "")
+                    .replaceAll("(?i)position\\s*:\\s*fixed", "position: relative");
+
+            styleTag.text(sanitized);
+        }
+    }
+
+    private static void appendHeadStyles(Document doc, StringBuilder builder) {
+        if (builder == null || doc.head() == null) {
+            return;
+        }
+        for (Element styleTag : doc.head().select("style")) {
+            String outer = styleTag.outerHtml();
+            if (outer != null && !outer.isBlank()) {
+                builder.append(outer);
+            }
+        }
+    }
+
+    private static String buildBodyWrapper(Element body) {
+        if (body == null) {
+            return "";
+        }
+
+        String originalClass = body.hasAttr("class") ? body.attr("class").trim() : "";
+        String combinedClass = originalClass.isBlank() ? "email-original-body" : "email-original-body " + originalClass;
+
+        StringBuilder builder = new StringBuilder();
+        builder.append("<div class=\"")
+                .append(escapeAttributeValue(combinedClass))
+                .append("\"");
+
+        String bodyStyle = body.hasAttr("style") ? body.attr("style").trim() : "";
+        if (!bodyStyle.isBlank()) {
+            appendAttribute(builder, "style", bodyStyle);
+        }
+
+        String bodyBgColor = body.hasAttr("bgcolor") ? body.attr("bgcolor").trim() : "";
+        if (!bodyBgColor.isBlank()) {
+            appendAttribute(builder, "bgcolor", bodyBgColor);
+        }
+
+        String bodyBackground =
+                body.hasAttr("background") ? body.attr("background").trim() : "";
+        if (!bodyBackground.isBlank()) {
+            String safeBackground = StringUtils.sanitizeUrl(bodyBackground);
+            if (safeBackground != null) {
+                appendAttribute(builder, "data-email-background", safeBackground);
+                mergeBackgroundImage(builder, safeBackground);
+            }
+        }
+
+        builder.append('>').append(body.html()).append("</div>");
+        return builder.toString();
+    }
+
+    private static void mergeBackgroundImage(StringBuilder builder, String backgroundUrl) {
+        final String addition = "background-image: url('" + escapeAttributeValue(backgroundUrl) + "'); ";
+        final String stylePrefix = " style=\"";
+        int styleIndex = builder.indexOf(stylePrefix);
+        if (styleIndex >= 0) {
+            int insertionPoint = styleIndex + stylePrefix.length();
+            builder.insert(insertionPoint, addition);
+        } else {
+            appendAttribute(builder, "style", addition.trim());
+        }
+    }
+
+    private static void appendAttribute(StringBuilder builder, String name, String value) {
+        builder.append(' ')
+                .append(name)
+                .append("=\"")
+                .append(escapeAttributeValue(value))
+                .append("\"");
+    }
+
+    private static String escapeAttributeValue(String value) {
+        return value.replace("&", "&amp;")
+                .replace("\"", "&quot;")
+                .replace("'", "&#39;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;");
+    }
+}
@@ -0,0 +1,115 @@
+package com.composerai.api.service.email;
+
+import com.composerai.api.service.HtmlToText;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares {@link ParsedEmailDocumentCodec} against Jackson JSON for every document parsed from {@code data/eml}:
+ * encoding, full decoding, and reading only the metadata. One operation covers the whole corpus; total encoded
+ * sizes are printed once during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParsedEmailDocumentCodecBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<ParsedEmailDocument> documents = new ArrayList<>();
+    private final List<byte[]> binary = new ArrayList<>();
+    private final List<byte[]> json = new ArrayList<>();
+
+    @Setup
+    public void encodeCorpus() throws Exception {
+        long binaryBytes = 0;
+        long jsonBytes = 0;
+        for (Path path : EmlCorpus.emlFiles()) {
+            ParsedEmailDocument parsed = EmailPipeline.parse(options(path));
+            ParsedEmailDocument document = new ParsedEmailDocument(
+                    parsed.id(),
+                    parsed.metadata(),
+                    parsed.content(),
+                    parsed.cleanupPolicies(),
+                    parsed.createdAt(),
+                    null);
+            documents.add(document);
+            binary.add(ParsedEmailDocumentCodec.encode(document));
+            json.add(objectMapper.writeValueAsBytes(document));
+            binaryBytes += binary.get(binary.size() - 1).length;
+            jsonBytes += json.get(json.size() - 1).length;
+        }
+        System.out.printf(
+                "%n%d documents: binary %,d bytes, JSON %,d bytes (%.1f%%)%n",
+                documents.size(), binaryBytes, jsonBytes, 100.0 * binaryBytes / jsonBytes);
+    }
+
+    @Benchmark
+    public void encodeBinary(Blackhole blackhole) {
+        for (ParsedEmailDocument document : documents) {
+            blackhole.consume(ParsedEmailDocumentCodec.encode(document));
+        }
+    }
+
+    @Benchmark
+    public void encodeJson(Blackhole blackhole) throws Exception {
+        for (ParsedEmailDocument document : documents) {
+            blackhole.consume(objectMapper.writeValueAsBytes(document));
+        }
+    }
+
+    @Benchmark
+    public void decodeBinary(Blackhole blackhole) throws Exception {
+        for (byte[] encoded : binary) {
+            blackhole.consume(ParsedEmailDocumentCodec.decode(encoded));
+        }
+    }
+
+    @Benchmark
+    public void decodeJson(Blackhole blackhole) throws Exception {
+        for (byte[] encoded : json) {
+            blackhole.consume(objectMapper.readValue(encoded, ParsedEmailDocument.class));
+        }
+    }
+
+    @Benchmark
+    public void decodeBinaryMetadata(Blackhole blackhole) throws Exception {
+        for (byte[] encoded : binary) {
+            blackhole.consume(ParsedEmailDocumentCodec.decodeMetadata(encoded));
+        }
+    }
+
+    @Benchmark
+    public void decodeJsonMetadata(Blackhole blackhole) throws Exception {
+        for (byte[] encoded : json) {
+            blackhole.consume(objectMapper.readTree(encoded).get("metadata"));
+        }
+    }
+
+    private static HtmlToText.Options options(Path path) {
+        HtmlToText.Options options = new HtmlToText.Options();
+        options.inputFile = path.toString();
+        options.inputType = "eml";
+        options.format = HtmlToText.OutputFormat.PLAIN;
+        options.urlsPolicy = HtmlToText.UrlPolicy.CLEAN_ONLY;
+        options.includeMetadata = true;
+        options.suppressUtility = true;
+        return options;
+    }
+}
@@ -0,0 +1,64 @@
+package com.composerai.api.service.email;
+
+import com.composerai.api.service.HtmlToText;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Single-pass {@link PlainTextCleanupScanner} vs. the former regex chain ({@link RegexCleanupBaseline}).
+ * Inputs are the flexmark Markdown produced for every {@code data/eml} fixture, which is what
+ * {@code cleanupOutput} and {@code markdownToPlain} see in production. One operation runs both calls
+ * over the whole corpus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlainTextCleanupBenchmark {
+
+    private List<String> markdownSamples;
+
+    @Setup
+    public void renderCorpusToMarkdown() throws Exception {
+        markdownSamples = new ArrayList<>();
+        for (Path path : EmlCorpus.emlFiles()) {
+            HtmlToText.Options options = new HtmlToText.Options();
+            options.inputFile = path.toString();
+            options.inputType = "eml";
+            options.urlsPolicy = HtmlToText.UrlPolicy.KEEP;
+            options.suppressUtility = false;
+            markdownSamples.add(EmailPipeline.parse(options).content().markdown());
+        }
+    }
+
+    @Benchmark
+    public void scanner(Blackhole blackhole) {
+        for (String markdown : markdownSamples) {
+            blackhole.consume(PlainTextCleanupScanner.cleanupOutput(markdown, true));
+            blackhole.consume(PlainTextCleanupScanner.markdownToPlain(markdown));
+        }
+    }
+
+    @Benchmark
+    public void regexBaseline(Blackhole blackhole) {
+        for (String markdown : markdownSamples) {
+            blackhole.consume(RegexCleanupBaseline.cleanupOutput(markdown, true));
+            blackhole.consume(RegexCleanupBaseline.markdownToPlain(markdown));
+        }
+    }
+}
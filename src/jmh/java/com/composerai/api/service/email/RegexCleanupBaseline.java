@@ -0,0 +1,67 @@
+package com.composerai.api.service.email;
+
+/**
+ * Verbatim copy of the regex-based {@code cleanupOutput}/{@code markdownToPlain} that
+ * {@link PlainTextCleanupScanner} replaced; kept only as the benchmark baseline.
+ */
+final class RegexCleanupBaseline {
+
+    private RegexCleanupBaseline() {}
+
+    /**
+     * Convert Markdown to plain text while preserving line/paragraph breaks.
+     */
+    static String markdownToPlain(String md) {
+        if (md == null || md.isBlank()) return md;
+        String out = md;
+        out = out.replaceAll("!\\[([^\\]]*)\\]\\([^\\)]*\\)", "$1");
+        out = out.replaceAll("\\[([^\\]]+)\\]\\(([^\\)]*)\\)", "$1");
+        out = out.replaceAll("(?m)^[#]{1,6}\\s*", "");
+        out = out.replaceAll("[*_`~]+", "");
+        out = out.replaceAll("  \\n", "\n");
+        out = out.replaceAll("\n{3,}", "\n\n");
+        return out.trim();
+    }
+
+    static String cleanupOutput(String content, boolean suppressUtility) {
+        if (content == null || content.isBlank()) return content;
+        content = normalizeInvisible(content)
+                .replaceAll("(?is)<script[^>]*>.*?</script>", " ")
+                .replaceAll("(?i)<br\\s*/?>", "\n");
+        String[] lines = content.split("\r?\n", -1);
+        StringBuilder sb = new StringBuilder(content.length());
+        int blankRun = 0;
+        for (String line : lines) {
+            String trimmed = line.trim();
+            String lower = trimmed.toLowerCase();
+            if (trimmed.matches("^[\\-\\|_\\s]{50,}$")) continue;
+            if (suppressUtility) {
+                if (trimmed.equals("You can or .")) continue;
+                if (lower.contains("you are receiving this email because")
+                        || lower.contains("email marketing powered by mailchimp")
+                        || lower.contains("want to change how you receive these emails")
+                        || lower.contains("our mailing address is:")
+                        || lower.contains("unsubscribe")
+                        || lower.contains("update your preferences")) continue;
+            }
+            line = line.replaceAll(" {10,}", " ");
+            if (trimmed.isEmpty()) {
+                blankRun++;
+                if (blankRun > 2) continue;
+            } else blankRun = 0;
+            sb.append(line).append('\n');
+        }
+        String out = sb.toString().trim();
+        out = out.replaceAll("\n\\s*,\\s*\n", ", ");
+        // Generic: insert paragraph breaks before emphasized By-sections common in newsletters
+        out = out.replaceAll("(?<!\n)\\*By\\s", "\n\n*By ");
+        return out;
+    }
+
+    /**
+     * Remove zero-width and soft-hyphen characters that pollute outputs.
+     */
+    private static String normalizeInvisible(String s) {
+        return s.replaceAll("[\\u200B\\u200C\\u200D\\uFEFF\\u2060\\u00AD]", "");
+    }
+}
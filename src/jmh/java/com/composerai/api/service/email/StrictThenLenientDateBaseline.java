@@ -0,0 +1,36 @@
+package com.composerai.api.service.email;
+
+import jakarta.mail.internet.MailDateFormat;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Verbatim copy of the {@code parseDateHeader} that {@link MailDateParser} replaced in {@link EmailPipeline}
+ * (strict {@code RFC_1123_DATE_TIME}, then {@link MailDateFormat} on the exception path); kept only as the
+ * benchmark baseline.
+ */
+final class StrictThenLenientDateBaseline {
+
+    private StrictThenLenientDateBaseline() {}
+
+    static OffsetDateTime parseDateHeader(String headerValue) {
+        if (headerValue == null || headerValue.isBlank()) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(headerValue.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+        } catch (DateTimeParseException ignored) {
+            try {
+                java.util.Date parsed = new MailDateFormat().parse(headerValue);
+                if (parsed == null) {
+                    return null;
+                }
+                return OffsetDateTime.ofInstant(parsed.toInstant(), ZoneOffset.UTC);
+            } catch (Exception ex) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.composerai.api.adapters.in.web;
+
+import com.composerai.api.adapters.in.web.dto.DirectoryIngestionRequest;
+import com.composerai.api.application.dto.ingest.EmailIngestionSource;
+import com.composerai.api.application.usecase.ingest.BulkEmailIngestionUseCase;
+import com.composerai.api.application.usecase.ingest.IngestionCallbacks;
+import com.composerai.api.config.AppProperties;
+import com.composerai.api.dto.SseEventType;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Bulk ingestion endpoints. Each accepts a batch (uploaded files, an uploaded zip, or a server-side directory),
+ * starts it in the background, and streams {@code progress} events per file followed by a {@code done} summary.
+ * Uploads are staged to a temporary directory before the request returns because multipart parts do not
+ * outlive the request.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/ingest")
+public class EmailIngestionController {
+
+    private final BulkEmailIngestionUseCase bulkEmailIngestionUseCase;
+    private final AppProperties appProperties;
+
+    public EmailIngestionController(
+            BulkEmailIngestionUseCase bulkEmailIngestionUseCase, AppProperties appProperties) {
+        this.bulkEmailIngestionUseCase = bulkEmailIngestionUseCase;
+        this.appProperties = appProperties;
+    }
+
+    @PostMapping(
+            value = "/files",
+            consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter ingestFiles(@RequestParam("files") List<MultipartFile> files, HttpServletResponse response)
+            throws IOException {
+        if (files == null || files.isEmpty()) {
+            throw new IllegalArgumentException("No files provided");
+        }
+        Path staging = Files.createTempDirectory("ingest-upload-");
+        try {
+            for (int i = 0; i < files.size(); i++) {
+                // One subdirectory per upload keeps duplicate names apart while preserving the original name
+                Path slot = Files.createDirectory(staging.resolve(Integer.toString(i)));
+                files.get(i).transferTo(slot.resolve(uploadName(files.get(i), i)));
+            }
+            return start(new EmailIngestionSource.Directory(staging, true), response);
+        } catch (IOException | RuntimeException e) {
+            FileSystemUtils.deleteRecursively(staging);
+            throw e;
+        }
+    }
+
+    @PostMapping(
+            value = "/archive",
+            consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter ingestArchive(@RequestParam("archive") MultipartFile archive, HttpServletResponse response)
+            throws IOException {
+        if (archive == null || archive.isEmpty()) {
+            throw new IllegalArgumentException("No archive provided");
+        }
+        Path staged = Files.createTempFile("ingest-archive-", ".zip");
+        try {
+            archive.transferTo(staged);
+            return start(new EmailIngestionSource.ZipArchive(staged, true), response);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(staged);
+            throw e;
+        }
+    }
+
+    @PostMapping(
+            value = "/directory",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter ingestDirectory(
+            @Valid @RequestBody DirectoryIngestionRequest request, HttpServletResponse response) {
+        return start(new EmailIngestionSource.Directory(Path.of(request.path()), false), response);
+    }
+
+    private SseEmitter start(EmailIngestionSource source, HttpServletResponse response) {
+        response.setHeader("Cache-Control", "no-cache");
+        response.setHeader("X-Accel-Buffering", "no");
+        SseEmitter emitter =
+                new SseEmitter(appProperties.getEmailIngestion().getStreamTimeout().toMillis());
+        bulkEmailIngestionUseCase.start(
+                source,
+                new IngestionCallbacks(
+                        result -> send(emitter, SseEventType.PROGRESS, result),
+                        summary -> {
+                            send(emitter, SseEventType.DONE, summary);
+                            emitter.complete();
+                        },
+                        error -> send(emitter, SseEventType.ERROR, Map.of("message", describe(error)))));
+        return emitter;
+    }
+
+    /**
+     * Workers report concurrently; serialize writes per emitter. A client that disconnects only stops the
+     * stream, not the import.
+     */
+    private static void send(SseEmitter emitter, SseEventType type, Object payload) {
+        synchronized (emitter) {
+            try {
+                emitter.send(SseEmitter.event().name(type.getEventName()).data(payload));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropped ingestion {} event; client likely disconnected", type.getEventName(), e);
+            }
+        }
+    }
+
+    private static String uploadName(MultipartFile file, int index) {
+        String original = file.getOriginalFilename() == null ? "" : file.getOriginalFilename();
+        // Browsers may send client-side paths; keep only the final segment
+        String name = original.substring(Math.max(original.lastIndexOf('/'), original.lastIndexOf('\\')) + 1);
+        return name.isBlank() || name.startsWith(".") ? "upload-" + index + ".eml" : name;
+    }
+
+    private static String describe(Throwable error) {
+        Throwable cause = error instanceof UncheckedIOException unchecked ? unchecked.getCause() : error;
+        return cause.getMessage() != null ? cause.getMessage() : "Ingestion failed";
+    }
+}
@@ -1,21 +1,37 @@
 package com.composerai.api.adapters.in.web;
 
 import com.composerai.api.adapters.in.web.dto.MessageMoveRequest;
+import com.composerai.api.application.dto.mailbox.MailboxStateQuery;
 import com.composerai.api.application.dto.mailbox.MailboxStateSnapshotResult;
 import com.composerai.api.application.dto.mailbox.MessageMoveCommand;
 import com.composerai.api.application.dto.mailbox.MessageMoveResult;
 import com.composerai.api.application.usecase.mailbox.ExecuteMessageMoveUseCase;
+import com.composerai.api.application.usecase.mailbox.LoadMailboxMessageUseCase;
 import com.composerai.api.application.usecase.mailbox.LoadMailboxStateSnapshotUseCase;
 import com.composerai.api.shared.session.SessionTokenResolver;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -29,37 +45,101 @@ import org.springframework.web.bind.annotation.RestController;
 public class MailboxFolderStateController {
 
     private static final Logger log = LoggerFactory.getLogger(MailboxFolderStateController.class);
+    // Cacheable by the browser only with revalidation, so a 304 is always checked against the current version
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
 
     private final LoadMailboxStateSnapshotUseCase loadMailboxStateSnapshotUseCase;
     private final ExecuteMessageMoveUseCase executeMessageMoveUseCase;
+    private final LoadMailboxMessageUseCase loadMailboxMessageUseCase;
     private final SessionTokenResolver sessionTokenResolver;
+    private final ObjectMapper objectMapper;
 
     public MailboxFolderStateController(
             LoadMailboxStateSnapshotUseCase loadMailboxStateSnapshotUseCase,
             ExecuteMessageMoveUseCase executeMessageMoveUseCase,
-            SessionTokenResolver sessionTokenResolver) {
+            LoadMailboxMessageUseCase loadMailboxMessageUseCase,
+            SessionTokenResolver sessionTokenResolver,
+            ObjectMapper objectMapper) {
         this.loadMailboxStateSnapshotUseCase = loadMailboxStateSnapshotUseCase;
         this.executeMessageMoveUseCase = executeMessageMoveUseCase;
+        this.loadMailboxMessageUseCase = loadMailboxMessageUseCase;
         this.sessionTokenResolver = sessionTokenResolver;
+        this.objectMapper = objectMapper;
     }
 
     /**
      * Returns the resolved mailbox snapshot for the caller's session.
      * Uses the X-Mailbox-Session header when available, falling back to the `session` query parameter.
+     * Without {@code folder}, {@code cursor} or {@code limit} the whole mailbox is returned; with any of them, one
+     * page ({@code limit}, default 50) of the folder plus a {@code nextCursor} for the next one. {@code since}
+     * (ISO-8601 instant) keeps only messages received after it and {@code countOnly=true} returns just counts
+     * and placements.
+     * Responses carry an ETag built from the session's mailbox version; a matching {@code If-None-Match} gets a
+     * 304 without the state being built.
      */
     @GetMapping("/{mailboxId}/state")
     public ResponseEntity<MailboxStateSnapshotResult> loadMailboxState(
             @PathVariable String mailboxId,
             @RequestParam(name = "session", required = false) String sessionToken,
+            @RequestParam(name = "folder", required = false) String folderId,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "since", required = false) Instant since,
+            @RequestParam(name = "countOnly", defaultValue = "false") boolean countOnly,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             HttpServletRequest request) {
         String sessionId = sessionTokenResolver.resolveSessionId(request, sessionToken);
         log.debug("GET /api/mailboxes/{}/state (session={})", mailboxId, sessionId);
-        MailboxStateSnapshotResult result = loadMailboxStateSnapshotUseCase.load(mailboxId, sessionId);
-        return ResponseEntity.ok(result);
+        MailboxStateQuery query = new MailboxStateQuery(folderId, cursor, limit, since, countOnly);
+        if (ifNoneMatch != null) {
+            String version = loadMailboxStateSnapshotUseCase.currentVersion(mailboxId, sessionId);
+            String etag = stateEtag(version, mailboxId, sessionId, query);
+            if (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*")) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .cacheControl(REVALIDATE)
+                        .build();
+            }
+        }
+        MailboxStateSnapshotResult result = loadMailboxStateSnapshotUseCase.load(mailboxId, sessionId, query);
+        return ResponseEntity.ok()
+                .eTag(stateEtag(result.version(), mailboxId, sessionId, query))
+                .cacheControl(REVALIDATE)
+                .body(result);
     }
 
     /**
-     * Moves a message into the requested folder and returns the updated counts + placements.
+     * Returns one full message (bodies, sanitized HTML, AI context) for the caller's session; the state endpoint
+     * only carries list summaries. {@code fields} (comma-separated JSON property names) trims the response to a
+     * sparse fieldset; {@code id} is always included and unknown names are ignored.
+     */
+    @GetMapping("/{mailboxId}/messages/{messageId}")
+    public ResponseEntity<ObjectNode> loadMessage(
+            @PathVariable String mailboxId,
+            @PathVariable String messageId,
+            @RequestParam(name = "fields", required = false) List<String> fields,
+            @RequestParam(name = "session", required = false) String sessionToken,
+            HttpServletRequest request) {
+        String sessionId = sessionTokenResolver.resolveSessionId(request, sessionToken);
+        log.debug("GET /api/mailboxes/{}/messages/{} (session={})", mailboxId, messageId, sessionId);
+        return loadMailboxMessageUseCase
+                .load(mailboxId, sessionId, messageId)
+                .map(message -> {
+                    ObjectNode body = objectMapper.valueToTree(message);
+                    if (fields != null && !fields.isEmpty()) {
+                        Set<String> retained = new HashSet<>();
+                        fields.forEach(field -> retained.add(field.trim()));
+                        retained.add("id");
+                        body.retain(retained);
+                    }
+                    return ResponseEntity.ok(body);
+                })
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Moves a message into the requested folder and returns a compact delta: the message's new folder, the
+     * updated counts and the new mailbox version.
      */
     @PostMapping("/{mailboxId}/messages/{messageId}/move")
     public ResponseEntity<MessageMoveResult> moveMessage(
@@ -79,4 +159,25 @@ public class MailboxFolderStateController {
         MessageMoveResult result = executeMessageMoveUseCase.execute(command);
         return ResponseEntity.ok(result);
     }
+
+    /**
+     * Versions are per session and the page depends on the query, so both are folded into the tag: the SHA-256
+     * of a length-prefixed encoding of every input, so distinct requests cannot share a tag.
+     */
+    private static String stateEtag(String version, String mailboxId, String sessionId, MailboxStateQuery query) {
+        StringBuilder canonical = new StringBuilder();
+        for (Object part : new Object[] {
+            mailboxId, sessionId, query.folderId(), query.cursor(), query.limit(), query.since(), query.countOnly()
+        }) {
+            String value = part == null ? null : part.toString();
+            canonical.append(value == null ? "-" : value.length() + ":" + value).append(';');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return "\"" + version + "-" + HexFormat.of().formatHex(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
 }
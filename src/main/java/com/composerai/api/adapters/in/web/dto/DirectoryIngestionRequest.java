@@ -0,0 +1,9 @@
+package com.composerai.api.adapters.in.web.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * Request body for importing a server-side directory; the path must resolve inside the configured
+ * ingestion root ({@code app.email-ingestion.directory-root}).
+ */
+public record DirectoryIngestionRequest(@NotBlank(message = "path is required") String path) {}
@@ -0,0 +1,32 @@
+package com.composerai.api.adapters.out.mailbox;
+
+import com.composerai.api.domain.port.MailboxIngestionPort;
+import com.composerai.api.model.EmailMessage;
+import com.composerai.api.service.email.DataDirectoryEmailMessageProvider;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adapts {@link DataDirectoryEmailMessageProvider} to the ingestion port: imported files land in the
+ * inbox directory, and their parse results warm the parse cache so the next snapshot serves them directly.
+ */
+@Component
+public class FileSystemMailboxIngestionAdapter implements MailboxIngestionPort {
+
+    private final DataDirectoryEmailMessageProvider emailMessageProvider;
+
+    public FileSystemMailboxIngestionAdapter(DataDirectoryEmailMessageProvider emailMessageProvider) {
+        this.emailMessageProvider = emailMessageProvider;
+    }
+
+    @Override
+    public boolean supports(String fileName) {
+        return DataDirectoryEmailMessageProvider.isMailboxFile(fileName);
+    }
+
+    @Override
+    public EmailMessage importMessage(Path file, String originalFilename) throws IOException {
+        return emailMessageProvider.importFile(file, originalFilename);
+    }
+}
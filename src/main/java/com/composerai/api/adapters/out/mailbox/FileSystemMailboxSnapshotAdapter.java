@@ -1,26 +1,33 @@
 package com.composerai.api.adapters.out.mailbox;
 
-import com.composerai.api.domain.model.MailFolderIdentifier;
+import com.composerai.api.domain.model.MailboxMessageOrder;
 import com.composerai.api.domain.model.MailboxSnapshot;
 import com.composerai.api.domain.port.MailboxSnapshotPort;
 import com.composerai.api.domain.service.MailboxFolderTransitionService;
 import com.composerai.api.model.EmailMessage;
 import com.composerai.api.service.email.EmailMessageProvider;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import org.springframework.stereotype.Component;
 
 /**
  * Adapts the existing {@link EmailMessageProvider} (which reads .eml files) to the domain snapshot port.
  * This keeps all filesystem specifics outside the application layer and mirrors how a future IMAP
  * implementation will plug in.
+ * <p>
+ * The provider keeps its own incrementally updated view and returns the same list instance while nothing on disk
+ * changed, so the last snapshot (and its baseline counts) is reused instead of being rebuilt on every state load
+ * or move. Every mailbox id reads the same provider, so one cached snapshot serves them all. Snapshot messages
+ * are sorted into {@link MailboxMessageOrder} once per change so paged state loads can walk them directly.
  */
 @Component
 public class FileSystemMailboxSnapshotAdapter implements MailboxSnapshotPort {
 
     private final EmailMessageProvider emailMessageProvider;
     private final MailboxFolderTransitionService transitionService;
+    // Seeded from the clock so versions keep growing across restarts and ETags from before one never match
+    private final AtomicLong versions = new AtomicLong(System.currentTimeMillis());
+    private volatile Cached latest;
 
     public FileSystemMailboxSnapshotAdapter(
             EmailMessageProvider emailMessageProvider, MailboxFolderTransitionService transitionService) {
@@ -31,16 +38,16 @@ public class FileSystemMailboxSnapshotAdapter implements MailboxSnapshotPort {
     @Override
     public MailboxSnapshot loadSnapshot(String mailboxId) {
         List<EmailMessage> messages = emailMessageProvider.loadEmails();
-        Map<MailFolderIdentifier, Integer> counts = computeBaselineCounts(messages);
-        return new MailboxSnapshot(mailboxId, messages, counts);
-    }
-
-    private Map<MailFolderIdentifier, Integer> computeBaselineCounts(List<EmailMessage> messages) {
-        Map<MailFolderIdentifier, Integer> counts = new LinkedHashMap<>();
-        for (EmailMessage message : messages) {
-            MailFolderIdentifier folder = transitionService.deriveBaselineFolder(message);
-            counts.merge(folder, 1, Integer::sum);
+        Cached cached = latest;
+        if (cached != null && cached.source() == messages) {
+            return cached.snapshot().withMailboxId(mailboxId);
         }
-        return counts;
+        MailboxSnapshot snapshot = transitionService.createSnapshot(
+                mailboxId, MailboxMessageOrder.sort(messages), versions.incrementAndGet());
+        latest = new Cached(messages, snapshot);
+        return snapshot;
     }
+
+    /** The provider list a snapshot was built from; the provider hands back the same instance until it changes. */
+    private record Cached(List<EmailMessage> source, MailboxSnapshot snapshot) {}
 }
@@ -14,7 +14,6 @@ import com.openai.models.responses.Response;
 import com.openai.models.responses.ResponseCreateParams;
 import java.util.List;
 import java.util.function.Consumer;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,7 +25,7 @@ import org.springframework.stereotype.Component;
 public class OpenAiChatClient {
 
     private static final Logger logger = LoggerFactory.getLogger(OpenAiChatClient.class);
-    private static final Pattern DANGEROUS_BLOCK_TAGS = Pattern.compile("(?is)<(script|style|iframe)[^>]*>.*?</\\1>");
+    private static final String[] DANGEROUS_BLOCK_TAGS = {"script", "style", "iframe"};
 
     private final OpenAIClient openAiClient;
     private final OpenAiProperties openAiProperties;
@@ -48,10 +47,60 @@ public class OpenAiChatClient {
             String safeRaw = rawText == null ? "" : rawText;
             String sanitized = jsonOutput
                     ? safeRaw
-                    : HtmlConverter.markdownToSafeHtml(
-                            DANGEROUS_BLOCK_TAGS.matcher(safeRaw).replaceAll(""));
+                    : HtmlConverter.markdownToSafeHtml(removeDangerousBlocks(safeRaw));
             return new ChatCompletion(safeRaw, sanitized);
         }
+
+        /**
+         * Equivalent of {@code (?is)<(script|style|iframe)[^>]*>.*?</\1>} → {@code ""} in one left-to-right
+         * pass. The regex rescans to the end of the text for every unclosed opening tag; here a tag name whose
+         * closing tag is missing is never searched for again, since no later opening tag could find one either.
+         */
+        static String removeDangerousBlocks(String text) {
+            if (text.indexOf('<') < 0) {
+                return text;
+            }
+            StringBuilder out = null;
+            boolean[] unclosed = new boolean[DANGEROUS_BLOCK_TAGS.length];
+            int copied = 0;
+            int lt = text.indexOf('<');
+            while (lt >= 0) {
+                int next = lt + 1;
+                for (int t = 0; t < DANGEROUS_BLOCK_TAGS.length; t++) {
+                    String tag = DANGEROUS_BLOCK_TAGS[t];
+                    if (unclosed[t] || !text.regionMatches(true, lt + 1, tag, 0, tag.length())) {
+                        continue;
+                    }
+                    int tagEnd = text.indexOf('>', lt + 1 + tag.length());
+                    int close = tagEnd < 0 ? -1 : indexOfClosingTag(text, tag, tagEnd + 1);
+                    if (close < 0) {
+                        unclosed[t] = true;
+                        continue;
+                    }
+                    if (out == null) {
+                        out = new StringBuilder(text.length());
+                    }
+                    out.append(text, copied, lt);
+                    copied = close + tag.length() + 3;
+                    next = copied;
+                    break;
+                }
+                lt = text.indexOf('<', next);
+            }
+            return out == null ? text : out.append(text, copied, text.length()).toString();
+        }
+
+        private static int indexOfClosingTag(String text, String tag, int from) {
+            for (int i = text.indexOf("</", from); i >= 0; i = text.indexOf("</", i + 2)) {
+                int end = i + 2 + tag.length();
+                if (end < text.length()
+                        && text.charAt(end) == '>'
+                        && text.regionMatches(true, i + 2, tag, 0, tag.length())) {
+                    return i;
+                }
+            }
+            return -1;
+        }
     }
 
     public record Invocation(
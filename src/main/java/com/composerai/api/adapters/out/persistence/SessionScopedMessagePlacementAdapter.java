@@ -5,9 +5,13 @@ import com.composerai.api.domain.model.MessageFolderPlacement;
 import com.composerai.api.domain.model.MessageId;
 import com.composerai.api.domain.model.SessionId;
 import com.composerai.api.domain.port.SessionScopedMessagePlacementPort;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
 import org.springframework.stereotype.Component;
 
 /**
@@ -18,8 +22,15 @@ import org.springframework.stereotype.Component;
 @Component
 public class SessionScopedMessagePlacementAdapter implements SessionScopedMessagePlacementPort {
 
+    private static final int MAX_RETIRED_SESSIONS = 10_000;
+
     // Keyed by MailboxId -> SessionStore
     private final Map<MailboxId, SessionStore> store = new ConcurrentHashMap<>();
+    // Shared by every session so a placement version is never handed out twice
+    private final AtomicLong versions = new AtomicLong();
+    // Last version of sessions whose placements were all removed, so their version never falls back; a live
+    // session's own version is newer and takes precedence
+    private final RetiredVersions retired = new RetiredVersions(MAX_RETIRED_SESSIONS);
 
     @Override
     public Optional<MessageFolderPlacement> findPlacement(
@@ -46,7 +57,8 @@ public class SessionScopedMessagePlacementAdapter implements SessionScopedMessag
     public void savePlacement(MessageFolderPlacement placement) {
         // Normalize key
         MailboxId normalizedKey = new MailboxId(mailboxKey(placement.mailboxId().value()));
-        store.computeIfAbsent(normalizedKey, key -> new SessionStore()).put(placement.sessionId(), placement);
+        store.computeIfAbsent(normalizedKey, key -> new SessionStore())
+                .put(placement.sessionId(), placement, versions.incrementAndGet());
     }
 
     @Override
@@ -57,11 +69,23 @@ public class SessionScopedMessagePlacementAdapter implements SessionScopedMessag
             if (sessionStore == null) {
                 return null;
             }
-            sessionStore.remove(sessionId, messageId);
+            sessionStore.remove(
+                    sessionId,
+                    messageId,
+                    versions.incrementAndGet(),
+                    version -> retired.put(new SessionKey(normalizedKey, sessionId), version));
             return sessionStore.isEmpty() ? null : sessionStore;
         });
     }
 
+    @Override
+    public long placementVersion(MailboxId mailboxId, SessionId sessionId) {
+        MailboxId normalizedKey = new MailboxId(mailboxKey(mailboxId.value()));
+        SessionStore sessionStore = store.get(normalizedKey);
+        long live = sessionStore == null ? 0L : sessionStore.version(sessionId);
+        return live != 0L ? live : retired.version(new SessionKey(normalizedKey, sessionId));
+    }
+
     private String mailboxKey(String mailboxId) {
         if (mailboxId == null || mailboxId.isBlank()) {
             return "default";
@@ -73,38 +97,55 @@ public class SessionScopedMessagePlacementAdapter implements SessionScopedMessag
      * Internal store for a specific mailbox, managing sessions.
      */
     private static class SessionStore {
-        // SessionID -> MessageID -> Placement
-        private final Map<SessionId, Map<MessageId, MessageFolderPlacement>> sessions = new ConcurrentHashMap<>();
+        // SessionID -> placements and version
+        private final Map<SessionId, SessionEntries> sessions = new ConcurrentHashMap<>();
 
         Optional<MessageFolderPlacement> get(SessionId sessionId, MessageId messageId) {
-            Map<MessageId, MessageFolderPlacement> sessionEntries = sessions.get(sessionId);
+            SessionEntries sessionEntries = sessions.get(sessionId);
             if (sessionEntries == null) {
                 return Optional.empty();
             }
-            return Optional.ofNullable(sessionEntries.get(messageId));
+            return Optional.ofNullable(sessionEntries.placements.get(messageId));
         }
 
         Map<MessageId, MessageFolderPlacement> getAll(SessionId sessionId) {
-            Map<MessageId, MessageFolderPlacement> sessionEntries = sessions.get(sessionId);
-            if (sessionEntries == null || sessionEntries.isEmpty()) {
+            SessionEntries sessionEntries = sessions.get(sessionId);
+            if (sessionEntries == null || sessionEntries.placements.isEmpty()) {
                 return Map.of();
             }
-            return Map.copyOf(sessionEntries);
+            return Map.copyOf(sessionEntries.placements);
         }
 
-        void put(SessionId sessionId, MessageFolderPlacement placement) {
-            sessions.computeIfAbsent(sessionId, key -> new ConcurrentHashMap<>())
-                    .put(placement.messageId(), placement);
+        long version(SessionId sessionId) {
+            SessionEntries sessionEntries = sessions.get(sessionId);
+            return sessionEntries == null ? 0L : sessionEntries.version;
         }
 
-        void remove(SessionId sessionId, MessageId messageId) {
-            // Atomic remove-if-empty
+        void put(SessionId sessionId, MessageFolderPlacement placement, long version) {
+            sessions.compute(sessionId, (key, sessionEntries) -> {
+                SessionEntries entries = sessionEntries == null ? new SessionEntries() : sessionEntries;
+                entries.placements.put(placement.messageId(), placement);
+                entries.version = version;
+                return entries;
+            });
+        }
+
+        /**
+         * Atomic remove-if-empty. A session left without placements is dropped, after {@code retire} was given
+         * its version, so a concurrent {@link #version} read never sees it fall back.
+         */
+        void remove(SessionId sessionId, MessageId messageId, long version, LongConsumer retire) {
             sessions.compute(sessionId, (key, sessionEntries) -> {
                 if (sessionEntries == null) {
                     return null;
                 }
-                sessionEntries.remove(messageId);
-                return sessionEntries.isEmpty() ? null : sessionEntries;
+                sessionEntries.placements.remove(messageId);
+                sessionEntries.version = version;
+                if (!sessionEntries.placements.isEmpty()) {
+                    return sessionEntries;
+                }
+                retire.accept(version);
+                return null;
             });
         }
 
@@ -112,4 +153,41 @@ public class SessionScopedMessagePlacementAdapter implements SessionScopedMessag
             return sessions.isEmpty();
         }
     }
+
+    private record SessionKey(MailboxId mailboxId, SessionId sessionId) {}
+
+    /**
+     * Bounded record of the last version of sessions that have no placements left. When the least recently used
+     * one is evicted its version raises a floor that every unknown session reports instead, so an evicted
+     * session's version still never falls back (it can only move on, which at worst costs a client a reload).
+     */
+    private static final class RetiredVersions {
+        private final int capacity;
+        private final LinkedHashMap<SessionKey, Long> versions = new LinkedHashMap<>(16, 0.75f, true);
+        private long floor;
+
+        RetiredVersions(int capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized void put(SessionKey key, long version) {
+            versions.put(key, version);
+            if (versions.size() > capacity) {
+                Iterator<Long> eldest = versions.values().iterator();
+                floor = Math.max(floor, eldest.next());
+                eldest.remove();
+            }
+        }
+
+        synchronized long version(SessionKey key) {
+            Long version = versions.get(key);
+            return version != null ? version : floor;
+        }
+    }
+
+    /** One session's placements and the version of their latest change. */
+    private static final class SessionEntries {
+        private final Map<MessageId, MessageFolderPlacement> placements = new ConcurrentHashMap<>();
+        private volatile long version;
+    }
 }
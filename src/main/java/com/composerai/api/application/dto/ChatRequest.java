@@ -51,6 +51,9 @@ public class ChatRequest {
     // Optional: Request JSON output instead of rendered HTML
     private boolean jsonOutput = false;
 
+    // Optional: keep quoted reply history and signature in the stored email context (new content only by default)
+    private boolean includeQuotedHistory = false;
+
     // Optional: Structured AI command (e.g., compose, summarize, translate, tone, draft)
     @Size(max = 64, message = "aiCommand cannot exceed 64 characters")
     private String aiCommand;
@@ -0,0 +1,26 @@
+package com.composerai.api.application.dto.ingest;
+
+/**
+ * Outcome of one file in a bulk ingestion batch, plus the running batch totals at the moment it finished
+ * so progress consumers never have to aggregate events themselves. {@code detail} carries the error for
+ * {@link Status#FAILED} files and the reason for {@link Status#SKIPPED} ones.
+ */
+public record EmailIngestionFileResult(
+        String fileName,
+        Status status,
+        String messageId,
+        String subject,
+        String detail,
+        long elapsedMillis,
+        int processed,
+        int ingested,
+        int failed,
+        int skipped,
+        double filesPerSecond) {
+
+    public enum Status {
+        INGESTED,
+        FAILED,
+        SKIPPED
+    }
+}
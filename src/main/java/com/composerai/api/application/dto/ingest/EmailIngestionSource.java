@@ -0,0 +1,28 @@
+package com.composerai.api.application.dto.ingest;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Where a bulk ingestion batch reads its files from. Temporary sources (uploads staged by the web
+ * adapter) are deleted once the batch finishes; caller-owned directories are only read.
+ */
+public sealed interface EmailIngestionSource {
+
+    /** Whether the batch owns the underlying files and must delete them when done. */
+    boolean temporary();
+
+    /** Every regular file below {@code root}, recursively. */
+    record Directory(Path root, boolean temporary) implements EmailIngestionSource {
+        public Directory {
+            Objects.requireNonNull(root, "root");
+        }
+    }
+
+    /** Entries of a zip archive, extracted one at a time as workers free up. */
+    record ZipArchive(Path archive, boolean temporary) implements EmailIngestionSource {
+        public ZipArchive {
+            Objects.requireNonNull(archive, "archive");
+        }
+    }
+}
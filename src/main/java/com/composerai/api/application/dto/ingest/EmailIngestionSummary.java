@@ -0,0 +1,8 @@
+package com.composerai.api.application.dto.ingest;
+
+/**
+ * Final totals for a bulk ingestion batch. {@code filesPerSecond} counts every processed file,
+ * including failures and skips, over the batch wall-clock time.
+ */
+public record EmailIngestionSummary(
+        int processed, int ingested, int failed, int skipped, long elapsedMillis, double filesPerSecond) {}
@@ -0,0 +1,52 @@
+package com.composerai.api.application.dto.mailbox;
+
+import com.composerai.api.model.EmailMessage;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+
+/**
+ * List-row projection of an {@link EmailMessage}: everything the mailbox list renders, none of the bodies.
+ * Bodies, sanitized HTML and AI context are fetched per message via
+ * {@code GET /api/mailboxes/{mailboxId}/messages/{messageId}} once a message is opened.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MailboxMessageSummary(
+        String id,
+        String contextId,
+        String senderName,
+        String senderEmail,
+        String recipientName,
+        String recipientEmail,
+        String subject,
+        String preview,
+        String receivedTimestampIso,
+        String receivedTimestampDisplay,
+        List<String> labels,
+        String companyLogoUrl,
+        String avatarUrl,
+        boolean starred,
+        boolean read) {
+
+    public static MailboxMessageSummary from(EmailMessage message) {
+        return new MailboxMessageSummary(
+                message.id(),
+                message.contextId(),
+                message.senderName(),
+                message.senderEmail(),
+                message.recipientName(),
+                message.recipientEmail(),
+                message.subject(),
+                message.preview(),
+                message.receivedTimestampIso(),
+                message.receivedTimestampDisplay(),
+                message.labels(),
+                message.companyLogoUrl(),
+                message.avatarUrl(),
+                message.starred(),
+                message.read());
+    }
+
+    public static List<MailboxMessageSummary> fromAll(List<EmailMessage> messages) {
+        return messages.stream().map(MailboxMessageSummary::from).toList();
+    }
+}
@@ -0,0 +1,39 @@
+package com.composerai.api.application.dto.mailbox;
+
+import java.time.Instant;
+
+/**
+ * Window of the mailbox state a caller wants. With no folder, cursor or limit the whole mailbox comes back, as
+ * before paging existed; otherwise one page of at most {@code limit} messages ({@link #DEFAULT_PAGE_SIZE} when
+ * unset), newest received first, from {@code folderId} (every folder when unset), starting after
+ * {@code cursor}. {@code since} keeps only messages received after that instant for incremental refreshes, and
+ * {@code countOnly} returns folder counts without any messages.
+ */
+public record MailboxStateQuery(String folderId, String cursor, Integer limit, Instant since, boolean countOnly) {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    public MailboxStateQuery {
+        if (limit != null && (limit < 1 || limit > MAX_PAGE_SIZE)) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        folderId = folderId == null || folderId.isBlank() ? null : folderId;
+        cursor = cursor == null || cursor.isBlank() ? null : cursor;
+    }
+
+    public static MailboxStateQuery all() {
+        return new MailboxStateQuery(null, null, null, null, false);
+    }
+
+    /**
+     * True when the caller asked for a page rather than every matching message; naming a folder is enough.
+     */
+    public boolean paged() {
+        return folderId != null || limit != null || cursor != null;
+    }
+
+    public int pageSize() {
+        return limit == null ? DEFAULT_PAGE_SIZE : limit;
+    }
+}
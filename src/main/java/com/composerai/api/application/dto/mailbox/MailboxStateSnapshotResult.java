@@ -1,16 +1,20 @@
 package com.composerai.api.application.dto.mailbox;
 
-import com.composerai.api.model.EmailMessage;
 import java.util.List;
 import java.util.Map;
 
 /**
  * DTO exposed to controllers for hydrations. Mirrors exactly what the frontend expects: the list of
- * messages, aggregate folder counts, and an easy-to-serialize placement map.
+ * message summaries (bodies load on demand), aggregate folder counts, and an easy-to-serialize placement map.
+ * For a paged load {@code messages} and {@code effectiveFolders} cover only the page, folder counts and placements
+ * always cover the whole mailbox, and {@code nextCursor} is set while more matching messages remain.
+ * {@code version} is opaque and changes with every change to the session's view of the mailbox.
  */
 public record MailboxStateSnapshotResult(
         String mailboxId,
-        List<EmailMessage> messages,
+        List<MailboxMessageSummary> messages,
         Map<String, Integer> folderCounts,
         Map<String, String> placements,
-        Map<String, String> effectiveFolders) {}
+        Map<String, String> effectiveFolders,
+        String nextCursor,
+        String version) {}
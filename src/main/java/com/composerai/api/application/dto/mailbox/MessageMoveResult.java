@@ -1,20 +1,17 @@
 package com.composerai.api.application.dto.mailbox;
 
-import com.composerai.api.model.EmailMessage;
-import java.util.List;
 import java.util.Map;
 
 /**
- * Result returned after a move request finishes. Contains the updated message payload plus
- * aggregate counts and placement map so the UI can stay in sync without extra fetches.
+ * Result returned after a move request finishes. A compact delta: the moved message's summary and folders,
+ * the updated aggregate counts and the new mailbox version, so the UI can stay in sync without re-downloading
+ * the mailbox after every move.
  */
 public record MessageMoveResult(
         String mailboxId,
         String messageId,
         String previousFolderId,
         String currentFolderId,
-        EmailMessage updatedMessage,
+        MailboxMessageSummary updatedMessage,
         Map<String, Integer> folderCounts,
-        Map<String, String> placements,
-        List<EmailMessage> messages,
-        Map<String, String> effectiveFolders) {}
+        String version) {}
@@ -6,6 +6,7 @@ import com.composerai.api.config.OpenAiProperties;
 import com.composerai.api.domain.model.ChatCompletionCommand;
 import com.composerai.api.domain.model.ConversationTurn;
 import com.composerai.api.dto.ChatResponse.EmailContext;
+import com.composerai.api.model.EmailMessageContextFormatter;
 import com.composerai.api.service.ContextBuilder;
 import com.composerai.api.service.VectorSearchService;
 import com.composerai.api.service.email.HtmlConverter;
@@ -97,8 +98,9 @@ final class ChatRequestPreparation {
 
     private String resolveUploadedContext(String conversationId, ChatRequest request) {
         String contextId = request.getContextId();
-        Optional<String> storedContext =
-                StringUtils.isBlank(contextId) ? Optional.empty() : emailContextRegistry.contextForAi(contextId);
+        Optional<String> storedContext = StringUtils.isBlank(contextId)
+                ? Optional.empty()
+                : storedContext(contextId, request.isIncludeQuotedHistory());
         if (storedContext.isPresent()) {
             return storedContext.get();
         }
@@ -114,5 +116,20 @@ final class ChatRequestPreparation {
         return "";
     }
 
+    /**
+     * Prefers the whole-body context when quoted history is requested; messages without any omitted history
+     * only have the default entry.
+     */
+    private Optional<String> storedContext(String contextId, boolean includeQuotedHistory) {
+        String fullContextId = EmailMessageContextFormatter.fullContextId(contextId);
+        if (includeQuotedHistory && emailContextRegistry.hasContext(fullContextId)) {
+            Optional<String> full = emailContextRegistry.contextForAi(fullContextId);
+            if (full.isPresent()) {
+                return full;
+            }
+        }
+        return emailContextRegistry.contextForAi(contextId);
+    }
+
     private record ChatContext(List<EmailContext> emailContext, String contextString) {}
 }
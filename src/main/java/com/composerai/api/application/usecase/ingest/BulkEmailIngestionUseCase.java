@@ -0,0 +1,257 @@
+package com.composerai.api.application.usecase.ingest;
+
+import com.composerai.api.application.dto.ingest.EmailIngestionFileResult;
+import com.composerai.api.application.dto.ingest.EmailIngestionSource;
+import com.composerai.api.application.dto.ingest.EmailIngestionSummary;
+import com.composerai.api.config.AppProperties;
+import com.composerai.api.domain.port.MailboxIngestionPort;
+import com.composerai.api.model.EmailMessage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+/**
+ * Imports a batch of message files (directory, zip archive, or staged uploads) with bounded parallelism.
+ * <p>
+ * A virtual coordinator thread walks the source and hands files to the CPU-sized ingestion pool. A semaphore
+ * caps in-flight files at twice the worker count, which bounds both queued work and the zip entries staged
+ * on disk. Each file is isolated: a parse failure is reported for that file and the batch continues.
+ * Callbacks fire from worker threads and must be thread-safe.
+ */
+@Service
+public class BulkEmailIngestionUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkEmailIngestionUseCase.class);
+    private static final int IN_FLIGHT_PER_WORKER = 2;
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final MailboxIngestionPort ingestionPort;
+    private final ExecutorService ingestionExecutor;
+    private final AppProperties appProperties;
+
+    public BulkEmailIngestionUseCase(
+            MailboxIngestionPort ingestionPort,
+            @Qualifier("emailIngestionExecutor") ExecutorService ingestionExecutor,
+            AppProperties appProperties) {
+        this.ingestionPort = ingestionPort;
+        this.ingestionExecutor = ingestionExecutor;
+        this.appProperties = appProperties;
+    }
+
+    /**
+     * Validates the source and runs the batch on a background coordinator; returns immediately.
+     */
+    public void start(EmailIngestionSource source, IngestionCallbacks callbacks) {
+        validate(source);
+        Thread.ofVirtual().name("email-ingest-coordinator").start(() -> ingest(source, callbacks));
+    }
+
+    /**
+     * Runs the batch on the calling thread and returns once every file has been processed.
+     */
+    public EmailIngestionSummary ingest(EmailIngestionSource source, IngestionCallbacks callbacks) {
+        int maxInFlight = appProperties.getEmailIngestion().resolveWorkers() * IN_FLIGHT_PER_WORKER;
+        long maxFileBytes = appProperties.getEmailIngestion().getMaxFileSize().toBytes();
+        BatchProgress progress = new BatchProgress(System.nanoTime());
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        Throwable batchFailure = null;
+
+        try (IngestionSourceReader reader = IngestionSourceReader.open(source, ingestionPort::supports, maxFileBytes)) {
+            try {
+                while (reader.hasNext()) {
+                    IngestionSourceReader.Item item = reader.next();
+                    if (item.file() == null) {
+                        callbacks.onFile().accept(progress.skipped(item.name(), item.skipReason()));
+                        continue;
+                    }
+                    inFlight.acquire();
+                    submit(item, progress, inFlight, callbacks);
+                }
+            } catch (UncheckedIOException e) {
+                batchFailure = e.getCause();
+            } finally {
+                // Staged entries belong to workers until they finish; wait before the reader cleans up
+                inFlight.acquireUninterruptibly(maxInFlight);
+            }
+        } catch (IOException e) {
+            batchFailure = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            batchFailure = e;
+        }
+
+        EmailIngestionSummary summary = progress.summary();
+        if (batchFailure != null) {
+            log.warn("Bulk ingestion stopped early after {} files", summary.processed(), batchFailure);
+            callbacks.onError().accept(batchFailure);
+        } else {
+            log.info(
+                    "Bulk ingestion finished: ingested={} failed={} skipped={} in {} ms ({} files/s)",
+                    summary.ingested(),
+                    summary.failed(),
+                    summary.skipped(),
+                    summary.elapsedMillis(),
+                    String.format("%.1f", summary.filesPerSecond()));
+        }
+        callbacks.onComplete().accept(summary);
+        return summary;
+    }
+
+    private void submit(
+            IngestionSourceReader.Item item, BatchProgress progress, Semaphore inFlight, IngestionCallbacks callbacks) {
+        try {
+            ingestionExecutor.execute(() -> {
+                try {
+                    callbacks.onFile().accept(process(item, progress));
+                } catch (RuntimeException e) {
+                    log.debug("Ingestion progress callback failed for {}", item.name(), e);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            deleteStaged(item);
+            callbacks.onFile().accept(progress.failure(item.name(), "ingestion executor unavailable", 0L));
+        }
+    }
+
+    private EmailIngestionFileResult process(IngestionSourceReader.Item item, BatchProgress progress) {
+        long started = System.nanoTime();
+        try {
+            EmailMessage message = ingestionPort.importMessage(item.file(), item.name());
+            return progress.ingested(item.name(), message, System.nanoTime() - started);
+        } catch (Exception e) {
+            log.warn("Failed to ingest {}: {}", item.name(), e.getMessage());
+            return progress.failure(item.name(), describe(e), System.nanoTime() - started);
+        } finally {
+            deleteStaged(item);
+        }
+    }
+
+    private void validate(EmailIngestionSource source) {
+        if (source instanceof EmailIngestionSource.Directory directory) {
+            if (!Files.isDirectory(directory.root())) {
+                throw new IllegalArgumentException("Directory not found: " + directory.root());
+            }
+            if (!directory.temporary() && !isInsideAllowedRoot(directory.root())) {
+                throw new IllegalArgumentException(
+                        "Directory must be inside " + appProperties.getEmailIngestion().getDirectoryRoot());
+            }
+        } else if (source instanceof EmailIngestionSource.ZipArchive archive
+                && !Files.isRegularFile(archive.archive())) {
+            throw new IllegalArgumentException("Archive not found: " + archive.archive());
+        }
+    }
+
+    /** Compares real paths so symlinks cannot escape the configured import root. */
+    private boolean isInsideAllowedRoot(Path directory) {
+        try {
+            Path allowedRoot = Path.of(appProperties.getEmailIngestion().getDirectoryRoot()).toRealPath();
+            return directory.toRealPath().startsWith(allowedRoot);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void deleteStaged(IngestionSourceReader.Item item) {
+        if (!item.staged()) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(item.file());
+        } catch (IOException e) {
+            log.debug("Failed to delete staged ingestion file {}", item.file(), e);
+        }
+    }
+
+    private static String describe(Exception e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        String message = root.getMessage();
+        return message != null && !message.isBlank() ? message : root.getClass().getSimpleName();
+    }
+
+    /** Lock-free running totals shared by the coordinator and workers of one batch. */
+    private static final class BatchProgress {
+        private final long startedNanos;
+        private final AtomicInteger processed = new AtomicInteger();
+        private final AtomicInteger ingested = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+
+        BatchProgress(long startedNanos) {
+            this.startedNanos = startedNanos;
+        }
+
+        EmailIngestionFileResult ingested(String name, EmailMessage message, long elapsedNanos) {
+            ingested.incrementAndGet();
+            return snapshot(
+                    name,
+                    EmailIngestionFileResult.Status.INGESTED,
+                    message.id(),
+                    message.subject(),
+                    null,
+                    elapsedNanos);
+        }
+
+        EmailIngestionFileResult skipped(String name, String reason) {
+            skipped.incrementAndGet();
+            return snapshot(name, EmailIngestionFileResult.Status.SKIPPED, null, null, reason, 0L);
+        }
+
+        EmailIngestionFileResult failure(String name, String error, long elapsedNanos) {
+            failed.incrementAndGet();
+            return snapshot(name, EmailIngestionFileResult.Status.FAILED, null, null, error, elapsedNanos);
+        }
+
+        EmailIngestionSummary summary() {
+            long elapsedNanos = System.nanoTime() - startedNanos;
+            return new EmailIngestionSummary(
+                    processed.get(),
+                    ingested.get(),
+                    failed.get(),
+                    skipped.get(),
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    rate(processed.get(), elapsedNanos));
+        }
+
+        private EmailIngestionFileResult snapshot(
+                String name,
+                EmailIngestionFileResult.Status status,
+                String messageId,
+                String subject,
+                String detail,
+                long elapsedNanos) {
+            int done = processed.incrementAndGet();
+            return new EmailIngestionFileResult(
+                    name,
+                    status,
+                    messageId,
+                    subject,
+                    detail,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    done,
+                    ingested.get(),
+                    failed.get(),
+                    skipped.get(),
+                    rate(done, System.nanoTime() - startedNanos));
+        }
+
+        private static double rate(int files, long elapsedNanos) {
+            return elapsedNanos > 0 ? files * NANOS_PER_SECOND / elapsedNanos : 0d;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.composerai.api.application.usecase.ingest;
+
+import com.composerai.api.application.dto.ingest.EmailIngestionFileResult;
+import com.composerai.api.application.dto.ingest.EmailIngestionSummary;
+import java.util.function.Consumer;
+
+/**
+ * Typed callback boundary for a bulk ingestion batch. {@code onFile} runs concurrently on worker threads;
+ * {@code onError} (batch-level failures only, such as an unreadable archive) always precedes the single
+ * {@code onComplete}.
+ */
+public record IngestionCallbacks(
+        Consumer<EmailIngestionFileResult> onFile,
+        Consumer<EmailIngestionSummary> onComplete,
+        Consumer<Throwable> onError) {}
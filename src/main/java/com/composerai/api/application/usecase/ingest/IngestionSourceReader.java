@@ -0,0 +1,187 @@
+package com.composerai.api.application.usecase.ingest;
+
+import com.composerai.api.application.dto.ingest.EmailIngestionSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lazily enumerates the files of an {@link EmailIngestionSource}. Directory files are handed out in place;
+ * zip entries are extracted to a private staging directory one at a time, only when the coordinator asks
+ * for the next item, so disk usage tracks the number of in-flight files rather than the archive size.
+ * Closing the reader removes staged entries and, for temporary sources, the source itself.
+ */
+final class IngestionSourceReader implements Iterator<IngestionSourceReader.Item>, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestionSourceReader.class);
+    private static final int COPY_BUFFER_BYTES = 64 * 1024;
+
+    private final EmailIngestionSource source;
+    private final Predicate<String> supported;
+    private final long maxFileBytes;
+    private final Stream<Path> directoryStream;
+    private final Iterator<Path> directoryFiles;
+    private final ZipInputStream zip;
+    private final Path stagingDirectory;
+    private Item next;
+
+    private IngestionSourceReader(EmailIngestionSource source, Predicate<String> supported, long maxFileBytes)
+            throws IOException {
+        this.source = source;
+        this.supported = supported;
+        this.maxFileBytes = maxFileBytes;
+        if (source instanceof EmailIngestionSource.Directory directory) {
+            this.directoryStream = Files.walk(directory.root()).filter(Files::isRegularFile);
+            this.directoryFiles = directoryStream.iterator();
+            this.zip = null;
+            this.stagingDirectory = null;
+        } else {
+            EmailIngestionSource.ZipArchive archive = (EmailIngestionSource.ZipArchive) source;
+            this.directoryStream = null;
+            this.directoryFiles = null;
+            this.zip = new ZipInputStream(Files.newInputStream(archive.archive()));
+            this.stagingDirectory = Files.createTempDirectory("ingest-zip-");
+        }
+    }
+
+    static IngestionSourceReader open(EmailIngestionSource source, Predicate<String> supported, long maxFileBytes)
+            throws IOException {
+        return new IngestionSourceReader(source, supported, maxFileBytes);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = directoryFiles != null ? nextDirectoryFile() : nextZipEntry();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public Item next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Item item = next;
+        next = null;
+        return item;
+    }
+
+    private Item nextDirectoryFile() throws IOException {
+        if (!directoryFiles.hasNext()) {
+            return null;
+        }
+        Path file = directoryFiles.next();
+        String name = file.getFileName().toString();
+        if (!supported.test(name)) {
+            return Item.skipped(name, "unsupported file type");
+        }
+        if (Files.size(file) > maxFileBytes) {
+            return Item.skipped(name, "exceeds max file size");
+        }
+        return new Item(name, file, false, null);
+    }
+
+    private Item nextZipEntry() throws IOException {
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null && entry.isDirectory()) {
+            // directories carry no messages
+        }
+        if (entry == null) {
+            return null;
+        }
+        String name = entry.getName().substring(entry.getName().lastIndexOf('/') + 1);
+        if (!supported.test(name)) {
+            return Item.skipped(name, "unsupported file type");
+        }
+        if (entry.getSize() > maxFileBytes) {
+            return Item.skipped(name, "exceeds max file size");
+        }
+        // Staged under a generated name; the original name only travels as metadata (no zip-slip)
+        Path staged = Files.createTempFile(stagingDirectory, "entry-", ".part");
+        if (!copyBounded(staged)) {
+            Files.deleteIfExists(staged);
+            return Item.skipped(name, "exceeds max file size");
+        }
+        return new Item(name, staged, true, null);
+    }
+
+    /** Copies the current zip entry, stopping as soon as it exceeds the byte budget. */
+    private boolean copyBounded(Path target) throws IOException {
+        long copied = 0;
+        byte[] buffer = new byte[COPY_BUFFER_BYTES];
+        try (OutputStream out = Files.newOutputStream(target)) {
+            int read;
+            while ((read = zip.read(buffer)) != -1) {
+                copied += read;
+                if (copied > maxFileBytes) {
+                    return false;
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        if (directoryStream != null) {
+            directoryStream.close();
+        }
+        if (zip != null) {
+            try {
+                zip.close();
+            } catch (IOException e) {
+                log.debug("Failed to close ingestion archive", e);
+            }
+            deleteRecursively(stagingDirectory);
+        }
+        if (source.temporary()) {
+            deleteRecursively(source instanceof EmailIngestionSource.Directory directory
+                    ? directory.root()
+                    : ((EmailIngestionSource.ZipArchive) source).archive());
+        }
+    }
+
+    private static void deleteRecursively(Path root) {
+        if (root == null || Files.notExists(root)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.debug("Failed to delete ingestion staging path {}", path, e);
+                }
+            });
+        } catch (IOException e) {
+            log.debug("Failed to clean ingestion staging root {}", root, e);
+        }
+    }
+
+    /**
+     * One file to ingest. {@code file} is null when the item was skipped before staging, in which case
+     * {@code skipReason} says why. Staged items are owned by the worker that processes them.
+     */
+    record Item(String name, Path file, boolean staged, String skipReason) {
+        static Item skipped(String name, String reason) {
+            return new Item(name, null, false, reason);
+        }
+    }
+}
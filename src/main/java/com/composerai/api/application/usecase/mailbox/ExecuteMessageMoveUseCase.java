@@ -1,5 +1,6 @@
 package com.composerai.api.application.usecase.mailbox;
 
+import com.composerai.api.application.dto.mailbox.MailboxMessageSummary;
 import com.composerai.api.application.dto.mailbox.MessageMoveCommand;
 import com.composerai.api.application.dto.mailbox.MessageMoveResult;
 import com.composerai.api.domain.model.MailFolderIdentifier;
@@ -13,16 +14,14 @@ import com.composerai.api.domain.port.SessionScopedMessagePlacementPort;
 import com.composerai.api.domain.service.MailboxFolderTransitionService;
 import com.composerai.api.model.EmailMessage;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 /**
  * Handles the orchestration of a single message move: validation, placement persistence, and
- * returning the updated mailbox snapshot delta for the UI.
+ * returning the compact delta (moved message, counts, version) the UI applies to its own copy of the mailbox.
  */
 @Service
 public class ExecuteMessageMoveUseCase {
@@ -58,9 +57,7 @@ public class ExecuteMessageMoveUseCase {
         Map<MessageId, MessageFolderPlacement> placements =
                 new HashMap<>(sessionPlacementPort.findPlacements(mailboxId, sessionId));
 
-        EmailMessage targetMessage = snapshot.messages().stream()
-                .filter(message -> messageIdRaw.equals(message.id()))
-                .findFirst()
+        EmailMessage targetMessage = snapshot.findMessage(messageIdRaw)
                 .orElseThrow(() -> new IllegalArgumentException("Message not found: " + messageIdRaw));
 
         MailFolderIdentifier targetFolder = transitionService.normalizeFolder(targetFolderId);
@@ -74,7 +71,7 @@ public class ExecuteMessageMoveUseCase {
                     "Message {} already in folder {} – returning existing snapshot",
                     messageIdRaw,
                     targetFolder.value());
-            return buildResult(snapshot, placements, mailboxId, messageId, currentFolder, placements);
+            return buildResult(snapshot, mailboxId, sessionId, messageId, targetMessage, currentFolder, placements);
         }
 
         MailFolderIdentifier baselineFolder = transitionService.deriveBaselineFolder(targetMessage);
@@ -92,38 +89,34 @@ public class ExecuteMessageMoveUseCase {
             placements.put(messageId, placement);
         }
 
-        return buildResult(snapshot, placements, mailboxId, messageId, currentFolder, placements);
+        return buildResult(snapshot, mailboxId, sessionId, messageId, targetMessage, currentFolder, placements);
     }
 
     private MessageMoveResult buildResult(
             MailboxSnapshot snapshot,
-            Map<MessageId, MessageFolderPlacement> placements,
             MailboxId mailboxId,
+            SessionId sessionId,
             MessageId messageId,
+            EmailMessage targetMessage,
             MailFolderIdentifier previousFolder,
             Map<MessageId, MessageFolderPlacement> currentPlacements) {
-        List<EmailMessage> resolvedMessages = transitionService.applyPlacements(snapshot, currentPlacements);
-        Map<String, Integer> folderCounts = transitionService.computeFolderCounts(resolvedMessages);
-        Map<String, String> placementMap = transitionService.serializePlacements(currentPlacements);
-        Map<String, String> effectiveFolders = transitionService.serializeEffectiveFolders(
-                transitionService.deriveEffectiveFolders(snapshot, currentPlacements));
-        EmailMessage updatedMessage = resolvedMessages.stream()
-                .filter(message -> messageId.value().equals(message.id()))
-                .findFirst()
-                .orElseThrow(() -> new IllegalStateException("Updated message missing from snapshot"));
-        MailFolderIdentifier currentFolder = Optional.ofNullable(currentPlacements.get(messageId))
-                .map(MessageFolderPlacement::folderIdentifier)
-                .orElse(transitionService.deriveBaselineFolder(updatedMessage));
+        Map<String, Integer> folderCounts = transitionService.computeFolderCounts(snapshot, currentPlacements);
+        MessageFolderPlacement placement = currentPlacements.get(messageId);
+        MailFolderIdentifier currentFolder = placement != null
+                ? placement.folderIdentifier()
+                : transitionService.deriveBaselineFolder(targetMessage);
+        EmailMessage updatedMessage = placement != null
+                ? transitionService.applyFolderOverride(targetMessage, currentFolder)
+                : targetMessage;
+        String version = snapshot.versionFor(sessionPlacementPort.placementVersion(mailboxId, sessionId));
 
         return new MessageMoveResult(
                 mailboxId.value(),
                 messageId.value(),
                 previousFolder.value(),
                 currentFolder.value(),
-                updatedMessage,
+                MailboxMessageSummary.from(updatedMessage),
                 folderCounts,
-                placementMap,
-                resolvedMessages,
-                effectiveFolders);
+                version);
     }
 }
@@ -0,0 +1,64 @@
+package com.composerai.api.application.usecase.mailbox;
+
+import com.composerai.api.domain.model.MailboxId;
+import com.composerai.api.domain.model.MessageId;
+import com.composerai.api.domain.model.SessionId;
+import com.composerai.api.domain.port.MailboxSnapshotPort;
+import com.composerai.api.domain.port.SessionScopedMessagePlacementPort;
+import com.composerai.api.domain.service.MailboxFolderTransitionService;
+import com.composerai.api.model.EmailMessage;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Loads one full message (bodies, sanitized HTML, AI context) for a session, with the session's folder
+ * placement applied to its labels. The mailbox state only carries list summaries, so this is how a message's
+ * content reaches the UI when it is opened.
+ */
+@Service
+public class LoadMailboxMessageUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadMailboxMessageUseCase.class);
+
+    private final MailboxSnapshotPort mailboxSnapshotPort;
+    private final SessionScopedMessagePlacementPort sessionPlacementPort;
+    private final MailboxFolderTransitionService transitionService;
+
+    public LoadMailboxMessageUseCase(
+            MailboxSnapshotPort mailboxSnapshotPort,
+            SessionScopedMessagePlacementPort sessionPlacementPort,
+            MailboxFolderTransitionService transitionService) {
+        this.mailboxSnapshotPort = mailboxSnapshotPort;
+        this.sessionPlacementPort = sessionPlacementPort;
+        this.transitionService = transitionService;
+    }
+
+    /**
+     * Returns the message, or empty when the mailbox has no message with that id.
+     */
+    public Optional<EmailMessage> load(String mailboxId, String sessionId, String messageId) {
+        if (mailboxId == null || mailboxId.isBlank()) {
+            throw new IllegalArgumentException("mailboxId is required");
+        }
+        if (sessionId == null || sessionId.isBlank()) {
+            throw new IllegalArgumentException("sessionId is required");
+        }
+        if (messageId == null || messageId.isBlank()) {
+            throw new IllegalArgumentException("messageId is required");
+        }
+
+        log.debug("Loading message {} in mailbox={} session={}", messageId, mailboxId, sessionId);
+
+        EmailMessage message =
+                mailboxSnapshotPort.loadSnapshot(mailboxId).findMessage(messageId).orElse(null);
+        if (message == null) {
+            return Optional.empty();
+        }
+        return Optional.of(sessionPlacementPort
+                .findPlacement(new MailboxId(mailboxId), new SessionId(sessionId), new MessageId(messageId))
+                .map(placement -> transitionService.applyFolderOverride(message, placement.folderIdentifier()))
+                .orElse(message));
+    }
+}
@@ -1,7 +1,11 @@
 package com.composerai.api.application.usecase.mailbox;
 
+import com.composerai.api.application.dto.mailbox.MailboxMessageSummary;
+import com.composerai.api.application.dto.mailbox.MailboxStateQuery;
 import com.composerai.api.application.dto.mailbox.MailboxStateSnapshotResult;
+import com.composerai.api.domain.model.MailFolderIdentifier;
 import com.composerai.api.domain.model.MailboxId;
+import com.composerai.api.domain.model.MailboxMessageOrder;
 import com.composerai.api.domain.model.MailboxSnapshot;
 import com.composerai.api.domain.model.MessageFolderPlacement;
 import com.composerai.api.domain.model.MessageId;
@@ -10,6 +14,8 @@ import com.composerai.api.domain.port.MailboxSnapshotPort;
 import com.composerai.api.domain.port.SessionScopedMessagePlacementPort;
 import com.composerai.api.domain.service.MailboxFolderTransitionService;
 import com.composerai.api.model.EmailMessage;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.slf4j.Logger;
@@ -18,7 +24,8 @@ import org.springframework.stereotype.Service;
 
 /**
  * Loads the current mailbox state for a session: baseline emails from the filesystem plus any
- * session-specific folder overrides, returning the resolved payload the UI can render immediately.
+ * session-specific folder overrides, returning the resolved payload the UI can render immediately. Callers can
+ * ask for one cursor-addressed page of a folder instead of the whole mailbox; see {@link MailboxStateQuery}.
  */
 @Service
 public class LoadMailboxStateSnapshotUseCase {
@@ -39,28 +46,115 @@ public class LoadMailboxStateSnapshotUseCase {
     }
 
     public MailboxStateSnapshotResult load(String mailboxId, String sessionId) {
-        if (mailboxId == null || mailboxId.isBlank()) {
-            throw new IllegalArgumentException("mailboxId is required");
-        }
-        if (sessionId == null || sessionId.isBlank()) {
-            throw new IllegalArgumentException("sessionId is required");
-        }
+        return load(mailboxId, sessionId, MailboxStateQuery.all());
+    }
 
-        log.debug("Loading mailbox snapshot for mailbox={} session={}", mailboxId, sessionId);
+    /**
+     * The version a {@link #load} would report right now, without building the state; lets callers answer
+     * conditional requests cheaply.
+     */
+    public String currentVersion(String mailboxId, String sessionId) {
+        requireIds(mailboxId, sessionId);
+        return mailboxSnapshotPort.loadSnapshot(mailboxId).versionFor(
+                sessionPlacementPort.placementVersion(new MailboxId(mailboxId), new SessionId(sessionId)));
+    }
+
+    /**
+     * Loads the window of the mailbox described by {@code query}. Snapshot messages are already in
+     * {@link MailboxMessageOrder}, so a cursor is located by binary search and a page only resolves placements
+     * and summaries for the messages it walks past, however large the mailbox is.
+     */
+    public MailboxStateSnapshotResult load(String mailboxId, String sessionId, MailboxStateQuery query) {
+        requireIds(mailboxId, sessionId);
+        MailboxStateQuery window = query == null ? MailboxStateQuery.all() : query;
+        MailFolderIdentifier folder =
+                window.folderId() == null ? null : transitionService.normalizeFolder(window.folderId());
+        MailboxPageCursor cursor = window.cursor() == null ? null : MailboxPageCursor.decode(window.cursor());
+
+        log.debug("Loading mailbox snapshot for mailbox={} session={} query={}", mailboxId, sessionId, window);
 
+        MailboxId mailbox = new MailboxId(mailboxId);
+        SessionId session = new SessionId(sessionId);
         MailboxSnapshot snapshot = mailboxSnapshotPort.loadSnapshot(mailboxId);
-        Map<MessageId, MessageFolderPlacement> placements =
-                sessionPlacementPort.findPlacements(new MailboxId(mailboxId), new SessionId(sessionId));
-        List<EmailMessage> resolvedMessages = transitionService.applyPlacements(snapshot, placements);
-        Map<String, Integer> folderCounts = transitionService.computeFolderCounts(resolvedMessages);
-        var effectiveFolders = transitionService.serializeEffectiveFolders(
-                transitionService.deriveEffectiveFolders(snapshot, placements));
+        // Read the version before the placements so a concurrent move can only make it look older, never newer
+        String version = snapshot.versionFor(sessionPlacementPort.placementVersion(mailbox, session));
+        Map<MessageId, MessageFolderPlacement> placements = sessionPlacementPort.findPlacements(mailbox, session);
+        Map<String, Integer> folderCounts = transitionService.computeFolderCounts(snapshot, placements);
+        Map<String, String> serializedPlacements = transitionService.serializePlacements(placements);
+        if (window.countOnly()) {
+            return new MailboxStateSnapshotResult(
+                    mailboxId, List.of(), folderCounts, serializedPlacements, Map.of(), null, version);
+        }
+
+        List<EmailMessage> messages = snapshot.messages();
+        Map<String, MailFolderIdentifier> placedFolders = transitionService.placedFoldersById(placements);
+        int pageSize = window.paged() ? window.pageSize() : Integer.MAX_VALUE;
+        List<EmailMessage> page = new ArrayList<>(Math.min(pageSize, messages.size()));
+        Map<String, String> effectiveFolders = new HashMap<>();
+        boolean more = false;
+        for (int i = cursor == null ? 0 : indexAfter(messages, cursor); i < messages.size(); i++) {
+            EmailMessage message = messages.get(i);
+            if (window.since() != null
+                    && MailboxMessageOrder.receivedMillis(message) <= window.since().toEpochMilli()) {
+                break; // everything after this was received earlier still
+            }
+            MailFolderIdentifier placed = placedFolders.get(message.id());
+            MailFolderIdentifier effective = placed != null ? placed : transitionService.deriveBaselineFolder(message);
+            if (folder != null && !folder.equals(effective)) {
+                continue;
+            }
+            if (page.size() == pageSize) {
+                more = true;
+                break;
+            }
+            page.add(placed == null ? message : transitionService.applyFolderOverride(message, placed));
+            effectiveFolders.put(message.id(), effective.value());
+        }
 
+        String nextCursor = null;
+        if (more) {
+            EmailMessage last = page.getLast();
+            nextCursor = new MailboxPageCursor(MailboxMessageOrder.receivedMillis(last), last.id()).encode();
+        }
         return new MailboxStateSnapshotResult(
                 mailboxId,
-                resolvedMessages,
+                MailboxMessageSummary.fromAll(page),
                 folderCounts,
-                transitionService.serializePlacements(placements),
-                effectiveFolders);
+                serializedPlacements,
+                Map.copyOf(effectiveFolders),
+                nextCursor,
+                version);
+    }
+
+    private static void requireIds(String mailboxId, String sessionId) {
+        if (mailboxId == null || mailboxId.isBlank()) {
+            throw new IllegalArgumentException("mailboxId is required");
+        }
+        if (sessionId == null || sessionId.isBlank()) {
+            throw new IllegalArgumentException("sessionId is required");
+        }
+    }
+
+    /**
+     * Index of the first message positioned strictly after {@code cursor} in listing order.
+     */
+    private static int indexAfter(List<EmailMessage> messages, MailboxPageCursor cursor) {
+        int low = 0;
+        int high = messages.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            EmailMessage candidate = messages.get(mid);
+            int order = MailboxMessageOrder.compare(
+                    MailboxMessageOrder.receivedMillis(candidate),
+                    candidate.id(),
+                    cursor.receivedMillis(),
+                    cursor.messageId());
+            if (order <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
     }
 }
@@ -0,0 +1,34 @@
+package com.composerai.api.application.usecase.mailbox;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in {@link com.composerai.api.domain.model.MailboxMessageOrder}: the received timestamp and id of the
+ * last message on a page. Encoded as opaque base64url text so clients pass it back untouched; because it names a
+ * position rather than an offset, pages stay stable when messages are added or moved between requests.
+ */
+record MailboxPageCursor(long receivedMillis, String messageId) {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    String encode() {
+        return ENCODER.encodeToString((receivedMillis + ":" + messageId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static MailboxPageCursor decode(String encoded) {
+        try {
+            String decoded = new String(DECODER.decode(encoded), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            if (separator <= 0 || separator == decoded.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new MailboxPageCursor(
+                    Long.parseLong(decoded.substring(0, separator)), decoded.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            // Also covers bad base64 and NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -2,12 +2,14 @@ package com.composerai.api.config;
 
 import com.composerai.api.util.StringUtils;
 import jakarta.annotation.PostConstruct;
+import java.time.Duration;
 import java.util.Locale;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 
 @Getter
 @Setter
@@ -23,6 +25,18 @@ public class AppProperties {
     @NestedConfigurationProperty
     private EmailRendering emailRendering = new EmailRendering();
 
+    @NestedConfigurationProperty
+    private EmailParsing emailParsing = new EmailParsing();
+
+    @NestedConfigurationProperty
+    private EmailIngestion emailIngestion = new EmailIngestion();
+
+    @NestedConfigurationProperty
+    private Uploads uploads = new Uploads();
+
+    @NestedConfigurationProperty
+    private CompanyLogos companyLogos = new CompanyLogos();
+
     @NestedConfigurationProperty
     private Ledger ledger = new Ledger();
 
@@ -59,6 +73,9 @@ public class AppProperties {
     @Getter
     public static class EmailRendering {
         private EmailRenderMode mode = EmailRenderMode.HTML;
+        /** Whether sanitized HTML is minified (shared inline styles, comments, whitespace) before it is served. */
+        @Setter
+        private boolean minifyHtml = false;
 
         public void setMode(EmailRenderMode mode) {
             this.mode = mode == null ? EmailRenderMode.HTML : mode;
@@ -92,6 +109,82 @@ public class AppProperties {
         }
     }
 
+    @Getter
+    @Setter
+    public static class EmailParsing {
+        private static final DataSize DEFAULT_MAX_HTML_PART_SIZE = DataSize.ofMegabytes(8);
+        private static final DataSize DEFAULT_MAX_TEXT_PART_SIZE = DataSize.ofMegabytes(2);
+        private static final DataSize DEFAULT_MAX_INLINE_IMAGE_SIZE = DataSize.ofMegabytes(10);
+
+        /** Largest decoded HTML body part read from an uploaded .eml; anything beyond is truncated. */
+        private DataSize maxHtmlPartSize = DEFAULT_MAX_HTML_PART_SIZE;
+        /** Largest decoded plain-text body part read from an uploaded .eml; anything beyond is truncated. */
+        private DataSize maxTextPartSize = DEFAULT_MAX_TEXT_PART_SIZE;
+        /** Whether parse results for mailbox files are cached by content hash (in memory and on disk). */
+        private boolean cacheEnabled = true;
+        /** Directory holding persisted parse results, one subdirectory per parser fingerprint. */
+        private String cacheDirectory = "data/cache/parsed-eml";
+        /** Content-addressed store for images moved out of email HTML ({@code data:} URIs, {@code cid:} parts). */
+        private String inlineImageDirectory = "data/cache/inline-images";
+        /** Largest decoded inline image moved to the store; larger images stay embedded in the HTML. */
+        private DataSize maxInlineImageSize = DEFAULT_MAX_INLINE_IMAGE_SIZE;
+        /** Longest HTML body (in chars) converted as HTML; longer bodies are rendered as plain text. */
+        private int budgetMaxInputChars = 2_000_000;
+        /** Deepest parsed DOM converted as HTML; deeper documents are rendered as plain text. */
+        private int budgetMaxDomDepth = 256;
+        /** Largest parsed DOM (in nodes) converted as HTML; larger documents are rendered as plain text. */
+        private int budgetMaxDomNodes = 250_000;
+        /** Wall-clock budget for parsing and rendering one message before falling back to plain text. */
+        private Duration budgetDeadline = Duration.ofSeconds(2);
+    }
+
+    @Getter
+    @Setter
+    public static class EmailIngestion {
+        private static final DataSize DEFAULT_MAX_FILE_SIZE = DataSize.ofMegabytes(10);
+        private static final Duration DEFAULT_STREAM_TIMEOUT = Duration.ofMinutes(30);
+
+        /** Parse worker threads for bulk ingestion; 0 sizes the pool to the available processors. */
+        private int workers = 0;
+        /** Server-side directory imports must resolve inside this root. */
+        private String directoryRoot = "data";
+        /** Files (and zip entries) larger than this are skipped rather than parsed. */
+        private DataSize maxFileSize = DEFAULT_MAX_FILE_SIZE;
+        /** How long an ingestion progress stream stays open before the server closes it. */
+        private Duration streamTimeout = DEFAULT_STREAM_TIMEOUT;
+
+        public int resolveWorkers() {
+            return workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        }
+    }
+
+    /**
+     * Multipart limits for every endpoint except bulk ingestion, whose larger limits are the container-wide
+     * {@code spring.servlet.multipart.*} settings; see {@code MultipartLimitsConfig}.
+     */
+    @Getter
+    @Setter
+    public static class Uploads {
+        private static final DataSize DEFAULT_MAX_FILE_SIZE = DataSize.ofMegabytes(1);
+        private static final DataSize DEFAULT_MAX_REQUEST_SIZE = DataSize.ofMegabytes(10);
+
+        private DataSize maxFileSize = DEFAULT_MAX_FILE_SIZE;
+        private DataSize maxRequestSize = DEFAULT_MAX_REQUEST_SIZE;
+    }
+
+    @Getter
+    @Setter
+    public static class CompanyLogos {
+        private static final int DEFAULT_MAX_CONCURRENT_LOOKUPS = 4;
+
+        /** Favicon lookup URL tried first; {@code %s} is the domain and {@code %d} the requested size. */
+        private String primaryTemplate = "https://www.google.com/s2/favicons?domain=%s&sz=%d";
+        /** Favicon lookup URL tried when the primary provider has no acceptable image. */
+        private String fallbackTemplate = "https://api.faviconkit.com/%s/%d";
+        /** Background threads resolving logos; lookups never run on the parse path. */
+        private int maxConcurrentLookups = DEFAULT_MAX_CONCURRENT_LOOKUPS;
+    }
+
     @Getter
     @Setter
     public static class Ledger {
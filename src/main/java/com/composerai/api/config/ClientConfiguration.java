@@ -130,6 +130,31 @@ public class ClientConfiguration {
         return java.util.concurrent.Executors.newVirtualThreadPerTaskExecutor();
     }
 
+    /**
+     * Provides the bounded platform-thread pool for bulk email ingestion.
+     * Parsing is CPU-bound (jsoup + Flexmark), so the pool is sized to processors rather than
+     * using virtual threads; callers bound their in-flight submissions themselves.
+     */
+    @Bean(name = "emailIngestionExecutor", destroyMethod = "shutdown")
+    public java.util.concurrent.ExecutorService emailIngestionExecutor(AppProperties appProperties) {
+        int workers = appProperties.getEmailIngestion().resolveWorkers();
+        log.info("Email ingestion executor configured with {} workers", workers);
+        return java.util.concurrent.Executors.newFixedThreadPool(
+                workers, Thread.ofPlatform().name("email-ingest-", 0).daemon(true).factory());
+    }
+
+    /**
+     * Provides the small pool that resolves company logos in the background.
+     * Lookups are slow remote calls; keeping them off the parse path and capped here means a cold mailbox
+     * load never waits on favicon providers and never floods them.
+     */
+    @Bean(name = "companyLogoExecutor", destroyMethod = "shutdown")
+    public java.util.concurrent.ExecutorService companyLogoExecutor(AppProperties appProperties) {
+        int threads = Math.max(1, appProperties.getCompanyLogos().getMaxConcurrentLookups());
+        return java.util.concurrent.Executors.newFixedThreadPool(
+                threads, Thread.ofPlatform().name("company-logo-", 0).daemon(true).factory());
+    }
+
     /**
      * Provides a shared ScheduledExecutorService for SSE heartbeat management.
      * Using a shared thread pool prevents resource exhaustion from creating
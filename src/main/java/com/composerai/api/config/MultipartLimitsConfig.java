@@ -0,0 +1,78 @@
+package com.composerai.api.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.List;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+import org.springframework.web.multipart.MultipartResolver;
+import org.springframework.web.multipart.support.StandardServletMultipartResolver;
+import org.springframework.web.servlet.DispatcherServlet;
+
+/**
+ * Scopes the large multipart limits to bulk ingestion.
+ * <p>
+ * The servlet container enforces one multipart limit for the whole application, and bulk ingestion needs a large
+ * one ({@code spring.servlet.multipart.*}). Every other endpoint is held to {@code app.uploads.*}: a request whose
+ * declared length is over the limit is refused before any part is read, and parts of a request without a declared
+ * length (chunked) are checked right after parsing and deleted if they are too large. Either way the client gets
+ * the usual 413.
+ */
+@Configuration
+public class MultipartLimitsConfig {
+
+    static final String BULK_INGESTION_PATH = "/api/ingest/";
+
+    @Bean(name = DispatcherServlet.MULTIPART_RESOLVER_BEAN_NAME)
+    public MultipartResolver multipartResolver(AppProperties appProperties) {
+        AppProperties.Uploads uploads = appProperties.getUploads();
+        return new PathScopedMultipartResolver(
+                uploads.getMaxFileSize().toBytes(), uploads.getMaxRequestSize().toBytes());
+    }
+
+    /**
+     * Standard resolver that applies the general upload limits to everything outside {@value #BULK_INGESTION_PATH}.
+     */
+    static final class PathScopedMultipartResolver extends StandardServletMultipartResolver {
+
+        private final long maxFileSize;
+        private final long maxRequestSize;
+
+        PathScopedMultipartResolver(long maxFileSize, long maxRequestSize) {
+            this.maxFileSize = maxFileSize;
+            this.maxRequestSize = maxRequestSize;
+        }
+
+        @Override
+        public MultipartHttpServletRequest resolveMultipart(HttpServletRequest request) {
+            if (isBulkIngestion(request)) {
+                return super.resolveMultipart(request);
+            }
+            if (request.getContentLengthLong() > maxRequestSize) {
+                throw new MaxUploadSizeExceededException(maxRequestSize);
+            }
+            MultipartHttpServletRequest resolved = super.resolveMultipart(request);
+            long total = 0;
+            for (List<MultipartFile> files : resolved.getMultiFileMap().values()) {
+                for (MultipartFile file : files) {
+                    total += file.getSize();
+                    if (file.getSize() > maxFileSize || total > maxRequestSize) {
+                        cleanupMultipart(resolved);
+                        throw new MaxUploadSizeExceededException(
+                                file.getSize() > maxFileSize ? maxFileSize : maxRequestSize);
+                    }
+                }
+            }
+            return resolved;
+        }
+
+        /** Decides on the container-normalized servlet path, which {@code ..} segments cannot escape. */
+        private static boolean isBulkIngestion(HttpServletRequest request) {
+            String pathInfo = request.getPathInfo();
+            String path = request.getServletPath() + (pathInfo == null ? "" : pathInfo);
+            return path.startsWith(BULK_INGESTION_PATH);
+        }
+    }
+}
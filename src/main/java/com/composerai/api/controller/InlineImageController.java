@@ -0,0 +1,56 @@
+package com.composerai.api.controller;
+
+import com.composerai.api.service.email.InlineImageStore;
+import java.time.Duration;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Serves images that email parsing moved out of message HTML into {@link InlineImageStore}.
+ * <p>
+ * Names are content hashes, so a URL always maps to the same bytes: responses carry a strong ETag and are
+ * cacheable for a year as immutable. Mapped outside {@code /api} because the UI nonce guard on {@code /api/**}
+ * requires a header that {@code <img>} requests cannot send.
+ */
+@RestController
+@RequiredArgsConstructor
+public class InlineImageController {
+
+    private static final CacheControl IMMUTABLE =
+            CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    private final InlineImageStore inlineImageStore;
+
+    @GetMapping(InlineImageStore.URL_PREFIX + "{name}")
+    public ResponseEntity<Resource> image(
+            @PathVariable String name,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return inlineImageStore
+                .find(name)
+                .map(image -> {
+                    String etag = "\"" + image.contentHash() + "\"";
+                    if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                .eTag(etag)
+                                .cacheControl(IMMUTABLE)
+                                .<Resource>build();
+                    }
+                    return ResponseEntity.ok()
+                            .eTag(etag)
+                            .cacheControl(IMMUTABLE)
+                            .contentType(MediaType.parseMediaType(image.mediaType()))
+                            .<Resource>body(new FileSystemResource(image.file()));
+                })
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
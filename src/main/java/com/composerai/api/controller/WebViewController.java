@@ -1,5 +1,6 @@
 package com.composerai.api.controller;
 
+import com.composerai.api.application.dto.mailbox.MailboxMessageSummary;
 import com.composerai.api.domain.service.MailboxFolderTransitionService;
 import com.composerai.api.service.email.EmailMessageProvider;
 import jakarta.servlet.http.HttpSession;
@@ -48,7 +49,8 @@ public class WebViewController {
     public String emailClientV2(Model model, HttpSession session) {
         model.addAttribute("uiNonce", uiNonceService.getOrCreateSessionNonce(session));
         List<com.composerai.api.model.EmailMessage> emailMessages = emailMessageProvider.loadEmails();
-        model.addAttribute("emailMessages", emailMessages);
+        // List summaries only; the client fetches a message's bodies when it is opened
+        model.addAttribute("emailMessages", MailboxMessageSummary.fromAll(emailMessages));
         model.addAttribute("folderCounts", mailboxFolderTransitionService.computeFolderCounts(emailMessages));
         Map<String, String> effectiveFolders = new LinkedHashMap<>();
         for (com.composerai.api.model.EmailMessage emailMessage : emailMessages) {
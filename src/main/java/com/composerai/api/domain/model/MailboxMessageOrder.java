@@ -0,0 +1,55 @@
+package com.composerai.api.domain.model;
+
+import com.composerai.api.model.EmailMessage;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The order mailbox listings use: newest received first, then by message id, so messages with equal timestamps
+ * still have a fixed position that a page cursor can point at. Messages without a parseable received timestamp
+ * sort after all others.
+ */
+public final class MailboxMessageOrder {
+
+    /** Sort key for messages without a parseable received timestamp. */
+    public static final long UNKNOWN_RECEIVED = Long.MIN_VALUE;
+
+    private MailboxMessageOrder() {}
+
+    public static long receivedMillis(EmailMessage message) {
+        OffsetDateTime received = message == null ? null : message.receivedAt();
+        return received == null ? UNKNOWN_RECEIVED : received.toInstant().toEpochMilli();
+    }
+
+    /**
+     * Negative when the first position comes before the second in listing order.
+     */
+    public static int compare(long receivedA, String idA, long receivedB, String idB) {
+        int byReceived = Long.compare(receivedB, receivedA);
+        return byReceived != 0 ? byReceived : nullToEmpty(idA).compareTo(nullToEmpty(idB));
+    }
+
+    /**
+     * Returns {@code messages} in listing order. Each timestamp is parsed once, not once per comparison.
+     */
+    public static List<EmailMessage> sort(List<EmailMessage> messages) {
+        Keyed[] keyed = new Keyed[messages.size()];
+        for (int i = 0; i < keyed.length; i++) {
+            EmailMessage message = messages.get(i);
+            keyed[i] = new Keyed(receivedMillis(message), message);
+        }
+        Arrays.sort(keyed, Keyed.ORDER);
+        return Arrays.stream(keyed).map(Keyed::message).toList();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private record Keyed(long received, EmailMessage message) {
+        static final Comparator<Keyed> ORDER =
+                (a, b) -> compare(a.received, a.message.id(), b.received, b.message.id());
+    }
+}
@@ -1,24 +1,125 @@
 package com.composerai.api.domain.model;
 
 import com.composerai.api.model.EmailMessage;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Immutable view of a mailbox at load time.
  * Contains the raw email payload plus baseline folder counts so that application use cases can
- * cheaply derive per-session overrides without re-reading from disk.
+ * cheaply derive per-session overrides without re-reading from disk. Messages are in
+ * {@link MailboxMessageOrder}; paged state loads rely on that to locate cursors by binary search.
+ * {@code version} grows whenever the underlying messages change, so together with a session's placement
+ * version it identifies that session's whole mailbox view.
+ * <p>
+ * Baseline counts use the same keys as the folder counts the UI shows and are computed once per snapshot
+ * (see {@code MailboxFolderTransitionService#createSnapshot}); a session's counts are the baseline adjusted
+ * for its placements, which only needs the id index to find each placed message.
+ * <p>
+ * The indexes by message id and by contextId are built once per snapshot and shared by
+ * {@link #withMailboxId}, so lookups never scan the mailbox.
  */
-public record MailboxSnapshot(
-        String mailboxId, List<EmailMessage> messages, Map<MailFolderIdentifier, Integer> baselineCounts) {
+public final class MailboxSnapshot {
 
-    public MailboxSnapshot {
+    private final String mailboxId;
+    private final List<EmailMessage> messages;
+    private final Map<String, Integer> baselineCounts;
+    private final long version;
+    private final Indexes indexes;
+
+    public MailboxSnapshot(
+            String mailboxId, List<EmailMessage> messages, Map<String, Integer> baselineCounts, long version) {
+        this(mailboxId, messages, baselineCounts, version, Indexes.of(messages));
+    }
+
+    private MailboxSnapshot(
+            String mailboxId,
+            List<EmailMessage> messages,
+            Map<String, Integer> baselineCounts,
+            long version,
+            Indexes indexes) {
         if (mailboxId == null || mailboxId.isBlank()) {
             throw new IllegalArgumentException("mailboxId is required");
         }
-        if (messages == null) {
-            throw new IllegalArgumentException("messages is required");
+        this.mailboxId = mailboxId;
+        this.messages = messages;
+        this.baselineCounts = baselineCounts == null ? Map.of() : Map.copyOf(baselineCounts);
+        this.version = version;
+        this.indexes = indexes;
+    }
+
+    public String mailboxId() {
+        return mailboxId;
+    }
+
+    public List<EmailMessage> messages() {
+        return messages;
+    }
+
+    public Map<String, Integer> baselineCounts() {
+        return baselineCounts;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Looks a message up by id without scanning the mailbox.
+     */
+    public Optional<EmailMessage> findMessage(String messageId) {
+        return messageId == null ? Optional.empty() : Optional.ofNullable(indexes.byId().get(messageId));
+    }
+
+    /**
+     * Looks a message up by the contextId its AI context was stored under, without scanning the mailbox.
+     */
+    public Optional<EmailMessage> findByContextId(String contextId) {
+        return contextId == null ? Optional.empty() : Optional.ofNullable(indexes.byContextId().get(contextId));
+    }
+
+    /**
+     * The same snapshot under another mailbox id, sharing its messages, counts and indexes.
+     */
+    public MailboxSnapshot withMailboxId(String otherMailboxId) {
+        return mailboxId.equals(otherMailboxId)
+                ? this
+                : new MailboxSnapshot(otherMailboxId, messages, baselineCounts, version, indexes);
+    }
+
+    /**
+     * Opaque version of the mailbox as seen by a session with the given placement version. Both parts are kept
+     * rather than summed, so different snapshot and placement versions can never produce the same value.
+     */
+    public String versionFor(long placementVersion) {
+        return version + "." + placementVersion;
+    }
+
+    private record Indexes(Map<String, EmailMessage> byId, Map<String, EmailMessage> byContextId) {
+
+        static Indexes of(List<EmailMessage> messages) {
+            if (messages == null) {
+                throw new IllegalArgumentException("messages is required");
+            }
+            int capacity = Math.max(16, messages.size() * 2);
+            Map<String, EmailMessage> byId = new HashMap<>(capacity);
+            Map<String, EmailMessage> byContextId = new HashMap<>(capacity);
+            for (EmailMessage message : messages) {
+                if (message == null) {
+                    continue;
+                }
+                // First wins, as a linear search would
+                if (message.id() != null) {
+                    byId.putIfAbsent(message.id(), message);
+                }
+                if (message.contextId() != null) {
+                    byContextId.putIfAbsent(message.contextId(), message);
+                }
+            }
+            return new Indexes(Collections.unmodifiableMap(byId), Collections.unmodifiableMap(byContextId));
         }
-        baselineCounts = baselineCounts == null ? Map.of() : Map.copyOf(baselineCounts);
     }
 }
@@ -0,0 +1,18 @@
+package com.composerai.api.domain.port;
+
+import com.composerai.api.model.EmailMessage;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Port that imports one raw message file into the mailbox data source and returns its parsed form.
+ * Implementations must be safe to call from many worker threads at once; a failure affects only the
+ * file being imported.
+ */
+public interface MailboxIngestionPort {
+
+    /** Whether the data source knows how to import a file with this name (judged by extension). */
+    boolean supports(String fileName);
+
+    EmailMessage importMessage(Path file, String originalFilename) throws IOException;
+}
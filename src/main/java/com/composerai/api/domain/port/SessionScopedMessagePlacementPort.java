@@ -21,4 +21,13 @@ public interface SessionScopedMessagePlacementPort {
     void savePlacement(MessageFolderPlacement placement);
 
     void removePlacement(MailboxId mailboxId, SessionId sessionId, MessageId messageId);
+
+    /**
+     * Version of the session's placements in the mailbox. It only ever grows for a session: every save or remove
+     * issues a value no other change, in any session, ever gets, and a session keeps its last value once its
+     * placements are all removed. A session that never changed anything reports 0, or, once long-emptied sessions
+     * have been forgotten, a value at least as high as any of theirs. Equal versions therefore mean equal
+     * placements, and a client never sees an old version again for a different state.
+     */
+    long placementVersion(MailboxId mailboxId, SessionId sessionId);
 }
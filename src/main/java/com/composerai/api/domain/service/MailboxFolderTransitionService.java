@@ -38,6 +38,16 @@ public class MailboxFolderTransitionService {
             Set.of("archive", "archived", "trash", "deleted", "sent", "drafts", "draft");
     private static final Set<String> SUPPORTED_FOLDERS = Set.of("inbox", "archive", "trash", "sent", "drafts");
 
+    private static final List<String> COUNT_KEYS =
+            List.of("inbox", "starred", "snoozed", "sent", "drafts", "archive", "trash");
+    private static final int INBOX_COUNT = 0;
+    private static final int STARRED_COUNT = 1;
+    private static final int SNOOZED_COUNT = 2;
+    private static final int SENT_COUNT = 3;
+    private static final int DRAFTS_COUNT = 4;
+    private static final int ARCHIVE_COUNT = 5;
+    private static final int TRASH_COUNT = 6;
+
     /**
      * Validates and normalizes a requested folder identifier so callers cannot introduce arbitrary folder names.
      */
@@ -58,88 +68,102 @@ public class MailboxFolderTransitionService {
      * Drafts and sent messages are treated as first-class folders even before SMTP wiring exists.
      */
     public MailFolderIdentifier deriveBaselineFolder(EmailMessage message) {
-        if (message == null) {
-            return INBOX;
-        }
-        List<String> labels = normalizeLabels(message);
-        if (labels.stream().anyMatch(this::isTrashLabel)) {
+        LabelTraits traits = LabelTraits.of(message);
+        if (traits.trash()) {
             return TRASH;
         }
-        if (labels.stream().anyMatch(this::isArchiveLabel)) {
+        if (traits.archive()) {
             return ARCHIVE;
         }
-        if (labels.stream().anyMatch(this::isSentLabel)) {
+        if (traits.sent()) {
             return SENT;
         }
-        if (labels.stream().anyMatch(this::isDraftLabel)) {
+        if (traits.drafts()) {
             return DRAFTS;
         }
         return INBOX;
     }
 
     /**
-     * Applies any stored placements to the snapshot and returns a new resolved list of emails.
+     * Builds a snapshot whose baseline counts follow {@link #computeFolderCounts(List)}, so session counts can
+     * later be derived from placements alone via {@link #computeFolderCounts(MailboxSnapshot, Map)}.
+     */
+    public MailboxSnapshot createSnapshot(String mailboxId, List<EmailMessage> messages, long version) {
+        return new MailboxSnapshot(mailboxId, messages, computeFolderCounts(messages), version);
+    }
+
+    /**
+     * Applies any stored placements to the snapshot and returns the resolved list of emails (the snapshot's own
+     * list when there are no placements).
      */
     public List<EmailMessage> applyPlacements(
             MailboxSnapshot snapshot, Map<MessageId, MessageFolderPlacement> placements) {
         Objects.requireNonNull(snapshot, "snapshot is required");
-        Map<MessageId, MessageFolderPlacement> placementMap = placements == null ? Map.of() : placements;
+        if (placements == null || placements.isEmpty()) {
+            return snapshot.messages();
+        }
+        Map<String, MailFolderIdentifier> placedFolders = placedFoldersById(placements);
 
         List<EmailMessage> resolved = new ArrayList<>(snapshot.messages().size());
         for (EmailMessage message : snapshot.messages()) {
-            MessageFolderPlacement placement = placementMap.get(new MessageId(message.id()));
-            if (placement == null) {
-                resolved.add(message);
-                continue;
-            }
-            resolved.add(applyFolderOverride(message, placement.folderIdentifier()));
+            MailFolderIdentifier placed = placedFolders.get(message.id());
+            resolved.add(placed == null ? message : applyFolderOverride(message, placed));
         }
         return resolved;
     }
 
+    /**
+     * Placement folders keyed by raw message id, so callers walking the mailbox can probe with
+     * {@link EmailMessage#id()} directly instead of wrapping every id in a {@link MessageId}.
+     */
+    public Map<String, MailFolderIdentifier> placedFoldersById(Map<MessageId, MessageFolderPlacement> placements) {
+        if (placements == null || placements.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, MailFolderIdentifier> folders = new HashMap<>(placements.size() * 2);
+        placements.forEach((messageId, placement) -> folders.put(messageId.value(), placement.folderIdentifier()));
+        return folders;
+    }
+
     /**
      * Calculates folder counts using the same rules as the frontend store so UI and API stay consistent.
+     * Each message's labels are normalized and classified in a single pass.
      */
     public Map<String, Integer> computeFolderCounts(List<EmailMessage> messages) {
-        List<EmailMessage> safeList = messages == null ? List.of() : messages;
-        Map<String, Integer> totals = new LinkedHashMap<>();
-        totals.put("inbox", 0); // Will be calculated after exclusive folders
-        totals.put("starred", 0);
-        totals.put("snoozed", 0);
-        totals.put("sent", 0);
-        totals.put("drafts", 0);
-        totals.put("archive", 0);
-        totals.put("trash", 0);
-
-        int exclusiveCount = 0;
-        for (EmailMessage message : safeList) {
-            List<String> labels = normalizeLabels(message);
-            boolean hasExclusiveLabel = labels.stream().anyMatch(EXCLUSIVE_LABELS::contains);
-            if (hasExclusiveLabel) {
-                exclusiveCount++;
-            }
-            if (Boolean.TRUE.equals(message.starred())) {
-                totals.computeIfPresent("starred", (k, v) -> v + 1);
-            }
-            if (labels.stream().anyMatch(label -> label.equals("snoozed"))) {
-                totals.computeIfPresent("snoozed", (k, v) -> v + 1);
-            }
-            if (labels.stream().anyMatch(label -> label.equals("sent"))) {
-                totals.computeIfPresent("sent", (k, v) -> v + 1);
+        int[] totals = new int[COUNT_KEYS.size()];
+        if (messages != null) {
+            for (EmailMessage message : messages) {
+                tally(totals, LabelTraits.of(message), message != null && message.starred(), 1);
             }
-            if (labels.stream().anyMatch(label -> label.equals("drafts") || label.equals("draft"))) {
-                totals.computeIfPresent("drafts", (k, v) -> v + 1);
-            }
-            if (labels.stream().anyMatch(this::isArchiveLabel)) {
-                totals.computeIfPresent("archive", (k, v) -> v + 1);
-            }
-            if (labels.stream().anyMatch(this::isTrashLabel)) {
-                totals.computeIfPresent("trash", (k, v) -> v + 1);
+        }
+        return toCountMap(totals);
+    }
+
+    /**
+     * Folder counts for a session: the snapshot's baseline counts adjusted for each placement, which costs
+     * O(#placements) instead of a pass over the whole mailbox. Matches
+     * {@code computeFolderCounts(applyPlacements(snapshot, placements))}.
+     */
+    public Map<String, Integer> computeFolderCounts(
+            MailboxSnapshot snapshot, Map<MessageId, MessageFolderPlacement> placements) {
+        Objects.requireNonNull(snapshot, "snapshot is required");
+        int[] totals = new int[COUNT_KEYS.size()];
+        for (int i = 0; i < totals.length; i++) {
+            totals[i] = snapshot.baselineCounts().getOrDefault(COUNT_KEYS.get(i), 0);
+        }
+        if (placements != null) {
+            for (MessageFolderPlacement placement : placements.values()) {
+                EmailMessage message =
+                        snapshot.findMessage(placement.messageId().value()).orElse(null);
+                if (message == null) {
+                    continue; // placement for a message no longer in the mailbox
+                }
+                LabelTraits baseline = LabelTraits.of(message);
+                tally(totals, baseline, message.starred(), -1);
+                tally(totals, baseline.movedTo(placement.folderIdentifier()), message.starred(), 1);
             }
         }
-        // Inbox contains only messages without exclusive labels
-        totals.put("inbox", safeList.size() - exclusiveCount);
-        return totals;
+        return toCountMap(totals);
     }
 
     /**
@@ -191,16 +215,47 @@ public class MailboxFolderTransitionService {
     public EffectiveFoldersMap deriveEffectiveFolders(
             MailboxSnapshot snapshot, Map<MessageId, MessageFolderPlacement> placements) {
         Map<String, MailFolderIdentifier> folderMap = new HashMap<>();
-        Map<MessageId, MessageFolderPlacement> safePlacements = placements == null ? Map.of() : placements;
+        Map<String, MailFolderIdentifier> placedFolders = placedFoldersById(placements);
         for (EmailMessage message : snapshot.messages()) {
-            MessageFolderPlacement placement = safePlacements.get(new MessageId(message.id()));
-            MailFolderIdentifier effective =
-                    placement != null ? placement.folderIdentifier() : deriveBaselineFolder(message);
-            folderMap.put(message.id(), effective);
+            MailFolderIdentifier placed = placedFolders.get(message.id());
+            folderMap.put(message.id(), placed != null ? placed : deriveBaselineFolder(message));
         }
         return new EffectiveFoldersMap(folderMap);
     }
 
+    private static void tally(int[] totals, LabelTraits traits, boolean starred, int delta) {
+        // Inbox holds only messages without exclusive labels; the others are counted per matching label
+        if (!traits.exclusive()) {
+            totals[INBOX_COUNT] += delta;
+        }
+        if (starred) {
+            totals[STARRED_COUNT] += delta;
+        }
+        if (traits.snoozed()) {
+            totals[SNOOZED_COUNT] += delta;
+        }
+        if (traits.sent()) {
+            totals[SENT_COUNT] += delta;
+        }
+        if (traits.drafts()) {
+            totals[DRAFTS_COUNT] += delta;
+        }
+        if (traits.archive()) {
+            totals[ARCHIVE_COUNT] += delta;
+        }
+        if (traits.trash()) {
+            totals[TRASH_COUNT] += delta;
+        }
+    }
+
+    private static Map<String, Integer> toCountMap(int[] totals) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (int i = 0; i < totals.length; i++) {
+            counts.put(COUNT_KEYS.get(i), totals[i]);
+        }
+        return counts;
+    }
+
     private List<String> normalizeLabels(EmailMessage message) {
         if (message == null || message.labels() == null) {
             return List.of();
@@ -212,25 +267,25 @@ public class MailboxFolderTransitionService {
                 .collect(Collectors.toCollection(ArrayList::new));
     }
 
-    private boolean isArchiveLabel(String label) {
+    private static boolean isArchiveLabel(String label) {
         return "archive".equals(label) || "archived".equals(label);
     }
 
-    private boolean isTrashLabel(String label) {
+    private static boolean isTrashLabel(String label) {
         return "trash".equals(label) || "deleted".equals(label);
     }
 
     /**
      * Detects sent-folder markers already present on the email.
      */
-    private boolean isSentLabel(String label) {
+    private static boolean isSentLabel(String label) {
         return "sent".equals(label);
     }
 
     /**
      * Detects draft markers already present on the email.
      */
-    private boolean isDraftLabel(String label) {
+    private static boolean isDraftLabel(String label) {
         return "drafts".equals(label) || "draft".equals(label);
     }
 
@@ -253,6 +308,49 @@ public class MailboxFolderTransitionService {
         return List.of();
     }
 
+    /**
+     * What a message's labels say about its folders, gathered in one pass over the labels.
+     */
+    private record LabelTraits(
+            boolean exclusive, boolean snoozed, boolean sent, boolean drafts, boolean archive, boolean trash) {
+
+        static LabelTraits of(EmailMessage message) {
+            boolean exclusive = false;
+            boolean snoozed = false;
+            boolean sent = false;
+            boolean drafts = false;
+            boolean archive = false;
+            boolean trash = false;
+            if (message != null && message.labels() != null) {
+                for (String raw : message.labels()) {
+                    if (raw == null) {
+                        continue;
+                    }
+                    String label = raw.trim().toLowerCase(Locale.US);
+                    exclusive |= EXCLUSIVE_LABELS.contains(label);
+                    snoozed |= label.equals("snoozed");
+                    sent |= isSentLabel(label);
+                    drafts |= isDraftLabel(label);
+                    archive |= isArchiveLabel(label);
+                    trash |= isTrashLabel(label);
+                }
+            }
+            return new LabelTraits(exclusive, snoozed, sent, drafts, archive, trash);
+        }
+
+        /**
+         * Traits after {@link #applyFolderOverride}: exclusive labels replaced by the folder's own label.
+         */
+        LabelTraits movedTo(MailFolderIdentifier folder) {
+            boolean toSent = folder.equals(SENT);
+            boolean toDrafts = folder.equals(DRAFTS);
+            boolean toArchive = folder.equals(ARCHIVE);
+            boolean toTrash = folder.equals(TRASH);
+            boolean exclusive = toSent || toDrafts || toArchive || toTrash;
+            return new LabelTraits(exclusive, snoozed, toSent, toDrafts, toArchive, toTrash);
+        }
+    }
+
     public record EffectiveFoldersMap(Map<String, MailFolderIdentifier> values) {
         public MailFolderIdentifier folderFor(String messageId) {
             return values.getOrDefault(messageId, INBOX);
@@ -1,7 +1,7 @@
 package com.composerai.api.dto;
 
 /**
- * SSE event types used in chat streaming.
+ * SSE event types used in chat streaming and bulk ingestion progress.
  * Provides type safety and prevents typos in event names.
  */
 public enum SseEventType {
@@ -10,7 +10,8 @@ public enum SseEventType {
     RAW_JSON("raw_json"),
     DONE("done"),
     ERROR("error"),
-    REASONING("reasoning");
+    REASONING("reasoning"),
+    PROGRESS("progress");
 
     private final String eventName;
 
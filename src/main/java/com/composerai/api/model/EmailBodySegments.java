@@ -0,0 +1,143 @@
+package com.composerai.api.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Character ranges of a message's context body ({@link EmailMessage#contextBody()}) classified as the
+ * sender's new content, quoted history (replies, forwards) or signature.
+ * <p>
+ * Segments are computed once at ingest, are ordered, do not overlap, and together cover the whole body, so
+ * context assembly can slice the body instead of re-scanning it. {@link #encode()} is the compact form
+ * persisted with cached parse results, e.g. {@code N0-120,Q120-900,S900-950}.
+ */
+public record EmailBodySegments(List<Segment> segments) {
+
+    public enum Kind {
+        NEW('N'),
+        QUOTED('Q'),
+        SIGNATURE('S');
+
+        private final char code;
+
+        Kind(char code) {
+            this.code = code;
+        }
+
+        static Kind fromCode(char code) {
+            for (Kind kind : values()) {
+                if (kind.code == code) {
+                    return kind;
+                }
+            }
+            throw new IllegalArgumentException("Unknown body segment kind: " + code);
+        }
+    }
+
+    public record Segment(Kind kind, int start, int end) {
+        public Segment {
+            if (kind == null || start < 0 || end < start) {
+                throw new IllegalArgumentException("Invalid body segment: " + kind + " " + start + "-" + end);
+            }
+        }
+    }
+
+    public EmailBodySegments {
+        segments = segments == null ? List.of() : List.copyOf(segments);
+        int expectedStart = 0;
+        for (Segment segment : segments) {
+            if (segment.start() != expectedStart) {
+                throw new IllegalArgumentException("Body segments must be contiguous from offset 0");
+            }
+            expectedStart = segment.end();
+        }
+    }
+
+    /** A body that is entirely new content. */
+    public static EmailBodySegments allNew(int length) {
+        return new EmailBodySegments(length == 0 ? List.of() : List.of(new Segment(Kind.NEW, 0, length)));
+    }
+
+    /** Whether any quoted history or signature would be left out of {@link #newContent(String)}. */
+    public boolean hasOmittedContent() {
+        return segments.stream().anyMatch(segment -> segment.kind() != Kind.NEW);
+    }
+
+    public int length(Kind kind) {
+        int total = 0;
+        for (Segment segment : segments) {
+            if (segment.kind() == kind) {
+                total += segment.end() - segment.start();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * The new-content segments of {@code body}, each stripped, separated by blank lines.
+     *
+     * @param body the body these segments were computed for
+     * @throws IllegalArgumentException when the segments do not cover {@code body} exactly
+     */
+    public String newContent(String body) {
+        String source = body == null ? "" : body;
+        int covered = segments.isEmpty() ? 0 : segments.get(segments.size() - 1).end();
+        if (covered != source.length()) {
+            throw new IllegalArgumentException(
+                    "Body segments cover " + covered + " chars but the body has " + source.length());
+        }
+        StringBuilder out = new StringBuilder(source.length());
+        for (Segment segment : segments) {
+            if (segment.kind() != Kind.NEW) {
+                continue;
+            }
+            String text = source.substring(segment.start(), segment.end()).strip();
+            if (text.isEmpty()) {
+                continue;
+            }
+            if (!out.isEmpty()) {
+                out.append("\n\n");
+            }
+            out.append(text);
+        }
+        return out.toString();
+    }
+
+    public String encode() {
+        StringBuilder out = new StringBuilder(segments.size() * 12);
+        for (Segment segment : segments) {
+            if (!out.isEmpty()) {
+                out.append(',');
+            }
+            out.append(segment.kind().code).append(segment.start()).append('-').append(segment.end());
+        }
+        return out.toString();
+    }
+
+    /**
+     * Inverse of {@link #encode()}.
+     *
+     * @throws IllegalArgumentException when {@code encoded} is not a valid segment list
+     */
+    public static EmailBodySegments decode(String encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            return new EmailBodySegments(List.of());
+        }
+        List<Segment> segments = new ArrayList<>();
+        for (String part : encoded.split(",", -1)) {
+            int dash = part.indexOf('-');
+            if (part.length() < 4 || dash < 2) {
+                throw new IllegalArgumentException("Malformed body segment: " + part);
+            }
+            try {
+                segments.add(new Segment(
+                        Kind.fromCode(part.charAt(0)),
+                        Integer.parseInt(part, 1, dash, 10),
+                        Integer.parseInt(part, dash + 1, part.length(), 10)));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Malformed body segment: " + part, e);
+            }
+        }
+        return new EmailBodySegments(segments);
+    }
+}
@@ -55,6 +55,9 @@ public class EmailMessage {
     @JsonProperty("contextForAI")
     private final String contextForAi;
 
+    @JsonIgnore
+    private final EmailBodySegments bodySegments;
+
     protected EmailMessage(BuilderBase<?> builder) {
         this.id = builder.id;
         this.contextId = builder.contextId;
@@ -86,6 +89,7 @@ public class EmailMessage {
         this.read = builder.read;
         this.preview = StringUtils.defaultIfBlank(builder.preview, derivePreview(this.emailBodyTransformedText));
         this.contextForAi = StringUtils.trimToNull(builder.contextForAi);
+        this.bodySegments = builder.bodySegments;
     }
 
     public static Builder builder() {
@@ -203,6 +207,21 @@ public class EmailMessage {
         return contextForAi;
     }
 
+    /**
+     * New content, quoted history and signature ranges of {@link #contextBody()}; null when the message was
+     * never segmented.
+     */
+    public EmailBodySegments bodySegments() {
+        return bodySegments;
+    }
+
+    /**
+     * The body AI context is built from: Markdown when present, otherwise the transformed or raw text.
+     */
+    public String contextBody() {
+        return StringUtils.firstNonBlank(emailBodyTransformedMarkdown, emailBodyTransformedText, emailBodyRaw);
+    }
+
     public EmailMessage copy() {
         return new Builder(this).build();
     }
@@ -231,7 +250,8 @@ public class EmailMessage {
                 && Objects.equals(companyLogoUrl, that.companyLogoUrl)
                 && Objects.equals(avatarUrl, that.avatarUrl)
                 && Objects.equals(preview, that.preview)
-                && Objects.equals(contextForAi, that.contextForAi);
+                && Objects.equals(contextForAi, that.contextForAi)
+                && Objects.equals(bodySegments, that.bodySegments);
     }
 
     @Override
@@ -257,7 +277,8 @@ public class EmailMessage {
                 starred,
                 read,
                 preview,
-                contextForAi);
+                contextForAi,
+                bodySegments);
     }
 
     @Override
@@ -314,6 +335,7 @@ public class EmailMessage {
         private boolean read;
         private String preview;
         private String contextForAi;
+        private EmailBodySegments bodySegments;
 
         protected BuilderBase() {}
 
@@ -339,6 +361,7 @@ public class EmailMessage {
             this.read = source.read;
             this.preview = source.preview;
             this.contextForAi = source.contextForAi;
+            this.bodySegments = source.bodySegments;
         }
 
         protected abstract T self();
@@ -462,6 +485,11 @@ public class EmailMessage {
             this.contextForAi = contextForAi;
             return self();
         }
+
+        public T bodySegments(EmailBodySegments bodySegments) {
+            this.bodySegments = bodySegments;
+            return self();
+        }
     }
 
     private static String normalize(String value) {
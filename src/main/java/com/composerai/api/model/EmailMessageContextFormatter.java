@@ -5,9 +5,29 @@ import com.composerai.api.util.TemporalUtils;
 
 public final class EmailMessageContextFormatter {
 
+    private static final String FULL_CONTEXT_SUFFIX = "#full";
+
     private EmailMessageContextFormatter() {}
 
+    /**
+     * Context with quoted history and signature left out when the message was segmented.
+     */
     public static String buildContext(EmailMessage emailMessage) {
+        return buildContext(emailMessage, false);
+    }
+
+    /**
+     * Context registry key under which the {@code includeQuotedHistory} variant of a message's context is kept.
+     */
+    public static String fullContextId(String contextId) {
+        return contextId + FULL_CONTEXT_SUFFIX;
+    }
+
+    /**
+     * @param includeQuotedHistory keep the whole body; otherwise only the new content of a segmented message is
+     *     included, unless the sender added none (a bare forward)
+     */
+    public static String buildContext(EmailMessage emailMessage, boolean includeQuotedHistory) {
         if (emailMessage == null) {
             return "";
         }
@@ -50,11 +70,17 @@ public final class EmailMessageContextFormatter {
 
         context.append('\n');
         context.append("=== Email Body ===\n");
-        String body = StringUtils.firstNonBlank(
-                emailMessage.emailBodyTransformedMarkdown(),
-                emailMessage.emailBodyTransformedText(),
-                emailMessage.emailBodyRaw());
-        if (StringUtils.hasText(body)) {
+        String body = emailMessage.contextBody();
+        String newContent = includeQuotedHistory ? null : newContent(body, emailMessage.bodySegments());
+        if (StringUtils.hasText(newContent)) {
+            EmailBodySegments segments = emailMessage.bodySegments();
+            context.append(newContent);
+            context.append("\n\n[Omitted from this context: ")
+                    .append(segments.length(EmailBodySegments.Kind.QUOTED))
+                    .append(" chars of quoted earlier messages, ")
+                    .append(segments.length(EmailBodySegments.Kind.SIGNATURE))
+                    .append(" chars of signature]");
+        } else if (StringUtils.hasText(body)) {
             context.append(body.strip());
         } else {
             context.append("(Email body is empty)");
@@ -62,4 +88,15 @@ public final class EmailMessageContextFormatter {
 
         return context.toString();
     }
+
+    private static String newContent(String body, EmailBodySegments segments) {
+        if (body == null || segments == null || !segments.hasOmittedContent()) {
+            return null;
+        }
+        try {
+            return segments.newContent(body);
+        } catch (IllegalArgumentException staleSegments) {
+            return null;
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package com.composerai.api.service;
 
+import com.composerai.api.config.AppProperties;
 import com.composerai.api.util.StringUtils;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
@@ -13,19 +14,31 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.imageio.ImageIO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+/**
+ * Resolves company logos for sender domains without ever blocking the caller.
+ * <p>
+ * {@link #logoUrlForDomain(String)} only reads the in-memory cache; a miss queues the domain on the
+ * {@code companyLogoExecutor} pool and returns empty, so parsing falls back to the generic avatar and the
+ * resolved logo is picked up by the next parse or snapshot ({@link #generation()} tells cached snapshots when
+ * to look again). Concurrent misses for one domain share a single lookup, and both hits and misses are cached
+ * for {@link #TTL}.
+ */
 @Service
 public class CompanyLogoProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(CompanyLogoProvider.class);
-    private static final String GOOGLE_S2_TEMPLATE = "https://www.google.com/s2/favicons?domain=%s&sz=%d";
-    private static final String FAVICON_KIT_TEMPLATE = "https://api.faviconkit.com/%s/%d";
     private static final int DEFAULT_SIZE = 128;
     private static final int MIN_ACCEPTED_SIZE = 32; // realistic lower bound for remote favicon providers
     private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(4);
@@ -38,25 +51,91 @@ public class CompanyLogoProvider {
             "data:image/svg+xml;base64,PHN2ZyB4bWxucz0naHR0cDovL3d3dy53My5vcmcvMjAwMC9zdmcnIHZpZXdCb3g9JzAgMCAxMjggMTI4Jz48ZGVmcz48bGluZWFyR3JhZGllbnQgaWQ9J2cnIHgxPScwJScgeTE9JzAlJyB4Mj0nMCUnIHkyPScxMDAlJz48c3RvcCBvZmZzZXQ9JzAlJyBzdG9wLWNvbG9yPScjMWUyOTNiJy8+PHN0b3Agb2Zmc2V0PScxMDAlJyBzdG9wLWNvbG9yPScjMGYxNzJhJy8+PC9saW5lYXJHcmFkaWVudD48L2RlZnM+PHJlY3Qgd2lkdGg9JzEyOCcgaGVpZ2h0PScxMjgnIHJ4PSczMicgZmlsbD0ndXJsKCNnKScvPjxjaXJjbGUgY3g9JzY0JyBjeT0nNDgnIHI9JzI0JyBmaWxsPSdyZ2JhKDI1NSwyNTUsMjU1LDAuODUpJy8+PHBhdGggZD0nTTMyIDEwOGMwLTE3LjY3MyAxNC4zMjctMzIgMzItMzJzMzIgMTQuMzI3IDMyIDMyJyBmaWxsPSdyZ2JhKDI1NSwyNTUsMjU1LDAuNzUpJy8+PC9zdmc+";
 
     private final ConcurrentMap<String, CachedLogo> inMemoryCache = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<Optional<String>>> pendingLookups =
+            new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final AppProperties.CompanyLogos settings;
+    private final Executor lookupExecutor;
+
+    public CompanyLogoProvider(
+            AppProperties appProperties, @Qualifier("companyLogoExecutor") Executor lookupExecutor) {
+        this.settings = appProperties.getCompanyLogos();
+        this.lookupExecutor = lookupExecutor;
+    }
 
     // TODO replace with shared cache provider when available.
+    /**
+     * Cached logo for the domain, never blocking. A missing or expired entry is queued for background
+     * resolution; an expired entry is still returned until its replacement lands.
+     */
     public Optional<String> logoUrlForDomain(String domain) {
         String normalized = normalizeDomain(domain);
         if (normalized == null) {
             return Optional.empty();
         }
 
+        CachedLogo cached = inMemoryCache.get(normalized);
+        if (cached == null || cached.isExpired()) {
+            scheduleLookup(normalized);
+        }
+        return cached != null ? cached.url() : Optional.empty();
+    }
+
+    /**
+     * Resolves the domain's logo in the background, joining an in-flight lookup when there is one.
+     * Completes immediately when a fresh cache entry exists.
+     */
+    public CompletableFuture<Optional<String>> resolveLogoUrl(String domain) {
+        String normalized = normalizeDomain(domain);
+        if (normalized == null) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
         CachedLogo cached = inMemoryCache.get(normalized);
         if (cached != null && !cached.isExpired()) {
-            return cached.url();
+            return CompletableFuture.completedFuture(cached.url());
         }
+        return scheduleLookup(normalized);
+    }
+
+    /** Incremented each time a background lookup caches a logo. */
+    public long generation() {
+        return generation.get();
+    }
 
+    private CompletableFuture<Optional<String>> scheduleLookup(String normalized) {
+        CompletableFuture<Optional<String>> lookup = new CompletableFuture<>();
+        CompletableFuture<Optional<String>> inFlight = pendingLookups.putIfAbsent(normalized, lookup);
+        if (inFlight != null) {
+            return inFlight;
+        }
+        try {
+            lookupExecutor.execute(() -> {
+                try {
+                    lookup.complete(resolve(normalized));
+                } catch (RuntimeException e) {
+                    logger.debug("Company logo lookup failed for domain={}", normalized, e);
+                    lookup.complete(Optional.empty());
+                } finally {
+                    pendingLookups.remove(normalized, lookup);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the next caller will retry
+            pendingLookups.remove(normalized, lookup);
+            lookup.complete(Optional.empty());
+        }
+        return lookup;
+    }
+
+    private Optional<String> resolve(String normalized) {
         Optional<String> resolved =
                 fetchValidatedLogo(normalized).or(() -> parentDomain(normalized).flatMap(this::fetchValidatedLogo));
         inMemoryCache.put(normalized, new CachedLogo(resolved.orElse(null), Instant.now()));
+        if (resolved.isPresent()) {
+            generation.incrementAndGet();
+        }
         resolved.ifPresentOrElse(
-                url -> logger.debug(
-                        "Accepted company logo from Google S2 for domain={} size={}px", normalized, DEFAULT_SIZE),
+                url -> logger.debug("Accepted company logo for domain={} url={}", normalized, url),
                 () -> logger.debug("Rejected company logo for domain={} due to validation failure", normalized));
         return resolved;
     }
@@ -106,8 +185,8 @@ public class CompanyLogoProvider {
     }
 
     private Optional<String> fetchValidatedLogo(String normalizedDomain) {
-        return fetchFromProvider(normalizedDomain, GOOGLE_S2_TEMPLATE, "Google S2")
-                .or(() -> fetchFromProvider(normalizedDomain, FAVICON_KIT_TEMPLATE, "FaviconKit"));
+        return fetchFromProvider(normalizedDomain, settings.getPrimaryTemplate(), "primary")
+                .or(() -> fetchFromProvider(normalizedDomain, settings.getFallbackTemplate(), "fallback"));
     }
 
     private Optional<String> fetchFromProvider(String normalizedDomain, String template, String providerName) {
@@ -1,16 +1,25 @@
 package com.composerai.api.service;
 
 import com.composerai.api.config.AppProperties;
+import com.composerai.api.model.EmailBodySegments;
 import com.composerai.api.model.EmailMessage;
 import com.composerai.api.model.EmailMessageContextFormatter;
 import com.composerai.api.service.ContextBuilder.EmailContextCache;
+import com.composerai.api.service.email.EmailBodySegmenter;
+import com.composerai.api.service.email.EmailHtmlDocument;
+import com.composerai.api.service.email.EmailHtmlMinifier;
 import com.composerai.api.service.email.EmailHtmlSanitizer;
+import com.composerai.api.service.email.EmailPipeline;
+import com.composerai.api.service.email.EmailPreviewExtractor;
 import com.composerai.api.service.email.HtmlConverter;
+import com.composerai.api.service.email.InlineImageSink;
+import com.composerai.api.service.email.InlineImageStore;
+import com.composerai.api.service.email.ParseBudget;
+import com.composerai.api.service.email.ParsedEmailDocument;
 import com.composerai.api.util.IdGenerator;
 import com.composerai.api.util.StringUtils;
 import com.composerai.api.util.TemporalUtils;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
@@ -19,13 +28,13 @@ import java.nio.file.StandardCopyOption;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -38,19 +47,28 @@ public class EmailParsingService {
             DateTimeFormatter.ofPattern("MMM dd, yyyy 'at' h:mm a xxx", Locale.US);
 
     private final EmailContextCache emailContextRegistry;
-    private final ObjectMapper objectMapper;
     private final CompanyLogoProvider companyLogoProvider;
     private final AppProperties appProperties;
+    private final InlineImageSink inlineImageStore;
 
+    /** Leaves embedded images inline in the parsed HTML. */
     public EmailParsingService(
             EmailContextCache emailContextRegistry,
-            ObjectMapper objectMapper,
             CompanyLogoProvider companyLogoProvider,
             AppProperties appProperties) {
+        this(emailContextRegistry, companyLogoProvider, appProperties, null);
+    }
+
+    @Autowired
+    public EmailParsingService(
+            EmailContextCache emailContextRegistry,
+            CompanyLogoProvider companyLogoProvider,
+            AppProperties appProperties,
+            InlineImageStore inlineImageStore) {
         this.emailContextRegistry = emailContextRegistry;
-        this.objectMapper = objectMapper;
         this.companyLogoProvider = companyLogoProvider;
         this.appProperties = appProperties;
+        this.inlineImageStore = inlineImageStore;
     }
 
     public Map<String, Object> parseEmailFile(MultipartFile file) {
@@ -70,7 +88,7 @@ public class EmailParsingService {
                 Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
             }
 
-            ParsedEmail parsed = parseEmail(tempFile, filename, lower.endsWith(".eml") ? "eml" : "html");
+            ParsedEmail parsed = parseEmail(tempFile, filename, lower.endsWith(".eml") ? "eml" : "html", 0, -1);
             Map<String, Object> response = buildResponseMap(parsed, filename, file.getSize());
             response.put("timestamp", System.currentTimeMillis());
             return response;
@@ -97,75 +115,66 @@ public class EmailParsingService {
     public ParsedEmail parseEmail(Path path, String originalFilename) {
         String lower = originalFilename == null ? "" : originalFilename.toLowerCase(Locale.ROOT);
         String inputType = lower.endsWith(".eml") ? "eml" : lower.endsWith(".html") ? "html" : "eml";
-        return parseEmail(path, originalFilename, inputType);
+        return parseEmail(path, originalFilename, inputType, 0, -1);
     }
 
-    private ParsedEmail parseEmail(Path path, String originalFilename, String inputType) {
-        try {
+    /**
+     * Parses the single message stored at {@code [offset, offset + length)} of a larger file, such as one entry
+     * of an mbox archive, reading it in place instead of copying it out.
+     */
+    public ParsedEmail parseEmail(Path path, String originalFilename, long offset, long length) {
+        return parseEmail(path, originalFilename, "eml", offset, length);
+    }
+
+    private ParsedEmail parseEmail(Path path, String originalFilename, String inputType, long offset, long length) {
+        // One deadline covers extraction, conversion and sanitizing; over-budget bodies render as plain text
+        ParseBudget parseBudget = ParseBudget.from(appProperties.getEmailParsing());
+        try (ParseBudget.Scope budget = parseBudget.start()) {
             HtmlToText.Options options = new HtmlToText.Options();
             options.inputFile = path.toString();
             options.inputType = inputType;
+            options.inputOffset = offset;
+            options.inputLength = length;
             options.format = HtmlToText.OutputFormat.PLAIN;
             options.urlsPolicy = HtmlToText.UrlPolicy.CLEAN_ONLY;
             options.includeMetadata = true;
-            options.jsonOutput = true;
             options.suppressUtility = true;
-
-            String jsonPayload = convertEmail(options);
-
-            Map<String, Object> parsedDocument =
-                    objectMapper.readValue(jsonPayload, new TypeReference<Map<String, Object>>() {});
-
-            Map<String, Object> content =
-                    parsedDocument.containsKey("content") && parsedDocument.get("content") instanceof Map
-                            ? objectMapper.convertValue(
-                                    parsedDocument.get("content"), new TypeReference<Map<String, Object>>() {})
-                            : Collections.emptyMap();
-
-            Map<String, Object> metadata =
-                    parsedDocument.containsKey("metadata") && parsedDocument.get("metadata") instanceof Map
-                            ? objectMapper.convertValue(
-                                    parsedDocument.get("metadata"), new TypeReference<Map<String, Object>>() {})
-                            : Collections.emptyMap();
-
-            String plainText = String.valueOf(content.getOrDefault("plainText", ""));
-            String markdown = String.valueOf(content.getOrDefault("markdown", ""));
-            String cleanedPlainText = HtmlConverter.cleanupOutput(plainText, true);
-            String cleanedMarkdown = HtmlConverter.cleanupOutput(markdown, true);
+            AppProperties.EmailParsing limits = appProperties.getEmailParsing();
+            options.maxHtmlPartBytes = limits.getMaxHtmlPartSize().toBytes();
+            options.maxTextPartBytes = limits.getMaxTextPartSize().toBytes();
+            options.inlineImages = inlineImageStore;
+            options.parseBudget = parseBudget;
+
+            ParsedEmailDocument parsedDocument = parseDocument(options);
+            ParsedEmailDocument.Content content = parsedDocument.content();
+            ParsedEmailDocument.Metadata metadata = parsedDocument.metadata();
+
+            String cleanedPlainText = HtmlConverter.cleanupOutput(content.plainText(), true);
+            String cleanedMarkdown = HtmlConverter.cleanupOutput(content.markdown(), true);
             String sanitizedMarkdown = cleanedMarkdown.isBlank() ? null : cleanedMarkdown;
             String emailBody = sanitizedMarkdown != null ? sanitizedMarkdown : cleanedPlainText;
 
-            String originalHtml = null;
-            Object originalHtmlNode = content.get("originalHtml");
-            if (originalHtmlNode instanceof String originalHtmlString) {
-                originalHtml = StringUtils.trimToNull(originalHtmlString);
-            }
+            String originalHtml = StringUtils.trimToNull(content.originalHtml());
 
-            String subject = StringUtils.firstNonBlank(metadata, "subject");
-            if (subject == null) {
-                subject = "No subject";
-            }
+            String subject = StringUtils.defaultIfBlank(metadata.subject(), "No subject");
             StructuredParticipant sender = extractSender(metadata);
-            StructuredParticipant recipient = extractRecipient(metadata);
-            String date = StringUtils.firstNonBlank(metadata, "date", "dateHeader", "dateIso");
-            if (date == null) {
-                date = "Unknown date";
-            }
-            String dateIso = StringUtils.firstNonBlank(metadata, "dateIso", "date");
+            StructuredParticipant recipient = parseCompositeParticipant(metadata.to());
+            String date = headerDateDisplay(metadata);
+            String dateIso = StringUtils.firstNonBlank(metadata.dateIso(), metadata.date());
             String dateWithRelativeTime = enrichDateWithOffset(date, dateIso);
 
-            String contextId = resolveContextId(metadata);
-            String messageId = resolveMessageId(metadata);
+            String contextId = resolveContextId(metadata.messageId());
+            String messageId = resolveMessageId(metadata.messageId());
 
             String companyLogoUrl = deriveCompanyLogoUrl(sender.email());
 
             // Use markdown if available, otherwise use plain text
             // The MarkdownRenderer is configured to preserve single newlines as <br> tags
             String markdownForHtml = sanitizedMarkdown != null ? sanitizedMarkdown : cleanedPlainText;
-            String renderedFromMarkdown = HtmlConverter.markdownToSafeHtml(markdownForHtml);
-            String renderedHtml = resolveEmailHtml(originalHtml, renderedFromMarkdown);
-
-            parsedDocument.put("contextId", contextId);
+            EmailHtmlDocument originalDocument =
+                    originalHtml != null ? parsedDocument.resolveHtmlDocument() : null;
+            String renderedHtml = resolveEmailHtml(
+                    originalDocument, () -> HtmlConverter.markdownToSafeHtml(markdownForHtml));
 
             ParsedEmail parsedEmail = ParsedEmail.newBuilder()
                     .id(messageId)
@@ -182,21 +191,25 @@ public class EmailParsingService {
                     .receivedTimestampDisplay(dateWithRelativeTime)
                     .receivedTimestampIso(dateIso != null ? dateIso.trim() : null)
                     .companyLogoUrl(companyLogoUrl)
-                    .avatarUrl(deriveSenderAvatar(metadata, companyLogoUrl))
-                    .preview(emailBody)
+                    .avatarUrl(deriveSenderAvatar(companyLogoUrl))
+                    .preview(EmailPreviewExtractor.extract(emailBody))
                     .parsedDocument(parsedDocument)
                     .parsedPlain(cleanedPlainText)
                     .parsedMarkdown(sanitizedMarkdown)
                     .parsedHtml(renderedHtml)
-                    .metadata(metadata)
                     .originalFilename(originalFilename)
                     .build();
 
+            parsedEmail = parsedEmail.toParsedBuilder()
+                    .bodySegments(EmailBodySegmenter.segment(parsedEmail.contextBody(), originalDocument))
+                    .build();
             String contextForAI = EmailMessageContextFormatter.buildContext(parsedEmail);
-            parsedEmail =
-                    parsedEmail.toParsedBuilder().contextForAi(contextForAI).build();
+            parsedEmail = parsedEmail.toParsedBuilder()
+                    .contextForAi(contextForAI)
+                    .parseDeadlineExceeded(budget.deadlineExceeded())
+                    .build();
 
-            emailContextRegistry.store(contextId, contextForAI);
+            storeContext(parsedEmail);
 
             return parsedEmail;
         } catch (Exception e) {
@@ -204,6 +217,80 @@ public class EmailParsingService {
         }
     }
 
+    /**
+     * The form of {@code parsed} to keep in the parse cache: the display date goes back to the header-derived
+     * label and the AI context is dropped, because both would embed a relative time ("3 days ago") that is only
+     * true on the day of parsing. {@link #rehydrate(EmailMessage)} recomputes them.
+     */
+    public EmailMessage dehydrate(ParsedEmail parsed) {
+        ParsedEmailDocument.Metadata metadata = parsed.metadata();
+        return parsed.toEmailMessage().toBuilder()
+                .receivedTimestampDisplay(
+                        metadata != null ? headerDateDisplay(metadata) : parsed.receivedTimestampDisplay())
+                .contextForAi(null)
+                .build();
+    }
+
+    /**
+     * Restores a cached parse result: re-derives sender branding, the relative display date and the AI context,
+     * none of which are cached, and registers that context exactly as a fresh {@link #parseEmail(Path, String)}
+     * would.
+     */
+    public EmailMessage rehydrate(EmailMessage cached) {
+        String companyLogoUrl = deriveCompanyLogoUrl(cached.senderEmail());
+        EmailMessage restored = cached.toBuilder()
+                .receivedTimestampDisplay(
+                        enrichDateWithOffset(cached.receivedTimestampDisplay(), cached.receivedTimestampIso()))
+                .companyLogoUrl(companyLogoUrl)
+                .avatarUrl(deriveSenderAvatar(companyLogoUrl))
+                .build();
+        restored = restored.toBuilder()
+                .contextForAi(EmailMessageContextFormatter.buildContext(restored))
+                .build();
+        storeContext(restored);
+        return restored;
+    }
+
+    /**
+     * Applies a company logo that resolved in the background after {@code message} was parsed. Returns
+     * {@code message} itself when it already has a logo or none is cached yet for the sender's domain.
+     */
+    public EmailMessage refreshCompanyLogo(EmailMessage message) {
+        if (message == null || !StringUtils.isBlank(message.companyLogoUrl())) {
+            return message;
+        }
+        String companyLogoUrl = deriveCompanyLogoUrl(message.senderEmail());
+        if (StringUtils.isBlank(companyLogoUrl)) {
+            return message;
+        }
+        return message.toBuilder()
+                .companyLogoUrl(companyLogoUrl)
+                .avatarUrl(deriveSenderAvatar(companyLogoUrl))
+                .build();
+    }
+
+    /**
+     * Changes whenever a background lookup caches a company logo; holders of parsed messages compare it to
+     * decide when {@link #refreshCompanyLogo(EmailMessage)} is worth calling.
+     */
+    public long companyLogoGeneration() {
+        return companyLogoProvider.generation();
+    }
+
+    /**
+     * Registers the message's AI context and, when segmentation left quoted history or a signature out of it,
+     * the whole-body variant under {@link EmailMessageContextFormatter#fullContextId(String)}.
+     */
+    private void storeContext(EmailMessage message) {
+        emailContextRegistry.store(message.contextId(), message.contextForAi());
+        EmailBodySegments segments = message.bodySegments();
+        if (message.contextId() != null && segments != null && segments.hasOmittedContent()) {
+            emailContextRegistry.store(
+                    EmailMessageContextFormatter.fullContextId(message.contextId()),
+                    EmailMessageContextFormatter.buildContext(message, true));
+        }
+    }
+
     private Map<String, Object> buildResponseMap(ParsedEmail parsedEmail, String filename, long fileSize) {
         Map<String, Object> response = new HashMap<>();
         EmailMessage emailMessage = parsedEmail.toEmailMessage();
@@ -214,7 +301,7 @@ public class EmailParsingService {
         response.put("parsedPlain", parsedEmail.parsedPlain());
         response.put("parsedMarkdown", parsedEmail.parsedMarkdown());
         response.put("parsedHtml", parsedEmail.parsedHtml());
-        response.put("document", parsedEmail.parsedDocument());
+        response.put("document", new ParsedDocumentResponse(parsedEmail.parsedDocument(), emailMessage.contextId()));
         response.put("filename", filename);
         response.put("fileSize", fileSize);
         response.put("subject", emailMessage.subject());
@@ -226,8 +313,11 @@ public class EmailParsingService {
         return response;
     }
 
-    protected String convertEmail(HtmlToText.Options options) throws Exception {
-        return HtmlToText.convert(options);
+    /**
+     * Runs the typed email pipeline. Overridable so tests can inject a prepared document.
+     */
+    protected ParsedEmailDocument parseDocument(HtmlToText.Options options) throws Exception {
+        return EmailPipeline.parse(options);
     }
 
     private static void validateFile(MultipartFile file) {
@@ -248,6 +338,11 @@ public class EmailParsingService {
         }
     }
 
+    private static String headerDateDisplay(ParsedEmailDocument.Metadata metadata) {
+        String date = StringUtils.firstNonBlank(metadata.date(), metadata.dateHeader(), metadata.dateIso());
+        return date == null ? "Unknown date" : date;
+    }
+
     private static String enrichDateWithOffset(String currentDisplay, String isoCandidate) {
         String display = currentDisplay == null ? "Unknown date" : currentDisplay;
         if (displayHasOffset(display)) {
@@ -283,8 +378,7 @@ public class EmailParsingService {
     private static final int CONTEXT_ID_PREFIX_LENGTH = 48;
     private static final int HASH_BYTES = 16; // 128-bit suffix keeps IDs compact and unique
 
-    private static String resolveContextId(Map<String, Object> metadata) {
-        String messageId = StringUtils.firstNonBlank(metadata, "messageId", "id");
+    private static String resolveContextId(String messageId) {
         if (!StringUtils.isBlank(messageId)) {
             String sanitized = messageId.replaceAll("[^A-Za-z0-9._:-]", "");
             if (!StringUtils.isBlank(sanitized)) {
@@ -315,36 +409,17 @@ public class EmailParsingService {
         }
     }
 
-    private static String resolveMessageId(Map<String, Object> metadata) {
-        String id = StringUtils.firstNonBlank(metadata, "messageId", "id");
-        if (id != null && !id.isBlank()) {
-            return id.trim();
+    private static String resolveMessageId(String messageId) {
+        if (messageId != null && !messageId.isBlank()) {
+            return messageId.trim();
         }
         return IdGenerator.uuidV7();
     }
 
-    private static StructuredParticipant extractSender(Map<String, Object> metadata) {
-        String name = StringUtils.firstNonBlank(metadata, "fromName");
-        String email = StringUtils.firstNonBlank(metadata, "fromEmail");
-        if (name == null && email == null) {
-            String composite = StringUtils.firstNonBlank(metadata, "from");
-            StructuredParticipant extracted = parseCompositeParticipant(composite);
-            name = extracted.name();
-            email = extracted.email();
-        }
-        return new StructuredParticipant(StringUtils.defaultIfBlank(name, "Unknown sender"), email);
-    }
-
-    private static StructuredParticipant extractRecipient(Map<String, Object> metadata) {
-        String name = StringUtils.firstNonBlank(metadata, "toName");
-        String email = StringUtils.firstNonBlank(metadata, "toEmail");
-        if (name == null && email == null) {
-            String composite = StringUtils.firstNonBlank(metadata, "to");
-            StructuredParticipant extracted = parseCompositeParticipant(composite);
-            name = extracted.name();
-            email = extracted.email();
-        }
-        return new StructuredParticipant(name, email);
+    private static StructuredParticipant extractSender(ParsedEmailDocument.Metadata metadata) {
+        StructuredParticipant extracted = parseCompositeParticipant(metadata.from());
+        return new StructuredParticipant(
+                StringUtils.defaultIfBlank(extracted.name(), "Unknown sender"), extracted.email());
     }
 
     private static StructuredParticipant parseCompositeParticipant(String value) {
@@ -382,14 +457,11 @@ public class EmailParsingService {
         if (domain.isEmpty()) {
             return null;
         }
+        // Cache-only: a miss queues a background lookup and this message keeps the fallback avatar
         return companyLogoProvider.logoUrlForDomain(domain).orElse(null);
     }
 
-    private String deriveSenderAvatar(Map<String, Object> metadata, String companyLogoUrl) {
-        String provided = StringUtils.firstNonBlank(metadata, "avatarUrl", "avatar");
-        if (!StringUtils.isBlank(provided)) {
-            return provided.trim();
-        }
+    private String deriveSenderAvatar(String companyLogoUrl) {
         if (!StringUtils.isBlank(companyLogoUrl)) {
             return companyLogoUrl;
         }
@@ -402,25 +474,35 @@ public class EmailParsingService {
         return mode != null ? mode : AppProperties.EmailRenderMode.HTML;
     }
 
-    private String resolveEmailHtml(String originalHtml, String markdownHtml) {
+    /**
+     * Picks the display HTML for the configured render mode. The original body is sanitized from the
+     * pipeline's parsed document; the markdown-derived HTML is only rendered and sanitized when the
+     * mode needs it (MARKDOWN, or HTML falling back because the original sanitized to nothing).
+     */
+    private String resolveEmailHtml(EmailHtmlDocument originalDocument, Supplier<String> markdownHtml) {
         AppProperties.EmailRenderMode mode = effectiveRenderMode();
-        String sanitizedOriginal = sanitizeEmailHtml(originalHtml);
-        String sanitizedMarkdown = sanitizeEmailHtml(markdownHtml);
-
-        if (sanitizedOriginal == null && originalHtml != null && !originalHtml.isBlank()) {
-            logger.warn("Sanitized original HTML was empty; will consider fallbacks.");
+        if (mode == AppProperties.EmailRenderMode.PLAINTEXT) {
+            return null;
         }
-        if (sanitizedMarkdown == null && markdownHtml != null && !markdownHtml.isBlank()) {
-            logger.warn("Sanitized markdown-derived HTML was empty; markdown fallback unavailable.");
+
+        String sanitizedOriginal = null;
+        if (mode == AppProperties.EmailRenderMode.HTML && originalDocument != null) {
+            sanitizedOriginal = sanitizeEmailHtml(originalDocument);
+            if (sanitizedOriginal == null) {
+                logger.warn("Sanitized original HTML was empty; will consider fallbacks.");
+            }
         }
 
-        String rendered =
-                switch (mode) {
-                    case HTML -> sanitizedOriginal != null ? sanitizedOriginal : sanitizedMarkdown;
-                    case MARKDOWN -> sanitizedMarkdown;
-                    case PLAINTEXT -> null;
-                };
+        String sanitizedMarkdown = null;
+        if (sanitizedOriginal == null) {
+            String candidate = markdownHtml.get();
+            sanitizedMarkdown = sanitizeEmailHtml(EmailHtmlDocument.parse(StringUtils.trimToNull(candidate)));
+            if (sanitizedMarkdown == null && candidate != null && !candidate.isBlank()) {
+                logger.warn("Sanitized markdown-derived HTML was empty; markdown fallback unavailable.");
+            }
+        }
 
+        String rendered = sanitizedOriginal != null ? sanitizedOriginal : sanitizedMarkdown;
         String renderSource =
                 switch (mode) {
                     case HTML ->
@@ -431,27 +513,40 @@ public class EmailParsingService {
                     case PLAINTEXT -> "PLAINTEXT";
                 };
 
-        // Only log error if rendering unexpectedly failed (not PLAINTEXT mode where null is expected)
-        if (rendered == null && mode != AppProperties.EmailRenderMode.PLAINTEXT) {
+        if (rendered == null) {
             logger.error(
                     "Email rendering failed; mode={}, sanitizedOriginalPresent={}, sanitizedMarkdownPresent={}",
                     mode,
                     sanitizedOriginal != null,
                     sanitizedMarkdown != null);
-        } else if (rendered != null) {
+        } else {
             logger.info("Email rendered using mode={} (source={})", mode, renderSource);
         }
 
-        return rendered;
+        return minifyIfEnabled(rendered);
+    }
+
+    private String minifyIfEnabled(String sanitizedHtml) {
+        AppProperties.EmailRendering rendering = appProperties.getEmailRendering();
+        if (sanitizedHtml == null || rendering == null || !rendering.isMinifyHtml()) {
+            return sanitizedHtml;
+        }
+        EmailHtmlMinifier.Result minified = EmailHtmlMinifier.minify(sanitizedHtml);
+        logger.debug(
+                "Minified email HTML: {} -> {} bytes ({} bytes, {}% saved)",
+                minified.originalBytes(),
+                minified.minifiedBytes(),
+                minified.savedBytes(),
+                Math.round(minified.savedRatio() * 100));
+        return minified.html();
     }
 
-    private String sanitizeEmailHtml(String candidate) {
-        String normalized = StringUtils.trimToNull(candidate);
-        if (normalized == null) {
+    private String sanitizeEmailHtml(EmailHtmlDocument candidate) {
+        if (candidate == null || candidate.isBlank()) {
             return null;
         }
         try {
-            String sanitized = EmailHtmlSanitizer.sanitize(normalized);
+            String sanitized = EmailHtmlSanitizer.sanitize(candidate);
             if (sanitized == null || sanitized.isBlank()) {
                 return null;
             }
@@ -459,27 +554,35 @@ public class EmailParsingService {
         } catch (EmailHtmlSanitizer.SanitizationException e) {
             logger.warn("Failed to sanitize email HTML, falling back to null: {}", e.getMessage());
             return null;
+        } catch (ParseBudget.BudgetExceededException e) {
+            return null;
         }
     }
 
     private record StructuredParticipant(String name, String email) {}
 
+    /**
+     * The {@code document} of a parse response: the pipeline document's keys plus the {@code contextId} the
+     * upload endpoints have always included there.
+     */
+    public record ParsedDocumentResponse(@JsonUnwrapped ParsedEmailDocument document, String contextId) {}
+
     public static final class ParsedEmail extends EmailMessage {
-        private final Map<String, Object> parsedDocument;
+        private final ParsedEmailDocument parsedDocument;
         private final String parsedPlain;
         private final String parsedMarkdown;
         private final String parsedHtml;
-        private final Map<String, Object> metadata;
         private final String originalFilename;
+        private final boolean parseDeadlineExceeded;
 
         private ParsedEmail(Builder builder) {
             super(builder);
-            this.parsedDocument = copyMap(builder.parsedDocument);
+            this.parsedDocument = builder.parsedDocument;
             this.parsedPlain = builder.parsedPlain;
             this.parsedMarkdown = builder.parsedMarkdown;
             this.parsedHtml = builder.parsedHtml;
-            this.metadata = copyMap(builder.metadata);
             this.originalFilename = builder.originalFilename;
+            this.parseDeadlineExceeded = builder.parseDeadlineExceeded;
         }
 
         public static Builder newBuilder() {
@@ -490,7 +593,7 @@ public class EmailParsingService {
             return new Builder(this);
         }
 
-        public Map<String, Object> parsedDocument() {
+        public ParsedEmailDocument parsedDocument() {
             return parsedDocument;
         }
 
@@ -506,38 +609,33 @@ public class EmailParsingService {
             return parsedHtml;
         }
 
-        public Map<String, Object> metadata() {
-            return metadata;
+        public ParsedEmailDocument.Metadata metadata() {
+            return parsedDocument != null ? parsedDocument.metadata() : null;
         }
 
         public String originalFilename() {
             return originalFilename;
         }
 
-        public EmailMessage toEmailMessage() {
-            return this.copy();
+        /**
+         * Whether the parse deadline forced the plain-text fallback; such results are served but never cached,
+         * so the message is parsed in full again on a later load.
+         */
+        public boolean parseDeadlineExceeded() {
+            return parseDeadlineExceeded;
         }
 
-        private static Map<String, Object> copyMap(Map<String, Object> source) {
-            if (source == null || source.isEmpty()) {
-                return Map.of();
-            }
-            Map<String, Object> sanitized = new LinkedHashMap<>();
-            for (Map.Entry<String, Object> entry : source.entrySet()) {
-                if (entry.getKey() != null && entry.getValue() != null) {
-                    sanitized.put(entry.getKey(), entry.getValue());
-                }
-            }
-            return sanitized.isEmpty() ? Map.of() : Map.copyOf(sanitized);
+        public EmailMessage toEmailMessage() {
+            return this.copy();
         }
 
         public static final class Builder extends EmailMessage.BuilderBase<Builder> {
-            private Map<String, Object> parsedDocument;
+            private ParsedEmailDocument parsedDocument;
             private String parsedPlain;
             private String parsedMarkdown;
             private String parsedHtml;
-            private Map<String, Object> metadata;
             private String originalFilename;
+            private boolean parseDeadlineExceeded;
 
             private Builder() {}
 
@@ -547,8 +645,8 @@ public class EmailParsingService {
                 this.parsedPlain = source.parsedPlain;
                 this.parsedMarkdown = source.parsedMarkdown;
                 this.parsedHtml = source.parsedHtml;
-                this.metadata = source.metadata;
                 this.originalFilename = source.originalFilename;
+                this.parseDeadlineExceeded = source.parseDeadlineExceeded;
             }
 
             @Override
@@ -556,7 +654,7 @@ public class EmailParsingService {
                 return this;
             }
 
-            public Builder parsedDocument(Map<String, Object> parsedDocument) {
+            public Builder parsedDocument(ParsedEmailDocument parsedDocument) {
                 this.parsedDocument = parsedDocument;
                 return this;
             }
@@ -581,13 +679,13 @@ public class EmailParsingService {
                 return this;
             }
 
-            public Builder metadata(Map<String, Object> metadata) {
-                this.metadata = metadata;
+            public Builder originalFilename(String originalFilename) {
+                this.originalFilename = originalFilename;
                 return this;
             }
 
-            public Builder originalFilename(String originalFilename) {
-                this.originalFilename = originalFilename;
+            public Builder parseDeadlineExceeded(boolean parseDeadlineExceeded) {
+                this.parseDeadlineExceeded = parseDeadlineExceeded;
                 return this;
             }
 
@@ -1,11 +1,18 @@
 /**
- * HtmlToText: thin CLI/API entrypoint that delegates to EmailPipeline.
- * Provides unified Options and basic I/O (args parsing and file writing).
+ * HtmlToText: thin CLI/API entrypoint that delegates to EmailPipeline (single file) or
+ * EmailBatchPipeline (--input-dir). Provides unified Options and basic I/O (args parsing and file writing).
  */
 package com.composerai.api.service;
 
+import com.composerai.api.service.email.EmailBatchPipeline;
+import com.composerai.api.service.email.EmailExtractor;
+import com.composerai.api.service.email.InlineImageSink;
+import com.composerai.api.service.email.ParseBudget;
+import com.composerai.api.service.email.ParsedEmailDocumentCodec;
 import jakarta.mail.MessagingException;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -34,6 +41,9 @@ public class HtmlToText {
      */
     public static class Options {
         public String inputFile;
+        public java.nio.file.Path inputDir; // batch mode: convert every file matching glob
+        public String glob = "**.{eml,html,htm}"; // batch mode: matched against paths relative to inputDir
+        public int workers = Runtime.getRuntime().availableProcessors(); // batch mode: parallel conversions
         public String inputType; // eml|html (optional)
         public OutputFormat format = OutputFormat.MARKDOWN;
         public String outputFile; // optional
@@ -42,10 +52,55 @@ public class HtmlToText {
         public UrlPolicy urlsPolicy = UrlPolicy.KEEP;
         public boolean includeMetadata = true;
         public boolean jsonOutput = false;
+        public boolean binaryOutput = false; // single file: the whole document in ParsedEmailDocumentCodec form
         public boolean suppressUtility = false; // new: control utility/footer suppression
+        public long maxHtmlPartBytes = EmailExtractor.DEFAULT_MAX_HTML_PART_BYTES; // eml: HTML body decode budget
+        public long maxTextPartBytes = EmailExtractor.DEFAULT_MAX_TEXT_PART_BYTES; // eml: text body decode budget
+        public long inputOffset = 0; // eml: start of the message within inputFile (one message of an mbox)
+        public long inputLength = -1; // eml: message length in bytes; -1 reads to the end of inputFile
+        public InlineImageSink inlineImages; // optional: moves data:/cid: images out of the HTML into this store
+        public ParseBudget parseBudget; // optional: input/DOM/deadline limits; over budget renders as plain text
 
         public boolean isValid() {
-            return inputFile != null && format != null;
+            return (inputFile != null ^ inputDir != null) && format != null && !(binaryOutput && inputDir != null);
+        }
+
+        public boolean isBatch() {
+            return inputDir != null;
+        }
+
+        public Options() {}
+
+        /** Copy constructor; carries every field, so a new option only needs adding here to survive a copy. */
+        public Options(Options other) {
+            this.inputFile = other.inputFile;
+            this.inputDir = other.inputDir;
+            this.glob = other.glob;
+            this.workers = other.workers;
+            this.inputType = other.inputType;
+            this.format = other.format;
+            this.outputFile = other.outputFile;
+            this.outputDir = other.outputDir;
+            this.charset = other.charset;
+            this.urlsPolicy = other.urlsPolicy;
+            this.includeMetadata = other.includeMetadata;
+            this.jsonOutput = other.jsonOutput;
+            this.binaryOutput = other.binaryOutput;
+            this.suppressUtility = other.suppressUtility;
+            this.maxHtmlPartBytes = other.maxHtmlPartBytes;
+            this.maxTextPartBytes = other.maxTextPartBytes;
+            this.inputOffset = other.inputOffset;
+            this.inputLength = other.inputLength;
+            this.inlineImages = other.inlineImages;
+            this.parseBudget = other.parseBudget;
+        }
+
+        /** Copy of these options targeting a single file; used by batch mode for each match. */
+        public Options forInputFile(String file) {
+            Options c = new Options(this);
+            c.inputFile = file;
+            c.inputDir = null;
+            return c;
         }
 
         public static Options parseFromArgs(String[] args) {
@@ -54,6 +109,10 @@ public class HtmlToText {
                 String a = args[i];
                 switch (a) {
                     case "--input-file" -> c.inputFile = nextArg(args, ++i, "--input-file requires a value");
+                    case "--input-dir" ->
+                        c.inputDir = java.nio.file.Path.of(nextArg(args, ++i, "--input-dir requires a value"));
+                    case "--glob" -> c.glob = nextArg(args, ++i, "--glob requires a pattern");
+                    case "--workers" -> c.workers = parseWorkers(nextArg(args, ++i, "--workers requires a value"));
                     case "--input-type" -> c.inputType = nextArg(args, ++i, "--input-type requires eml|html");
                     case "--format" -> {
                         String v = nextArg(args, ++i, "--format requires plain|markdown");
@@ -84,10 +143,18 @@ public class HtmlToText {
                         String v = nextArg(args, ++i, "--json requires true|false");
                         c.jsonOutput = Boolean.parseBoolean(v);
                     }
+                    case "--binary" -> {
+                        String v = nextArg(args, ++i, "--binary requires true|false");
+                        c.binaryOutput = Boolean.parseBoolean(v);
+                    }
                     case "--suppress-utility" -> {
                         String v = nextArg(args, ++i, "--suppress-utility requires true|false");
                         c.suppressUtility = Boolean.parseBoolean(v);
                     }
+                    case "--max-html-bytes" ->
+                        c.maxHtmlPartBytes = parseByteBudget(nextArg(args, ++i, "--max-html-bytes requires a value"));
+                    case "--max-text-bytes" ->
+                        c.maxTextPartBytes = parseByteBudget(nextArg(args, ++i, "--max-text-bytes requires a value"));
                     case "-h", "--help" -> {
                         System.out.println(usage());
                         System.exit(0);
@@ -106,14 +173,30 @@ public class HtmlToText {
             System.exit(2);
         }
 
+        if (options.isBatch()) {
+            System.exit(runBatch(options));
+        }
+
         try {
-            String result = convert(options);
             Path out = resolveOutputPath(options);
             if (out != null) {
                 Path parent = out.getParent();
                 if (parent != null) {
                     Files.createDirectories(parent);
                 }
+            }
+            if (options.binaryOutput) {
+                byte[] encoded = convertToBinary(options);
+                if (out != null) {
+                    Files.write(out, encoded);
+                } else {
+                    System.out.write(encoded);
+                    System.out.flush();
+                }
+                return;
+            }
+            String result = convert(options);
+            if (out != null) {
                 Files.writeString(out, result, StandardCharsets.UTF_8);
             } else {
                 System.out.println(result);
@@ -124,6 +207,39 @@ public class HtmlToText {
         }
     }
 
+    /**
+     * Batch mode: NDJSON records go to {@code --output-file}, {@code <output-dir>/<input-dir>.ndjson}, or
+     * stdout; the throughput summary goes to stderr so stdout stays machine-readable.
+     *
+     * @return process exit code; non-zero when any file failed to convert
+     */
+    private static int runBatch(Options options) {
+        try {
+            Path out = resolveOutputPath(options);
+            EmailBatchPipeline.Summary summary;
+            if (out != null) {
+                Path parent = out.getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                try (Writer writer = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+                    summary = EmailBatchPipeline.run(options, writer);
+                }
+            } else {
+                Writer stdout = new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+                summary = EmailBatchPipeline.run(options, stdout);
+            }
+            System.err.println(summary.describe());
+            return summary.failed() == 0 ? 0 : 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        } catch (Exception e) {
+            e.printStackTrace(System.err);
+            return 1;
+        }
+    }
+
     public static String convert(Options options) throws IOException, MessagingException {
         try {
             return com.composerai.api.service.email.EmailPipeline.process(options);
@@ -134,6 +250,21 @@ public class HtmlToText {
         }
     }
 
+    /**
+     * Parses the input once and encodes the whole document (metadata and every body) with
+     * {@link ParsedEmailDocumentCodec}, the compact form for storing parsed mail; {@code format} and
+     * {@code jsonOutput} do not apply.
+     */
+    public static byte[] convertToBinary(Options options) throws IOException, MessagingException {
+        try {
+            return ParsedEmailDocumentCodec.encode(com.composerai.api.service.email.EmailPipeline.parse(options));
+        } catch (IOException | MessagingException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     /**
      * Convert HTML string directly to plain text.
      * This is a convenience method for programmatic use when you have HTML content as a string.
@@ -186,13 +317,40 @@ public class HtmlToText {
         return args[idx];
     }
 
+    private static long parseByteBudget(String value) {
+        try {
+            long bytes = Long.parseLong(value.trim());
+            if (bytes > 0) return bytes;
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Byte budget must be a positive integer: " + value);
+    }
+
+    private static int parseWorkers(String value) {
+        try {
+            int workers = Integer.parseInt(value.trim());
+            if (workers > 0) return workers;
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        throw new IllegalArgumentException("--workers must be a positive integer: " + value);
+    }
+
     private static Path resolveOutputPath(Options options) {
         if (options.outputFile != null && !options.outputFile.isBlank()) {
             return Path.of(options.outputFile);
         }
+        if (options.outputDir != null && options.isBatch()) {
+            Path dirName = options.inputDir.toAbsolutePath().normalize().getFileName();
+            String base = normalizeBaseName(dirName == null ? "batch" : dirName.toString());
+            return options.outputDir.resolve(base + ".ndjson");
+        }
         if (options.outputDir != null) {
             String base = normalizeBaseName(options.inputFile);
-            String ext = options.jsonOutput ? ".json" : (options.format == OutputFormat.MARKDOWN ? ".md" : ".txt");
+            String ext = options.binaryOutput
+                    ? ".cped"
+                    : options.jsonOutput ? ".json" : (options.format == OutputFormat.MARKDOWN ? ".md" : ".txt");
             return options.outputDir.resolve(base + ext);
         }
         return null;
@@ -213,10 +371,16 @@ public class HtmlToText {
         return String.join(
                 "\n",
                 "Usage:",
-                "  java -cp <jar> com.composerai.api.service.HtmlToText --input-file <path> [--input-type eml|html] --format plain|markdown [--output-file <path>] [--output-dir <dir>] [--charset UTF-8] [--urls keep|stripAll|cleanOnly] [--metadata true|false] [--json true|false] [--suppress-utility true|false]",
+                "  java -cp <jar> com.composerai.api.service.HtmlToText --input-file <path> [--input-type eml|html] --format plain|markdown [--output-file <path>] [--output-dir <dir>] [--charset UTF-8] [--urls keep|stripAll|cleanOnly] [--metadata true|false] [--json true|false] [--binary true|false] [--suppress-utility true|false] [--max-html-bytes <n>] [--max-text-bytes <n>]",
+                "    --binary true writes the whole parsed document (metadata and all bodies) in the compact binary",
+                "    form (<output-dir>/<name>.cped with --output-dir); single-file mode only.",
+                "  java -cp <jar> com.composerai.api.service.HtmlToText --input-dir <dir> [--glob '**.{eml,html,htm}'] [--workers <n>] [same conversion options]",
+                "    Batch mode writes one NDJSON record per file (stdout, --output-file, or <output-dir>/<dir>.ndjson),",
+                "    prints files/sec and p50/p99 latency to stderr, and exits 1 if any file failed.",
                 "",
                 "Examples:",
                 "  --input-file /path/to/email.eml --format markdown --urls cleanOnly --metadata true --json false --suppress-utility true",
-                "  --input-file /path/to/email.html --input-type html --format plain --output-dir ./data --urls stripAll --metadata false --json true --suppress-utility false");
+                "  --input-file /path/to/email.html --input-type html --format plain --output-dir ./data --urls stripAll --metadata false --json true --suppress-utility false",
+                "  --input-dir ./data/eml --glob '**.eml' --workers 8 --format markdown --output-dir ./data/corpus");
     }
 }
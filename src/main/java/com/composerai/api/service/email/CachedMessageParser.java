@@ -0,0 +1,79 @@
+package com.composerai.api.service.email;
+
+import com.composerai.api.model.EmailMessage;
+import com.composerai.api.service.EmailParsingService;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The parse-through-the-cache and late-logo steps every mailbox provider shares; each provider holds its own
+ * instance.
+ * <p>
+ * {@link #parse} serves a {@link ParsedEmailCache} hit rehydrated, or parses and stores the dehydrated result,
+ * unless the parse deadline cut it short. {@link #applyResolvedLogos} applies company logos that resolved in the
+ * background since this instance last looked.
+ *
+ * @author William Callahan
+ * @since 2025-09-18
+ * @version 0.0.1
+ */
+final class CachedMessageParser {
+
+    private final EmailParsingService emailParsingService;
+    private final ParsedEmailCache parsedEmailCache;
+    private long logoGeneration;
+
+    CachedMessageParser(EmailParsingService emailParsingService, ParsedEmailCache parsedEmailCache) {
+        this.emailParsingService = emailParsingService;
+        this.parsedEmailCache = parsedEmailCache;
+        this.logoGeneration = emailParsingService.companyLogoGeneration();
+    }
+
+    /**
+     * The cached parse under {@code key}, or a fresh one from {@code parser}, which runs only on a miss.
+     */
+    Parsed parse(ParsedEmailCache.Key key, Supplier<EmailParsingService.ParsedEmail> parser) {
+        Optional<EmailMessage> cached = parsedEmailCache.lookup(key);
+        if (cached.isPresent()) {
+            return new Parsed(emailParsingService.rehydrate(cached.get()), false);
+        }
+        EmailParsingService.ParsedEmail parsed = parser.get();
+        if (!parsed.parseDeadlineExceeded()) {
+            parsedEmailCache.store(key, emailParsingService.dehydrate(parsed));
+        }
+        return new Parsed(parsed.toEmailMessage(), parsed.parseDeadlineExceeded());
+    }
+
+    /**
+     * Replaces, in place, the message of every entry whose company logo resolved since the previous call.
+     *
+     * @return whether any entry changed
+     */
+    <K, V> boolean applyResolvedLogos(
+            Map<K, V> entries, Function<V, EmailMessage> message, BiFunction<V, EmailMessage, V> withMessage) {
+        long generation = emailParsingService.companyLogoGeneration();
+        if (generation == logoGeneration) {
+            return false;
+        }
+        logoGeneration = generation;
+        boolean changed = false;
+        for (Map.Entry<K, V> entry : entries.entrySet()) {
+            EmailMessage current = message.apply(entry.getValue());
+            EmailMessage refreshed = emailParsingService.refreshCompanyLogo(current);
+            if (refreshed != current) {
+                entry.setValue(withMessage.apply(entry.getValue(), refreshed));
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * A parsed message; {@code deadlineExceeded} marks a fresh parse the deadline cut short, which was not
+     * cached and is worth retrying later.
+     */
+    record Parsed(EmailMessage message, boolean deadlineExceeded) {}
+}
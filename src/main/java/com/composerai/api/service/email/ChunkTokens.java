@@ -0,0 +1,55 @@
+package com.composerai.api.service.email;
+
+/**
+ * Token estimate shared by the {@link ChunkingStrategy} implementations, in thousandths of a token so word
+ * costs stay integral.
+ * <p>
+ * A whitespace-delimited word costs 1.3 tokens, the same multiplier the prompt builder uses, except that long
+ * runs without whitespace (URLs, base64, CJK text) cost a token per four characters instead, so they cannot
+ * slip under a budget as a single "word".
+ *
+ * @author William Callahan
+ * @since 2025-09-18
+ * @version 0.0.1
+ */
+final class ChunkTokens {
+
+    static final long PER_TOKEN = 1000;
+    private static final long PER_WORD = 1300;
+    private static final long PER_CHAR = 250;
+
+    private ChunkTokens() {}
+
+    static long budget(int tokens) {
+        return tokens * PER_TOKEN;
+    }
+
+    /** Cost of one word of {@code length} characters. */
+    static long word(int length) {
+        return Math.max(PER_WORD, PER_CHAR * length);
+    }
+
+    /** Longest run of characters that fits in {@code budget} on its own. */
+    static int maxChars(long budget) {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, budget / PER_CHAR));
+    }
+
+    /** Cost of every word in {@code text[start, end)}. */
+    static long cost(CharSequence text, int start, int end) {
+        long total = 0;
+        int i = start;
+        while (i < end) {
+            while (i < end && Character.isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            int wordStart = i;
+            while (i < end && !Character.isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            if (i > wordStart) {
+                total += word(i - wordStart);
+            }
+        }
+        return total;
+    }
+}
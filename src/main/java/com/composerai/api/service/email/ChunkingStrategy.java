@@ -1,15 +1,22 @@
 package com.composerai.api.service.email;
 
-import java.util.List;
+import java.util.Iterator;
 
 /**
  * ChunkingStrategy defines how long text is split into embedding-ready chunks
- * Provide one simple default implementation elsewhere as needed
+ * <p>
+ * Chunks are produced lazily: an implementation keeps only cursor state over the caller's text, so a very long
+ * newsletter can be embedded chunk by chunk without the chunks ever being materialized together. Returned
+ * iterators are single-use and not thread-safe.
  *
  * @author William Callahan
  * @since 2025-09-18
- * @version 0.0.1
+ * @version 0.0.2
  */
 public interface ChunkingStrategy {
-    List<String> chunk(String text);
+
+    /**
+     * @return the chunks of {@code text} in order; empty when the text is null or blank
+     */
+    Iterator<String> chunk(CharSequence text);
 }
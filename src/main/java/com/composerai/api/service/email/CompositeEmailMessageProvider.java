@@ -0,0 +1,110 @@
+package com.composerai.api.service.email;
+
+import com.composerai.api.model.EmailMessage;
+import com.composerai.api.service.EmailParsingService;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+/**
+ * The {@link EmailMessageProvider} the application reads from: the {@code .eml} inbox directory followed by
+ * every configured mbox archive ({@code app.email-inbox.mbox-files}) and Maildir
+ * ({@code app.email-inbox.maildir-directories}), each a comma-separated list of paths. With neither configured
+ * this serves exactly what {@link DataDirectoryEmailMessageProvider} does. A message found in more than one
+ * source (same Message-ID, hence same id) is served once, from the first source in that order. When every
+ * provider returns the same list instance as on the previous load, so does this one.
+ *
+ * @author William Callahan
+ * @since 2025-09-18
+ * @version 0.0.1
+ */
+@Slf4j
+@Primary
+@Component
+public class CompositeEmailMessageProvider implements EmailMessageProvider {
+
+    private final List<EmailMessageProvider> providers;
+    private volatile Combined combined = new Combined(List.of(), List.of());
+
+    public CompositeEmailMessageProvider(
+            DataDirectoryEmailMessageProvider dataDirectoryProvider,
+            EmailParsingService emailParsingService,
+            ParsedEmailCache parsedEmailCache,
+            @Value("${app.email-inbox.mbox-files:}") String mboxFiles,
+            @Value("${app.email-inbox.maildir-directories:}") String maildirDirectories) {
+        List<EmailMessageProvider> configured = new ArrayList<>();
+        configured.add(dataDirectoryProvider);
+        configured.addAll(providersFor(
+                mboxFiles, path -> new MboxEmailMessageProvider(path, emailParsingService, parsedEmailCache)));
+        configured.addAll(providersFor(
+                maildirDirectories,
+                path -> new MaildirEmailMessageProvider(path, emailParsingService, parsedEmailCache)));
+        this.providers = List.copyOf(configured);
+        if (providers.size() > 1) {
+            log.info("Serving mail from the inbox directory and {} archive(s)", providers.size() - 1);
+        }
+    }
+
+    @Override
+    public List<EmailMessage> loadEmails() {
+        if (providers.size() == 1) {
+            return providers.getFirst().loadEmails();
+        }
+        List<List<EmailMessage>> parts = new ArrayList<>(providers.size());
+        for (EmailMessageProvider provider : providers) {
+            parts.add(provider.loadEmails());
+        }
+        Combined previous = combined;
+        if (previous.isCombinationOf(parts)) {
+            return previous.messages();
+        }
+        List<EmailMessage> messages = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (List<EmailMessage> part : parts) {
+            for (EmailMessage message : part) {
+                if (message.id() == null || seen.add(message.id())) {
+                    messages.add(message);
+                }
+            }
+        }
+        Combined next = new Combined(parts, List.copyOf(messages));
+        combined = next;
+        return next.messages();
+    }
+
+    private static List<EmailMessageProvider> providersFor(
+            String configured, Function<Path, EmailMessageProvider> factory) {
+        if (configured == null || configured.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(configured.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(Path::of)
+                .map(factory)
+                .toList();
+    }
+
+    /** The last concatenated result and the provider lists it was built from. */
+    private record Combined(List<List<EmailMessage>> parts, List<EmailMessage> messages) {
+        boolean isCombinationOf(List<List<EmailMessage>> candidate) {
+            if (candidate.size() != parts.size()) {
+                return false;
+            }
+            for (int i = 0; i < parts.size(); i++) {
+                if (candidate.get(i) != parts.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -2,74 +2,281 @@ package com.composerai.api.service.email;
 
 import com.composerai.api.model.EmailMessage;
 import com.composerai.api.service.EmailParsingService;
+import com.composerai.api.util.StringUtils;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileTime;
+import java.time.Duration;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+/**
+ * Serves the {@code .eml}/{@code .txt} files of the inbox directory ({@code app.email-inbox.directory}), newest
+ * first, from an in-memory view that is updated incrementally.
+ * <p>
+ * A {@link DirectoryWatch} reports which files were added, changed or deleted since the previous load; only
+ * those are stat-ed and, when their size or modification time moved, parsed again (through the
+ * {@link ParsedEmailCache}). With nothing reported the previous list instance is returned as is, which lets
+ * {@link CompositeEmailMessageProvider} and the mailbox snapshot reuse their own derived state. Where the
+ * directory cannot be watched ({@code app.email-inbox.watch=false}, or no platform support) it is re-listed,
+ * stat-only, at most once per {@code app.email-inbox.poll-interval}. Loads are serialized, so concurrent callers
+ * share one refresh and then read its result.
+ *
+ * @author William Callahan
+ * @since 2025-09-18
+ * @version 0.0.1
+ */
 @Slf4j
 @Component
 public class DataDirectoryEmailMessageProvider implements EmailMessageProvider {
 
+    private static final int IMPORT_HASH_SUFFIX_LENGTH = 12;
+    private static final Comparator<Map.Entry<Path, Entry>> NEWEST_FIRST =
+            Comparator.comparing((Map.Entry<Path, Entry> entry) -> entry.getValue().modified())
+                    .reversed()
+                    .thenComparing(entry -> entry.getKey().getFileName().toString());
+
     private final EmailParsingService emailParsingService;
+    private final ParsedEmailCache parsedEmailCache;
+    private final CachedMessageParser parser;
     private final Path inboxDirectory;
+    private final DirectoryWatch watch;
+
+    private final Map<Path, Entry> entries = new HashMap<>();
+    private final Set<Path> imported = ConcurrentHashMap.newKeySet();
+    private List<EmailMessage> current = List.of();
 
     public DataDirectoryEmailMessageProvider(
             EmailParsingService emailParsingService,
-            @Value("${app.email-inbox.directory:data/eml}") String inboxDirectory) {
+            ParsedEmailCache parsedEmailCache,
+            @Value("${app.email-inbox.directory:data/eml}") String inboxDirectory,
+            @Value("${app.email-inbox.watch:true}") boolean watch,
+            @Value("${app.email-inbox.poll-interval:5s}") Duration pollInterval) {
         this.emailParsingService = emailParsingService;
+        this.parsedEmailCache = parsedEmailCache;
+        this.parser = new CachedMessageParser(emailParsingService, parsedEmailCache);
         this.inboxDirectory = Path.of(inboxDirectory).toAbsolutePath().normalize();
+        this.watch = new DirectoryWatch(this.inboxDirectory, watch, pollInterval);
     }
 
+    /**
+     * Messages newest first by file modification time, then by file name.
+     */
     @Override
-    public List<EmailMessage> loadEmails() {
-        if (!Files.exists(inboxDirectory) || !Files.isDirectory(inboxDirectory)) {
+    public synchronized List<EmailMessage> loadEmails() {
+        DirectoryWatch.Changes changes = watch.poll();
+        boolean changed;
+        if (changes.rescan()) {
+            changed = rescan();
+        } else {
+            Set<Path> paths = new HashSet<>(changes.paths());
+            drainImported(paths);
+            changed = false;
+            for (Path path : paths) {
+                changed |= refresh(path);
+            }
+        }
+        changed |= parser.applyResolvedLogos(entries, Entry::message, Entry::withMessage);
+        if (changed) {
+            current = entries.entrySet().stream()
+                    .filter(entry -> entry.getValue().message() != null)
+                    .sorted(NEWEST_FIRST)
+                    .map(entry -> entry.getValue().message())
+                    .toList();
+        }
+        return current;
+    }
+
+    @PreDestroy
+    void stopWatching() {
+        watch.close();
+    }
+
+    /** Re-lists the directory, parsing only files whose stamp moved; returns whether anything changed. */
+    private boolean rescan() {
+        imported.clear();
+        if (!Files.isDirectory(inboxDirectory)) {
             log.debug("Email inbox directory does not exist: {}", inboxDirectory);
-            return List.of();
-        }
-
-        try (var stream = Files.list(inboxDirectory)) {
-            return stream.filter(path -> Files.isRegularFile(path))
-                    .filter(path -> {
-                        String name = path.getFileName().toString().toLowerCase();
-                        return name.endsWith(".eml") || name.endsWith(".txt");
-                    })
-                    .sorted(byLastModifiedDescending())
-                    .map(this::parseSafely)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
-        } catch (Exception e) {
+            boolean hadEntries = !entries.isEmpty();
+            entries.clear();
+            return hadEntries;
+        }
+        Set<Path> seen = new HashSet<>();
+        boolean changed = false;
+        try (Stream<Path> files = Files.list(inboxDirectory)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                if (isMailboxFile(path.getFileName().toString())) {
+                    seen.add(path);
+                    changed |= refresh(path);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
             log.warn("Failed to load email messages from directory: {}", inboxDirectory, e);
-            return List.of();
+            return changed;
         }
+        changed |= entries.keySet().retainAll(seen);
+        return changed;
     }
 
-    private Comparator<Path> byLastModifiedDescending() {
-        return (a, b) -> {
-            try {
-                FileTime timeA = Files.getLastModifiedTime(a);
-                FileTime timeB = Files.getLastModifiedTime(b);
-                return timeB.compareTo(timeA);
-            } catch (Exception e) {
-                return 0;
+    /** Brings one file's entry up to date; returns whether it was added, replaced or removed. */
+    private boolean refresh(Path path) {
+        if (!isMailboxFile(path.getFileName().toString())) {
+            return false;
+        }
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException gone) {
+            return entries.remove(path) != null;
+        } catch (IOException e) {
+            log.debug("Failed to stat email file {}: {}", path, e.getMessage());
+            return entries.remove(path) != null;
+        }
+        if (!attributes.isRegularFile()) {
+            return entries.remove(path) != null;
+        }
+        Entry existing = entries.get(path);
+        if (existing != null
+                && existing.size() == attributes.size()
+                && existing.modified().equals(attributes.lastModifiedTime())) {
+            return false;
+        }
+        entries.put(path, new Entry(attributes.lastModifiedTime(), attributes.size(), parseSafely(path)));
+        return true;
+    }
+
+    private void drainImported(Set<Path> into) {
+        for (Path path : imported) {
+            if (imported.remove(path)) {
+                into.add(path);
             }
-        };
+        }
+    }
+
+    /**
+     * Whether a file name is one this provider lists ({@code .eml} or {@code .txt}).
+     */
+    public static boolean isMailboxFile(String fileName) {
+        if (fileName == null) {
+            return false;
+        }
+        String name = fileName.toLowerCase(Locale.ROOT);
+        return name.endsWith(".eml") || name.endsWith(".txt");
+    }
+
+    /**
+     * Copies a message file into the inbox directory and parses it through the parse cache, so the next
+     * {@link #loadEmails()} serves it without re-parsing. Identical content already present under the same
+     * name is reused; a different file with the same name gets a content-hash suffix. Throws when the file
+     * cannot be parsed, leaving the inbox untouched.
+     */
+    public EmailMessage importFile(Path source, String originalFilename) throws IOException {
+        String fileName = safeFileName(originalFilename, source);
+        if (!isMailboxFile(fileName)) {
+            throw new IllegalArgumentException("Unsupported mailbox file type: " + fileName);
+        }
+        Files.createDirectories(inboxDirectory);
+        Path normalizedSource = source.toAbsolutePath().normalize();
+        if (normalizedSource.getParent() != null && normalizedSource.getParent().equals(inboxDirectory)) {
+            EmailMessage message = parseCached(normalizedSource);
+            imported.add(normalizedSource);
+            return message;
+        }
+
+        Path target = inboxDirectory.resolve(fileName);
+        CopyOutcome outcome = copyUnlessIdentical(normalizedSource, target);
+        if (outcome == CopyOutcome.CONFLICT) {
+            String hash = parsedEmailCache.keyFor(normalizedSource).contentHash();
+            target = inboxDirectory.resolve(withSuffix(fileName, hash.substring(0, IMPORT_HASH_SUFFIX_LENGTH)));
+            outcome = copyUnlessIdentical(normalizedSource, target);
+        }
+        if (outcome == CopyOutcome.CONFLICT) {
+            throw new FileAlreadyExistsException(target.toString());
+        }
+        try {
+            EmailMessage message = parseCached(target);
+            imported.add(target);
+            return message;
+        } catch (RuntimeException e) {
+            if (outcome == CopyOutcome.COPIED) {
+                Files.deleteIfExists(target);
+            }
+            throw e;
+        }
     }
 
     private EmailMessage parseSafely(Path path) {
         try {
-            EmailParsingService.ParsedEmail parsed =
-                    emailParsingService.parseEmail(path, path.getFileName().toString());
-            return parsed.toEmailMessage();
+            return parseCached(path);
         } catch (Exception e) {
             log.warn("Failed to parse email file: {}", path, e);
             return null;
         }
     }
+
+    private EmailMessage parseCached(Path path) throws IOException {
+        return parser.parse(
+                        parsedEmailCache.keyFor(path),
+                        () -> emailParsingService.parseEmail(path, path.getFileName().toString()))
+                .message();
+    }
+
+    /**
+     * Copies {@code source} to {@code target} unless the target already exists. Concurrent importers of the
+     * same name are resolved by the atomic create; the loser compares content instead.
+     */
+    private static CopyOutcome copyUnlessIdentical(Path source, Path target) throws IOException {
+        try {
+            Files.copy(source, target);
+            return CopyOutcome.COPIED;
+        } catch (FileAlreadyExistsException exists) {
+            return Files.mismatch(source, target) == -1L ? CopyOutcome.ALREADY_PRESENT : CopyOutcome.CONFLICT;
+        }
+    }
+
+    private static String safeFileName(String originalFilename, Path source) {
+        String candidate = StringUtils.isBlank(originalFilename)
+                ? source.getFileName().toString()
+                : originalFilename.trim();
+        // Keep only the final path segment so uploaded or archived names cannot escape the inbox
+        int slash = Math.max(candidate.lastIndexOf('/'), candidate.lastIndexOf('\\'));
+        String name = candidate.substring(slash + 1).replaceAll("[\\x00-\\x1F]", "");
+        if (name.isBlank() || name.startsWith(".")) {
+            throw new IllegalArgumentException("Invalid mailbox file name: " + originalFilename);
+        }
+        return name;
+    }
+
+    private static String withSuffix(String fileName, String suffix) {
+        int dot = fileName.lastIndexOf('.');
+        return fileName.substring(0, dot) + "-" + suffix + fileName.substring(dot);
+    }
+
+    /** A file seen in the inbox directory; {@code message} is null when it could not be parsed. */
+    private record Entry(FileTime modified, long size, EmailMessage message) {
+        Entry withMessage(EmailMessage replacement) {
+            return new Entry(modified, size, replacement);
+        }
+    }
+
+    private enum CopyOutcome {
+        COPIED,
+        ALREADY_PRESENT,
+        CONFLICT
+    }
 }
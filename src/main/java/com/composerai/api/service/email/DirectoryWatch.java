@@ -0,0 +1,150 @@
+package com.composerai.api.service.email;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reports which entries of one directory changed since the previous {@link #poll()}, without blocking.
+ * <p>
+ * While a {@link WatchService} is registered on the directory, {@link #poll()} only drains its queued events, so
+ * an unchanged directory costs nothing to check. A full rescan is requested instead when events may have been
+ * lost: on the first poll, after an {@code OVERFLOW}, and when the watch key was invalidated (e.g. the directory
+ * was deleted and recreated). When watching is disabled or the directory cannot be watched (missing, or the
+ * platform has no watch support), the caller is asked for a full rescan at most once per poll interval.
+ *
+ * @author William Callahan
+ * @since 2025-09-18
+ * @version 0.0.1
+ */
+@Slf4j
+final class DirectoryWatch implements AutoCloseable {
+
+    private final Path directory;
+    private final boolean watchEnabled;
+    private final long pollIntervalNanos;
+
+    private WatchService watchService;
+    private WatchKey watchKey;
+    private long lastRescanNanos;
+    private boolean rescanned;
+    private boolean watchUnavailable;
+    private boolean closed;
+
+    DirectoryWatch(Path directory, boolean watchEnabled, Duration pollInterval) {
+        this.directory = directory;
+        this.watchEnabled = watchEnabled;
+        this.pollIntervalNanos = pollInterval == null || pollInterval.isNegative() ? 0 : pollInterval.toNanos();
+    }
+
+    /**
+     * Changes since the previous call. Paths are resolved against the watched directory and may no longer exist.
+     */
+    synchronized Changes poll() {
+        if (closed) {
+            return Changes.NONE;
+        }
+        if (watchKey == null && !register()) {
+            return pollingFallback();
+        }
+        if (!rescanned) {
+            // events before registration were never seen
+            watchKey.pollEvents();
+            return rescan();
+        }
+        Set<Path> changed = new HashSet<>();
+        boolean overflow = false;
+        for (WatchEvent<?> event : watchKey.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflow = true;
+            } else if (event.context() instanceof Path name) {
+                changed.add(directory.resolve(name));
+            }
+        }
+        if (!watchKey.reset()) {
+            log.debug("Watch on {} was cancelled; rescanning", directory);
+            watchKey = null;
+            return rescan();
+        }
+        if (overflow) {
+            return rescan();
+        }
+        return changed.isEmpty() ? Changes.NONE : new Changes(false, Set.copyOf(changed));
+    }
+
+    private boolean register() {
+        if (!watchEnabled || watchUnavailable || !Files.isDirectory(directory)) {
+            return false;
+        }
+        try {
+            if (watchService == null) {
+                watchService = directory.getFileSystem().newWatchService();
+            }
+            watchKey = directory.register(
+                    watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+            rescanned = false;
+            return true;
+        } catch (IOException | UnsupportedOperationException | ClosedWatchServiceException e) {
+            log.info("Cannot watch {}, polling every {} ms instead: {}",
+                    directory, pollIntervalNanos / 1_000_000, e.getMessage());
+            watchUnavailable = true;
+            closeWatchService();
+            return false;
+        }
+    }
+
+    private Changes pollingFallback() {
+        if (rescanned && System.nanoTime() - lastRescanNanos < pollIntervalNanos) {
+            return Changes.NONE;
+        }
+        return rescan();
+    }
+
+    private Changes rescan() {
+        rescanned = true;
+        lastRescanNanos = System.nanoTime();
+        return Changes.RESCAN;
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        closeWatchService();
+    }
+
+    private void closeWatchService() {
+        watchKey = null;
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                log.debug("Failed to close watch service for {}", directory, e);
+            }
+            watchService = null;
+        }
+    }
+
+    /**
+     * What changed: either everything ({@code rescan}) or just {@code paths}.
+     */
+    record Changes(boolean rescan, Set<Path> paths) {
+        static final Changes NONE = new Changes(false, Set.of());
+        static final Changes RESCAN = new Changes(true, Set.of());
+
+        boolean isEmpty() {
+            return !rescan && paths.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/**
+ * EmailBatchPipeline: converts every matching file under a directory in one JVM
+ *
+ * @author William Callahan
+ * @since 2025-09-18
+ * @version 0.0.1
+ */
+package com.composerai.api.service.email;
+
+import com.composerai.api.service.HtmlToText;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Batch mode for {@link HtmlToText}: walks {@code options.inputDir}, converts each file whose relative path
+ * matches {@code options.glob} through {@link EmailPipeline}, and streams one NDJSON record per file.
+ * <p>
+ * Files are converted on {@code options.workers} threads with at most two files queued per worker, so only
+ * file paths, not converted bodies, accumulate for large corpora. Records are written in completion order;
+ * each carries the path relative to the input directory, {@code ok} or {@code error}, the per-file latency,
+ * and either the converted {@code content} or, when {@code options.jsonOutput} is set, the parsed
+ * {@code document}.
+ * A failing file yields an error record and the batch continues.
+ */
+public final class EmailBatchPipeline {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final int IN_FLIGHT_PER_WORKER = 2;
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final double P50 = 0.50;
+    private static final double P99 = 0.99;
+
+    private EmailBatchPipeline() {}
+
+    /**
+     * Converts the batch, writing NDJSON records to {@code out} as files finish.
+     *
+     * @return throughput and latency summary for the run
+     */
+    public static Summary run(HtmlToText.Options options, Writer out) throws IOException, InterruptedException {
+        Path root = options.inputDir;
+        if (root == null || !Files.isDirectory(root)) {
+            throw new IllegalArgumentException("--input-dir must be an existing directory: " + root);
+        }
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + options.glob);
+        int workers = Math.max(1, options.workers);
+        RecordWriter records = new RecordWriter(out);
+        LatencyRecorder latencies = new LatencyRecorder();
+        AtomicInteger failed = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(workers * IN_FLIGHT_PER_WORKER);
+        long started = System.nanoTime();
+
+        ExecutorService pool = Executors.newFixedThreadPool(
+                workers, Thread.ofPlatform().name("html-to-text-", 0).daemon(true).factory());
+        try (Stream<Path> files = Files.walk(root)) {
+            Iterator<Path> matches = files.filter(Files::isRegularFile)
+                    .filter(file -> matcher.matches(root.relativize(file)))
+                    .sorted()
+                    .iterator();
+            while (matches.hasNext()) {
+                Path file = matches.next();
+                inFlight.acquire();
+                pool.execute(() -> {
+                    try {
+                        records.write(convert(options, root, file, latencies, failed));
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+        records.flush();
+        return latencies.summarize(failed.get(), System.nanoTime() - started);
+    }
+
+    private static ObjectNode convert(
+            HtmlToText.Options options, Path root, Path file, LatencyRecorder latencies, AtomicInteger failed) {
+        ObjectNode record = JSON.createObjectNode();
+        record.put("file", root.relativize(file).toString().replace('\\', '/'));
+        HtmlToText.Options fileOptions = options.forInputFile(file.toString());
+        long started = System.nanoTime();
+        try {
+            if (options.jsonOutput) {
+                record.set("document", JSON.valueToTree(EmailPipeline.parse(fileOptions)));
+            } else {
+                record.put("content", EmailPipeline.process(fileOptions));
+            }
+            record.put("status", "ok");
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            record.put("status", "error");
+            record.put("error", e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+        long elapsed = System.nanoTime() - started;
+        latencies.record(elapsed);
+        record.put("elapsedMicros", TimeUnit.NANOSECONDS.toMicros(elapsed));
+        return record;
+    }
+
+    /** Throughput and per-file latency for one batch run. */
+    public record Summary(int files, int failed, long elapsedNanos, double p50Millis, double p99Millis) {
+
+        public double filesPerSecond() {
+            return elapsedNanos > 0 ? files * NANOS_PER_SECOND / elapsedNanos : 0d;
+        }
+
+        public String describe() {
+            return String.format(
+                    Locale.ROOT,
+                    "Converted %d files (%d failed) in %.2f s: %.1f files/s, p50 %.2f ms, p99 %.2f ms",
+                    files,
+                    failed,
+                    elapsedNanos / NANOS_PER_SECOND,
+                    filesPerSecond(),
+                    p50Millis,
+                    p99Millis);
+        }
+    }
+
+    /**
+     * Serializes records from worker threads into whole lines. The first write failure is kept and rethrown
+     * by {@link #flush()} so a broken output surfaces once, on the coordinating thread.
+     */
+    private static final class RecordWriter {
+        private final BufferedWriter out;
+        private IOException failure;
+
+        RecordWriter(Writer out) {
+            this.out = out instanceof BufferedWriter buffered ? buffered : new BufferedWriter(out);
+        }
+
+        synchronized void write(ObjectNode record) {
+            if (failure != null) {
+                return;
+            }
+            try {
+                out.write(JSON.writeValueAsString(record));
+                out.write('\n');
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+
+        synchronized void flush() throws IOException {
+            if (failure != null) {
+                throw failure;
+            }
+            out.flush();
+        }
+    }
+
+    /** Grow-only latency log; sorted once at the end for nearest-rank percentiles. */
+    private static final class LatencyRecorder {
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private long[] samples = new long[INITIAL_CAPACITY];
+        private int count;
+
+        synchronized void record(long nanos) {
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, samples.length * 2);
+            }
+            samples[count++] = nanos;
+        }
+
+        synchronized Summary summarize(int failed, long elapsedNanos) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            return new Summary(
+                    count, failed, elapsedNanos, percentileMillis(sorted, P50), percentileMillis(sorted, P99));
+        }
+
+        private static double percentileMillis(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0d;
+            }
+            int rank = (int) Math.ceil(percentile * sorted.length);
+            return sorted[Math.max(rank - 1, 0)] / NANOS_PER_MILLI;
+        }
+    }
+}
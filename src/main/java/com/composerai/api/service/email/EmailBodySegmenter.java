@@ -0,0 +1,431 @@
+package com.composerai.api.service.email;
+
+import com.composerai.api.model.EmailBodySegments;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Splits a cleaned message body into the sender's new content, quoted history and signature.
+ * <p>
+ * The body is classified line by line:
+ * <ul>
+ *   <li>Runs of {@code >}-prefixed lines are quoted, together with an attribution line ("On ... wrote:")
+ *       directly above them. Unquoted lines between runs stay new, so inline replies survive.</li>
+ *   <li>Everything from an unprefixed history marker to the end is quoted: an attribution not followed by a
+ *       {@code >} run, "Original Message"/"Forwarded message" separators, an Outlook {@code From:} header
+ *       block, or the line where the HTML's own quote container ({@code gmail_quote}, {@code type=cite},
+ *       {@code divRplyFwdMsg}, ...) starts.</li>
+ *   <li>In the last stretch of new content, a {@code -- } delimiter, a "Sent from my ..." footer, or the
+ *       lines after a closing valediction start the signature.</li>
+ * </ul>
+ * Quote containers are found in the unmodified HTML and matched to body lines by their leading letters and
+ * digits, which survive Markdown conversion.
+ *
+ * @author William Callahan
+ * @since 2025-09-18
+ * @version 0.0.1
+ */
+public final class EmailBodySegmenter {
+
+    /** Lines longer than this are prose, never markers, attributions or signature lines. */
+    private static final int MAX_MARKER_LINE = 400;
+    /** How many trailing new-content lines are searched for a signature. */
+    private static final int SIGNATURE_SEARCH_LINES = 12;
+    /** A valediction only starts a signature when at most this many short lines follow it. */
+    private static final int MAX_LINES_AFTER_VALEDICTION = 5;
+    private static final int MAX_SIGNATURE_LINE = 80;
+    /** Lines an Outlook header block may span after its {@code From:} line. */
+    private static final int OUTLOOK_HEADER_LINES = 6;
+    private static final int ANCHOR_LENGTH = 24;
+    private static final int MIN_ANCHOR_LENGTH = 8;
+    private static final int MIN_SEPARATOR_UNDERSCORES = 10;
+
+    private static final Pattern ATTRIBUTION = Pattern.compile(
+            "^(on|le|am|el|op|il)\\b.{0,300}\\b(wrote|a écrit|schrieb|escribió|schreef|ha scritto)\\b.{0,80}:$",
+            Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+
+    /** Opening words of an attribution that the mail client may have wrapped onto a second line. */
+    private static final Set<String> ATTRIBUTION_OPENERS = Set.of("on", "le", "am", "el", "op", "il");
+
+    private static final String[] HISTORY_MARKERS = {
+        "-----original message",
+        "----- original message",
+        "---------- forwarded message",
+        "-------- original message",
+        "begin forwarded message:"
+    };
+
+    private static final String[] MOBILE_FOOTERS = {
+        "sent from my ", "sent from mail for ", "get outlook for ", "sent via ", "sent from yahoo mail"
+    };
+
+    private static final Set<String> VALEDICTIONS = Set.of(
+            "best",
+            "best regards",
+            "kind regards",
+            "warm regards",
+            "regards",
+            "thanks",
+            "thank you",
+            "many thanks",
+            "thanks again",
+            "cheers",
+            "sincerely",
+            "yours",
+            "all the best",
+            "talk soon");
+
+    /** HTML quote containers of common mail clients, most specific first. */
+    private static final String[] QUOTE_CONTAINERS = {
+        ".gmail_attr",
+        "div.gmail_quote",
+        ".moz-cite-prefix",
+        "blockquote[type=cite]",
+        "#divRplyFwdMsg",
+        ".yahoo_quoted",
+        "#mail-editor-reference-message-container"
+    };
+
+    private EmailBodySegmenter() {}
+
+    /**
+     * @param body the message's context body; offsets in the result refer to it
+     * @param html the original HTML part, or null; only used to locate the client's quote container
+     */
+    public static EmailBodySegments segment(String body, EmailHtmlDocument html) {
+        if (body == null || body.isEmpty()) {
+            return EmailBodySegments.allNew(0);
+        }
+        Lines lines = Lines.of(body);
+        int count = lines.count();
+        EmailBodySegments.Kind[] kinds = new EmailBodySegments.Kind[count];
+        Arrays.fill(kinds, EmailBodySegments.Kind.NEW);
+        List<String> anchors = anchors(html);
+
+        int tail = count;
+        for (int i = 0; i < count; i++) {
+            if (lines.isQuoted(i)) {
+                kinds[i] = EmailBodySegments.Kind.QUOTED;
+                continue;
+            }
+            String line = lines.normalized(i);
+            if (line == null) {
+                continue;
+            }
+            int attributionEnd = attributionEnd(lines, i, line);
+            if (attributionEnd > i) {
+                int next = lines.nextNonBlank(attributionEnd);
+                if (next >= 0 && lines.isQuoted(next)) {
+                    for (int j = i; j < next; j++) {
+                        kinds[j] = EmailBodySegments.Kind.QUOTED;
+                    }
+                    i = next - 1;
+                    continue;
+                }
+                tail = i;
+                break;
+            }
+            if (isHistoryMarker(line) || isOutlookHeader(lines, i, line) || matchesAnchor(lines, i, anchors)) {
+                tail = separatorAbove(lines, i);
+                break;
+            }
+        }
+        for (int i = tail; i < count; i++) {
+            kinds[i] = EmailBodySegments.Kind.QUOTED;
+        }
+        fillBlankGapsBetweenQuotes(lines, kinds);
+        markSignature(lines, kinds);
+        return lines.toSegments(kinds);
+    }
+
+    /** @return the line after a (possibly wrapped) attribution starting at {@code i}, or {@code i} for none */
+    private static int attributionEnd(Lines lines, int i, String line) {
+        if (ATTRIBUTION.matcher(line).matches()) {
+            return i + 1;
+        }
+        int space = line.indexOf(' ');
+        if (space > 0 && ATTRIBUTION_OPENERS.contains(line.substring(0, space)) && i + 1 < lines.count()) {
+            String next = lines.normalized(i + 1);
+            if (next != null && !lines.isQuoted(i + 1) && ATTRIBUTION.matcher(line + " " + next).matches()) {
+                return i + 2;
+            }
+        }
+        return i;
+    }
+
+    private static boolean isHistoryMarker(String line) {
+        for (String marker : HISTORY_MARKERS) {
+            if (line.startsWith(marker)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** A {@code From:} line followed closely by {@code Sent:}/{@code Date:} and {@code To:}/{@code Subject:}. */
+    private static boolean isOutlookHeader(Lines lines, int i, String line) {
+        if (!line.startsWith("from:")) {
+            return false;
+        }
+        boolean sent = false;
+        boolean addressed = false;
+        for (int j = i + 1; j < lines.count() && j <= i + OUTLOOK_HEADER_LINES; j++) {
+            String next = lines.normalized(j);
+            if (next == null) {
+                continue;
+            }
+            sent |= next.startsWith("sent:") || next.startsWith("date:");
+            addressed |= next.startsWith("to:") || next.startsWith("subject:");
+        }
+        return sent && addressed;
+    }
+
+    /** Moves a history start up over the underscore rule Outlook draws above its header block. */
+    private static int separatorAbove(Lines lines, int i) {
+        int previous = lines.previousNonBlank(i);
+        if (previous >= 0) {
+            String line = lines.normalized(previous);
+            if (line != null && line.length() >= MIN_SEPARATOR_UNDERSCORES && line.chars().allMatch(c -> c == '_')) {
+                return previous;
+            }
+        }
+        return i;
+    }
+
+    private static List<String> anchors(EmailHtmlDocument html) {
+        if (html == null || html.isBlank()) {
+            return List.of();
+        }
+        List<String> anchors = new ArrayList<>(QUOTE_CONTAINERS.length);
+        for (String query : QUOTE_CONTAINERS) {
+            String anchor = skeleton(html.firstText(query));
+            if (anchor.length() >= MIN_ANCHOR_LENGTH) {
+                anchors.add(anchor);
+            }
+        }
+        return anchors;
+    }
+
+    private static boolean matchesAnchor(Lines lines, int i, List<String> anchors) {
+        if (anchors.isEmpty()) {
+            return false;
+        }
+        // an anchor may span a wrapped line; compare against this line plus the next
+        String here = skeleton(lines.text(i) + (i + 1 < lines.count() ? " " + lines.text(i + 1) : ""));
+        for (String anchor : anchors) {
+            if (here.startsWith(anchor)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** The first {@value #ANCHOR_LENGTH} letters and digits of {@code text}, lowercased. */
+    private static String skeleton(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(ANCHOR_LENGTH);
+        for (int i = 0; i < text.length() && out.length() < ANCHOR_LENGTH; i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                out.append(Character.toLowerCase(c));
+            }
+        }
+        return out.toString();
+    }
+
+    private static void fillBlankGapsBetweenQuotes(Lines lines, EmailBodySegments.Kind[] kinds) {
+        int lastQuoted = -1;
+        for (int i = 0; i < kinds.length; i++) {
+            if (kinds[i] == EmailBodySegments.Kind.QUOTED) {
+                for (int j = lastQuoted + 1; lastQuoted >= 0 && j < i; j++) {
+                    kinds[j] = EmailBodySegments.Kind.QUOTED;
+                }
+                lastQuoted = i;
+            } else if (!lines.isBlank(i)) {
+                lastQuoted = -1;
+            }
+        }
+    }
+
+    /** Marks the signature at the end of the last stretch of new content, if one is recognizable. */
+    private static void markSignature(Lines lines, EmailBodySegments.Kind[] kinds) {
+        int end = kinds.length;
+        while (end > 0 && (kinds[end - 1] != EmailBodySegments.Kind.NEW || lines.isBlank(end - 1))) {
+            end--;
+        }
+        int start = end;
+        while (start > 0 && end - start < SIGNATURE_SEARCH_LINES && kinds[start - 1] == EmailBodySegments.Kind.NEW) {
+            start--;
+        }
+        int signature = -1;
+        for (int i = end - 1; i >= start && signature < 0; i--) {
+            String line = lines.normalized(i);
+            if ("--".equals(line)) {
+                signature = i;
+            }
+        }
+        for (int i = start; i < end && signature < 0; i++) {
+            String line = lines.normalized(i);
+            if (line != null && startsWithAny(line, MOBILE_FOOTERS)) {
+                signature = i;
+            }
+        }
+        for (int i = end - 2; i >= start && signature < 0; i--) {
+            String line = lines.normalized(i);
+            if (line != null && isValediction(line) && isShortTail(lines, i + 1, end)) {
+                signature = i + 1;
+            }
+        }
+        if (signature <= 0) {
+            return; // nothing precedes it, so it is the message rather than a signature
+        }
+        for (int i = signature; i < end; i++) {
+            kinds[i] = EmailBodySegments.Kind.SIGNATURE;
+        }
+    }
+
+    private static boolean isValediction(String line) {
+        String trimmed = line;
+        while (!trimmed.isEmpty() && ",!.".indexOf(trimmed.charAt(trimmed.length() - 1)) >= 0) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+        }
+        return VALEDICTIONS.contains(trimmed) || trimmed.startsWith("thanks and ") || trimmed.startsWith("best wishes");
+    }
+
+    private static boolean isShortTail(Lines lines, int from, int end) {
+        int nonBlank = 0;
+        for (int i = from; i < end; i++) {
+            if (lines.isBlank(i)) {
+                continue;
+            }
+            if (++nonBlank > MAX_LINES_AFTER_VALEDICTION || lines.text(i).strip().length() > MAX_SIGNATURE_LINE) {
+                return false;
+            }
+        }
+        return nonBlank > 0;
+    }
+
+    private static boolean startsWithAny(String line, String[] prefixes) {
+        for (String prefix : prefixes) {
+            if (line.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Line boundaries of a body, with lazily normalized line text for marker checks. */
+    private static final class Lines {
+
+        private final String body;
+        private final int[] starts;
+        private final String[] normalized;
+        private final boolean[] normalizedDone;
+
+        private Lines(String body, int[] starts) {
+            this.body = body;
+            this.starts = starts;
+            this.normalized = new String[starts.length];
+            this.normalizedDone = new boolean[starts.length];
+        }
+
+        static Lines of(String body) {
+            int count = 1;
+            for (int i = body.indexOf('\n'); i >= 0; i = body.indexOf('\n', i + 1)) {
+                count++;
+            }
+            int[] starts = new int[count];
+            int line = 1;
+            for (int i = body.indexOf('\n'); i >= 0; i = body.indexOf('\n', i + 1)) {
+                starts[line++] = i + 1;
+            }
+            return new Lines(body, starts);
+        }
+
+        int count() {
+            return starts.length;
+        }
+
+        /** Line content without its terminator. */
+        String text(int i) {
+            int end = i + 1 < starts.length ? starts[i + 1] - 1 : body.length();
+            if (end > starts[i] && body.charAt(end - 1) == '\r') {
+                end--;
+            }
+            return body.substring(starts[i], end);
+        }
+
+        boolean isBlank(int i) {
+            int end = i + 1 < starts.length ? starts[i + 1] : body.length();
+            for (int c = starts[i]; c < end; c++) {
+                if (!Character.isWhitespace(body.charAt(c))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean isQuoted(int i) {
+            int end = i + 1 < starts.length ? starts[i + 1] : body.length();
+            int c = starts[i];
+            while (c < end && (body.charAt(c) == ' ' || body.charAt(c) == '\t')) {
+                c++;
+            }
+            return c < end && body.charAt(c) == '>';
+        }
+
+        /**
+         * Lowercased, trimmed line without emphasis marks or Markdown escapes, for marker checks; null when
+         * blank or too long to be a marker.
+         */
+        String normalized(int i) {
+            if (!normalizedDone[i]) {
+                normalizedDone[i] = true;
+                int end = i + 1 < starts.length ? starts[i + 1] : body.length();
+                if (end - starts[i] <= MAX_MARKER_LINE) {
+                    String line = text(i).replace("*", "").replace("\\", "").strip().toLowerCase(Locale.ROOT);
+                    normalized[i] = line.isEmpty() ? null : line;
+                }
+            }
+            return normalized[i];
+        }
+
+        int nextNonBlank(int from) {
+            for (int i = from; i < starts.length; i++) {
+                if (!isBlank(i)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        int previousNonBlank(int before) {
+            for (int i = before - 1; i >= 0; i--) {
+                if (!isBlank(i)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /** Each line owns its characters and terminator; adjacent lines of one kind merge. */
+        EmailBodySegments toSegments(EmailBodySegments.Kind[] kinds) {
+            List<EmailBodySegments.Segment> segments = new ArrayList<>();
+            int runStart = 0;
+            for (int i = 1; i <= kinds.length; i++) {
+                if (i == kinds.length || kinds[i] != kinds[runStart]) {
+                    int end = i == kinds.length ? body.length() : starts[i];
+                    segments.add(new EmailBodySegments.Segment(kinds[runStart], starts[runStart], end));
+                    runStart = i;
+                }
+            }
+            return new EmailBodySegments(segments);
+        }
+    }
+}
@@ -3,17 +3,15 @@
  *
  * @author William Callahan
  * @since 2025-09-18
- * @version 0.0.1
+ * @version 0.0.2
  */
 package com.composerai.api.service.email;
 
 import jakarta.mail.Address;
-import jakarta.mail.BodyPart;
 import jakarta.mail.Part;
 import jakarta.mail.Session;
 import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
-import jakarta.mail.internet.MimeMultipart;
 import jakarta.mail.internet.MimeUtility;
 import java.io.InputStream;
 import java.util.Date;
@@ -24,62 +22,35 @@ import java.util.Optional;
  */
 public final class EmailExtractor {
 
+    /** Default per-part budget for the HTML body; larger bodies are truncated. */
+    public static final long DEFAULT_MAX_HTML_PART_BYTES = 8L * 1024 * 1024;
+
+    /** Default per-part budget for the plain-text body; larger bodies are truncated. */
+    public static final long DEFAULT_MAX_TEXT_PART_BYTES = 2L * 1024 * 1024;
+
     private EmailExtractor() {}
 
     public static Optional<String> extractFirstHtml(Part part) throws Exception {
-        if (part.isMimeType("text/html")) {
-            Object content = part.getContent();
-            if (content instanceof String s) return Optional.of(s);
-        }
-        if (part.isMimeType("multipart/alternative")) {
-            MimeMultipart mp = (MimeMultipart) part.getContent();
-            String html = null;
-            for (int i = 0; i < mp.getCount(); i++) {
-                BodyPart bp = mp.getBodyPart(i);
-                if (bp.isMimeType("text/html")) {
-                    Object c = bp.getContent();
-                    if (c instanceof String s) html = s;
-                }
-            }
-            if (html != null) return Optional.of(html);
-        }
-        if (part.isMimeType("multipart/*")) {
-            MimeMultipart mp = (MimeMultipart) part.getContent();
-            for (int i = 0; i < mp.getCount(); i++) {
-                BodyPart bp = mp.getBodyPart(i);
-                Optional<String> nested = extractFirstHtml((Part) bp);
-                if (nested.isPresent()) return nested;
-            }
-        }
-        if (part.isMimeType("message/rfc822")) {
-            Object content = part.getContent();
-            if (content instanceof MimeMessage nested) {
-                return extractFirstHtml(nested);
-            }
-        }
-        return Optional.empty();
+        return extractFirstHtml(part, DEFAULT_MAX_HTML_PART_BYTES);
+    }
+
+    /**
+     * Streams the preferred {@code text/html} part, decoding at most {@code maxBytes}; attachments and
+     * unrelated parts are never read. See {@link StreamingBodyExtractor}.
+     */
+    public static Optional<String> extractFirstHtml(Part part, long maxBytes) throws Exception {
+        return StreamingBodyExtractor.extract(part, "text/html", maxBytes);
     }
 
     public static Optional<String> extractFirstPlainText(Part part) throws Exception {
-        if (part.isMimeType("text/plain")) {
-            Object content = part.getContent();
-            if (content instanceof String s) return Optional.of(s);
-        }
-        if (part.isMimeType("multipart/*")) {
-            MimeMultipart mp = (MimeMultipart) part.getContent();
-            for (int i = 0; i < mp.getCount(); i++) {
-                BodyPart bp = mp.getBodyPart(i);
-                Optional<String> nested = extractFirstPlainText((Part) bp);
-                if (nested.isPresent()) return nested;
-            }
-        }
-        if (part.isMimeType("message/rfc822")) {
-            Object content = part.getContent();
-            if (content instanceof MimeMessage nested) {
-                return extractFirstPlainText(nested);
-            }
-        }
-        return Optional.empty();
+        return extractFirstPlainText(part, DEFAULT_MAX_TEXT_PART_BYTES);
+    }
+
+    /**
+     * Streams the first {@code text/plain} part, decoding at most {@code maxBytes}.
+     */
+    public static Optional<String> extractFirstPlainText(Part part, long maxBytes) throws Exception {
+        return StreamingBodyExtractor.extract(part, "text/plain", maxBytes);
     }
 
     public static MimeMessage loadMessage(Session session, InputStream in) throws Exception {
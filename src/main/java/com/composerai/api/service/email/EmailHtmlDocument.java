@@ -0,0 +1,114 @@
+package com.composerai.api.service.email;
+
+import com.composerai.api.service.HtmlToText;
+import java.util.HashMap;
+import java.util.Map;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+
+/**
+ * Parse-once intermediate representation of one email's HTML body.
+ * <p>
+ * The source is parsed by jsoup exactly once. Each derived view (plain text, Markdown, sanitized
+ * display HTML) works on its own {@link Document#clone() clone}, so the mutating passes in
+ * {@link HtmlConverter} and {@link EmailHtmlSanitizer} never interfere with each other. The
+ * flexmark Markdown for a given URL/utility policy is memoized because the plain-text view is
+ * derived from the same Markdown.
+ * <p>
+ * Instances are scoped to a single email and are not thread-safe.
+ *
+ * @author William Callahan
+ * @since 2025-09-18
+ * @version 0.0.1
+ */
+public final class EmailHtmlDocument {
+
+    private static final EmailHtmlDocument EMPTY = new EmailHtmlDocument(null, null);
+
+    private final String sourceHtml;
+    private final Document parsed;
+    private final Map<ConversionKey, String> markdownByPolicy = new HashMap<>();
+
+    private EmailHtmlDocument(String sourceHtml, Document parsed) {
+        this.sourceHtml = sourceHtml;
+        this.parsed = parsed;
+    }
+
+    /**
+     * Parses the HTML once. Null or blank input yields an empty instance that is never parsed.
+     */
+    public static EmailHtmlDocument parse(String html) {
+        if (html == null) {
+            return EMPTY;
+        }
+        if (html.isBlank()) {
+            return new EmailHtmlDocument(html, null);
+        }
+        return new EmailHtmlDocument(html, Jsoup.parse(html));
+    }
+
+    public boolean isBlank() {
+        return parsed == null;
+    }
+
+    /**
+     * The HTML exactly as supplied; null for the empty instance.
+     */
+    public String sourceHtml() {
+        return sourceHtml;
+    }
+
+    /**
+     * Deep copy of the parsed DOM for a caller that intends to mutate it.
+     */
+    Document workingCopy() {
+        if (parsed == null) {
+            throw new IllegalStateException("Cannot copy an empty email HTML document");
+        }
+        return parsed.clone();
+    }
+
+    /**
+     * @throws ParseBudget.BudgetExceededException when the parsed DOM is deeper or larger than {@code budget}
+     */
+    void checkWithin(ParseBudget budget) {
+        if (parsed != null) {
+            budget.checkDom(parsed);
+        }
+    }
+
+    /**
+     * Live elements matching {@code cssQuery}, for in-place rewrites that every derived view must see. Only
+     * valid before the first view has been derived.
+     */
+    Elements selectForEdit(String cssQuery) {
+        if (!markdownByPolicy.isEmpty()) {
+            throw new IllegalStateException("Email HTML cannot be edited after views were derived from it");
+        }
+        return parsed == null ? new Elements() : parsed.select(cssQuery);
+    }
+
+    /**
+     * Text of the first element matching {@code cssQuery} in the unmodified DOM, or null when nothing matches.
+     */
+    String firstText(String cssQuery) {
+        if (parsed == null) {
+            return null;
+        }
+        Element match = parsed.selectFirst(cssQuery);
+        return match == null ? null : match.text();
+    }
+
+    /**
+     * Flexmark Markdown of the preprocessed DOM, before output cleanup; computed at most once per policy pair.
+     */
+    String rawMarkdown(HtmlToText.UrlPolicy urlsPolicy, boolean suppressUtility) {
+        return markdownByPolicy.computeIfAbsent(
+                new ConversionKey(urlsPolicy, suppressUtility),
+                key -> HtmlConverter.renderRawMarkdown(this, key.urlsPolicy(), key.suppressUtility()));
+    }
+
+    private record ConversionKey(HtmlToText.UrlPolicy urlsPolicy, boolean suppressUtility) {}
+}
@@ -0,0 +1,363 @@
+package com.composerai.api.service.email;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Comment;
+import org.jsoup.nodes.DataNode;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.select.NodeFilter;
+import org.jsoup.select.NodeTraversor;
+
+/**
+ * Shrinks already-sanitized email HTML without changing how it renders.
+ * <p>
+ * Runs after {@link EmailHtmlSanitizer} and only ever removes or relocates bytes:
+ * <ul>
+ *   <li>Comments and byte-identical {@code <style>} blocks are dropped.</li>
+ *   <li>Whitespace runs in text and style sheets collapse to one space (skipped inside {@code pre}-like
+ *       elements, and for the whole message when any rule sets {@code white-space: pre*}).</li>
+ *   <li>Empty attribute-less inline elements are removed and attribute-less {@code span}/{@code font}
+ *       wrappers are unwrapped, unless a style sheet selects on that tag or on sibling structure.</li>
+ *   <li>Inline styles repeated often enough to pay for a rule move into generated classes, unless a style
+ *       sheet selects on {@code class} or {@code style} attributes.</li>
+ * </ul>
+ * Generated rules are emitted as {@code :where(.class){decl!important}} ahead of the message's own style
+ * sheets. Marking every declaration important keeps it winning over normal author rules, exactly like the
+ * inline style it replaces, while the zero specificity of {@code :where()} and the earlier position keep
+ * it losing to author {@code !important} rules, again like the inline style did. Styles that already use
+ * {@code !important}, mention {@code width} (the iframe renderer clamps those via {@code [style*="width"]}),
+ * or contain characters that could end a style sheet are left inline.
+ *
+ * @author William Callahan
+ * @since 2025-09-18
+ * @version 0.0.1
+ */
+public final class EmailHtmlMinifier {
+
+    /** Text-level elements with no rendering of their own once they have no content and no attributes. */
+    private static final Set<String> EMPTY_NO_OP_TAGS =
+            Set.of("span", "font", "b", "strong", "i", "em", "u", "s", "strike", "small", "big");
+
+    /** Attribute-less wrappers that contribute nothing but their children. */
+    private static final Set<String> UNWRAPPABLE_TAGS = Set.of("span", "font");
+
+    private static final Set<String> PREFORMATTED_TAGS = Set.of("pre", "textarea", "listing", "plaintext");
+
+    private static final Pattern WHITESPACE_RUN = Pattern.compile("[ \\t\\n\\r\\f]+");
+    private static final Pattern PRESERVED_WHITESPACE =
+            Pattern.compile("(?i)white-space\\s*:\\s*(?:pre|break-spaces)");
+    private static final Pattern UNSAFE_STYLE = Pattern.compile("(?i)[<>{}@\\\\]|/\\*|!\\s*important|width");
+    /** Selectors whose matches change when siblings disappear or wrappers unwrap. */
+    private static final Pattern STRUCTURAL_SELECTOR = Pattern.compile("(?i)[*>+~]|:(?:nth|first|last|only|empty)");
+    /** Selectors whose matches change when a style attribute becomes a class. */
+    private static final Pattern ATTRIBUTE_SELECTOR = Pattern.compile("(?i)\\[\\s*(?:class|style)");
+
+    private static final String CLASS_PREFIX = "_m";
+    private static final String IMPORTANT = "!important";
+    /** Bytes a rule costs beyond its declarations: {@code :where(._mN){}} plus separators. */
+    private static final int RULE_OVERHEAD = 16;
+    /** Bytes a converted element still pays: a class token, or a whole class attribute at worst. */
+    private static final int CLASS_REFERENCE_COST = 12;
+    /** Bytes a removed {@code style=""} attribute frees besides its value. */
+    private static final int STYLE_ATTRIBUTE_OVERHEAD = 9;
+
+    private EmailHtmlMinifier() {}
+
+    /**
+     * Minifies sanitized HTML.
+     *
+     * @param html output of {@link EmailHtmlSanitizer#sanitize(String)}
+     * @return the minified markup with before/after sizes, or the input unchanged when it is blank
+     */
+    public static Result minify(String html) {
+        if (html == null || html.isBlank()) {
+            int bytes = html == null ? 0 : utf8Length(html);
+            return new Result(html, bytes, bytes);
+        }
+        Document document = Jsoup.parseBodyFragment(html);
+        document.outputSettings().prettyPrint(false);
+        Element body = document.body();
+
+        SlimmingFilter filter = new SlimmingFilter(PRESERVED_WHITESPACE.matcher(html).find());
+        NodeTraversor.filter(filter, body);
+        filter.pruneNoOpElements();
+        filter.extractRepeatedStyles(body);
+
+        String minified = body.html();
+        return new Result(minified, utf8Length(html), utf8Length(minified));
+    }
+
+    /** Minified markup plus UTF-8 sizes before and after. */
+    public record Result(String html, int originalBytes, int minifiedBytes) {
+
+        public int savedBytes() {
+            return originalBytes - minifiedBytes;
+        }
+
+        /** Fraction of the original payload removed, from 0 to 1. */
+        public double savedRatio() {
+            return originalBytes > 0 ? (double) savedBytes() / originalBytes : 0d;
+        }
+    }
+
+    /**
+     * One pass over the fragment: drops comments and duplicate style blocks, collapses whitespace, and
+     * records the elements the later steps need so neither walks the tree again.
+     */
+    private static final class SlimmingFilter implements NodeFilter {
+        private final boolean preserveAllWhitespace;
+        private final Set<String> styleBlocks = new HashSet<>();
+        private final StringBuilder styleSheets = new StringBuilder();
+        private final Set<String> classTokens = new HashSet<>();
+        private final List<Element> noOpCandidates = new ArrayList<>();
+        private final List<Element> styledElements = new ArrayList<>();
+        private final Map<String, Integer> styleUses = new LinkedHashMap<>();
+        private int preformattedDepth = -1;
+
+        SlimmingFilter(boolean preserveAllWhitespace) {
+            this.preserveAllWhitespace = preserveAllWhitespace;
+        }
+
+        @Override
+        public FilterResult head(Node node, int depth) {
+            if (node instanceof Comment) {
+                return FilterResult.REMOVE;
+            }
+            if (node instanceof TextNode text) {
+                collapseWhitespace(text);
+                return FilterResult.CONTINUE;
+            }
+            if (!(node instanceof Element element)) {
+                return FilterResult.CONTINUE;
+            }
+            String tag = element.normalName();
+            if ("style".equals(tag)) {
+                return slimStyleBlock(element);
+            }
+            if (preformattedDepth < 0 && PREFORMATTED_TAGS.contains(tag)) {
+                preformattedDepth = depth;
+            }
+            String classes = element.attr("class");
+            if (!classes.isEmpty()) {
+                for (String token : WHITESPACE_RUN.split(classes.trim())) {
+                    classTokens.add(token);
+                }
+            }
+            String style = normalizeStyle(element.attr("style"));
+            if (!style.isEmpty() && !UNSAFE_STYLE.matcher(style).find()) {
+                styledElements.add(element);
+                styleUses.merge(style, 1, Integer::sum);
+            }
+            return FilterResult.CONTINUE;
+        }
+
+        @Override
+        public FilterResult tail(Node node, int depth) {
+            if (node instanceof Element element) {
+                if (depth == preformattedDepth) {
+                    preformattedDepth = -1;
+                }
+                if (element.attributesSize() == 0 && EMPTY_NO_OP_TAGS.contains(element.normalName())) {
+                    noOpCandidates.add(element);
+                }
+            }
+            return FilterResult.CONTINUE;
+        }
+
+        private FilterResult slimStyleBlock(Element style) {
+            String css = style.data();
+            if (!styleBlocks.add(css)) {
+                return FilterResult.REMOVE;
+            }
+            styleSheets.append(css).append('\n');
+            if (!preserveAllWhitespace) {
+                String collapsed = collapseCss(css);
+                if (!collapsed.equals(css)) {
+                    style.empty();
+                    style.appendChild(new DataNode(collapsed));
+                }
+            }
+            return FilterResult.SKIP_CHILDREN;
+        }
+
+        private void collapseWhitespace(TextNode text) {
+            if (preserveAllWhitespace || preformattedDepth >= 0) {
+                return;
+            }
+            String whole = text.getWholeText();
+            String collapsed = WHITESPACE_RUN.matcher(whole).replaceAll(" ");
+            if (!collapsed.equals(whole)) {
+                text.text(collapsed);
+            }
+        }
+
+        /** Candidates were collected in post-order, so children are settled before their parents. */
+        void pruneNoOpElements() {
+            if (STRUCTURAL_SELECTOR.matcher(styleSheets).find()) {
+                return;
+            }
+            Map<String, Boolean> styledTags = new HashMap<>();
+            for (Element element : noOpCandidates) {
+                String tag = element.normalName();
+                boolean selected = styledTags.computeIfAbsent(tag, this::isSelectedByStyleSheet);
+                if (selected || element.parent() == null || element.attributesSize() > 0) {
+                    continue;
+                }
+                if (element.childNodeSize() == 0) {
+                    element.remove();
+                } else if (UNWRAPPABLE_TAGS.contains(tag)) {
+                    element.unwrap();
+                }
+            }
+        }
+
+        private boolean isSelectedByStyleSheet(String tag) {
+            return Pattern.compile("(?i)(?<![\\w.#-])" + tag + "(?![\\w-])")
+                    .matcher(styleSheets)
+                    .find();
+        }
+
+        void extractRepeatedStyles(Element body) {
+            if (ATTRIBUTE_SELECTOR.matcher(styleSheets).find()) {
+                return;
+            }
+            String prefix = uniqueClassPrefix();
+            Map<String, String> classByStyle = new LinkedHashMap<>();
+            StringBuilder rules = new StringBuilder();
+            for (Map.Entry<String, Integer> entry : styleUses.entrySet()) {
+                String style = entry.getKey();
+                List<String> declarations = splitDeclarations(style);
+                if (declarations == null || !worthExtracting(style, declarations.size(), entry.getValue())) {
+                    continue;
+                }
+                String className = prefix + Integer.toString(classByStyle.size(), Character.MAX_RADIX);
+                classByStyle.put(style, className);
+                rules.append(":where(.").append(className).append("){");
+                for (int i = 0; i < declarations.size(); i++) {
+                    rules.append(i == 0 ? "" : ";").append(declarations.get(i)).append(IMPORTANT);
+                }
+                rules.append('}');
+            }
+            if (classByStyle.isEmpty()) {
+                return;
+            }
+            for (Element element : styledElements) {
+                String className = classByStyle.get(normalizeStyle(element.attr("style")));
+                if (className != null) {
+                    element.removeAttr("style");
+                    element.addClass(className);
+                }
+            }
+            body.prependChild(new Element("style").appendChild(new DataNode(rules.toString())));
+        }
+
+        private String uniqueClassPrefix() {
+            String prefix = CLASS_PREFIX;
+            while (hasClassStartingWith(prefix)) {
+                prefix += "_";
+            }
+            return prefix;
+        }
+
+        private boolean hasClassStartingWith(String prefix) {
+            for (String token : classTokens) {
+                if (token.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static boolean worthExtracting(String style, int declarations, int uses) {
+        if (uses < 2) {
+            return false;
+        }
+        long saved = (long) uses * (style.length() + STYLE_ATTRIBUTE_OVERHEAD - CLASS_REFERENCE_COST);
+        long cost = style.length() + RULE_OVERHEAD + (long) declarations * IMPORTANT.length();
+        return saved > cost;
+    }
+
+    private static String normalizeStyle(String style) {
+        int end = style.length();
+        while (end > 0 && (style.charAt(end - 1) == ';' || Character.isWhitespace(style.charAt(end - 1)))) {
+            end--;
+        }
+        int start = 0;
+        while (start < end && Character.isWhitespace(style.charAt(start))) {
+            start++;
+        }
+        return style.substring(start, end);
+    }
+
+    /**
+     * Splits a declaration list on semicolons outside quotes and parentheses.
+     *
+     * @return trimmed non-empty declarations, or null when quotes or parentheses do not balance
+     */
+    static List<String> splitDeclarations(String style) {
+        List<String> declarations = new ArrayList<>();
+        char quote = 0;
+        int parens = 0;
+        int start = 0;
+        for (int i = 0; i <= style.length(); i++) {
+            char c = i < style.length() ? style.charAt(i) : ';';
+            if (quote != 0) {
+                quote = c == quote ? 0 : quote;
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '(') {
+                parens++;
+            } else if (c == ')') {
+                parens--;
+            } else if (c == ';' && parens == 0) {
+                String declaration = style.substring(start, i).trim();
+                if (!declaration.isEmpty()) {
+                    declarations.add(declaration);
+                }
+                start = i + 1;
+            }
+        }
+        return quote == 0 && parens == 0 ? declarations : null;
+    }
+
+    /** Collapses whitespace runs in a style sheet, leaving quoted strings untouched. */
+    static String collapseCss(String css) {
+        StringBuilder out = new StringBuilder(css.length());
+        char quote = 0;
+        boolean pendingSpace = false;
+        for (int i = 0; i < css.length(); i++) {
+            char c = css.charAt(i);
+            if (quote == 0 && Character.isWhitespace(c)) {
+                pendingSpace = true;
+                continue;
+            }
+            if (pendingSpace && !out.isEmpty()) {
+                out.append(' ');
+            }
+            pendingSpace = false;
+            out.append(c);
+            if (quote != 0) {
+                quote = c == quote && css.charAt(i - 1) != '\\' ? 0 : quote;
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            }
+        }
+        return out.toString();
+    }
+
+    private static int utf8Length(String value) {
+        return value.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
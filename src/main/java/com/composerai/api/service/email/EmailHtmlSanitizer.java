@@ -1,11 +1,18 @@
 package com.composerai.api.service.email;
 
 import com.composerai.api.util.StringUtils;
-import java.util.ArrayList;
-import java.util.List;
-import org.jsoup.Jsoup;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.jsoup.nodes.Attribute;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.select.NodeFilter;
+import org.jsoup.select.NodeTraversor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -19,12 +26,27 @@ import org.slf4j.LoggerFactory;
  *
  * @author William Callahan
  * @since 2025-11-02
- * @version 0.0.1
+ * @version 0.0.3
  */
 public final class EmailHtmlSanitizer {
 
     private static final Logger logger = LoggerFactory.getLogger(EmailHtmlSanitizer.class);
 
+    /** Elements removed with their whole subtree: they execute scripts or embed external content. */
+    private static final Set<String> REMOVED_TAGS =
+            Set.of("script", "noscript", "iframe", "object", "embed", "applet", "form");
+
+    private static final String POSITION_RELATIVE = "position: relative";
+    private static final Pattern POSITION_FIXED = Pattern.compile("(?i)position\\s*:\\s*fixed");
+    private static final Pattern JAVASCRIPT_BACKGROUND_IMAGE =
+            Pattern.compile("(?i)background-image\\s*:\\s*url\\s*\\(\\s*['\"]?\\s*javascript:[^)]*\\)");
+    private static final Pattern CSS_EXPRESSION = Pattern.compile("(?i)expression\\s*\\(");
+    private static final Pattern CSS_JAVASCRIPT_URL = Pattern.compile("(?i)url\\s*\\(\\s*['\"]?\\s*javascript:");
+    private static final Pattern CSS_JAVASCRIPT_IMPORT = Pattern.compile("(?i)@import\\s+['\"]?\\s*javascript:");
+
+    /** Deadline checks run every 256 elements; see {@link ParseBudget#checkpoint()}. */
+    private static final int BUDGET_CHECK_MASK = 0xFF;
+
     private EmailHtmlSanitizer() {}
 
     /**
@@ -56,21 +78,26 @@ public final class EmailHtmlSanitizer {
         if (html == null || html.isBlank()) {
             return null;
         }
+        return sanitize(EmailHtmlDocument.parse(html));
+    }
 
-        try {
-            Document doc = Jsoup.parse(html);
-
-            // Remove dangerous elements that could execute scripts or embed external content
-            doc.select("script, noscript, iframe, object, embed, applet, form").remove();
-
-            // Remove all JavaScript event handlers and javascript: URLs
-            removeJavaScriptHandlers(doc);
+    /**
+     * Sanitize an already-parsed email body; works on a private copy so the shared parse stays intact.
+     *
+     * @throws ParseBudget.BudgetExceededException when the active parse budget runs out mid-way
+     * @see #sanitize(String)
+     */
+    public static String sanitize(EmailHtmlDocument document) {
+        if (document == null || document.isBlank()) {
+            return null;
+        }
 
-            // Neutralize dangerous CSS that could break page layout
-            neutralizeDangerousCss(doc);
+        String html = document.sourceHtml();
+        try {
+            Document doc = document.workingCopy();
 
-            // Clean up <style> blocks to strip harmful constructs without removing formatting entirely
-            sanitizeStyleTags(doc);
+            // One traversal removes dangerous elements, strips handlers/URLs, and neutralizes CSS
+            NodeTraversor.filter(new SanitizingFilter(), doc);
 
             StringBuilder builder = new StringBuilder();
             appendHeadStyles(doc, builder);
@@ -78,6 +105,8 @@ public final class EmailHtmlSanitizer {
             String cleaned = builder.toString();
             return cleaned.trim().isEmpty() ? null : cleaned.trim();
 
+        } catch (ParseBudget.BudgetExceededException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("HTML sanitization failed for input of {} chars: {}", html.length(), e.getMessage(), e);
             throw new SanitizationException(
@@ -86,51 +115,71 @@ public final class EmailHtmlSanitizer {
     }
 
     /**
-     * Remove all JavaScript event handlers (onclick, onerror, etc.) and dangerous URLs.
-     * Blocks javascript:, vbscript:, and data: (except for images) schemes.
-     * Also neutralizes SVG xlink:href attributes.
+     * Single-pass sanitizer. On the way down it drops script/embedding elements with their subtrees, removes
+     * event handlers and dangerous {@code href}/{@code src} URLs, and neutralizes inline styles; on the way up
+     * it rewrites {@code <style>} blocks, once their children have been visited. Inline style results are
+     * memoized per document because newsletters repeat the same few styles on thousands of elements.
      */
-    private static void removeJavaScriptHandlers(Document doc) {
-        for (Element el : doc.getAllElements()) {
-            // Remove all on* attributes (iterate over copy to avoid concurrent modification)
-            List<String> attrsToRemove = new ArrayList<>();
-            for (var attr : el.attributes()) {
-                String key = attr.getKey().toLowerCase();
-                if (key.startsWith("on")) {
-                    attrsToRemove.add(attr.getKey());
-                }
-                // Check for xlink:href or href on SVG elements which can be XSS vectors
-                if (key.endsWith(":href") || key.equals("href")) {
-                    String val = attr.getValue().toLowerCase().trim();
-                    // Allow data:image in href/xlink:href as requested, but still block scripts
-                    if (isDangerousUrl(val, true)) {
-                        attrsToRemove.add(attr.getKey());
-                    }
-                }
+    private static final class SanitizingFilter implements NodeFilter {
+
+        private final Map<String, String> inlineStyles = new HashMap<>();
+        private final Map<String, String> imageStyles = new HashMap<>();
+        private int elements;
+
+        @Override
+        public FilterResult head(Node node, int depth) {
+            if (!(node instanceof Element element)) {
+                return FilterResult.CONTINUE;
             }
-            for (String attrKey : attrsToRemove) {
-                el.removeAttr(attrKey);
+            if ((++elements & BUDGET_CHECK_MASK) == 0) {
+                ParseBudget.checkpoint();
             }
-
-            // Explicitly check src and href for dangerous protocols
-            if (el.hasAttr("src")) {
-                String src = el.attr("src").toLowerCase().trim();
-                // Allow data:image for src, block others
-                if (isDangerousUrl(src, true)) {
-                    el.removeAttr("src");
-                }
+            if (REMOVED_TAGS.contains(element.normalName())) {
+                return FilterResult.REMOVE;
             }
-            if (el.hasAttr("href")) {
-                // Same policy for href: allow images if they are data URIs, block scripts
-                if (isDangerousUrl(el.attr("href").toLowerCase().trim(), true)) {
-                    el.removeAttr("href");
+            scrubAttributes(element);
+            if (element.hasAttr("style")) {
+                String style = element.attr("style");
+                String cleaned = "img".equals(element.normalName())
+                        ? imageStyles.computeIfAbsent(style, EmailHtmlSanitizer::neutralizeImageStyle)
+                        : inlineStyles.computeIfAbsent(style, EmailHtmlSanitizer::neutralizeInlineStyle);
+                if (!cleaned.equals(style)) {
+                    element.attr("style", cleaned);
                 }
             }
+            return FilterResult.CONTINUE;
+        }
+
+        @Override
+        public FilterResult tail(Node node, int depth) {
+            if (node instanceof Element element && "style".equals(element.normalName())) {
+                sanitizeStyleTag(element);
+            }
+            return FilterResult.CONTINUE;
         }
     }
 
-    private static boolean isDangerousUrl(String url) {
-        return isDangerousUrl(url, false);
+    /**
+     * Remove all JavaScript event handlers (onclick, onerror, etc.) and dangerous URLs.
+     * Blocks javascript:, vbscript:, and data: (except for images) schemes in href, xlink:href and src.
+     */
+    private static void scrubAttributes(Element el) {
+        if (el.attributesSize() == 0) {
+            return;
+        }
+        Iterator<Attribute> attributes = el.attributes().iterator();
+        while (attributes.hasNext()) {
+            Attribute attr = attributes.next();
+            String key = attr.getKey().toLowerCase(Locale.ROOT);
+            if (key.startsWith("on")) {
+                attributes.remove();
+            } else if (key.endsWith(":href") || key.equals("href") || key.equals("src")) {
+                // Allow data:image in href/xlink:href/src, but still block scripts
+                if (isDangerousUrl(attr.getValue().toLowerCase(Locale.ROOT).trim(), true)) {
+                    attributes.remove();
+                }
+            }
+        }
     }
 
     private static boolean isDangerousUrl(String url, boolean allowDataImages) {
@@ -148,50 +197,37 @@ public final class EmailHtmlSanitizer {
      * Specifically targets position:fixed which could escape the iframe.
      * Preserves background colors and absolute positioning to keep layout fidelity.
      */
-    private static void neutralizeDangerousCss(Document doc) {
-        for (Element el : doc.getAllElements()) {
-            if (!el.hasAttr("style")) {
-                continue;
-            }
-
-            String style = el.attr("style");
-
-            // Replace position:fixed with position:relative to avoid viewport overlays.
-            String cleanedStyle = style.replaceAll("(?i)position\\s*:\\s*fixed", "position: relative");
-
-            // Sanitize background-image URLs to prevent javascript: injection
-            // but preserve valid http/https/data URLs for background images
-            cleanedStyle = cleanedStyle.replaceAll(
-                    "(?i)background-image\\s*:\\s*url\\s*\\(\\s*['\"]?\\s*javascript:[^)]*\\)", "");
-
-            // Ensure images are constrained
-            if (el.tagName().equalsIgnoreCase("img")) {
-                if (!cleanedStyle.toLowerCase().contains("max-width")) {
-                    cleanedStyle += "; max-width: 100%;";
-                }
-            }
+    private static String neutralizeInlineStyle(String style) {
+        // Replace position:fixed with position:relative to avoid viewport overlays.
+        String cleaned = POSITION_FIXED.matcher(ParseBudget.guard(style)).replaceAll(POSITION_RELATIVE);
+        // Sanitize background-image URLs to prevent javascript: injection
+        // but preserve valid http/https/data URLs for background images
+        return JAVASCRIPT_BACKGROUND_IMAGE.matcher(ParseBudget.guard(cleaned)).replaceAll("");
+    }
 
-            if (!cleanedStyle.equals(style)) {
-                el.attr("style", cleanedStyle);
-            }
+    /** Inline style neutralization plus a width constraint so images never overflow the viewer. */
+    private static String neutralizeImageStyle(String style) {
+        String cleaned = neutralizeInlineStyle(style);
+        if (!cleaned.toLowerCase(Locale.ROOT).contains("max-width")) {
+            cleaned += "; max-width: 100%;";
         }
+        return cleaned;
     }
 
-    private static void sanitizeStyleTags(Document doc) {
-        for (Element styleTag : doc.select("style")) {
-            String css = styleTag.data();
-            if (css == null || css.isBlank()) {
-                continue;
-            }
+    private static void sanitizeStyleTag(Element styleTag) {
+        String css = styleTag.data();
+        if (css == null || css.isBlank()) {
+            return;
+        }
 
-            // Remove dangerous CSS while preserving backgrounds and colors
-            String sanitized = css.replaceAll("(?i)expression\\s*\\(", "")
-                    .replaceAll("(?i)url\\s*\\(\\s*['\"]?\\s*javascript:", "url(")
-                    .replaceAll("(?i)@import\\s+['\"]?\\s*javascript:", "")
-                    .replaceAll("(?i)position\\s*:\\s*fixed", "position: relative");
+        // Remove dangerous CSS while preserving backgrounds and colors; the adjacent \s* runs in these
+        // patterns backtrack on long whitespace, so the input is read under the parse budget
+        String sanitized = CSS_EXPRESSION.matcher(ParseBudget.guard(css)).replaceAll("");
+        sanitized = CSS_JAVASCRIPT_URL.matcher(ParseBudget.guard(sanitized)).replaceAll("url(");
+        sanitized = CSS_JAVASCRIPT_IMPORT.matcher(ParseBudget.guard(sanitized)).replaceAll("");
+        sanitized = POSITION_FIXED.matcher(ParseBudget.guard(sanitized)).replaceAll(POSITION_RELATIVE);
 
-            styleTag.text(sanitized);
-        }
+        styleTag.text(sanitized);
     }
 
     private static void appendHeadStyles(Document doc, StringBuilder builder) {
@@ -3,19 +3,19 @@
  *
  * @author William Callahan
  * @since 2025-09-18
- * @version 0.0.1
+ * @version 0.0.2
  */
 package com.composerai.api.service.email;
 
 import com.composerai.api.service.HtmlToText;
 import com.composerai.api.util.StringUtils;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.mail.MessagingException;
 import jakarta.mail.Session;
-import jakarta.mail.internet.MailDateFormat;
 import jakarta.mail.internet.MimeMessage;
-import java.io.BufferedInputStream;
-import java.io.FileInputStream;
+import jakarta.mail.util.SharedFileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
@@ -24,10 +24,7 @@ import java.nio.file.Path;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.util.HashMap;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Properties;
 
 /**
@@ -35,146 +32,231 @@ import java.util.Properties;
  *
  * Responsibilities:
  * - Interpret Options and detect input type
- * - Extract HTML or plain text from MIME/EML
- * - Convert to requested format via HtmlConverter with URL policy
+ * - Stream HTML or plain text from MIME/EML within per-part byte budgets
+ * - Parse HTML once ({@link EmailHtmlDocument}) and derive plain text and Markdown from it
  * - Prepend metadata when enabled
- * - Return the final string result
+ * - Return either a typed {@link ParsedEmailDocument} or the final string result
  */
 public final class EmailPipeline {
 
     private static final DateTimeFormatter DISPLAY_DATE_FORMAT =
             DateTimeFormatter.ofPattern("MMM dd, yyyy 'at' h:mm a XXX");
 
+    /** Shared, immutable writer; only used when a caller explicitly asks for JSON output. */
+    private static final ObjectWriter DOCUMENT_WRITER = new ObjectMapper().writer();
+
     private EmailPipeline() {}
 
+    /**
+     * Runs the pipeline and renders the result as a string: the JSON document when
+     * {@code options.jsonOutput} is set, otherwise the converted body (optionally prefixed with metadata).
+     */
     public static String process(HtmlToText.Options options) throws Exception {
-        String type = options.inputType != null ? options.inputType : inferInputType(options.inputFile);
+        if (options.jsonOutput) {
+            return DOCUMENT_WRITER.writeValueAsString(parse(options));
+        }
+        String type = resolveInputType(options);
         if ("eml".equalsIgnoreCase(type)) {
-            try (InputStream in = new BufferedInputStream(new FileInputStream(options.inputFile))) {
-                Session session = Session.getDefaultInstance(new Properties());
-                MimeMessage message = new MimeMessage(session, in);
-                String html = EmailExtractor.extractFirstHtml(message).orElse(null);
-                String text = html != null
-                        ? null
-                        : EmailExtractor.extractFirstPlainText(message).orElse("");
-
-                if (options.jsonOutput) {
-                    String plain = html != null
-                            ? HtmlConverter.convertHtml(
-                                    html, HtmlToText.OutputFormat.PLAIN, options.urlsPolicy, options.suppressUtility)
-                            : HtmlConverter.cleanupOutput(text, options.suppressUtility);
-                    String markdown = html != null
-                            ? HtmlConverter.convertHtml(
-                                    html, HtmlToText.OutputFormat.MARKDOWN, options.urlsPolicy, options.suppressUtility)
-                            : HtmlConverter.cleanupOutput(text, options.suppressUtility);
-                    Map<String, Object> meta = new HashMap<>();
-                    meta.put("messageId", StringUtils.safe(message.getMessageID()));
-                    meta.put("subject", StringUtils.safe(message.getSubject()));
-                    meta.put("from", StringUtils.safe(EmailExtractor.formatAddresses(message.getFrom())));
-                    meta.put(
-                            "to",
-                            StringUtils.safe(EmailExtractor.formatAddresses(
-                                    message.getRecipients(jakarta.mail.Message.RecipientType.TO))));
-                    meta.put(
-                            "cc",
-                            StringUtils.safe(EmailExtractor.formatAddresses(
-                                    message.getRecipients(jakarta.mail.Message.RecipientType.CC))));
-
-                    // Extract and format date for user-friendly display
-                    DateMetadata dateMetadata = extractDateMetadata(message);
-                    meta.put("date", StringUtils.safe(dateMetadata.displayLabel()));
-                    meta.put("dateIso", StringUtils.safe(dateMetadata.isoTimestamp()));
-                    meta.put("dateHeader", dateMetadata.originalHeader());
-                    if (dateMetadata.source() != null) {
-                        meta.put("dateSource", dateMetadata.source());
-                    }
-
-                    meta.put("source", "eml-file");
-                    meta.put("path", Path.of(options.inputFile).getFileName().toString());
-
-                    Map<String, Object> policies = Map.of(
-                            "flattenTables", Boolean.TRUE,
-                            "stripScripts", Boolean.TRUE,
-                            "urlsPolicy", options.urlsPolicy.name().toLowerCase(Locale.ROOT),
-                            "metadataIncluded", options.includeMetadata,
-                            "suppressUtility", options.suppressUtility);
-
-                    String id = meta.get("messageId") != null
-                                    && !meta.get("messageId").toString().isBlank()
-                            ? meta.get("messageId").toString()
-                            : com.composerai.api.service.HtmlToText.normalizeBaseName(options.inputFile);
-                    Map<String, Object> doc =
-                            EmailDocumentBuilder.buildDocument(id, meta, plain, markdown, html, policies);
-                    return new ObjectMapper().writeValueAsString(doc);
-                } else {
-                    String metaHeader =
-                            options.includeMetadata ? EmailExtractor.buildMetadataHeader(message, options.format) : "";
-                    if (html != null) {
-                        String body = HtmlConverter.convertHtml(
-                                html, options.format, options.urlsPolicy, options.suppressUtility);
-                        if (!options.suppressUtility
-                                && options.format == HtmlToText.OutputFormat.PLAIN
-                                && (body == null || body.isBlank())) {
-                            body = HtmlConverter.convertHtml(html, options.format, HtmlToText.UrlPolicy.KEEP, false);
-                        }
-                        return metaHeader + body;
+            try (SharedFileInputStream in = new SharedFileInputStream(options.inputFile)) {
+                MimeMessage message = loadMessage(messageStream(in, options));
+                String html = EmailExtractor.extractFirstHtml(message, options.maxHtmlPartBytes).orElse(null);
+                String metaHeader =
+                        options.includeMetadata ? EmailExtractor.buildMetadataHeader(message, options.format) : "";
+                if (html != null) {
+                    EmailHtmlDocument htmlDocument = EmailHtmlDocument.parse(html);
+                    String body = HtmlConverter.convertHtml(
+                            htmlDocument, options.format, options.urlsPolicy, options.suppressUtility);
+                    if (!options.suppressUtility
+                            && options.format == HtmlToText.OutputFormat.PLAIN
+                            && (body == null || body.isBlank())) {
+                        body = HtmlConverter.convertHtml(
+                                htmlDocument, options.format, HtmlToText.UrlPolicy.KEEP, false);
                     }
-                    return metaHeader + HtmlConverter.cleanupOutput(text, options.suppressUtility);
+                    return metaHeader + body;
                 }
+                String text = EmailExtractor.extractFirstPlainText(message, options.maxTextPartBytes).orElse("");
+                return metaHeader + HtmlConverter.cleanupOutput(text, options.suppressUtility);
             }
-        } else if ("html".equalsIgnoreCase(type) || "htm".equalsIgnoreCase(type)) {
-            Charset cs = options.charset != null ? options.charset : StandardCharsets.UTF_8;
-            String html = Files.readString(Path.of(options.inputFile), cs);
-            if (options.jsonOutput) {
-                String plain = HtmlConverter.convertHtml(
-                        html, HtmlToText.OutputFormat.PLAIN, options.urlsPolicy, options.suppressUtility);
-                String markdown = HtmlConverter.convertHtml(
-                        html, HtmlToText.OutputFormat.MARKDOWN, options.urlsPolicy, options.suppressUtility);
-                Map<String, Object> meta = new HashMap<>();
-                meta.put("source", "html-file");
-                meta.put("path", options.inputFile);
-                Map<String, Object> policies = Map.of(
-                        "flattenTables", Boolean.TRUE,
-                        "stripScripts", Boolean.TRUE,
-                        "urlsPolicy", options.urlsPolicy.name().toLowerCase(Locale.ROOT),
-                        "suppressUtility", options.suppressUtility);
-                String id = com.composerai.api.service.HtmlToText.normalizeBaseName(options.inputFile);
-                Map<String, Object> doc = EmailDocumentBuilder.buildDocument(id, meta, plain, markdown, html, policies);
-                return new ObjectMapper().writeValueAsString(doc);
-            }
+        } else if (isHtmlType(type)) {
+            String html = readHtmlFile(options);
             return HtmlConverter.convertHtml(html, options.format, options.urlsPolicy, options.suppressUtility);
         }
         throw new IllegalArgumentException("Unsupported input type: " + type);
     }
 
-    private static String inferInputType(String inputFile) {
-        int idx = inputFile.lastIndexOf('.');
-        if (idx < 0) return "";
-        return inputFile.substring(idx + 1).toLowerCase(Locale.ROOT);
+    /**
+     * Single-pass typed parse: extracts the body once, converts it to plain text and Markdown, and
+     * returns the document without any intermediate JSON serialization. With {@code options.parseBudget} set,
+     * an HTML body that exceeds the budget is dropped and the message is rendered from plain text instead.
+     */
+    public static ParsedEmailDocument parse(HtmlToText.Options options) throws Exception {
+        String type = resolveInputType(options);
+        try (ParseBudget.Scope budget = options.parseBudget != null ? options.parseBudget.start() : null) {
+            if ("eml".equalsIgnoreCase(type)) {
+                try (SharedFileInputStream in = new SharedFileInputStream(options.inputFile)) {
+                    return buildEmlDocument(loadMessage(messageStream(in, options)), options);
+                }
+            } else if (isHtmlType(type)) {
+                return buildHtmlDocument(readHtmlFile(options), options);
+            }
+        }
+        throw new IllegalArgumentException("Unsupported input type: " + type);
     }
 
-    private static OffsetDateTime parseDateHeader(String headerValue) {
-        if (headerValue == null || headerValue.isBlank()) {
-            return null;
-        }
-        try {
-            return OffsetDateTime.parse(headerValue.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
-        } catch (DateTimeParseException ignored) {
+    private static ParsedEmailDocument buildEmlDocument(MimeMessage message, HtmlToText.Options options)
+            throws Exception {
+        String html = EmailExtractor.extractFirstHtml(message, options.maxHtmlPartBytes).orElse(null);
+        EmailHtmlDocument htmlDocument = null;
+        String plain = null;
+        String markdown = null;
+        if (html != null) {
             try {
-                java.util.Date parsed = new MailDateFormat().parse(headerValue);
-                if (parsed == null) {
-                    return null;
-                }
-                return OffsetDateTime.ofInstant(parsed.toInstant(), ZoneOffset.UTC);
-            } catch (Exception ex) {
-                return null;
+                htmlDocument = parseHtml(html, message, options);
+                plain = HtmlConverter.convertHtml(
+                        htmlDocument, HtmlToText.OutputFormat.PLAIN, options.urlsPolicy, options.suppressUtility);
+                markdown = HtmlConverter.convertHtml(
+                        htmlDocument, HtmlToText.OutputFormat.MARKDOWN, options.urlsPolicy, options.suppressUtility);
+            } catch (ParseBudget.BudgetExceededException overBudget) {
+                htmlDocument = null;
+            }
+        }
+        if (htmlDocument == null) {
+            String text = EmailExtractor.extractFirstPlainText(message, options.maxTextPartBytes).orElse("");
+            if (text.isBlank() && html != null) {
+                text = overBudgetText(html, options);
             }
+            plain = HtmlConverter.cleanupOutput(text, options.suppressUtility);
+            markdown = plain;
+        }
+
+        // Extract and format date for user-friendly display
+        DateMetadata dateMetadata = extractDateMetadata(message);
+        String messageId = StringUtils.safe(message.getMessageID());
+        ParsedEmailDocument.Metadata meta = new ParsedEmailDocument.Metadata(
+                messageId,
+                StringUtils.safe(message.getSubject()),
+                StringUtils.safe(EmailExtractor.formatAddresses(message.getFrom())),
+                StringUtils.safe(
+                        EmailExtractor.formatAddresses(message.getRecipients(jakarta.mail.Message.RecipientType.TO))),
+                StringUtils.safe(
+                        EmailExtractor.formatAddresses(message.getRecipients(jakarta.mail.Message.RecipientType.CC))),
+                StringUtils.safe(dateMetadata.displayLabel()),
+                StringUtils.safe(dateMetadata.isoTimestamp()),
+                dateMetadata.originalHeader(),
+                dateMetadata.source(),
+                "eml-file",
+                Path.of(options.inputFile).getFileName().toString());
+
+        ParsedEmailDocument.CleanupPolicies policies = new ParsedEmailDocument.CleanupPolicies(
+                true,
+                true,
+                options.urlsPolicy.name().toLowerCase(Locale.ROOT),
+                options.includeMetadata,
+                options.suppressUtility);
+
+        String id = !messageId.isBlank() ? messageId : HtmlToText.normalizeBaseName(options.inputFile);
+        return EmailDocumentBuilder.buildDocument(id, meta, plain, markdown, htmlDocument, policies);
+    }
+
+    private static ParsedEmailDocument buildHtmlDocument(String html, HtmlToText.Options options) {
+        EmailHtmlDocument htmlDocument;
+        String plain;
+        String markdown;
+        try {
+            htmlDocument = parseHtml(html, null, options);
+            plain = HtmlConverter.convertHtml(
+                    htmlDocument, HtmlToText.OutputFormat.PLAIN, options.urlsPolicy, options.suppressUtility);
+            markdown = HtmlConverter.convertHtml(
+                    htmlDocument, HtmlToText.OutputFormat.MARKDOWN, options.urlsPolicy, options.suppressUtility);
+        } catch (ParseBudget.BudgetExceededException overBudget) {
+            htmlDocument = null;
+            plain = HtmlConverter.cleanupOutput(overBudgetText(html, options), options.suppressUtility);
+            markdown = plain;
+        }
+        ParsedEmailDocument.CleanupPolicies policies = new ParsedEmailDocument.CleanupPolicies(
+                true, true, options.urlsPolicy.name().toLowerCase(Locale.ROOT), null, options.suppressUtility);
+        String id = HtmlToText.normalizeBaseName(options.inputFile);
+        return EmailDocumentBuilder.buildDocument(
+                id,
+                ParsedEmailDocument.Metadata.forHtmlFile(options.inputFile),
+                plain,
+                markdown,
+                htmlDocument,
+                policies);
+    }
+
+    /**
+     * Parses the body HTML within the options' parse budget and, when the options carry an image store, moves
+     * embedded {@code data:} and {@code cid:} images into it before any view is derived from the document.
+     *
+     * @throws ParseBudget.BudgetExceededException when the HTML or its DOM is over budget
+     */
+    private static EmailHtmlDocument parseHtml(String html, MimeMessage message, HtmlToText.Options options) {
+        if (options.parseBudget != null) {
+            options.parseBudget.checkInputSize(html.length());
+        }
+        EmailHtmlDocument htmlDocument = EmailHtmlDocument.parse(html);
+        if (options.parseBudget != null) {
+            htmlDocument.checkWithin(options.parseBudget);
+        }
+        if (options.inlineImages != null) {
+            InlineImageExtractor.externalize(htmlDocument, message, options.inlineImages);
+        }
+        return htmlDocument;
+    }
+
+    /**
+     * Plain-text rendering of an over-budget HTML body: jsoup's tree builder and text extraction are linear,
+     * and the input is cut at the budget's size limit first.
+     */
+    private static String overBudgetText(String html, HtmlToText.Options options) {
+        int limit = options.parseBudget.maxInputChars();
+        return HtmlConverter.htmlToPlain(html.length() > limit ? html.substring(0, limit) : html);
+    }
+
+    /**
+     * Parses headers only. Given a {@link SharedFileInputStream}, every MIME part stays an offset range in
+     * the file, so bodies are read lazily and only for the part that is actually extracted.
+     */
+    private static MimeMessage loadMessage(InputStream in) throws MessagingException {
+        Session session = Session.getDefaultInstance(new Properties());
+        return new MimeMessage(session, in);
+    }
+
+    /**
+     * The whole file, or just the {@code inputOffset}/{@code inputLength} slice of it when the message is one
+     * of many in an archive. The slice shares the file and stays a {@link SharedFileInputStream}, so parts are
+     * still read lazily by offset.
+     */
+    private static InputStream messageStream(SharedFileInputStream file, HtmlToText.Options options) {
+        if (options.inputLength < 0) {
+            return file;
         }
+        return file.newStream(options.inputOffset, options.inputOffset + options.inputLength);
+    }
+
+    private static String readHtmlFile(HtmlToText.Options options) throws IOException {
+        Charset cs = options.charset != null ? options.charset : StandardCharsets.UTF_8;
+        return Files.readString(Path.of(options.inputFile), cs);
+    }
+
+    private static String resolveInputType(HtmlToText.Options options) {
+        return options.inputType != null ? options.inputType : inferInputType(options.inputFile);
+    }
+
+    private static boolean isHtmlType(String type) {
+        return "html".equalsIgnoreCase(type) || "htm".equalsIgnoreCase(type);
+    }
+
+    private static String inferInputType(String inputFile) {
+        int idx = inputFile.lastIndexOf('.');
+        if (idx < 0) return "";
+        return inputFile.substring(idx + 1).toLowerCase(Locale.ROOT);
     }
 
     private static DateMetadata extractDateMetadata(MimeMessage message) throws MessagingException {
         String originalDateHeader = StringUtils.safe(message.getHeader("Date", null));
-        OffsetDateTime headerDate = parseDateHeader(originalDateHeader);
+        OffsetDateTime headerDate = MailDateParser.parse(originalDateHeader);
         if (headerDate != null) {
             return new DateMetadata(
                     headerDate,
@@ -220,11 +302,10 @@ public final class EmailPipeline {
                 continue;
             }
             int semicolonIndex = header.lastIndexOf(';');
-            if (semicolonIndex < 0 || semicolonIndex == header.length() - 1) {
+            if (semicolonIndex < 0) {
                 continue;
             }
-            String datePortion = header.substring(semicolonIndex + 1).trim();
-            OffsetDateTime parsed = parseDateHeader(datePortion);
+            OffsetDateTime parsed = MailDateParser.parse(header, semicolonIndex + 1);
             if (parsed != null) {
                 return parsed;
             }
@@ -0,0 +1,268 @@
+package com.composerai.api.service.email;
+
+/**
+ * Extracts the short list-view snippet for a message from its cleaned Markdown or plain-text body.
+ * <p>
+ * The snippet is the first {@link #DEFAULT_MAX_CHARS} or so visible characters, on one line: heading, quote,
+ * list and table markers, emphasis and code marks, images, link targets, bare URLs and inline tags are
+ * dropped, link text is kept, and whitespace collapses to single spaces. Short lines that are newsletter
+ * chrome ("View this email in your browser", "Unsubscribe", ...) and fenced code blocks are skipped. The scan
+ * is left to right and stops as soon as the snippet is full, so its cost is bounded by the opening of the
+ * body rather than its length. A snippet cut short ends at a word boundary followed by {@code ...}.
+ *
+ * @author William Callahan
+ * @since 2025-09-18
+ * @version 0.0.1
+ */
+public final class EmailPreviewExtractor {
+
+    public static final int DEFAULT_MAX_CHARS = 200;
+
+    private static final String ELLIPSIS = "...";
+    private static final String FENCE = "```";
+    /** Lines longer than this are treated as prose even when they mention a boilerplate phrase. */
+    private static final int BOILERPLATE_MAX_LINE = 160;
+    /** A cut falls back to mid-word when the last space would throw away more than this share of the limit. */
+    private static final int MIN_WORD_CUT_DIVISOR = 2;
+
+    /** Lines containing any of these (case-insensitively) are skipped when they are short. */
+    private static final String[] BOILERPLATE_PHRASES = {
+        "view this email",
+        "view in browser",
+        "view it in your browser",
+        "view online",
+        "read in browser",
+        "read online",
+        "having trouble viewing",
+        "can't see this email",
+        "add us to your address book",
+        "unsubscribe",
+        "update your preferences",
+        "manage preferences",
+        "you are receiving this email because",
+        "email marketing powered by mailchimp"
+    };
+
+    private EmailPreviewExtractor() {}
+
+    public static String extract(String body) {
+        return extract(body, DEFAULT_MAX_CHARS);
+    }
+
+    /**
+     * @param body cleaned Markdown or plain text; null and blank give an empty snippet
+     * @param maxChars snippet length limit, ellipsis included; must exceed the ellipsis
+     */
+    public static String extract(String body, int maxChars) {
+        if (maxChars <= ELLIPSIS.length()) {
+            throw new IllegalArgumentException("Preview limit must exceed " + ELLIPSIS.length() + ": " + maxChars);
+        }
+        if (body == null || body.isEmpty()) {
+            return "";
+        }
+        Snippet out = new Snippet(maxChars);
+        boolean inFence = false;
+        int pos = 0;
+        int length = body.length();
+        while (pos < length && !out.full()) {
+            int lineEnd = body.indexOf('\n', pos);
+            if (lineEnd < 0) {
+                lineEnd = length;
+            }
+            int start = skipSpaces(body, pos, lineEnd);
+            if (body.startsWith(FENCE, start)) {
+                inFence = !inFence;
+            } else if (!inFence && !isRule(body, start, lineEnd) && !isBoilerplate(body, start, lineEnd)) {
+                appendLine(body, skipBlockMarkers(body, start, lineEnd), lineEnd, out);
+            }
+            pos = lineEnd + 1;
+        }
+        return out.finish();
+    }
+
+    private static void appendLine(String line, int start, int end, Snippet out) {
+        out.space();
+        int i = start;
+        while (i < end && !out.full()) {
+            char c = line.charAt(i);
+            if (c == '\\' && i + 1 < end) {
+                out.append(line.charAt(i + 1));
+                i += 2;
+            } else if (c == '!' && i + 1 < end && line.charAt(i + 1) == '[') {
+                i = skipImage(line, i + 1, end);
+            } else if (c == ']' && i + 1 < end && line.charAt(i + 1) == '(') {
+                // end of link text: drop the target
+                i = skipPast(line, i + 2, end, ')');
+            } else if (c == '<' && i + 1 < end && isTagStart(line.charAt(i + 1))) {
+                i = skipPast(line, i + 1, end, '>');
+            } else if (isUrlStart(line, i, end)) {
+                while (i < end && !Character.isWhitespace(line.charAt(i))) {
+                    i++;
+                }
+            } else if (c == '_' && isWordChar(line, i - 1, end) && isWordChar(line, i + 1, end)) {
+                out.append(c); // snake_case, not emphasis
+                i++;
+            } else if (c == '*' || c == '_' || c == '`' || c == '~' || c == '[' || c == ']' || isInvisible(c)) {
+                i++;
+            } else if (c == '|' || Character.isWhitespace(c)) {
+                out.space();
+                i++;
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+    }
+
+    /** Skips leading heading, quote, list and table markers, however they are nested. */
+    private static int skipBlockMarkers(String line, int start, int end) {
+        int i = start;
+        while (i < end) {
+            char c = line.charAt(i);
+            int next = i + 1;
+            if (c == '#' || c == '>' || c == '|') {
+                while (next < end && line.charAt(next) == c) {
+                    next++;
+                }
+            } else if (c == '-' || c == '*' || c == '+') {
+                if (next < end && line.charAt(next) != ' ' && line.charAt(next) != '\t') {
+                    return i;
+                }
+            } else if (Character.isDigit(c)) {
+                while (next < end && Character.isDigit(line.charAt(next))) {
+                    next++;
+                }
+                if (next >= end || (line.charAt(next) != '.' && line.charAt(next) != ')')) {
+                    return i;
+                }
+                next++;
+            } else {
+                return i;
+            }
+            if (next < end && line.charAt(next) != ' ' && line.charAt(next) != '\t' && c != '>' && c != '|') {
+                return i; // "#hashtag", "3.5", ...
+            }
+            i = skipSpaces(line, next, end);
+        }
+        return i;
+    }
+
+    /** A thematic break, setext underline or table delimiter row: only {@code - * _ =}, {@code | :} and spaces. */
+    private static boolean isRule(String line, int start, int end) {
+        int marks = 0;
+        for (int i = start; i < end; i++) {
+            char c = line.charAt(i);
+            if (c == '-' || c == '*' || c == '_' || c == '=') {
+                marks++;
+            } else if (c != '|' && c != ':' && !Character.isWhitespace(c)) {
+                return false;
+            }
+        }
+        return marks >= 3;
+    }
+
+    private static boolean isBoilerplate(String line, int start, int end) {
+        if (end - start > BOILERPLATE_MAX_LINE) {
+            return false;
+        }
+        for (String phrase : BOILERPLATE_PHRASES) {
+            for (int i = start; i + phrase.length() <= end; i++) {
+                if (line.regionMatches(true, i, phrase, 0, phrase.length())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /** Skips {@code [alt](target)} starting at the bracket; a bare {@code [alt]} is skipped too. */
+    private static int skipImage(String line, int bracket, int end) {
+        int close = skipPast(line, bracket + 1, end, ']');
+        return close < end && line.charAt(close) == '(' ? skipPast(line, close + 1, end, ')') : close;
+    }
+
+    /** Index just past the first {@code target} at or after {@code from}, or {@code end} when there is none. */
+    private static int skipPast(String line, int from, int end, char target) {
+        int at = line.indexOf(target, from);
+        return at < 0 || at >= end ? end : at + 1;
+    }
+
+    private static boolean isTagStart(char c) {
+        return c == '/' || c == '!' || (c < 128 && Character.isLetter(c));
+    }
+
+    private static boolean isUrlStart(String line, int i, int end) {
+        if (i > 0 && !Character.isWhitespace(line.charAt(i - 1)) && line.charAt(i - 1) != '(') {
+            return false;
+        }
+        return startsWithIgnoreCase(line, i, end, "http://")
+                || startsWithIgnoreCase(line, i, end, "https://")
+                || startsWithIgnoreCase(line, i, end, "www.")
+                || startsWithIgnoreCase(line, i, end, "mailto:");
+    }
+
+    private static boolean startsWithIgnoreCase(String line, int i, int end, String prefix) {
+        return i + prefix.length() <= end && line.regionMatches(true, i, prefix, 0, prefix.length());
+    }
+
+    private static boolean isWordChar(String line, int i, int end) {
+        return i >= 0 && i < end && Character.isLetterOrDigit(line.charAt(i));
+    }
+
+    /** Zero-width and preheader filler characters (soft hyphen, joiners, combining grapheme joiner). */
+    private static boolean isInvisible(char c) {
+        return c == '\u034F' || Character.getType(c) == Character.FORMAT;
+    }
+
+    private static int skipSpaces(String line, int from, int end) {
+        int i = from;
+        while (i < end && Character.isWhitespace(line.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /** Output buffer that collapses spaces and notices when one more character than the limit has arrived. */
+    private static final class Snippet {
+
+        private final int maxChars;
+        private final StringBuilder text;
+        private boolean pendingSpace;
+
+        Snippet(int maxChars) {
+            this.maxChars = maxChars;
+            this.text = new StringBuilder(maxChars + 1);
+        }
+
+        void append(char c) {
+            if (pendingSpace && !text.isEmpty()) {
+                text.append(' ');
+            }
+            pendingSpace = false;
+            text.append(c);
+        }
+
+        void space() {
+            pendingSpace = true;
+        }
+
+        boolean full() {
+            return text.length() > maxChars;
+        }
+
+        String finish() {
+            if (!full()) {
+                return text.toString();
+            }
+            int limit = maxChars - ELLIPSIS.length();
+            int cut = text.lastIndexOf(" ", limit);
+            if (cut < limit / MIN_WORD_CUT_DIVISOR) {
+                cut = limit;
+                if (Character.isHighSurrogate(text.charAt(cut - 1))) {
+                    cut--;
+                }
+            }
+            return text.substring(0, cut).stripTrailing() + ELLIPSIS;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.composerai.api.service.email;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Versioned, length-prefixed binary record of tagged string fields with a directory up front, so one field can
+ * be read without decoding the others.
+ * <p>
+ * Layout (big-endian): magic {@code u32}, format version {@code u16}, field count {@code u16}, then one
+ * directory entry per field — tag {@code u8}, encoding {@code u8}, payload offset {@code u32}, stored length
+ * {@code u32}, decoded length {@code u32} — followed by the payloads. Encodings are null, UTF-8, and
+ * zlib-deflated UTF-8; a field is only deflated when it is at least {@link #COMPRESS_MIN_BYTES} long and
+ * compression actually pays, so short headers stay directly readable. Readers skip tags they do not know and
+ * report absent tags as null, so fields can be added without a version bump; the version changes only when
+ * this layout does.
+ *
+ * @author William Callahan
+ * @since 2025-09-18
+ * @version 0.0.1
+ */
+final class FieldTable {
+
+    static final int COMPRESS_MIN_BYTES = 512;
+
+    private static final int HEADER_BYTES = Integer.BYTES + Short.BYTES + Short.BYTES;
+    private static final int ENTRY_BYTES = 2 + 3 * Integer.BYTES;
+    private static final int MAX_TAG = 0xFF;
+    private static final int MAX_FIELDS = 0xFFFF;
+    private static final byte NULL = 0;
+    private static final byte UTF8 = 1;
+    private static final byte UTF8_DEFLATE = 2;
+    /** Deflate must save at least an eighth of the field to be worth inflating on read. */
+    private static final int MIN_SAVING_SHIFT = 3;
+
+    private FieldTable() {}
+
+    static Writer writer(int magic, int version) {
+        return new Writer(magic, version);
+    }
+
+    /**
+     * Validates the header and directory; payloads are only touched by {@link Reader#string(int)}.
+     *
+     * @throws StreamCorruptedException when the magic or version differ or the directory points outside the data
+     */
+    static Reader read(byte[] data, int magic, int version) throws StreamCorruptedException {
+        return new Reader(data, magic, version);
+    }
+
+    static final class Writer {
+
+        private final int magic;
+        private final int version;
+        private final List<Field> fields = new ArrayList<>();
+        private final Deflater deflater = new Deflater();
+
+        private Writer(int magic, int version) {
+            this.magic = magic;
+            this.version = version;
+        }
+
+        Writer put(int tag, String value) {
+            if (tag < 0 || tag > MAX_TAG || fields.size() == MAX_FIELDS) {
+                throw new IllegalArgumentException("Field tag out of range or too many fields: " + tag);
+            }
+            if (value == null) {
+                fields.add(new Field(tag, NULL, new byte[0], 0));
+                return this;
+            }
+            byte[] raw = value.getBytes(StandardCharsets.UTF_8);
+            byte[] deflated = raw.length >= COMPRESS_MIN_BYTES ? deflate(raw) : null;
+            if (deflated != null && deflated.length <= raw.length - (raw.length >> MIN_SAVING_SHIFT)) {
+                fields.add(new Field(tag, UTF8_DEFLATE, deflated, raw.length));
+            } else {
+                fields.add(new Field(tag, UTF8, raw, raw.length));
+            }
+            return this;
+        }
+
+        /** Serializes the table; the writer cannot be used afterwards. */
+        byte[] toByteArray() {
+            long payloadStart = HEADER_BYTES + (long) ENTRY_BYTES * fields.size();
+            long total = payloadStart;
+            for (Field field : fields) {
+                total += field.stored().length;
+            }
+            if (total > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Field table exceeds 2 GiB");
+            }
+            ByteBuffer out = ByteBuffer.allocate((int) total);
+            out.putInt(magic).putShort((short) version).putShort((short) fields.size());
+            int offset = (int) payloadStart;
+            for (Field field : fields) {
+                out.put((byte) field.tag())
+                        .put(field.encoding())
+                        .putInt(offset)
+                        .putInt(field.stored().length)
+                        .putInt(field.rawLength());
+                offset += field.stored().length;
+            }
+            for (Field field : fields) {
+                out.put(field.stored());
+            }
+            deflater.end();
+            return out.array();
+        }
+
+        private byte[] deflate(byte[] raw) {
+            deflater.reset();
+            deflater.setInput(raw);
+            deflater.finish();
+            byte[] buffer = new byte[raw.length];
+            int length = 0;
+            while (!deflater.finished() && length < buffer.length) {
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            return deflater.finished() ? Arrays.copyOf(buffer, length) : null;
+        }
+    }
+
+    static final class Reader {
+
+        private final ByteBuffer data;
+        private final int count;
+
+        private Reader(byte[] bytes, int magic, int version) throws StreamCorruptedException {
+            this.data = ByteBuffer.wrap(bytes);
+            if (bytes.length < HEADER_BYTES || data.getInt(0) != magic) {
+                throw new StreamCorruptedException("Unrecognized field table header");
+            }
+            int actualVersion = Short.toUnsignedInt(data.getShort(Integer.BYTES));
+            if (actualVersion != version) {
+                throw new StreamCorruptedException("Unsupported field table version: " + actualVersion);
+            }
+            this.count = Short.toUnsignedInt(data.getShort(Integer.BYTES + Short.BYTES));
+            long directoryEnd = HEADER_BYTES + (long) ENTRY_BYTES * count;
+            if (directoryEnd > bytes.length) {
+                throw new StreamCorruptedException("Truncated field table directory");
+            }
+            for (int i = 0; i < count; i++) {
+                int entry = HEADER_BYTES + i * ENTRY_BYTES;
+                long offset = Integer.toUnsignedLong(data.getInt(entry + 2));
+                long stored = Integer.toUnsignedLong(data.getInt(entry + 2 + Integer.BYTES));
+                if (offset < directoryEnd || offset + stored > bytes.length) {
+                    throw new StreamCorruptedException("Field table entry points outside the data");
+                }
+            }
+        }
+
+        boolean contains(int tag) {
+            return entry(tag) >= 0;
+        }
+
+        /**
+         * Decodes one field; null when it is absent or was written as null.
+         */
+        String string(int tag) throws IOException {
+            int entry = entry(tag);
+            if (entry < 0) {
+                return null;
+            }
+            byte encoding = data.get(entry + 1);
+            int offset = data.getInt(entry + 2);
+            int stored = data.getInt(entry + 2 + Integer.BYTES);
+            int rawLength = data.getInt(entry + 2 + 2 * Integer.BYTES);
+            return switch (encoding) {
+                case NULL -> null;
+                case UTF8 -> new String(data.array(), offset, stored, StandardCharsets.UTF_8);
+                case UTF8_DEFLATE -> new String(inflate(offset, stored, rawLength), StandardCharsets.UTF_8);
+                default -> throw new StreamCorruptedException("Unknown field encoding: " + encoding);
+            };
+        }
+
+        /** @return directory offset of the last entry for {@code tag}, or -1 */
+        private int entry(int tag) {
+            for (int i = count - 1; i >= 0; i--) {
+                int entry = HEADER_BYTES + i * ENTRY_BYTES;
+                if (Byte.toUnsignedInt(data.get(entry)) == tag) {
+                    return entry;
+                }
+            }
+            return -1;
+        }
+
+        private byte[] inflate(int offset, int stored, int rawLength) throws StreamCorruptedException {
+            if (rawLength < 0) {
+                throw new StreamCorruptedException("Negative field length: " + rawLength);
+            }
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(data.array(), offset, stored);
+                byte[] raw = new byte[rawLength];
+                int length = 0;
+                while (length < rawLength && !inflater.finished()) {
+                    int inflated = inflater.inflate(raw, length, rawLength - length);
+                    if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    length += inflated;
+                }
+                if (length != rawLength || !inflater.finished()) {
+                    throw new StreamCorruptedException("Compressed field does not match its recorded length");
+                }
+                return raw;
+            } catch (DataFormatException e) {
+                throw new StreamCorruptedException("Corrupt compressed field: " + e.getMessage());
+            } finally {
+                inflater.end();
+            }
+        }
+    }
+
+    private record Field(int tag, byte encoding, byte[] stored, int rawLength) {}
+}
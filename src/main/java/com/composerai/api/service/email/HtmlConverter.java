@@ -10,23 +10,12 @@ package com.composerai.api.service.email;
 
 import com.composerai.api.service.HtmlToText;
 import com.composerai.api.util.StringUtils;
-import com.vladsch.flexmark.ext.autolink.AutolinkExtension;
-import com.vladsch.flexmark.ext.gfm.strikethrough.StrikethroughExtension;
-import com.vladsch.flexmark.ext.gfm.tasklist.TaskListExtension;
-import com.vladsch.flexmark.ext.tables.TablesExtension;
-import com.vladsch.flexmark.html.HtmlRenderer;
 import com.vladsch.flexmark.html2md.converter.FlexmarkHtmlConverter;
-import com.vladsch.flexmark.parser.Parser;
-import com.vladsch.flexmark.parser.ParserEmulationProfile;
-import com.vladsch.flexmark.util.data.MutableDataSet;
-import java.util.regex.Pattern;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.nodes.Node;
 import org.jsoup.nodes.TextNode;
-import org.jsoup.safety.Cleaner;
-import org.jsoup.safety.Safelist;
 
 /**
  * HtmlConverter: normalize HTML and convert to plain text or Markdown
@@ -36,10 +25,14 @@ public final class HtmlConverter {
 
     private static final MarkdownRenderer MARKDOWN_RENDERER = new MarkdownRenderer();
 
+    /** Immutable once built; every {@code convert} call uses its own renderer, so it is safe to share. */
+    private static final FlexmarkHtmlConverter HTML_TO_MARKDOWN = FlexmarkHtmlConverter.builder().build();
+
     private HtmlConverter() {}
 
     /**
      * Render Markdown content to sanitized HTML using the shared Flexmark + JSoup pipeline.
+     * Safe to call concurrently; see {@link MarkdownRenderer}.
      */
     public static String markdownToSafeHtml(String markdown) {
         return MARKDOWN_RENDERER.render(markdown);
@@ -52,28 +45,50 @@ public final class HtmlConverter {
     public static String convertHtml(
             String html, HtmlToText.OutputFormat format, HtmlToText.UrlPolicy urlsPolicy, boolean suppressUtility) {
         if (html == null || html.isBlank()) return "";
+        return convertHtml(EmailHtmlDocument.parse(html), format, urlsPolicy, suppressUtility);
+    }
 
-        String preprocessed = preprocessHtml(html, urlsPolicy, suppressUtility);
-        FlexmarkHtmlConverter converter = FlexmarkHtmlConverter.builder().build();
+    /**
+     * Convert an already-parsed email body. Plain text and Markdown for the same policy share one
+     * preprocess + flexmark pass through the document's memoized Markdown.
+     */
+    public static String convertHtml(
+            EmailHtmlDocument document,
+            HtmlToText.OutputFormat format,
+            HtmlToText.UrlPolicy urlsPolicy,
+            boolean suppressUtility) {
+        if (document == null || document.isBlank()) return "";
 
         return switch (format) {
-            case MARKDOWN -> {
-                String md = converter.convert(preprocessed).trim();
-                yield cleanupOutput(md, suppressUtility);
-            }
+            case MARKDOWN -> cleanupOutput(document.rawMarkdown(urlsPolicy, suppressUtility), suppressUtility);
             case PLAIN -> {
-                String md = converter.convert(preprocessed).trim();
-                String txt = markdownToPlain(md);
+                String txt = markdownToPlain(document.rawMarkdown(urlsPolicy, suppressUtility));
                 if ((txt == null || txt.isBlank()) && !suppressUtility) {
-                    String relaxed = preprocessHtml(html, HtmlToText.UrlPolicy.KEEP, false);
-                    txt = markdownToPlain(converter.convert(relaxed).trim());
+                    txt = markdownToPlain(document.rawMarkdown(HtmlToText.UrlPolicy.KEEP, false));
                 }
                 yield cleanupOutput(txt, suppressUtility);
             }
-            default -> cleanupOutput(htmlToPlain(preprocessed), suppressUtility);
+            default -> {
+                Document working = document.workingCopy();
+                preprocess(working, urlsPolicy, suppressUtility);
+                yield cleanupOutput(htmlToPlain(working.html()), suppressUtility);
+            }
         };
     }
 
+    /**
+     * Preprocess a private copy of the document and hand that DOM straight to flexmark, without serializing it
+     * back to HTML for flexmark to parse again.
+     */
+    static String renderRawMarkdown(
+            EmailHtmlDocument document, HtmlToText.UrlPolicy urlsPolicy, boolean suppressUtility) {
+        Document working = document.workingCopy();
+        preprocess(working, urlsPolicy, suppressUtility);
+        String markdown = HTML_TO_MARKDOWN.convert(working).trim();
+        ParseBudget.checkpoint();
+        return markdown;
+    }
+
     /**
      * Minimal-custom-code HTML → plain text preserving line breaks.
      */
@@ -116,7 +131,14 @@ public final class HtmlConverter {
     public static String preprocessHtml(String html, HtmlToText.UrlPolicy policy, boolean suppressUtility) {
         if (html == null || html.isBlank()) return html;
         Document doc = Jsoup.parse(html);
+        preprocess(doc, policy, suppressUtility);
+        return doc.html();
+    }
 
+    /**
+     * In-place variant of {@link #preprocessHtml}; callers pass a document they own.
+     */
+    static void preprocess(Document doc, HtmlToText.UrlPolicy policy, boolean suppressUtility) {
         // Convert <br> to real newlines early (helps both MD and TXT)
         for (Element br : doc.select("br")) br.replaceWith(new TextNode("\n"));
 
@@ -125,6 +147,7 @@ public final class HtmlConverter {
 
         processAnchors(doc, policy, suppressUtility);
         processImages(doc, policy);
+        ParseBudget.checkpoint();
 
         if (suppressUtility) {
             removeUtilityBlocks(doc);
@@ -141,6 +164,7 @@ public final class HtmlConverter {
             cell.unwrap();
         }
         for (Element wrapper : doc.select("table, thead, tbody, tfoot, tr")) wrapper.unwrap();
+        ParseBudget.checkpoint();
 
         // Insert paragraph breaks around inline emphasis to avoid run-on lines after conversion
         for (Element inl : doc.select("em, i, strong, b")) {
@@ -149,8 +173,6 @@ public final class HtmlConverter {
 
         // Wrap text nodes into paragraphs: split on double-newlines; single newlines -> <br>
         wrapTextNodesIntoParagraphs(doc, "body, div, section, article, main");
-
-        return doc.html();
     }
 
     private static void processAnchors(Document doc, HtmlToText.UrlPolicy policy, boolean suppressUtility) {
@@ -225,6 +247,8 @@ public final class HtmlConverter {
 
     private static void wrapTextNodesIntoParagraphs(Document doc, String selectors) {
         for (Element el : doc.select(selectors)) {
+            // indexOf below is linear in the child count, so wide containers are where this pass gets slow
+            ParseBudget.checkpoint();
             // copy to avoid concurrent modification
             java.util.List<TextNode> textNodes = new java.util.ArrayList<>(el.textNodes());
             for (TextNode tn : textNodes) {
@@ -261,15 +285,7 @@ public final class HtmlConverter {
      * Convert Markdown to plain text while preserving line/paragraph breaks.
      */
     public static String markdownToPlain(String md) {
-        if (md == null || md.isBlank()) return md;
-        String out = md;
-        out = out.replaceAll("!\\[([^\\]]*)\\]\\([^\\)]*\\)", "$1");
-        out = out.replaceAll("\\[([^\\]]+)\\]\\(([^\\)]*)\\)", "$1");
-        out = out.replaceAll("(?m)^[#]{1,6}\\s*", "");
-        out = out.replaceAll("[*_`~]+", "");
-        out = out.replaceAll("  \\n", "\n");
-        out = out.replaceAll("\n{3,}", "\n\n");
-        return out.trim();
+        return PlainTextCleanupScanner.markdownToPlain(md);
     }
 
     /**
@@ -281,121 +297,6 @@ public final class HtmlConverter {
     }
 
     public static String cleanupOutput(String content, boolean suppressUtility) {
-        if (content == null || content.isBlank()) return content;
-        content = normalizeInvisible(content)
-                .replaceAll("(?is)<script[^>]*>.*?</script>", " ")
-                .replaceAll("(?i)<br\\s*/?>", "\n");
-        String[] lines = content.split("\r?\n", -1);
-        StringBuilder sb = new StringBuilder(content.length());
-        int blankRun = 0;
-        for (String line : lines) {
-            String trimmed = line.trim();
-            String lower = trimmed.toLowerCase();
-            if (trimmed.matches("^[\\-\\|_\\s]{50,}$")) continue;
-            if (suppressUtility) {
-                if (trimmed.equals("You can or .")) continue;
-                if (lower.contains("you are receiving this email because")
-                        || lower.contains("email marketing powered by mailchimp")
-                        || lower.contains("want to change how you receive these emails")
-                        || lower.contains("our mailing address is:")
-                        || lower.contains("unsubscribe")
-                        || lower.contains("update your preferences")) continue;
-            }
-            line = line.replaceAll(" {10,}", " ");
-            if (trimmed.isEmpty()) {
-                blankRun++;
-                if (blankRun > 2) continue;
-            } else blankRun = 0;
-            sb.append(line).append('\n');
-        }
-        String out = sb.toString().trim();
-        out = out.replaceAll("\n\\s*,\\s*\n", ", ");
-        // Generic: insert paragraph breaks before emphasized By-sections common in newsletters
-        out = out.replaceAll("(?<!\n)\\*By\\s", "\n\n*By ");
-        return out;
-    }
-
-    /**
-     * Remove zero-width and soft-hyphen characters that pollute outputs.
-     */
-    private static String normalizeInvisible(String s) {
-        return s.replaceAll("[\\u200B\\u200C\\u200D\\uFEFF\\u2060\\u00AD]", "");
-    }
-
-    private static final class MarkdownRenderer {
-        private static final Pattern STRUCTURAL_ELEMENTS =
-                Pattern.compile("pre|code|ul|ol|li|table|thead|tbody|tfoot|tr|th|td");
-
-        private final Parser parser;
-        private final HtmlRenderer renderer;
-        private final Cleaner cleaner;
-
-        MarkdownRenderer() {
-            MutableDataSet options = new MutableDataSet();
-            // Use GITHUB profile which has sensible defaults
-            ParserEmulationProfile.GITHUB_DOC.setIn(options);
-
-            // CRITICAL: Enable hard line breaks - this makes single newlines render as <br>
-            // Without this, markdown collapses single newlines into spaces
-            options.set(HtmlRenderer.SOFT_BREAK, "<br />\n");
-            options.set(HtmlRenderer.HARD_BREAK, "<br />\n");
-
-            options.set(
-                    Parser.EXTENSIONS,
-                    java.util.Arrays.asList(
-                            TablesExtension.create(),
-                            AutolinkExtension.create(),
-                            StrikethroughExtension.create(),
-                            TaskListExtension.create()));
-            this.parser = Parser.builder(options).build();
-            this.renderer = HtmlRenderer.builder(options)
-                    .escapeHtml(true)
-                    .percentEncodeUrls(true)
-                    // Preserve single newlines as <br> so line breaks render properly
-                    .softBreak("<br />\n")
-                    .build();
-
-            Safelist safelist = Safelist.basicWithImages();
-            safelist.addTags("table", "thead", "tbody", "tfoot", "tr", "th", "td", "pre", "code");
-            safelist.addAttributes("a", "href", "title", "rel", "target");
-            safelist.addAttributes("code", "class");
-            this.cleaner = new Cleaner(safelist);
-        }
-
-        synchronized String render(String markdown) {
-            if (markdown == null || markdown.isBlank()) {
-                return "";
-            }
-            com.vladsch.flexmark.util.ast.Node document = parser.parse(markdown);
-            String renderedHtml = renderer.render(document);
-            Document dirty = Jsoup.parseBodyFragment(renderedHtml);
-            Document clean = cleaner.clean(dirty);
-            clean.outputSettings().prettyPrint(false);
-
-            // Preserve explicit <br> soft line breaks to honor model-emitted single newlines.
-            // Still normalize excessive whitespace within paragraphs.
-            clean.select("p").forEach(this::normalizeWhitespace);
-            for (Element anchor : clean.select("a[href]")) {
-                anchor.attr("rel", "noopener noreferrer");
-                anchor.attr("target", "_blank");
-            }
-            return clean.body().html();
-        }
-
-        private boolean hasStructuralParent(Element element) {
-            for (Element parent = element.parent(); parent != null; parent = parent.parent()) {
-                if (STRUCTURAL_ELEMENTS.matcher(parent.normalName()).matches()) {
-                    return true;
-                }
-            }
-            return false;
-        }
-
-        private void normalizeWhitespace(Element element) {
-            if (hasStructuralParent(element)) {
-                return;
-            }
-            element.textNodes().forEach(node -> node.text(node.text().replaceAll("\\s+", " ")));
-        }
+        return PlainTextCleanupScanner.cleanupOutput(content, suppressUtility);
     }
 }
@@ -0,0 +1,166 @@
+package com.composerai.api.service.email;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Multipart;
+import jakarta.mail.Part;
+import jakarta.mail.internet.ContentType;
+import jakarta.mail.internet.MimePart;
+import jakarta.mail.internet.ParseException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import org.jsoup.nodes.Element;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Moves images embedded in email HTML into an {@link InlineImageSink} and points their {@code src} at it.
+ * <p>
+ * Handles {@code img} elements whose source is a base64 {@code data:image/*} URI or a {@code cid:} reference to
+ * an image part of the same message. Runs on the parse-once {@link EmailHtmlDocument} before any view is
+ * derived, so the sanitized display HTML and the Markdown both see the rewritten URLs. The MIME tree is only
+ * walked (headers only) when a {@code cid:} reference exists, and only referenced parts are decoded. Images the
+ * sink declines, oversized images and unresolvable references are left untouched.
+ *
+ * @author William Callahan
+ * @since 2025-09-18
+ * @version 0.0.1
+ */
+final class InlineImageExtractor {
+
+    private static final Logger logger = LoggerFactory.getLogger(InlineImageExtractor.class);
+
+    private static final String DATA_IMAGE_PREFIX = "data:image/";
+    private static final String CID_PREFIX = "cid:";
+    private static final String BASE64_MARKER = ";base64,";
+
+    private InlineImageExtractor() {}
+
+    /**
+     * @param message the message the HTML came from, or null for a standalone HTML file (no {@code cid:} parts)
+     * @return how many {@code img} sources were rewritten
+     */
+    static int externalize(EmailHtmlDocument document, Part message, InlineImageSink sink) {
+        if (document == null || document.isBlank() || sink == null) {
+            return 0;
+        }
+        Map<String, String> storedBySource = new HashMap<>();
+        Map<String, Part> partsByContentId = null;
+        int rewritten = 0;
+        for (Element img : document.selectForEdit("img[src]")) {
+            String src = img.attr("src").trim();
+            String lower = src.toLowerCase(Locale.ROOT);
+            boolean dataUri = lower.startsWith(DATA_IMAGE_PREFIX);
+            boolean cid = lower.startsWith(CID_PREFIX) && message != null;
+            if (!dataUri && !cid) {
+                continue;
+            }
+            String url = storedBySource.get(src);
+            if (url == null && !storedBySource.containsKey(src)) {
+                try {
+                    if (dataUri) {
+                        url = storeDataUri(src, sink);
+                    } else {
+                        if (partsByContentId == null) {
+                            partsByContentId = new HashMap<>();
+                            collectContentIds(message, partsByContentId);
+                        }
+                        url = storePart(resolve(partsByContentId, src.substring(CID_PREFIX.length())), sink);
+                    }
+                } catch (IOException | MessagingException | IllegalArgumentException e) {
+                    logger.debug("Leaving inline image in place: {}", e.getMessage());
+                }
+                storedBySource.put(src, url);
+            }
+            if (url != null) {
+                img.attr("src", url);
+                rewritten++;
+            }
+        }
+        return rewritten;
+    }
+
+    private static String storeDataUri(String src, InlineImageSink sink) throws IOException {
+        int marker = src.toLowerCase(Locale.ROOT).indexOf(BASE64_MARKER);
+        if (marker < 0) {
+            return null; // percent-encoded payloads are small text formats such as SVG; leave them inline
+        }
+        String mediaType = mediaType(src.substring("data:".length(), marker));
+        int payloadStart = marker + BASE64_MARKER.length();
+        long decodedEstimate = (long) (src.length() - payloadStart) * 3 / 4;
+        if (mediaType == null || decodedEstimate > sink.maxBytes()) {
+            return null;
+        }
+        byte[] data = Base64.getMimeDecoder().decode(src.substring(payloadStart));
+        return sink.store(mediaType, data);
+    }
+
+    private static String storePart(Part part, InlineImageSink sink) throws IOException, MessagingException {
+        if (part == null) {
+            return null;
+        }
+        String mediaType;
+        try {
+            mediaType = mediaType(new ContentType(part.getContentType()).getBaseType());
+        } catch (ParseException e) {
+            return null;
+        }
+        if (mediaType == null) {
+            return null;
+        }
+        byte[] data;
+        try (InputStream in = part.getInputStream()) {
+            int budget = (int) Math.min(sink.maxBytes(), Integer.MAX_VALUE - 8);
+            data = in.readNBytes(budget);
+            if (data.length == budget && in.read() != -1) {
+                return null;
+            }
+        }
+        return sink.store(mediaType, data);
+    }
+
+    /** Lowercase {@code image/*} type, or null when {@code declared} is not an image type. */
+    private static String mediaType(String declared) {
+        int parameters = declared.indexOf(';');
+        String base = (parameters >= 0 ? declared.substring(0, parameters) : declared)
+                .trim()
+                .toLowerCase(Locale.ROOT);
+        return base.startsWith("image/") && base.length() > "image/".length() ? base : null;
+    }
+
+    /** Header-only walk of the multipart tree, keyed by Content-ID without its angle brackets. */
+    private static void collectContentIds(Part part, Map<String, Part> partsByContentId)
+            throws MessagingException, IOException {
+        if (part.isMimeType("multipart/*") && part.getContent() instanceof Multipart multipart) {
+            for (int i = 0; i < multipart.getCount(); i++) {
+                collectContentIds(multipart.getBodyPart(i), partsByContentId);
+            }
+            return;
+        }
+        if (part instanceof MimePart mimePart && mimePart.getContentID() != null) {
+            partsByContentId.putIfAbsent(stripAngleBrackets(mimePart.getContentID()), part);
+        }
+    }
+
+    /** {@code cid:} URLs are URL-encoded Content-IDs (RFC 2392); some clients send them raw. */
+    private static Part resolve(Map<String, Part> partsByContentId, String reference) {
+        Part exact = partsByContentId.get(reference);
+        if (exact != null) {
+            return exact;
+        }
+        return partsByContentId.get(URLDecoder.decode(reference, StandardCharsets.UTF_8));
+    }
+
+    private static String stripAngleBrackets(String contentId) {
+        String trimmed = contentId.trim();
+        if (trimmed.length() >= 2 && trimmed.charAt(0) == '<' && trimmed.charAt(trimmed.length() - 1) == '>') {
+            return trimmed.substring(1, trimmed.length() - 1);
+        }
+        return trimmed;
+    }
+}
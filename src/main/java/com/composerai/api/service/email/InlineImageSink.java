@@ -0,0 +1,25 @@
+package com.composerai.api.service.email;
+
+import java.io.IOException;
+
+/**
+ * Destination for images embedded in email HTML ({@code data:} URIs and {@code cid:} MIME parts) that the
+ * pipeline moves out of the markup. The pipeline replaces each stored image's {@code src} with the returned URL.
+ *
+ * @author William Callahan
+ * @since 2025-09-18
+ * @version 0.0.1
+ */
+public interface InlineImageSink {
+
+    /** Largest decoded image the sink accepts; larger images are left where they are. */
+    long maxBytes();
+
+    /**
+     * Stores one decoded image.
+     *
+     * @param mediaType lowercase {@code image/*} type declared by the data URI or MIME part
+     * @return the URL that now serves the image, or null to leave this image inline
+     */
+    String store(String mediaType, byte[] data) throws IOException;
+}
@@ -0,0 +1,124 @@
+package com.composerai.api.service.email;
+
+import com.composerai.api.config.AppProperties;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.stereotype.Component;
+
+/**
+ * Content-addressed local blob store for images moved out of email HTML.
+ * <p>
+ * Each image is named by the SHA-256 of its bytes plus an extension for its media type, so identical logos and
+ * tracking pixels across thousands of messages are written once, and a name can never refer to different bytes.
+ * That is what lets the serving endpoint hand out strong ETags and year-long immutable caching. Writes are
+ * atomic (temp file then move), sharded by the first two hex digits, and skipped when the blob already exists.
+ * Only raster types are stored; SVG and unknown types are declined and stay inline, because serving them from
+ * the app origin would give script-capable markup a same-origin URL.
+ *
+ * @author William Callahan
+ * @since 2025-09-18
+ * @version 0.0.1
+ */
+@Component
+public class InlineImageStore implements InlineImageSink {
+
+    /** Path the stored images are served from; outside {@code /api} so plain {@code <img>} requests can load. */
+    public static final String URL_PREFIX = "/inline-images/";
+
+    private static final int SHARD_PREFIX_LENGTH = 2;
+    private static final Pattern NAME = Pattern.compile("([0-9a-f]{64})\\.([a-z]{3,4})");
+
+    private static final Map<String, String> EXTENSIONS_BY_TYPE = Map.ofEntries(
+            Map.entry("image/png", "png"),
+            Map.entry("image/jpeg", "jpg"),
+            Map.entry("image/jpg", "jpg"),
+            Map.entry("image/pjpeg", "jpg"),
+            Map.entry("image/gif", "gif"),
+            Map.entry("image/webp", "webp"),
+            Map.entry("image/bmp", "bmp"),
+            Map.entry("image/avif", "avif"),
+            Map.entry("image/x-icon", "ico"),
+            Map.entry("image/vnd.microsoft.icon", "ico"));
+
+    private static final Map<String, String> TYPES_BY_EXTENSION = Map.of(
+            "png", "image/png",
+            "jpg", "image/jpeg",
+            "gif", "image/gif",
+            "webp", "image/webp",
+            "bmp", "image/bmp",
+            "avif", "image/avif",
+            "ico", "image/x-icon");
+
+    private final AppProperties appProperties;
+
+    public InlineImageStore(AppProperties appProperties) {
+        this.appProperties = appProperties;
+    }
+
+    @Override
+    public long maxBytes() {
+        return appProperties.getEmailParsing().getMaxInlineImageSize().toBytes();
+    }
+
+    @Override
+    public String store(String mediaType, byte[] data) throws IOException {
+        String extension = EXTENSIONS_BY_TYPE.get(mediaType);
+        if (extension == null || data == null || data.length == 0 || data.length > maxBytes()) {
+            return null;
+        }
+        String hash = HexFormat.of().formatHex(ParsedEmailCache.newSha256().digest(data));
+        String name = hash + "." + extension;
+        Path blob = blobPath(hash, name);
+        if (!Files.exists(blob)) {
+            Files.createDirectories(blob.getParent());
+            Path temp = Files.createTempFile(blob.getParent(), hash, ".tmp");
+            try {
+                Files.write(temp, data);
+                Files.move(temp, blob, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException raced) {
+                // another parse stored the same bytes first; the existing blob is identical
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        return URL_PREFIX + name;
+    }
+
+    /**
+     * Looks up a stored image by the file name its URL ends with.
+     *
+     * @return empty when the name is malformed or nothing is stored under it
+     */
+    public Optional<StoredImage> find(String name) {
+        Matcher matcher = name == null ? null : NAME.matcher(name);
+        if (matcher == null || !matcher.matches()) {
+            return Optional.empty();
+        }
+        String mediaType = TYPES_BY_EXTENSION.get(matcher.group(2));
+        if (mediaType == null) {
+            return Optional.empty();
+        }
+        Path blob = blobPath(matcher.group(1), name);
+        if (!Files.isRegularFile(blob)) {
+            return Optional.empty();
+        }
+        return Optional.of(new StoredImage(blob, matcher.group(1), mediaType));
+    }
+
+    private Path blobPath(String hash, String name) {
+        return Path.of(appProperties.getEmailParsing().getInlineImageDirectory())
+                .resolve(hash.substring(0, SHARD_PREFIX_LENGTH))
+                .resolve(name);
+    }
+
+    /** A stored image file; {@code contentHash} is the SHA-256 of its bytes. */
+    public record StoredImage(Path file, String contentHash, String mediaType) {}
+}
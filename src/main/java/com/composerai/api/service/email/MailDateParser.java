@@ -0,0 +1,275 @@
+package com.composerai.api.service.email;
+
+import java.time.Month;
+import java.time.OffsetDateTime;
+import java.time.Year;
+import java.time.ZoneOffset;
+
+/**
+ * Tolerant RFC 5322 date-time reader for {@code Date} and {@code Received} headers.
+ * <p>
+ * Reads {@code [day-of-week ","] day month year hour ":" minute [":" second] zone} left to right from the
+ * caller's string and returns {@code null} for anything it cannot make sense of, so malformed headers cost
+ * no exceptions and no substrings. Accepted beyond the strict grammar:
+ * <ul>
+ *   <li>comments, extra commas, and any whitespace between tokens, including a trailing {@code (PDT)}</li>
+ *   <li>missing or misspelled day-of-week (it is skipped, never cross-checked)</li>
+ *   <li>full month names, any letter case, and {@code 18-Sep-2025} hyphenated dates</li>
+ *   <li>two- and three-digit years (RFC 5322 obs-year: {@code < 50} is 20xx, otherwise 19xx)</li>
+ *   <li>{@code +hh:mm} offsets, {@code GMT+hhmm}, and the obsolete zones {@code UT}, {@code GMT}, and
+ *       the North American {@code EST}...{@code PDT}; military and unknown alphabetic zones, and a missing
+ *       zone, read as {@code -0000} (UTC), as RFC 5322 section 4.3 recommends</li>
+ *   <li>leap second {@code :60}, rolled into the next minute</li>
+ * </ul>
+ * The returned value keeps the header's own offset.
+ *
+ * @author William Callahan
+ * @since 2025-09-18
+ * @version 0.0.1
+ */
+final class MailDateParser {
+
+    private static final String[] MONTH_PREFIXES = {
+        "jan", "feb", "mar", "apr", "may", "jun", "jul", "aug", "sep", "oct", "nov", "dec"
+    };
+
+    /** Obsolete named zones from RFC 5322 section 4.3 with their offsets in hours. */
+    private static final String[] NAMED_ZONES = {
+        "UT", "UTC", "GMT", "EST", "EDT", "CST", "CDT", "MST", "MDT", "PST", "PDT"
+    };
+
+    private static final int[] NAMED_ZONE_HOURS = {0, 0, 0, -5, -4, -6, -5, -7, -6, -8, -7};
+
+    /** The first entries of {@link #NAMED_ZONES} may carry a numeric suffix, as in {@code GMT+0200}. */
+    private static final int UNIVERSAL_ZONES = 3;
+    private static final int LAST_HOUR = 23;
+    private static final int SECONDS_PER_MINUTE = 60;
+    private static final int SECONDS_PER_HOUR = 3600;
+    private static final int MAX_OFFSET_HOURS = 18;
+    private static final int LEAP_SECOND = 60;
+    private static final int OBS_YEAR_PIVOT = 50;
+    private static final int TWENTIETH_CENTURY = 1900;
+    private static final int TWENTY_FIRST_CENTURY = 2000;
+    private static final int INVALID = -1;
+
+    private final String text;
+    private int pos;
+
+    private MailDateParser(String text, int start) {
+        this.text = text;
+        this.pos = start;
+    }
+
+    /**
+     * Parses a whole header value.
+     *
+     * @return the date-time with the header's offset, or null when the value is missing or unreadable
+     */
+    static OffsetDateTime parse(String value) {
+        return value == null ? null : parse(value, 0);
+    }
+
+    /**
+     * Parses the date-time starting at {@code start}, e.g. just past the last {@code ;} of a
+     * {@code Received} header, without copying the tail.
+     */
+    static OffsetDateTime parse(String value, int start) {
+        if (value == null || start < 0 || start >= value.length()) {
+            return null;
+        }
+        return new MailDateParser(value, start).dateTime();
+    }
+
+    private OffsetDateTime dateTime() {
+        skipSeparators();
+        if (pos < text.length() && isAsciiLetter(text.charAt(pos))) {
+            skipLetters();
+            skipSeparators();
+        }
+        int day = readNumber(2);
+        skipDateSeparators();
+        int month = readMonth();
+        skipDateSeparators();
+        int yearStart = pos;
+        int year = normalizeYear(readNumber(4), pos - yearStart);
+        skipSeparators();
+        int hour = readNumber(2);
+        int minute = consume(':') ? readNumber(2) : INVALID;
+        int second = consume(':') ? readNumber(2) : 0;
+        skipSeparators();
+        int offsetSeconds = readZone();
+
+        if (day < 1 || month == INVALID || year == INVALID || hour == INVALID || minute == INVALID
+                || second == INVALID || offsetSeconds == Integer.MIN_VALUE) {
+            return null;
+        }
+        if (day > Month.of(month).length(Year.isLeap(year))
+                || hour > LAST_HOUR
+                || minute >= SECONDS_PER_MINUTE
+                || second > LEAP_SECOND) {
+            return null;
+        }
+        ZoneOffset offset = ZoneOffset.ofTotalSeconds(offsetSeconds);
+        if (second == LEAP_SECOND) {
+            return OffsetDateTime.of(year, month, day, hour, minute, LEAP_SECOND - 1, 0, offset)
+                    .plusSeconds(1);
+        }
+        return OffsetDateTime.of(year, month, day, hour, minute, second, 0, offset);
+    }
+
+    /** @return month number 1-12, or {@link #INVALID} */
+    private int readMonth() {
+        int start = pos;
+        skipLetters();
+        if (pos - start < 3) {
+            return INVALID;
+        }
+        for (int i = 0; i < MONTH_PREFIXES.length; i++) {
+            if (text.regionMatches(true, start, MONTH_PREFIXES[i], 0, 3)) {
+                return i + 1;
+            }
+        }
+        return INVALID;
+    }
+
+    private static int normalizeYear(int year, int digits) {
+        if (year == INVALID) {
+            return INVALID;
+        }
+        if (digits == 2) {
+            return year < OBS_YEAR_PIVOT ? TWENTY_FIRST_CENTURY + year : TWENTIETH_CENTURY + year;
+        }
+        return digits == 3 ? TWENTIETH_CENTURY + year : year;
+    }
+
+    /** @return offset in seconds, or {@link Integer#MIN_VALUE} when the zone is malformed */
+    private int readZone() {
+        if (pos >= text.length()) {
+            return 0;
+        }
+        if (isSign(text.charAt(pos))) {
+            return readNumericOffset();
+        }
+        int start = pos;
+        skipLetters();
+        int length = pos - start;
+        if (length == 0) {
+            return 0;
+        }
+        for (int i = 0; i < NAMED_ZONES.length; i++) {
+            String zone = NAMED_ZONES[i];
+            if (zone.length() == length && text.regionMatches(true, start, zone, 0, length)) {
+                if (i < UNIVERSAL_ZONES && pos < text.length() && isSign(text.charAt(pos))) {
+                    return readNumericOffset();
+                }
+                return NAMED_ZONE_HOURS[i] * SECONDS_PER_HOUR;
+            }
+        }
+        return 0;
+    }
+
+    private int readNumericOffset() {
+        int sign = text.charAt(pos) == '-' ? -1 : 1;
+        pos++;
+        int digitsStart = pos;
+        int hours;
+        int minutes;
+        int value = readNumber(4);
+        if (value == INVALID) {
+            return Integer.MIN_VALUE;
+        }
+        if (pos - digitsStart == 4) {
+            hours = value / 100;
+            minutes = value % 100;
+        } else if (pos - digitsStart <= 2) {
+            hours = value;
+            minutes = consume(':') ? readNumber(2) : 0;
+        } else {
+            return Integer.MIN_VALUE;
+        }
+        if (minutes == INVALID || minutes >= SECONDS_PER_MINUTE || hours > MAX_OFFSET_HOURS) {
+            return Integer.MIN_VALUE;
+        }
+        int total = hours * SECONDS_PER_HOUR + minutes * SECONDS_PER_MINUTE;
+        return total > MAX_OFFSET_HOURS * SECONDS_PER_HOUR ? Integer.MIN_VALUE : sign * total;
+    }
+
+    /**
+     * Reads one to {@code maxDigits} ASCII digits.
+     *
+     * @return the value, or {@link #INVALID} when there are no digits or more than {@code maxDigits}
+     */
+    private int readNumber(int maxDigits) {
+        int value = 0;
+        int start = pos;
+        while (pos < text.length() && isDigit(text.charAt(pos))) {
+            if (pos - start == maxDigits) {
+                return INVALID;
+            }
+            value = value * 10 + (text.charAt(pos) - '0');
+            pos++;
+        }
+        return pos == start ? INVALID : value;
+    }
+
+    private boolean consume(char expected) {
+        if (pos < text.length() && text.charAt(pos) == expected) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void skipDateSeparators() {
+        skipSeparators();
+        if (consume('-')) {
+            skipSeparators();
+        }
+    }
+
+    /** Skips whitespace, commas, and (possibly nested, backslash-escaped) comments. */
+    private void skipSeparators() {
+        while (pos < text.length()) {
+            char c = text.charAt(pos);
+            if (c == '(') {
+                skipComment();
+            } else if (c == ',' || Character.isWhitespace(c)) {
+                pos++;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void skipComment() {
+        int depth = 0;
+        while (pos < text.length()) {
+            char c = text.charAt(pos++);
+            if (c == '\\') {
+                pos++;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return;
+            }
+        }
+    }
+
+    private void skipLetters() {
+        while (pos < text.length() && isAsciiLetter(text.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isSign(char c) {
+        return c == '+' || c == '-';
+    }
+}
@@ -0,0 +1,146 @@
+package com.composerai.api.service.email;
+
+import com.composerai.api.model.EmailMessage;
+import com.composerai.api.service.EmailParsingService;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serves the messages of one Maildir, walking its {@code new/} and {@code cur/} subdirectories incrementally.
+ * <p>
+ * Maildir message files are never rewritten: delivery renames them from {@code tmp/} into {@code new/}, and
+ * reading or flagging only renames them into {@code cur/} with a different {@code :2,FLAGS} suffix. Messages
+ * are therefore tracked by their unique name (the part before {@code :}) and parsed once, through the
+ * content-addressed {@link ParsedEmailCache}; a moved or re-flagged file keeps its parsed message, and a file
+ * that disappeared is dropped. When neither directory's modification time changed since the last walk, which
+ * is the case whenever no file was added, removed or renamed, the previous result is served without listing
+ * anything, unless company logos resolved in the background since; those are applied to a new list.
+ * {@code tmp/} and Maildir++ sub-folders ({@code .Name/}) are not read.
+ *
+ * @author William Callahan
+ * @since 2025-09-18
+ * @version 0.0.1
+ */
+@Slf4j
+public final class MaildirEmailMessageProvider implements EmailMessageProvider {
+
+    private static final List<String> MESSAGE_DIRECTORIES = List.of("new", "cur");
+
+    private final Path maildir;
+    private final EmailParsingService emailParsingService;
+    private final ParsedEmailCache parsedEmailCache;
+    private final CachedMessageParser parser;
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<Path, FileTime> walkedDirectories = new HashMap<>();
+    private List<EmailMessage> current = List.of();
+
+    public MaildirEmailMessageProvider(
+            Path maildir, EmailParsingService emailParsingService, ParsedEmailCache parsedEmailCache) {
+        this.maildir = maildir.toAbsolutePath().normalize();
+        this.emailParsingService = emailParsingService;
+        this.parsedEmailCache = parsedEmailCache;
+        this.parser = new CachedMessageParser(emailParsingService, parsedEmailCache);
+    }
+
+    /**
+     * Messages newest first, by the modification time the file had when it was first seen.
+     */
+    @Override
+    public synchronized List<EmailMessage> loadEmails() {
+        if (!Files.isDirectory(maildir)) {
+            log.debug("Maildir does not exist: {}", maildir);
+            return List.of();
+        }
+        try {
+            Map<Path, FileTime> directoryTimes = directoryTimes();
+            boolean walked = !directoryTimes.equals(walkedDirectories);
+            if (walked) {
+                walk(directoryTimes.keySet());
+                walkedDirectories.clear();
+                walkedDirectories.putAll(directoryTimes);
+            }
+            if (!parser.applyResolvedLogos(entries, Entry::message, Entry::withMessage) && !walked) {
+                return current;
+            }
+        } catch (IOException e) {
+            log.warn("Failed to walk Maildir: {}", maildir, e);
+            return current;
+        }
+        current = entries.values().stream()
+                .sorted(Comparator.comparing(Entry::delivered).reversed())
+                .map(Entry::message)
+                .filter(Objects::nonNull)
+                .toList();
+        return current;
+    }
+
+    private Map<Path, FileTime> directoryTimes() throws IOException {
+        Map<Path, FileTime> times = new HashMap<>();
+        for (String name : MESSAGE_DIRECTORIES) {
+            Path directory = maildir.resolve(name);
+            if (Files.isDirectory(directory)) {
+                times.put(directory, Files.getLastModifiedTime(directory));
+            }
+        }
+        return times;
+    }
+
+    private void walk(Set<Path> directories) throws IOException {
+        Set<String> seen = new HashSet<>();
+        for (Path directory : directories) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                for (Path file : files) {
+                    String fileName = file.getFileName().toString();
+                    if (fileName.startsWith(".") || !Files.isRegularFile(file)) {
+                        continue;
+                    }
+                    String uniqueName = uniqueName(fileName);
+                    if (!seen.add(uniqueName)) {
+                        continue;
+                    }
+                    if (!entries.containsKey(uniqueName)) {
+                        entries.put(uniqueName, new Entry(Files.getLastModifiedTime(file), parseSafely(file)));
+                    }
+                }
+            }
+        }
+        entries.keySet().retainAll(seen);
+    }
+
+    /** Maildir file names are {@code unique[:2,FLAGS]}; only the unique part survives a move or flag change. */
+    static String uniqueName(String fileName) {
+        int colon = fileName.indexOf(':');
+        return colon >= 0 ? fileName.substring(0, colon) : fileName;
+    }
+
+    private EmailMessage parseSafely(Path file) {
+        try {
+            return parser.parse(
+                            parsedEmailCache.keyFor(file),
+                            () -> emailParsingService.parseEmail(file, file.getFileName().toString(), 0, -1))
+                    .message();
+        } catch (Exception e) {
+            log.warn("Failed to parse Maildir message: {}", file, e);
+            return null;
+        }
+    }
+
+    /** A message seen in the Maildir; {@code message} is null when it could not be parsed. */
+    private record Entry(FileTime delivered, EmailMessage message) {
+        Entry withMessage(EmailMessage replacement) {
+            return new Entry(delivered, replacement);
+        }
+    }
+}
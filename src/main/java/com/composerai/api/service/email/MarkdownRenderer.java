@@ -0,0 +1,147 @@
+package com.composerai.api.service.email;
+
+import com.vladsch.flexmark.ext.autolink.AutolinkExtension;
+import com.vladsch.flexmark.ext.gfm.strikethrough.StrikethroughExtension;
+import com.vladsch.flexmark.ext.gfm.tasklist.TaskListExtension;
+import com.vladsch.flexmark.ext.tables.TablesExtension;
+import com.vladsch.flexmark.html.HtmlRenderer;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.parser.ParserEmulationProfile;
+import com.vladsch.flexmark.util.data.MutableDataSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.safety.Cleaner;
+import org.jsoup.safety.Safelist;
+
+/**
+ * Markdown → sanitized HTML renderer shared by email parsing, chat completions, and streaming chunks.
+ * <p>
+ * Rendering is lock-free: each call borrows a Flexmark parser/renderer + jsoup Cleaner engine from a
+ * non-blocking pool and returns it afterwards. A caller that finds the pool empty builds a fresh engine
+ * instead of waiting, so throughput scales with cores rather than serializing on one monitor. The pool
+ * keeps at most {@link #MAX_IDLE_ENGINES} idle engines; extras are left to the garbage collector. No
+ * engine is ever pinned to a thread, which keeps the design safe for virtual threads.
+ *
+ * @author William Callahan
+ * @since 2025-09-18
+ * @version 0.0.2
+ */
+final class MarkdownRenderer {
+
+    private static final Pattern STRUCTURAL_ELEMENTS =
+            Pattern.compile("pre|code|ul|ol|li|table|thead|tbody|tfoot|tr|th|td");
+    private static final Pattern WHITESPACE_RUN = Pattern.compile("\\s+");
+    private static final int IDLE_ENGINES_PER_CORE = 2;
+    static final int MAX_IDLE_ENGINES = Runtime.getRuntime().availableProcessors() * IDLE_ENGINES_PER_CORE;
+
+    private final ConcurrentLinkedQueue<RenderEngine> idleEngines = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    String render(String markdown) {
+        if (markdown == null || markdown.isBlank()) {
+            return "";
+        }
+        RenderEngine engine = borrow();
+        try {
+            return engine.render(markdown);
+        } finally {
+            release(engine);
+        }
+    }
+
+    private RenderEngine borrow() {
+        RenderEngine engine = idleEngines.poll();
+        if (engine == null) {
+            return new RenderEngine();
+        }
+        idleCount.decrementAndGet();
+        return engine;
+    }
+
+    private void release(RenderEngine engine) {
+        if (idleCount.incrementAndGet() <= MAX_IDLE_ENGINES) {
+            idleEngines.offer(engine);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * One Flexmark parser/renderer + jsoup Cleaner triple; used by a single caller at a time.
+     */
+    private static final class RenderEngine {
+        private final Parser parser;
+        private final HtmlRenderer renderer;
+        private final Cleaner cleaner;
+
+        RenderEngine() {
+            MutableDataSet options = new MutableDataSet();
+            // Use GITHUB profile which has sensible defaults
+            ParserEmulationProfile.GITHUB_DOC.setIn(options);
+
+            // CRITICAL: Enable hard line breaks - this makes single newlines render as <br>
+            // Without this, markdown collapses single newlines into spaces
+            options.set(HtmlRenderer.SOFT_BREAK, "<br />\n");
+            options.set(HtmlRenderer.HARD_BREAK, "<br />\n");
+
+            options.set(
+                    Parser.EXTENSIONS,
+                    List.of(
+                            TablesExtension.create(),
+                            AutolinkExtension.create(),
+                            StrikethroughExtension.create(),
+                            TaskListExtension.create()));
+            this.parser = Parser.builder(options).build();
+            this.renderer = HtmlRenderer.builder(options)
+                    .escapeHtml(true)
+                    .percentEncodeUrls(true)
+                    // Preserve single newlines as <br> so line breaks render properly
+                    .softBreak("<br />\n")
+                    .build();
+
+            Safelist safelist = Safelist.basicWithImages();
+            safelist.addTags("table", "thead", "tbody", "tfoot", "tr", "th", "td", "pre", "code");
+            safelist.addAttributes("a", "href", "title", "rel", "target");
+            safelist.addAttributes("code", "class");
+            this.cleaner = new Cleaner(safelist);
+        }
+
+        String render(String markdown) {
+            com.vladsch.flexmark.util.ast.Node document = parser.parse(markdown);
+            String renderedHtml = renderer.render(document);
+            Document dirty = Jsoup.parseBodyFragment(renderedHtml);
+            Document clean = cleaner.clean(dirty);
+            clean.outputSettings().prettyPrint(false);
+
+            // Preserve explicit <br> soft line breaks to honor model-emitted single newlines.
+            // Still normalize excessive whitespace within paragraphs.
+            clean.select("p").forEach(MarkdownRenderer::normalizeWhitespace);
+            for (Element anchor : clean.select("a[href]")) {
+                anchor.attr("rel", "noopener noreferrer");
+                anchor.attr("target", "_blank");
+            }
+            return clean.body().html();
+        }
+    }
+
+    private static boolean hasStructuralParent(Element element) {
+        for (Element parent = element.parent(); parent != null; parent = parent.parent()) {
+            if (STRUCTURAL_ELEMENTS.matcher(parent.normalName()).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void normalizeWhitespace(Element element) {
+        if (hasStructuralParent(element)) {
+            return;
+        }
+        element.textNodes().forEach(node -> node.text(WHITESPACE_RUN.matcher(node.text()).replaceAll(" ")));
+    }
+}
@@ -0,0 +1,203 @@
+package com.composerai.api.service.email;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Splits Markdown (such as {@code emailBodyTransformedMarkdown}) along its structure, then packs consecutive
+ * blocks into chunks of at most {@code maxTokens} estimated tokens (see {@link ChunkTokens}).
+ * <p>
+ * A block is a paragraph, a heading line, a top-level list item with its continuation lines, or a fenced code
+ * block; blank lines and fences are honoured so code is never split at a blank line. Every heading starts a new
+ * chunk, so a section's title travels with its first paragraph. A single block larger than the budget is cut
+ * by a {@link TokenWindowChunker} with {@code overlapTokens} of overlap. Blocks are read one line at a time from
+ * the caller's text; only the current chunk's bounds and one look-ahead block are held.
+ *
+ * @author William Callahan
+ * @since 2025-09-18
+ * @version 0.0.1
+ */
+public final class MarkdownSectionChunker implements ChunkingStrategy {
+
+    private static final int MAX_HEADING_LEVEL = 6;
+    private static final int MAX_MARKER_INDENT = 3;
+    private static final int MAX_ORDERED_DIGITS = 9;
+
+    private final long budget;
+    private final TokenWindowChunker oversizedBlocks;
+
+    public MarkdownSectionChunker(int maxTokens, int overlapTokens) {
+        this.oversizedBlocks = new TokenWindowChunker(maxTokens, overlapTokens);
+        this.budget = ChunkTokens.budget(maxTokens);
+    }
+
+    @Override
+    public Iterator<String> chunk(CharSequence text) {
+        return text == null ? Collections.emptyIterator() : new Sections(text);
+    }
+
+    private final class Sections implements Iterator<String> {
+
+        private final Blocks blocks;
+        private Block lookahead;
+        private Iterator<String> oversized = Collections.emptyIterator();
+
+        Sections(CharSequence text) {
+            this.blocks = new Blocks(text);
+            this.lookahead = blocks.next();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return oversized.hasNext() || lookahead != null;
+        }
+
+        @Override
+        public String next() {
+            if (oversized.hasNext()) {
+                return oversized.next();
+            }
+            if (lookahead == null) {
+                throw new NoSuchElementException();
+            }
+            Block first = lookahead;
+            lookahead = blocks.next();
+            if (first.cost() > budget) {
+                oversized = oversizedBlocks.chunk(blocks.text.subSequence(first.start(), first.end()));
+                return oversized.next();
+            }
+            int end = first.end();
+            long cost = first.cost();
+            while (lookahead != null && !lookahead.heading() && cost + lookahead.cost() <= budget) {
+                end = lookahead.end();
+                cost += lookahead.cost();
+                lookahead = blocks.next();
+            }
+            return blocks.text.subSequence(first.start(), end).toString();
+        }
+    }
+
+    /** Lazy block reader over the Markdown source. */
+    private static final class Blocks {
+
+        private final CharSequence text;
+        private int pos;
+
+        Blocks(CharSequence text) {
+            this.text = text;
+        }
+
+        /** @return the next non-blank block, or null at the end of the text */
+        Block next() {
+            while (pos < text.length() && isBlank(pos, lineEnd(pos))) {
+                pos = nextLine(pos);
+            }
+            if (pos >= text.length()) {
+                return null;
+            }
+            int start = pos;
+            int end = lineEnd(pos);
+            boolean heading = isHeading(pos, end);
+            boolean inFence = isFence(pos, end);
+            pos = nextLine(pos);
+            if (!heading) {
+                while (pos < text.length()) {
+                    int lineEnd = lineEnd(pos);
+                    boolean fence = isFence(pos, lineEnd);
+                    if (!inFence && (fence || isBlank(pos, lineEnd) || isHeading(pos, lineEnd)
+                            || isListItem(pos, lineEnd))) {
+                        break;
+                    }
+                    inFence ^= fence;
+                    end = lineEnd;
+                    pos = nextLine(pos);
+                    if (fence && !inFence) {
+                        break;
+                    }
+                }
+            }
+            return new Block(start, end, heading, ChunkTokens.cost(text, start, end));
+        }
+
+        private boolean isHeading(int start, int end) {
+            int i = skipIndent(start, end);
+            if (i < 0) {
+                return false;
+            }
+            int level = 0;
+            while (i < end && text.charAt(i) == '#') {
+                i++;
+                level++;
+            }
+            return level >= 1 && level <= MAX_HEADING_LEVEL && (i == end || text.charAt(i) == ' ');
+        }
+
+        private boolean isListItem(int start, int end) {
+            int i = skipIndent(start, end);
+            if (i < 0 || i >= end) {
+                return false;
+            }
+            char c = text.charAt(i);
+            if (c == '-' || c == '*' || c == '+') {
+                return i + 1 < end && text.charAt(i + 1) == ' ';
+            }
+            int digits = 0;
+            while (i < end && Character.isDigit(text.charAt(i)) && digits <= MAX_ORDERED_DIGITS) {
+                i++;
+                digits++;
+            }
+            return digits >= 1
+                    && digits <= MAX_ORDERED_DIGITS
+                    && i + 1 < end
+                    && (text.charAt(i) == '.' || text.charAt(i) == ')')
+                    && text.charAt(i + 1) == ' ';
+        }
+
+        private boolean isFence(int start, int end) {
+            int i = skipIndent(start, end);
+            if (i < 0 || i + 3 > end) {
+                return false;
+            }
+            char c = text.charAt(i);
+            return (c == '`' || c == '~') && text.charAt(i + 1) == c && text.charAt(i + 2) == c;
+        }
+
+        /** @return index of the first non-space char, or -1 when the line is indented past a block marker */
+        private int skipIndent(int start, int end) {
+            int i = start;
+            while (i < end && text.charAt(i) == ' ') {
+                i++;
+            }
+            return i - start > MAX_MARKER_INDENT ? -1 : i;
+        }
+
+        private boolean isBlank(int start, int end) {
+            for (int i = start; i < end; i++) {
+                if (!Character.isWhitespace(text.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /** End of the line at {@code start}, excluding its {@code \r\n} or {@code \n}. */
+        private int lineEnd(int start) {
+            int i = start;
+            while (i < text.length() && text.charAt(i) != '\n') {
+                i++;
+            }
+            return i > start && text.charAt(i - 1) == '\r' ? i - 1 : i;
+        }
+
+        private int nextLine(int start) {
+            int i = start;
+            while (i < text.length() && text.charAt(i) != '\n') {
+                i++;
+            }
+            return Math.min(i + 1, text.length());
+        }
+    }
+
+    private record Block(int start, int end, boolean heading, long cost) {}
+}
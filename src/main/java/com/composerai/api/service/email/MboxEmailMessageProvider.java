@@ -0,0 +1,255 @@
+package com.composerai.api.service.email;
+
+import com.composerai.api.model.EmailMessage;
+import com.composerai.api.service.EmailParsingService;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serves the messages of one mbox archive without ever loading the archive into memory.
+ * <p>
+ * A buffered {@link FileChannel} scan splits the file on {@code From } lines and keeps only a byte-offset index
+ * (envelope line, message offset, length, SHA-256). Each message is parsed lazily, in place, through
+ * {@link EmailParsingService#parseEmail(Path, String, long, long)} and the content-addressed
+ * {@link ParsedEmailCache}, so a restart reuses earlier parses. Mbox files only grow by appends, so a reload
+ * re-scans from the start of the last indexed message (which may itself still have been growing) instead of
+ * from the top; a shrunken file or a missing envelope line at that offset means the archive was rewritten, e.g.
+ * expunged, and triggers a full re-scan.
+ * <p>
+ * {@code >From } quoting inside bodies is left as written, and {@code Content-Length} headers (mboxcl) are
+ * not consulted: every line starting with {@code From } ends the previous message.
+ *
+ * @author William Callahan
+ * @since 2025-09-18
+ * @version 0.0.1
+ */
+@Slf4j
+public final class MboxEmailMessageProvider implements EmailMessageProvider {
+
+    private static final byte[] SEPARATOR = "From ".getBytes(StandardCharsets.US_ASCII);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path mboxFile;
+    private final EmailParsingService emailParsingService;
+    private final ParsedEmailCache parsedEmailCache;
+    private final CachedMessageParser parser;
+
+    private final List<Entry> index = new ArrayList<>();
+    private final Map<String, EmailMessage> parsed = new HashMap<>();
+    private long indexedSize;
+    private long indexVersion;
+    private long currentVersion = -1;
+    private List<EmailMessage> current = List.of();
+
+    public MboxEmailMessageProvider(
+            Path mboxFile, EmailParsingService emailParsingService, ParsedEmailCache parsedEmailCache) {
+        this.mboxFile = mboxFile.toAbsolutePath().normalize();
+        this.emailParsingService = emailParsingService;
+        this.parsedEmailCache = parsedEmailCache;
+        this.parser = new CachedMessageParser(emailParsingService, parsedEmailCache);
+    }
+
+    /**
+     * Messages newest first (mbox appends, so the last message in the file is the most recent delivery). While
+     * the archive is unchanged and no company logo resolved in the meantime, the previous list instance is
+     * returned.
+     */
+    @Override
+    public synchronized List<EmailMessage> loadEmails() {
+        if (!Files.isRegularFile(mboxFile)) {
+            log.debug("Mbox file does not exist: {}", mboxFile);
+            return List.of();
+        }
+        try {
+            refreshIndex();
+        } catch (IOException e) {
+            log.warn("Failed to index mbox file: {}", mboxFile, e);
+            return List.of();
+        }
+        boolean logosResolved = parser.applyResolvedLogos(parsed, message -> message, (stale, refreshed) -> refreshed);
+        if (currentVersion == indexVersion && !logosResolved) {
+            return current;
+        }
+        List<EmailMessage> messages = new ArrayList<>(index.size());
+        for (int i = index.size() - 1; i >= 0; i--) {
+            EmailMessage message = parseSafely(index.get(i));
+            if (message != null) {
+                messages.add(message);
+            }
+        }
+        current = List.copyOf(messages);
+        currentVersion = indexVersion;
+        return current;
+    }
+
+    /** Brings the byte-offset index up to date without parsing anything; oldest message first. */
+    synchronized List<Entry> index() throws IOException {
+        refreshIndex();
+        return List.copyOf(index);
+    }
+
+    private void refreshIndex() throws IOException {
+        try (FileChannel channel = FileChannel.open(mboxFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == indexedSize && !index.isEmpty()) {
+                return;
+            }
+            long resumeAt = 0;
+            if (!index.isEmpty()) {
+                Entry last = index.get(index.size() - 1);
+                if (size < indexedSize || !startsWithSeparator(channel, last.separatorOffset())) {
+                    log.info("Mbox file was rewritten, re-indexing: {}", mboxFile);
+                    index.clear();
+                } else {
+                    // the last message may have been mid-append when it was indexed, so scan it again
+                    index.remove(index.size() - 1);
+                    resumeAt = last.separatorOffset();
+                }
+            }
+            index.addAll(scan(channel, resumeAt, size));
+            indexedSize = size;
+            indexVersion++;
+        }
+        Set<String> live = new HashSet<>();
+        for (Entry entry : index) {
+            live.add(entry.contentHash());
+        }
+        parsed.keySet().retainAll(live);
+    }
+
+    /**
+     * Indexes every message that starts at or after {@code from}, which must be the start of a line. Bytes
+     * before the first {@code From } line are not a message and are skipped. Only the matched prefix of a
+     * candidate separator is held back from the digest, so each buffer is hashed in bulk.
+     */
+    static List<Entry> scan(FileChannel channel, long from, long size) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        byte[] bytes = buffer.array();
+        long position = from;
+        boolean lineStart = true;
+        boolean inEnvelope = false;
+        int matched = 0;
+        long separatorOffset = -1;
+        long messageOffset = -1;
+        MessageDigest digest = null;
+
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            int unhashed = matched > 0 ? -1 : 0;
+            for (int i = 0; i < read; i++) {
+                byte b = bytes[i];
+                if (inEnvelope) {
+                    if (b == '\n') {
+                        inEnvelope = false;
+                        lineStart = true;
+                        messageOffset = position + i + 1;
+                        digest = ParsedEmailCache.newSha256();
+                        unhashed = i + 1;
+                    }
+                    continue;
+                }
+                if (lineStart || matched > 0) {
+                    if (b == SEPARATOR[matched]) {
+                        if (matched == 0 && digest != null && unhashed >= 0) {
+                            digest.update(bytes, unhashed, i - unhashed);
+                        }
+                        unhashed = -1;
+                        lineStart = false;
+                        if (++matched == SEPARATOR.length) {
+                            long lineOffset = position + i + 1 - SEPARATOR.length;
+                            if (digest != null) {
+                                entries.add(entry(separatorOffset, messageOffset, lineOffset, digest));
+                            }
+                            separatorOffset = lineOffset;
+                            digest = null;
+                            matched = 0;
+                            inEnvelope = true;
+                        }
+                        continue;
+                    }
+                    if (matched > 0) {
+                        // not a separator after all: hash the held-back prefix and resume bulk hashing here
+                        if (digest != null) {
+                            digest.update(SEPARATOR, 0, matched);
+                        }
+                        matched = 0;
+                        unhashed = i;
+                    }
+                }
+                lineStart = b == '\n';
+            }
+            if (digest != null && unhashed >= 0) {
+                digest.update(bytes, unhashed, read - unhashed);
+            }
+            position += read;
+        }
+        if (digest != null) {
+            if (matched > 0) {
+                digest.update(SEPARATOR, 0, matched);
+            }
+            entries.add(entry(separatorOffset, messageOffset, position, digest));
+        }
+        return entries;
+    }
+
+    private static Entry entry(long separatorOffset, long messageOffset, long end, MessageDigest digest) {
+        String contentHash = HexFormat.of().formatHex(digest.digest());
+        return new Entry(separatorOffset, messageOffset, end - messageOffset, contentHash);
+    }
+
+    private static boolean startsWithSeparator(FileChannel channel, long offset) throws IOException {
+        ByteBuffer head = ByteBuffer.allocate(SEPARATOR.length);
+        while (head.hasRemaining()) {
+            if (channel.read(head, offset + head.position()) <= 0) {
+                return false;
+            }
+        }
+        return head.flip().equals(ByteBuffer.wrap(SEPARATOR));
+    }
+
+    private EmailMessage parseSafely(Entry entry) {
+        EmailMessage message = parsed.get(entry.contentHash());
+        if (message != null) {
+            return message;
+        }
+        try {
+            CachedMessageParser.Parsed result = parser.parse(
+                    parsedEmailCache.keyForContentHash(entry.contentHash()),
+                    () -> emailParsingService.parseEmail(
+                            mboxFile, mboxFile.getFileName().toString(), entry.offset(), entry.length()));
+            if (!result.deadlineExceeded()) {
+                // A parse the deadline cut short is not remembered, so the next re-index parses it again
+                parsed.put(entry.contentHash(), result.message());
+            }
+            return result.message();
+        } catch (Exception e) {
+            log.warn("Failed to parse message at offset {} of mbox file: {}", entry.offset(), mboxFile, e);
+            return null;
+        }
+    }
+
+    /**
+     * One indexed message: the offset of its {@code From } envelope line, and the byte range of the RFC 5322
+     * message that follows it (up to, not including, the next envelope line).
+     */
+    record Entry(long separatorOffset, long offset, long length, String contentHash) {}
+}
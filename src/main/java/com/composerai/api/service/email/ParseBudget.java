@@ -0,0 +1,287 @@
+package com.composerai.api.service.email;
+
+import com.composerai.api.config.AppProperties;
+import io.micrometer.core.instrument.Metrics;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Node;
+import org.jsoup.select.NodeFilter;
+import org.jsoup.select.NodeTraversor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Work limits for parsing one email, so a single pathological message cannot pin a core during mailbox load.
+ * <p>
+ * Three kinds of limits apply: the HTML body length ({@link #checkInputSize}), the parsed DOM's depth and node
+ * count ({@link #checkDom}), and a wall-clock deadline for everything that runs inside a {@link Scope}. The
+ * deadline is enforced by a shared watchdog thread that marks the scope expired; DOM walks call
+ * {@link #checkpoint()} and regexes read their input through {@link #guard}, so the work stops at the next
+ * checkpoint instead of running to completion. The watchdog never interrupts the parsing thread: an interrupt
+ * would make file writes made during the parse (inline images) fail and be swallowed as if nothing happened.
+ * Every limit surfaces as a {@link BudgetExceededException}, which callers answer by falling back to plain-text
+ * rendering. Each trip is counted in the {@value #TRIP_METRIC} counter, tagged by reason.
+ * <p>
+ * A scope trips at most once: after the first {@link BudgetExceededException} later checkpoints pass, so the
+ * (linear) fallback rendering can finish under the same scope.
+ *
+ * @author William Callahan
+ * @since 2025-09-18
+ * @version 0.0.2
+ */
+public final class ParseBudget {
+
+    public static final String TRIP_METRIC = "composer.email.parse.budget.trips";
+
+    private static final Logger logger = LoggerFactory.getLogger(ParseBudget.class);
+
+    /** How many guarded {@code charAt} calls pass between deadline checks. */
+    private static final int GUARD_CHECK_INTERVAL = 4096;
+
+    private static final ThreadLocal<Scope> ACTIVE = new ThreadLocal<>();
+
+    private static final ScheduledThreadPoolExecutor WATCHDOG = createWatchdog();
+
+    private final int maxInputChars;
+    private final int maxDomDepth;
+    private final int maxDomNodes;
+    private final Duration deadline;
+
+    public ParseBudget(int maxInputChars, int maxDomDepth, int maxDomNodes, Duration deadline) {
+        if (maxInputChars <= 0 || maxDomDepth <= 0 || maxDomNodes <= 0 || deadline == null || !deadline.isPositive()) {
+            throw new IllegalArgumentException("Parse budget limits must be positive");
+        }
+        this.maxInputChars = maxInputChars;
+        this.maxDomDepth = maxDomDepth;
+        this.maxDomNodes = maxDomNodes;
+        this.deadline = deadline;
+    }
+
+    public static ParseBudget from(AppProperties.EmailParsing parsing) {
+        return new ParseBudget(
+                parsing.getBudgetMaxInputChars(),
+                parsing.getBudgetMaxDomDepth(),
+                parsing.getBudgetMaxDomNodes(),
+                parsing.getBudgetDeadline());
+    }
+
+    public int maxInputChars() {
+        return maxInputChars;
+    }
+
+    /**
+     * Starts the deadline for the calling thread. When a scope is already active on this thread the returned
+     * scope shares its deadline and closing it does nothing, so nested stages run under one budget.
+     */
+    public Scope start() {
+        Scope active = ACTIVE.get();
+        if (active != null) {
+            return active.nested();
+        }
+        Scope scope = new Scope(null);
+        ACTIVE.set(scope);
+        scope.watchdog = WATCHDOG.schedule(scope::expire, deadline.toNanos(), TimeUnit.NANOSECONDS);
+        return scope;
+    }
+
+    /**
+     * @throws BudgetExceededException when {@code length} exceeds the input limit
+     */
+    public void checkInputSize(int length) {
+        if (length > maxInputChars) {
+            throw trip(Reason.INPUT_SIZE, length + " chars > " + maxInputChars);
+        }
+    }
+
+    /**
+     * Walks {@code document} once, stopping at the first node beyond either DOM limit.
+     *
+     * @throws BudgetExceededException when the DOM is deeper or larger than allowed
+     */
+    void checkDom(Document document) {
+        DomMeter meter = new DomMeter();
+        NodeTraversor.filter(meter, document);
+        if (meter.exceeded != null) {
+            String detail = meter.exceeded == Reason.DOM_DEPTH ? "depth > " + maxDomDepth : "nodes > " + maxDomNodes;
+            throw trip(meter.exceeded, detail);
+        }
+    }
+
+    /**
+     * Throws once the active scope's deadline has passed; a no-op outside a scope and after the scope tripped.
+     *
+     * @throws BudgetExceededException when the deadline passed since the last checkpoint
+     */
+    static void checkpoint() {
+        Scope scope = ACTIVE.get();
+        if (scope != null) {
+            scope.checkpoint();
+        }
+    }
+
+    /**
+     * Wraps regex input so a runaway match hits a {@link #checkpoint()} every few thousand characters read.
+     * Returns {@code input} itself when no scope is active.
+     */
+    static CharSequence guard(CharSequence input) {
+        Scope scope = ACTIVE.get();
+        return scope == null || input == null ? input : new GuardedCharSequence(input, scope);
+    }
+
+    private static BudgetExceededException trip(Reason reason, String detail) {
+        Metrics.counter(TRIP_METRIC, "reason", reason.tag()).increment();
+        logger.warn("Email parse budget exceeded ({}): {}; falling back to plain text", reason.tag(), detail);
+        return new BudgetExceededException(reason, detail);
+    }
+
+    private static ScheduledThreadPoolExecutor createWatchdog() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(
+                1, Thread.ofPlatform().name("parse-budget-watchdog").daemon(true).factory());
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    public enum Reason {
+        INPUT_SIZE,
+        DOM_DEPTH,
+        DOM_NODES,
+        DEADLINE;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Thrown when a parse runs out of budget; callers render the message as plain text instead.
+     */
+    public static class BudgetExceededException extends RuntimeException {
+        private final Reason reason;
+
+        public BudgetExceededException(Reason reason, String detail) {
+            super("Email parse budget exceeded (" + reason.tag() + "): " + detail, null, false, false);
+            this.reason = reason;
+        }
+
+        public Reason reason() {
+            return reason;
+        }
+    }
+
+    /**
+     * The deadline for one parse on one thread. Close it in a try-with-resources block.
+     */
+    public static final class Scope implements AutoCloseable {
+        private final Scope outer;
+        private volatile boolean expired;
+        private boolean tripped;
+        private boolean closed;
+        private ScheduledFuture<?> watchdog;
+
+        private Scope(Scope outer) {
+            this.outer = outer;
+        }
+
+        private Scope nested() {
+            return new Scope(this);
+        }
+
+        /**
+         * Whether the deadline passed during this parse, whether or not a checkpoint noticed it. Such a result
+         * depends on machine load rather than on the message, so it must not be cached; size and DOM trips are
+         * deterministic and do not count.
+         */
+        public boolean deadlineExceeded() {
+            Scope root = outer != null ? outer : this;
+            return root.tripped || root.expired;
+        }
+
+        private synchronized void expire() {
+            if (!closed) {
+                expired = true;
+            }
+        }
+
+        private void checkpoint() {
+            if (expired && !tripped) {
+                tripped = true;
+                throw trip(Reason.DEADLINE, "no result within the parse deadline");
+            }
+        }
+
+        @Override
+        public void close() {
+            if (outer != null) {
+                return;
+            }
+            watchdog.cancel(false);
+            synchronized (this) {
+                closed = true;
+            }
+            ACTIVE.remove();
+        }
+    }
+
+    private final class DomMeter implements NodeFilter {
+        private int nodes;
+        private Reason exceeded;
+
+        @Override
+        public FilterResult head(Node node, int depth) {
+            if (depth > maxDomDepth) {
+                exceeded = Reason.DOM_DEPTH;
+                return FilterResult.STOP;
+            }
+            if (++nodes > maxDomNodes) {
+                exceeded = Reason.DOM_NODES;
+                return FilterResult.STOP;
+            }
+            return FilterResult.CONTINUE;
+        }
+
+        @Override
+        public FilterResult tail(Node node, int depth) {
+            return FilterResult.CONTINUE;
+        }
+    }
+
+    /** Regex input view that checks the deadline every {@link #GUARD_CHECK_INTERVAL} reads. */
+    private static final class GuardedCharSequence implements CharSequence {
+        private final CharSequence delegate;
+        private final Scope scope;
+        private int reads;
+
+        GuardedCharSequence(CharSequence delegate, Scope scope) {
+            this.delegate = delegate;
+            this.scope = scope.outer != null ? scope.outer : scope;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (++reads == GUARD_CHECK_INTERVAL) {
+                reads = 0;
+                scope.checkpoint();
+            }
+            return delegate.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return delegate.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new GuardedCharSequence(delegate.subSequence(start, end), scope);
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+}
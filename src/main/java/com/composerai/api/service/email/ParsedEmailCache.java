@@ -0,0 +1,218 @@
+package com.composerai.api.service.email;
+
+import com.composerai.api.config.AppProperties;
+import com.composerai.api.model.EmailMessage;
+import com.composerai.api.util.StringUtils;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Content-addressed cache of parse results for mailbox files, kept in memory and on local disk.
+ * <p>
+ * Entries are keyed by the SHA-256 of the raw file plus a fingerprint of everything that shapes parse output
+ * ({@link #PARSER_VERSION}, render mode, body byte budgets, {@link ParseBudget} size limits, and the inline-image
+ * size limit and directory that cached HTML's image links depend on). Changing any of those moves lookups to a
+ * fresh fingerprint directory, so stale entries are simply never read again. Disk entries use
+ * {@link ParsedEmailCodec} and are written atomically; unreadable entries are discarded and treated as misses.
+ * Results that {@link ParseBudget}'s deadline cut short are never stored (callers check
+ * {@code ParsedEmail#parseDeadlineExceeded()}), since a retry on a quieter machine may render them in full.
+ * File digests are memoized by path, size and modification time so unchanged files are not rehashed within a
+ * process lifetime.
+ *
+ * @author William Callahan
+ * @since 2025-09-18
+ * @version 0.0.1
+ */
+@Slf4j
+@Component
+public class ParsedEmailCache {
+
+    /**
+     * Bump whenever extraction, conversion, cleanup, sanitizing, preview, segmentation or inline-image output
+     * changes.
+     */
+    public static final int PARSER_VERSION = 4;
+
+    private static final int MAX_MEMORY_ENTRIES = 4096;
+    private static final int SHARD_PREFIX_LENGTH = 2;
+    private static final String ENTRY_SUFFIX = ".bin";
+    private static final int DIRECTORY_TAG_BYTES = 4;
+
+    private final AppProperties appProperties;
+    private final ConcurrentMap<String, EmailMessage> memory = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Path, FileStamp> stamps = new ConcurrentHashMap<>();
+
+    public ParsedEmailCache(AppProperties appProperties) {
+        this.appProperties = appProperties;
+    }
+
+    /**
+     * Content key for a mailbox file; only rehashes when the file's size or modification time changed.
+     */
+    public Key keyFor(Path file) throws IOException {
+        long size = Files.size(file);
+        FileTime modified = Files.getLastModifiedTime(file);
+        FileStamp stamp = stamps.get(file);
+        if (stamp == null || stamp.size() != size || !stamp.modified().equals(modified)) {
+            stamp = new FileStamp(size, modified, sha256(file));
+            stamps.put(file, stamp);
+        }
+        return new Key(stamp.contentHash(), fingerprint());
+    }
+
+    /**
+     * Content key for a message whose SHA-256 the caller already computed, e.g. while scanning it out of an
+     * mbox archive; see {@link #newSha256()}.
+     */
+    public Key keyForContentHash(String contentHash) {
+        return new Key(contentHash, fingerprint());
+    }
+
+    public Optional<EmailMessage> lookup(Key key) {
+        if (!enabled()) {
+            return Optional.empty();
+        }
+        EmailMessage cached = memory.get(key.memoryKey());
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Path entry = entryPath(key);
+        try {
+            EmailMessage decoded = ParsedEmailCodec.decode(Files.readAllBytes(entry), key.fingerprint());
+            remember(key, decoded);
+            return Optional.of(decoded);
+        } catch (NoSuchFileException missing) {
+            return Optional.empty();
+        } catch (IOException | RuntimeException e) {
+            log.debug("Discarding unreadable parse cache entry {}: {}", entry, e.getMessage());
+            deleteQuietly(entry);
+            return Optional.empty();
+        }
+    }
+
+    public void store(Key key, EmailMessage message) {
+        if (!enabled() || message == null) {
+            return;
+        }
+        remember(key, message);
+        Path entry = entryPath(key);
+        Path temp = null;
+        try {
+            Files.createDirectories(entry.getParent());
+            temp = Files.createTempFile(entry.getParent(), key.contentHash(), ".tmp");
+            Files.write(temp, ParsedEmailCodec.encode(key.fingerprint(), message));
+            Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to persist parse cache entry {}", entry, e);
+            if (temp != null) {
+                deleteQuietly(temp);
+            }
+        }
+    }
+
+    private boolean enabled() {
+        return appProperties.getEmailParsing().isCacheEnabled();
+    }
+
+    private void remember(Key key, EmailMessage message) {
+        if (memory.size() < MAX_MEMORY_ENTRIES || memory.containsKey(key.memoryKey())) {
+            memory.put(key.memoryKey(), message);
+        }
+    }
+
+    private Path entryPath(Key key) {
+        String hash = key.contentHash();
+        return Path.of(appProperties.getEmailParsing().getCacheDirectory())
+                .resolve(key.fingerprint())
+                .resolve(hash.substring(0, SHARD_PREFIX_LENGTH))
+                .resolve(hash + ENTRY_SUFFIX);
+    }
+
+    private String fingerprint() {
+        AppProperties.EmailParsing parsing = appProperties.getEmailParsing();
+        AppProperties.EmailRendering rendering = appProperties.getEmailRendering();
+        AppProperties.EmailRenderMode mode = rendering != null && rendering.getMode() != null
+                ? rendering.getMode()
+                : AppProperties.EmailRenderMode.HTML;
+        boolean minified = rendering != null && rendering.isMinifyHtml();
+        return "v" + PARSER_VERSION
+                + "-" + mode.name().toLowerCase(Locale.ROOT)
+                + (minified ? "-min" : "")
+                + "-" + parsing.getMaxHtmlPartSize().toBytes()
+                + "-" + parsing.getMaxTextPartSize().toBytes()
+                + "-" + parsing.getBudgetMaxInputChars()
+                + "." + parsing.getBudgetMaxDomDepth()
+                + "." + parsing.getBudgetMaxDomNodes()
+                + "-img" + parsing.getMaxInlineImageSize().toBytes()
+                + "." + directoryTag(parsing.getInlineImageDirectory());
+    }
+
+    /** Short, path-safe stand-in for a directory in the fingerprint (which is itself a directory name). */
+    private static String directoryTag(String directory) {
+        if (StringUtils.isBlank(directory)) {
+            return "none";
+        }
+        String normalized = Path.of(directory).toAbsolutePath().normalize().toString();
+        byte[] digest = newSha256().digest(normalized.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest, 0, DIRECTORY_TAG_BYTES);
+    }
+
+    /** A fresh digest of the kind content hashes are made with; hex-encode its result for {@link Key}. */
+    static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest = newSha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignore) {
+            // best effort; a later store overwrites the entry anyway
+        }
+    }
+
+    /**
+     * Content hash of a mailbox file plus the parse-output fingerprint it is valid for.
+     */
+    public record Key(String contentHash, String fingerprint) {
+        public Key {
+            if (StringUtils.isBlank(contentHash) || StringUtils.isBlank(fingerprint)) {
+                throw new IllegalArgumentException("Parse cache keys require a content hash and fingerprint");
+            }
+        }
+
+        private String memoryKey() {
+            return fingerprint + ':' + contentHash;
+        }
+    }
+
+    private record FileStamp(long size, FileTime modified, String contentHash) {}
+}
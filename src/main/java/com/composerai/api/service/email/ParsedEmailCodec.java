@@ -0,0 +1,108 @@
+package com.composerai.api.service.email;
+
+import com.composerai.api.model.EmailBodySegments;
+import com.composerai.api.model.EmailMessage;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+
+/**
+ * Compact binary form of the parse-derived {@link EmailMessage} fields kept by {@link ParsedEmailCache}.
+ * <p>
+ * Entries are a {@link FieldTable}: the cache fingerprint and each field under a fixed tag, with large bodies
+ * deflated individually. The fingerprint is checked before any body is inflated, so a stale entry is rejected
+ * cheaply. Only fields produced by parsing are stored; sender branding, labels and read/starred state are
+ * owned elsewhere and re-applied on load. The display date is the header-derived label and the AI context is
+ * not stored, since both would carry a relative time that goes stale; see
+ * {@code EmailParsingService#dehydrate}. Earlier format versions (a single gzip stream, then entries with those
+ * stale fields) read as corrupt, i.e. as cache misses.
+ *
+ * @author William Callahan
+ * @since 2025-09-18
+ * @version 0.0.3
+ */
+final class ParsedEmailCodec {
+
+    private static final int MAGIC = 0x43504543; // "CPEC"
+    private static final int FORMAT_VERSION = 3;
+
+    private static final int FINGERPRINT = 0;
+    private static final int ID = 1;
+    private static final int CONTEXT_ID = 2;
+    private static final int SENDER_NAME = 3;
+    private static final int SENDER_EMAIL = 4;
+    private static final int RECIPIENT_NAME = 5;
+    private static final int RECIPIENT_EMAIL = 6;
+    private static final int SUBJECT = 7;
+    private static final int BODY_RAW = 8;
+    private static final int BODY_TEXT = 9;
+    private static final int BODY_MARKDOWN = 10;
+    private static final int BODY_HTML = 11;
+    private static final int RECEIVED_ISO = 12;
+    private static final int RECEIVED_DISPLAY = 13;
+    private static final int PREVIEW = 14;
+    // 15 held the AI context up to format version 2
+    private static final int BODY_SEGMENTS = 16;
+
+    private ParsedEmailCodec() {}
+
+    static byte[] encode(String fingerprint, EmailMessage message) {
+        return FieldTable.writer(MAGIC, FORMAT_VERSION)
+                .put(FINGERPRINT, fingerprint)
+                .put(ID, message.id())
+                .put(CONTEXT_ID, message.contextId())
+                .put(SENDER_NAME, message.senderName())
+                .put(SENDER_EMAIL, message.senderEmail())
+                .put(RECIPIENT_NAME, message.recipientName())
+                .put(RECIPIENT_EMAIL, message.recipientEmail())
+                .put(SUBJECT, message.subject())
+                .put(BODY_RAW, message.emailBodyRaw())
+                .put(BODY_TEXT, message.emailBodyTransformedText())
+                .put(BODY_MARKDOWN, message.emailBodyTransformedMarkdown())
+                .put(BODY_HTML, message.emailBodyHtml())
+                .put(RECEIVED_ISO, message.receivedTimestampIso())
+                .put(RECEIVED_DISPLAY, message.receivedTimestampDisplay())
+                .put(PREVIEW, message.preview())
+                .put(BODY_SEGMENTS, message.bodySegments() == null ? null : message.bodySegments().encode())
+                .toByteArray();
+    }
+
+    /**
+     * Decodes an entry written by {@link #encode}; throws when the bytes are corrupt or were written for a
+     * different fingerprint, so callers can treat the entry as a miss.
+     */
+    static EmailMessage decode(byte[] data, String expectedFingerprint) throws IOException {
+        FieldTable.Reader in = FieldTable.read(data, MAGIC, FORMAT_VERSION);
+        String fingerprint = in.string(FINGERPRINT);
+        if (!expectedFingerprint.equals(fingerprint)) {
+            throw new StreamCorruptedException("Parse cache entry fingerprint mismatch: " + fingerprint);
+        }
+        return EmailMessage.builder()
+                .id(in.string(ID))
+                .contextId(in.string(CONTEXT_ID))
+                .senderName(in.string(SENDER_NAME))
+                .senderEmail(in.string(SENDER_EMAIL))
+                .recipientName(in.string(RECIPIENT_NAME))
+                .recipientEmail(in.string(RECIPIENT_EMAIL))
+                .subject(in.string(SUBJECT))
+                .emailBodyRaw(in.string(BODY_RAW))
+                .emailBodyTransformedText(in.string(BODY_TEXT))
+                .emailBodyTransformedMarkdown(in.string(BODY_MARKDOWN))
+                .emailBodyHtml(in.string(BODY_HTML))
+                .receivedTimestampIso(in.string(RECEIVED_ISO))
+                .receivedTimestampDisplay(in.string(RECEIVED_DISPLAY))
+                .preview(in.string(PREVIEW))
+                .bodySegments(segments(in.string(BODY_SEGMENTS)))
+                .build();
+    }
+
+    private static EmailBodySegments segments(String encoded) throws StreamCorruptedException {
+        if (encoded == null) {
+            return null;
+        }
+        try {
+            return EmailBodySegments.decode(encoded);
+        } catch (IllegalArgumentException e) {
+            throw new StreamCorruptedException("Corrupt body segments: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.composerai.api.service.email;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Typed result of a single pass through {@link EmailPipeline}.
+ * <p>
+ * In-process callers (mailbox hydration, QA uploads) consume this record directly; JSON is only
+ * produced when the CLI or an HTTP response serializes it. The component names mirror the JSON
+ * document shape so existing consumers of {@code --json true} output see the same keys.
+ * <p>
+ * {@code htmlDocument} carries the parse-once HTML IR to in-process consumers (the display
+ * sanitizer) and is never serialized; it is null for plain-text messages and deserialized documents.
+ *
+ * @author William Callahan
+ * @since 2025-09-18
+ * @version 0.0.2
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ParsedEmailDocument(
+        String id,
+        Metadata metadata,
+        Content content,
+        CleanupPolicies cleanupPolicies,
+        String createdAt,
+        @JsonIgnore EmailHtmlDocument htmlDocument) {
+
+    public ParsedEmailDocument {
+        metadata = metadata == null ? Metadata.empty() : metadata;
+        content = content == null ? new Content("", "", null) : content;
+    }
+
+    /**
+     * Parsed original HTML, reusing the pipeline's parse when available.
+     */
+    public EmailHtmlDocument resolveHtmlDocument() {
+        return htmlDocument != null ? htmlDocument : EmailHtmlDocument.parse(content.originalHtml());
+    }
+
+    /**
+     * Header-derived metadata. Blank strings mean the header was present but empty; null means the
+     * source type (for example a raw HTML file) never carries the field.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Metadata(
+            String messageId,
+            String subject,
+            String from,
+            String to,
+            String cc,
+            String date,
+            String dateIso,
+            String dateHeader,
+            String dateSource,
+            String source,
+            String path) {
+
+        static Metadata empty() {
+            return new Metadata(null, null, null, null, null, null, null, null, null, null, null);
+        }
+
+        static Metadata forHtmlFile(String path) {
+            return new Metadata(null, null, null, null, null, null, null, null, null, "html-file", path);
+        }
+    }
+
+    /**
+     * Converted bodies. {@code originalHtml} is null for plain-text messages.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Content(String plainText, String markdown, String originalHtml) {
+        public Content {
+            plainText = plainText == null ? "" : plainText;
+            markdown = markdown == null ? "" : markdown;
+        }
+    }
+
+    /**
+     * Conversion policies applied while producing {@link Content}; recorded for traceability.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record CleanupPolicies(
+            boolean flattenTables,
+            boolean stripScripts,
+            String urlsPolicy,
+            Boolean metadataIncluded,
+            boolean suppressUtility) {}
+}
@@ -0,0 +1,162 @@
+package com.composerai.api.service.email;
+
+import java.io.IOException;
+
+/**
+ * Versioned binary encoding of {@link ParsedEmailDocument} for persistence, the compact alternative to its JSON
+ * form. The CLI writes it with {@code --binary true} (see {@code HtmlToText#convertToBinary}).
+ * <p>
+ * The schema is {@link Field}: every component of the document under a fixed tag, written as a
+ * {@link FieldTable} so each value is length-prefixed, keys are never repeated, and the bodies (plain text,
+ * Markdown, original HTML) are deflated individually once they are large enough to benefit. Because the table
+ * has a directory up front, {@link #decodeMetadata} and {@link #readField} read headers without inflating or
+ * even copying the bodies. The parse-once {@code htmlDocument} is in-process only and is not encoded.
+ * <p>
+ * New fields get new tags and are read as null from older entries; removing or retyping a field means a new
+ * tag, never reusing an old one.
+ *
+ * @author William Callahan
+ * @since 2025-09-18
+ * @version 0.0.1
+ */
+public final class ParsedEmailDocumentCodec {
+
+    private static final int MAGIC = 0x43504544; // "CPED"
+    private static final int FORMAT_VERSION = 1;
+
+    /** The document schema: one tag per encoded component. Tags are permanent. */
+    public enum Field {
+        ID(1),
+        CREATED_AT(2),
+        MESSAGE_ID(10),
+        SUBJECT(11),
+        FROM(12),
+        TO(13),
+        CC(14),
+        DATE(15),
+        DATE_ISO(16),
+        DATE_HEADER(17),
+        DATE_SOURCE(18),
+        SOURCE(19),
+        PATH(20),
+        PLAIN_TEXT(30),
+        MARKDOWN(31),
+        ORIGINAL_HTML(32),
+        FLATTEN_TABLES(40),
+        STRIP_SCRIPTS(41),
+        URLS_POLICY(42),
+        METADATA_INCLUDED(43),
+        SUPPRESS_UTILITY(44);
+
+        private final int tag;
+
+        Field(int tag) {
+            this.tag = tag;
+        }
+    }
+
+    private ParsedEmailDocumentCodec() {}
+
+    public static byte[] encode(ParsedEmailDocument document) {
+        FieldTable.Writer out = FieldTable.writer(MAGIC, FORMAT_VERSION);
+        put(out, Field.ID, document.id());
+        put(out, Field.CREATED_AT, document.createdAt());
+
+        ParsedEmailDocument.Metadata metadata = document.metadata();
+        put(out, Field.MESSAGE_ID, metadata.messageId());
+        put(out, Field.SUBJECT, metadata.subject());
+        put(out, Field.FROM, metadata.from());
+        put(out, Field.TO, metadata.to());
+        put(out, Field.CC, metadata.cc());
+        put(out, Field.DATE, metadata.date());
+        put(out, Field.DATE_ISO, metadata.dateIso());
+        put(out, Field.DATE_HEADER, metadata.dateHeader());
+        put(out, Field.DATE_SOURCE, metadata.dateSource());
+        put(out, Field.SOURCE, metadata.source());
+        put(out, Field.PATH, metadata.path());
+
+        ParsedEmailDocument.CleanupPolicies policies = document.cleanupPolicies();
+        if (policies != null) {
+            put(out, Field.FLATTEN_TABLES, Boolean.toString(policies.flattenTables()));
+            put(out, Field.STRIP_SCRIPTS, Boolean.toString(policies.stripScripts()));
+            put(out, Field.URLS_POLICY, policies.urlsPolicy());
+            put(out, Field.METADATA_INCLUDED, toString(policies.metadataIncluded()));
+            put(out, Field.SUPPRESS_UTILITY, Boolean.toString(policies.suppressUtility()));
+        }
+
+        // bodies last, so the headers sit together at the front of the payload
+        ParsedEmailDocument.Content content = document.content();
+        put(out, Field.PLAIN_TEXT, content.plainText());
+        put(out, Field.MARKDOWN, content.markdown());
+        put(out, Field.ORIGINAL_HTML, content.originalHtml());
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a whole document. {@code htmlDocument} is null; {@link ParsedEmailDocument#resolveHtmlDocument()}
+     * re-parses {@code originalHtml} when needed.
+     *
+     * @throws java.io.StreamCorruptedException when the bytes are not a document of this format version
+     */
+    public static ParsedEmailDocument decode(byte[] data) throws IOException {
+        FieldTable.Reader in = FieldTable.read(data, MAGIC, FORMAT_VERSION);
+        return new ParsedEmailDocument(
+                read(in, Field.ID),
+                metadata(in),
+                new ParsedEmailDocument.Content(
+                        read(in, Field.PLAIN_TEXT), read(in, Field.MARKDOWN), read(in, Field.ORIGINAL_HTML)),
+                policies(in),
+                read(in, Field.CREATED_AT),
+                null);
+    }
+
+    /** Decodes only the header-derived metadata; bodies are neither inflated nor copied. */
+    public static ParsedEmailDocument.Metadata decodeMetadata(byte[] data) throws IOException {
+        return metadata(FieldTable.read(data, MAGIC, FORMAT_VERSION));
+    }
+
+    /** Decodes a single field, or null when it is absent. */
+    public static String readField(byte[] data, Field field) throws IOException {
+        return read(FieldTable.read(data, MAGIC, FORMAT_VERSION), field);
+    }
+
+    private static ParsedEmailDocument.Metadata metadata(FieldTable.Reader in) throws IOException {
+        return new ParsedEmailDocument.Metadata(
+                read(in, Field.MESSAGE_ID),
+                read(in, Field.SUBJECT),
+                read(in, Field.FROM),
+                read(in, Field.TO),
+                read(in, Field.CC),
+                read(in, Field.DATE),
+                read(in, Field.DATE_ISO),
+                read(in, Field.DATE_HEADER),
+                read(in, Field.DATE_SOURCE),
+                read(in, Field.SOURCE),
+                read(in, Field.PATH));
+    }
+
+    private static ParsedEmailDocument.CleanupPolicies policies(FieldTable.Reader in) throws IOException {
+        if (!in.contains(Field.FLATTEN_TABLES.tag)) {
+            return null;
+        }
+        String metadataIncluded = read(in, Field.METADATA_INCLUDED);
+        return new ParsedEmailDocument.CleanupPolicies(
+                Boolean.parseBoolean(read(in, Field.FLATTEN_TABLES)),
+                Boolean.parseBoolean(read(in, Field.STRIP_SCRIPTS)),
+                read(in, Field.URLS_POLICY),
+                metadataIncluded == null ? null : Boolean.valueOf(metadataIncluded),
+                Boolean.parseBoolean(read(in, Field.SUPPRESS_UTILITY)));
+    }
+
+    private static void put(FieldTable.Writer out, Field field, String value) {
+        out.put(field.tag, value);
+    }
+
+    private static String read(FieldTable.Reader in, Field field) throws IOException {
+        return in.string(field.tag);
+    }
+
+    private static String toString(Boolean value) {
+        return value == null ? null : value.toString();
+    }
+}
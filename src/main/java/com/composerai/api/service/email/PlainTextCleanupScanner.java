@@ -0,0 +1,451 @@
+package com.composerai.api.service.email;
+
+import java.util.Arrays;
+
+/**
+ * Hand-written scanners behind {@link HtmlConverter#cleanupOutput} and {@link HtmlConverter#markdownToPlain}.
+ * <p>
+ * Both produce exactly what the former chain of {@code replaceAll}/{@code split}/{@code matches} calls
+ * produced, but walk the input left to right with one output buffer per call: no regex compilation, no
+ * per-line substrings, and no per-line lowercase copies. The rare inputs that carry zero-width characters
+ * or {@code <script>} blocks take a pre-pass; everything else is read straight from the caller's string.
+ * <p>
+ * Regex parity notes: {@code \s} means {@code [ \t\n\x0B\f\r]}, case-insensitive tag matching is ASCII-only,
+ * and line trimming follows {@link String#trim()} (every char {@code <= ' '}).
+ *
+ * @author William Callahan
+ * @since 2025-09-18
+ * @version 0.0.1
+ */
+final class PlainTextCleanupScanner {
+
+    private static final int SEPARATOR_MIN_LENGTH = 50;
+    private static final int SPACE_RUN_COLLAPSE_THRESHOLD = 10;
+    private static final int MAX_BLANK_LINES = 2;
+    private static final int MAX_HEADING_LEVEL = 6;
+    private static final String EMPTY_LINK_STUB = "You can or .";
+    private static final String SCRIPT_OPEN = "<script";
+    private static final String SCRIPT_CLOSE = "</script>";
+    private static final String BYLINE = "*By";
+    private static final String BYLINE_BREAK = "\n\n";
+
+    /** Lines containing any of these (case-insensitively) are dropped when utility suppression is on. */
+    private static final String[] UTILITY_LINE_PHRASES = {
+        "you are receiving this email because",
+        "email marketing powered by mailchimp",
+        "want to change how you receive these emails",
+        "our mailing address is:",
+        "unsubscribe",
+        "update your preferences"
+    };
+
+    private static final int ASCII_LIMIT = 128;
+    private static final boolean[] UTILITY_PHRASE_INITIALS = new boolean[ASCII_LIMIT];
+    private static final int SHORTEST_UTILITY_PHRASE;
+
+    static {
+        int shortest = Integer.MAX_VALUE;
+        for (String phrase : UTILITY_LINE_PHRASES) {
+            char initial = phrase.charAt(0);
+            UTILITY_PHRASE_INITIALS[initial] = true;
+            UTILITY_PHRASE_INITIALS[Character.toUpperCase(initial)] = true;
+            shortest = Math.min(shortest, phrase.length());
+        }
+        SHORTEST_UTILITY_PHRASE = shortest;
+    }
+
+    private PlainTextCleanupScanner() {}
+
+    static String cleanupOutput(String content, boolean suppressUtility) {
+        if (content == null || content.isBlank()) return content;
+        String src = stripInvisibleAndScripts(content);
+        int len = src.length();
+        // Every kept line is at most its source span plus one LF; only byline breaks can grow past that.
+        char[] out = new char[len + 1];
+        int outLen = 0;
+
+        int pos = 0;
+        int blankRun = 0;
+        int nextNewline = src.indexOf('\n');
+        int nextTag = src.indexOf('<');
+        while (true) {
+            int lineStart = pos;
+            if (nextNewline >= 0 && nextNewline < pos) nextNewline = src.indexOf('\n', pos);
+            if (nextTag >= 0 && nextTag < pos) nextTag = src.indexOf('<', pos);
+
+            // A line ends at the next LF or at the next <br> tag, whichever comes first.
+            int terminator = nextNewline;
+            int next = nextNewline + 1;
+            while (nextTag >= 0 && (terminator < 0 || nextTag < terminator)) {
+                int breakEnd = matchBreakTag(src, nextTag, len);
+                if (breakEnd >= 0) {
+                    terminator = nextTag;
+                    next = breakEnd;
+                    break;
+                }
+                nextTag = src.indexOf('<', nextTag + 1);
+            }
+            int lineEnd = terminator < 0 ? len : terminator;
+            if (terminator >= 0 && lineEnd > lineStart && src.charAt(lineEnd - 1) == '\r') lineEnd--;
+
+            int trimStart = lineStart;
+            int trimEnd = lineEnd;
+            while (trimStart < trimEnd && src.charAt(trimStart) <= ' ') trimStart++;
+            while (trimEnd > trimStart && src.charAt(trimEnd - 1) <= ' ') trimEnd--;
+
+            boolean dropped = isSeparatorLine(src, trimStart, trimEnd)
+                    || (suppressUtility
+                            && (isEmptyLinkStub(src, trimStart, trimEnd)
+                                    || containsUtilityPhrase(src, trimStart, trimEnd)));
+            if (!dropped) {
+                if (trimStart == trimEnd) {
+                    blankRun++;
+                } else {
+                    blankRun = 0;
+                }
+                if (blankRun <= MAX_BLANK_LINES) {
+                    outLen = appendCollapsingSpaceRuns(out, outLen, src, lineStart, lineEnd);
+                    out[outLen++] = '\n';
+                }
+            }
+
+            if (terminator < 0) break;
+            pos = next;
+        }
+
+        int start = 0;
+        int end = outLen;
+        while (start < end && out[start] <= ' ') start++;
+        while (end > start && out[end - 1] <= ' ') end--;
+        end = joinCommaLines(out, start, end);
+        int bylines = countBylines(out, start, end);
+        if (bylines == 0) return new String(out, start, end - start);
+        int expandedEnd = end + bylines * BYLINE_BREAK.length();
+        if (out.length < expandedEnd) out = Arrays.copyOf(out, expandedEnd);
+        breakBeforeBylines(out, start, end, expandedEnd);
+        return new String(out, start, expandedEnd - start);
+    }
+
+    static String markdownToPlain(String md) {
+        if (md == null || md.isBlank()) return md;
+        char[] buf = md.toCharArray();
+        int len = buf.length;
+        if (md.indexOf('[') >= 0) {
+            len = unwrapImages(buf, len);
+            len = unwrapLinks(buf, len);
+        }
+
+        // Streaming pass: heading markers at line starts, emphasis chars, hard breaks, blank-line runs.
+        int w = 0;
+        char prev = 0;
+        int r = 0;
+        while (r < len) {
+            if (isLineStart(buf, r, len, prev)) {
+                int hashes = 0;
+                while (hashes < MAX_HEADING_LEVEL && r + hashes < len && buf[r + hashes] == '#') hashes++;
+                if (hashes > 0) {
+                    int skipEnd = r + hashes;
+                    while (skipEnd < len && isRegexSpace(buf[skipEnd])) skipEnd++;
+                    prev = buf[skipEnd - 1];
+                    r = skipEnd;
+                    continue;
+                }
+            }
+            char c = buf[r];
+            prev = c;
+            r++;
+            if (c == '*' || c == '_' || c == '`' || c == '~') continue;
+            if (c == '\n') {
+                if (w >= 2 && buf[w - 1] == ' ' && buf[w - 2] == ' ') w -= 2;
+                if (w >= 2 && buf[w - 1] == '\n' && buf[w - 2] == '\n') continue;
+            }
+            buf[w++] = c;
+        }
+
+        int start = 0;
+        while (start < w && buf[start] <= ' ') start++;
+        while (w > start && buf[w - 1] <= ' ') w--;
+        return new String(buf, start, w - start);
+    }
+
+    private static String stripInvisibleAndScripts(String content) {
+        String normalized = content;
+        for (int i = 0; i < content.length(); i++) {
+            if (isInvisible(content.charAt(i))) {
+                normalized = removeInvisible(content, i);
+                break;
+            }
+        }
+        int scriptStart = indexOfIgnoreCase(normalized, SCRIPT_OPEN, 0);
+        return scriptStart < 0 ? normalized : replaceScriptBlocks(normalized, scriptStart);
+    }
+
+    private static boolean isInvisible(char c) {
+        return c == '\u200B' || c == '\u200C' || c == '\u200D' || c == '\uFEFF' || c == '\u2060' || c == '\u00AD';
+    }
+
+    private static String removeInvisible(String content, int firstInvisible) {
+        StringBuilder sb = new StringBuilder(content.length());
+        sb.append(content, 0, firstInvisible);
+        for (int i = firstInvisible + 1; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (!isInvisible(c)) sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Equivalent of {@code (?is)<script[^>]*>.*?</script>} → {@code " "}.
+     */
+    private static String replaceScriptBlocks(String src, int firstOpen) {
+        StringBuilder sb = new StringBuilder(src.length());
+        int copied = 0;
+        int open = firstOpen;
+        while (open >= 0) {
+            int tagEnd = src.indexOf('>', open + SCRIPT_OPEN.length());
+            if (tagEnd < 0) break;
+            int close = indexOfIgnoreCase(src, SCRIPT_CLOSE, tagEnd + 1);
+            if (close < 0) break;
+            sb.append(src, copied, open).append(' ');
+            copied = close + SCRIPT_CLOSE.length();
+            open = indexOfIgnoreCase(src, SCRIPT_OPEN, copied);
+        }
+        return sb.append(src, copied, src.length()).toString();
+    }
+
+    /**
+     * Equivalent of {@code (?i)<br\s*\/?>}; returns the index after the match, or -1.
+     */
+    private static int matchBreakTag(String src, int lt, int len) {
+        if (lt + 2 >= len) return -1;
+        char b = src.charAt(lt + 1);
+        char r = src.charAt(lt + 2);
+        if ((b != 'b' && b != 'B') || (r != 'r' && r != 'R')) return -1;
+        int i = lt + 3;
+        while (i < len && isRegexSpace(src.charAt(i))) i++;
+        if (i < len && src.charAt(i) == '/') i++;
+        return i < len && src.charAt(i) == '>' ? i + 1 : -1;
+    }
+
+    private static boolean isSeparatorLine(String src, int start, int end) {
+        if (end - start < SEPARATOR_MIN_LENGTH) return false;
+        for (int i = start; i < end; i++) {
+            char c = src.charAt(i);
+            if (c != '-' && c != '|' && c != '_' && !isRegexSpace(c)) return false;
+        }
+        return true;
+    }
+
+    private static boolean isEmptyLinkStub(String src, int start, int end) {
+        return end - start == EMPTY_LINK_STUB.length() && src.startsWith(EMPTY_LINK_STUB, start);
+    }
+
+    private static boolean containsUtilityPhrase(String src, int start, int end) {
+        int lastCandidate = end - SHORTEST_UTILITY_PHRASE;
+        for (int i = start; i <= lastCandidate; i++) {
+            char c = src.charAt(i);
+            // Only ASCII letters lowercase to a phrase initial, so everything else is skipped without lowering.
+            if (c >= ASCII_LIMIT || !UTILITY_PHRASE_INITIALS[c]) continue;
+            char lower = lowerForMatch(c);
+            for (String phrase : UTILITY_LINE_PHRASES) {
+                if (phrase.charAt(0) == lower && matchesLowercase(src, i, end, phrase)) return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchesLowercase(String src, int at, int end, String phrase) {
+        if (end - at < phrase.length()) return false;
+        for (int j = 1; j < phrase.length(); j++) {
+            if (lowerForMatch(src.charAt(at + j)) != phrase.charAt(j)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Per-char lowercase that agrees with {@link String#toLowerCase} for ASCII phrase matching. U+0130
+     * lowercases to two chars in a String, so it can never complete an ASCII phrase.
+     */
+    private static char lowerForMatch(char c) {
+        if (c < ASCII_LIMIT) return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        return c == '\u0130' ? c : Character.toLowerCase(c);
+    }
+
+    /**
+     * Copies the line into {@code out}, collapsing runs of ten or more spaces to a single space.
+     */
+    private static int appendCollapsingSpaceRuns(char[] out, int outLen, String src, int start, int end) {
+        int copied = start;
+        int i = start;
+        while (i < end) {
+            if (src.charAt(i) != ' ') {
+                i++;
+                continue;
+            }
+            int runEnd = i + 1;
+            while (runEnd < end && src.charAt(runEnd) == ' ') runEnd++;
+            if (runEnd - i >= SPACE_RUN_COLLAPSE_THRESHOLD) {
+                src.getChars(copied, i + 1, out, outLen);
+                outLen += i + 1 - copied;
+                copied = runEnd;
+            }
+            i = runEnd;
+        }
+        src.getChars(copied, end, out, outLen);
+        return outLen + end - copied;
+    }
+
+    /**
+     * In-place equivalent of {@code \n\s*,\s*\n} → {@code ", "}; returns the new end.
+     */
+    private static int joinCommaLines(char[] out, int start, int end) {
+        int w = start;
+        int r = start;
+        while (r < end) {
+            char c = out[r];
+            if (c == '\n') {
+                int comma = r + 1;
+                while (comma < end && isRegexSpace(out[comma])) comma++;
+                if (comma < end && out[comma] == ',') {
+                    int lastNewline = -1;
+                    for (int k = comma + 1; k < end && isRegexSpace(out[k]); k++) {
+                        if (out[k] == '\n') lastNewline = k;
+                    }
+                    if (lastNewline >= 0) {
+                        out[w++] = ',';
+                        out[w++] = ' ';
+                        r = lastNewline + 1;
+                        continue;
+                    }
+                }
+            }
+            out[w++] = c;
+            r++;
+        }
+        return w;
+    }
+
+    private static int countBylines(char[] out, int start, int end) {
+        int matches = 0;
+        for (int i = start; i < end; i++) {
+            if (isBylineAt(out, start, end, i)) matches++;
+        }
+        return matches;
+    }
+
+    /**
+     * In-place equivalent of {@code (?<!\n)\*By\s} → {@code "\n\n*By "} over {@code [start, end)}, writing up
+     * to {@code expandedEnd}. Expands right to left so every lookbehind still reads an original char.
+     */
+    private static void breakBeforeBylines(char[] out, int start, int end, int expandedEnd) {
+        int w = expandedEnd;
+        int r = end;
+        while (r > start && w > r) {
+            int matchStart = r - BYLINE.length() - 1;
+            if (matchStart >= start && isBylineAt(out, start, end, matchStart)) {
+                out[--w] = ' ';
+                for (int k = BYLINE.length() - 1; k >= 0; k--) out[--w] = BYLINE.charAt(k);
+                for (int k = 0; k < BYLINE_BREAK.length(); k++) out[--w] = '\n';
+                r = matchStart;
+            } else {
+                out[--w] = out[--r];
+            }
+        }
+    }
+
+    private static boolean isBylineAt(char[] out, int start, int end, int i) {
+        return i + BYLINE.length() < end
+                && out[i] == '*'
+                && out[i + 1] == 'B'
+                && out[i + 2] == 'y'
+                && isRegexSpace(out[i + BYLINE.length()])
+                && (i == start || out[i - 1] != '\n');
+    }
+
+    /**
+     * In-place equivalent of {@code !\[([^\]]*)\]\([^\)]*\)} → {@code $1}; returns the new length.
+     */
+    private static int unwrapImages(char[] buf, int len) {
+        int w = 0;
+        int r = 0;
+        while (r < len) {
+            if (buf[r] == '!' && r + 1 < len && buf[r + 1] == '[') {
+                int close = indexOf(buf, ']', r + 2, len);
+                if (close >= 0 && close + 1 < len && buf[close + 1] == '(') {
+                    int paren = indexOf(buf, ')', close + 2, len);
+                    if (paren >= 0) {
+                        for (int k = r + 2; k < close; k++) buf[w++] = buf[k];
+                        r = paren + 1;
+                        continue;
+                    }
+                }
+            }
+            buf[w++] = buf[r++];
+        }
+        return w;
+    }
+
+    /**
+     * In-place equivalent of {@code \[([^\]]+)\]\(([^\)]*)\)} → {@code $1}; returns the new length.
+     */
+    private static int unwrapLinks(char[] buf, int len) {
+        int w = 0;
+        int r = 0;
+        while (r < len) {
+            if (buf[r] == '[') {
+                int close = indexOf(buf, ']', r + 1, len);
+                if (close > r + 1 && close + 1 < len && buf[close + 1] == '(') {
+                    int paren = indexOf(buf, ')', close + 2, len);
+                    if (paren >= 0) {
+                        for (int k = r + 1; k < close; k++) buf[w++] = buf[k];
+                        r = paren + 1;
+                        continue;
+                    }
+                }
+            }
+            buf[w++] = buf[r++];
+        }
+        return w;
+    }
+
+    /**
+     * Multiline {@code ^} as java.util.regex defines it: start of input, or after any line terminator
+     * (but not between CR and LF, and never at end of input).
+     */
+    private static boolean isLineStart(char[] buf, int i, int len, char prev) {
+        if (i >= len) return false;
+        if (i == 0) return true;
+        if (prev != '\n' && prev != '\r' && prev != '\u0085' && prev != '\u2028' && prev != '\u2029') return false;
+        return !(prev == '\r' && buf[i] == '\n');
+    }
+
+    private static boolean isRegexSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static int indexOf(char[] buf, char target, int from, int len) {
+        for (int i = from; i < len; i++) {
+            if (buf[i] == target) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * ASCII case-insensitive search, matching {@code (?i)} without {@code UNICODE_CASE}. The needle must
+     * start with a non-letter so its first char can be located with {@link String#indexOf(int, int)}.
+     */
+    private static int indexOfIgnoreCase(String src, String asciiLowerNeedle, int from) {
+        char first = asciiLowerNeedle.charAt(0);
+        int last = src.length() - asciiLowerNeedle.length();
+        outer:
+        for (int i = src.indexOf(first, from); i >= 0 && i <= last; i = src.indexOf(first, i + 1)) {
+            for (int j = 1; j < asciiLowerNeedle.length(); j++) {
+                char c = src.charAt(i + j);
+                if (c >= 'A' && c <= 'Z') c = (char) (c + ('a' - 'A'));
+                if (c != asciiLowerNeedle.charAt(j)) continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,121 @@
+package com.composerai.api.service.email;
+
+import java.text.BreakIterator;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+/**
+ * Emits sliding windows of {@code windowSentences} consecutive sentences, advancing {@code strideSentences}
+ * sentences at a time, so adjacent windows share {@code windowSentences - strideSentences} sentences.
+ * <p>
+ * Sentence boundaries come from {@link BreakIterator#getSentenceInstance(Locale)} and are pulled on demand;
+ * only the current window's {@code windowSentences + 1} boundary offsets are kept, in a ring. The last window
+ * may be shorter, and a window is never emitted twice at the end of the text.
+ *
+ * @author William Callahan
+ * @since 2025-09-18
+ * @version 0.0.1
+ */
+public final class SentenceWindowChunker implements ChunkingStrategy {
+
+    private final int windowSentences;
+    private final int strideSentences;
+    private final Locale locale;
+
+    public SentenceWindowChunker(int windowSentences, int strideSentences) {
+        this(windowSentences, strideSentences, Locale.ROOT);
+    }
+
+    public SentenceWindowChunker(int windowSentences, int strideSentences, Locale locale) {
+        if (windowSentences < 1 || strideSentences < 1 || strideSentences > windowSentences) {
+            throw new IllegalArgumentException("Sentence stride must be in [1, window]: window="
+                    + windowSentences + ", stride=" + strideSentences);
+        }
+        this.windowSentences = windowSentences;
+        this.strideSentences = strideSentences;
+        this.locale = locale;
+    }
+
+    @Override
+    public Iterator<String> chunk(CharSequence text) {
+        return text == null ? Collections.emptyIterator() : new Windows(text.toString());
+    }
+
+    private final class Windows implements Iterator<String> {
+
+        private final String text;
+        private final BreakIterator sentences;
+        /** Ring of boundary offsets; the window spans {@code bounds[head]} to the last one added. */
+        private final int[] bounds = new int[windowSentences + 1];
+        private int head;
+        private int size;
+        private boolean exhausted;
+        private boolean emitted;
+        private String pending;
+
+        Windows(String text) {
+            this.text = text;
+            this.sentences = BreakIterator.getSentenceInstance(locale);
+            sentences.setText(text);
+            add(sentences.first());
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (pending == null && advance()) {
+                // skip windows that hold nothing but whitespace
+            }
+            return pending != null;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String window = pending;
+            pending = null;
+            return window;
+        }
+
+        /** Fills and emits the next window into {@link #pending}; false once the text is used up. */
+        private boolean advance() {
+            if (size == 0) {
+                return false;
+            }
+            int carried = size;
+            while (!exhausted && size < bounds.length) {
+                int boundary = sentences.next();
+                if (boundary == BreakIterator.DONE) {
+                    exhausted = true;
+                } else {
+                    add(boundary);
+                }
+            }
+            if (size < 2 || (emitted && size == carried)) {
+                // nothing past the sentences the previous window already covered
+                size = 0;
+                return false;
+            }
+            emitted = true;
+            String window = text.substring(bounds[head], bounds[(head + size - 1) % bounds.length]).strip();
+            if (exhausted) {
+                size = 0;
+            } else {
+                head = (head + strideSentences) % bounds.length;
+                size -= strideSentences;
+            }
+            if (!window.isEmpty()) {
+                pending = window;
+            }
+            return true;
+        }
+
+        private void add(int boundary) {
+            bounds[(head + size) % bounds.length] = boundary;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.composerai.api.service.email;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Multipart;
+import jakarta.mail.Part;
+import jakarta.mail.internet.ContentType;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeUtility;
+import jakarta.mail.internet.ParseException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Locates an email body part from MIME headers alone and decodes only that part through a bounded stream.
+ * <p>
+ * The tree walk relies on {@link Part#isMimeType(String)} and {@link Part#getDisposition()}, which read
+ * headers only. Multipart containers and nested {@code message/rfc822} parts are opened so their children
+ * can be inspected, but leaf parts are never decoded unless they are the chosen body; explicit attachments
+ * are skipped outright. When the message was loaded from a {@link jakarta.mail.internet.SharedInputStream}
+ * (see {@link jakarta.mail.util.SharedFileInputStream}) the parts are offsets into the source, so nothing
+ * but headers and the chosen body's first {@code maxBytes} reach the heap.
+ *
+ * @author William Callahan
+ * @since 2025-09-18
+ * @version 0.0.1
+ */
+final class StreamingBodyExtractor {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingBodyExtractor.class);
+
+    /** Jakarta Mail's text handlers fall back to US-ASCII when a part declares no charset. */
+    private static final Charset DEFAULT_PART_CHARSET = StandardCharsets.US_ASCII;
+
+    private static final int MAX_ARRAY_BYTES = Integer.MAX_VALUE - 8;
+    private static final char REPLACEMENT_CHAR = '\uFFFD';
+
+    private StreamingBodyExtractor() {}
+
+    /**
+     * Decodes the first body part of {@code mimeType} (e.g. {@code text/html}), reading at most {@code maxBytes}
+     * of its transfer-decoded content. Bodies beyond the budget are truncated rather than rejected.
+     */
+    static Optional<String> extract(Part root, String mimeType, long maxBytes)
+            throws MessagingException, IOException {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive: " + maxBytes);
+        }
+        Part chosen = locate(root, mimeType);
+        return chosen != null ? Optional.of(decode(chosen, mimeType, maxBytes)) : Optional.empty();
+    }
+
+    /**
+     * Header-only search; the first match in document order wins. The one exception is {@code text/html} inside
+     * {@code multipart/alternative}, where the last matching child wins because alternatives are ordered from
+     * plainest to richest. Plain text keeps the first match, as the extractor always has.
+     */
+    private static Part locate(Part part, String mimeType) throws MessagingException, IOException {
+        if (part.isMimeType(mimeType)) {
+            return isAttachment(part) ? null : part;
+        }
+        if (part.isMimeType("multipart/*") && part.getContent() instanceof Multipart multipart) {
+            if (part.isMimeType("multipart/alternative") && "text/html".equalsIgnoreCase(mimeType)) {
+                Part preferred = null;
+                for (int i = 0; i < multipart.getCount(); i++) {
+                    Part child = multipart.getBodyPart(i);
+                    if (child.isMimeType(mimeType) && !isAttachment(child)) {
+                        preferred = child;
+                    }
+                }
+                if (preferred != null) {
+                    return preferred;
+                }
+            }
+            for (int i = 0; i < multipart.getCount(); i++) {
+                Part nested = locate(multipart.getBodyPart(i), mimeType);
+                if (nested != null) {
+                    return nested;
+                }
+            }
+            return null;
+        }
+        if (part.isMimeType("message/rfc822") && part.getContent() instanceof MimeMessage nested) {
+            return locate(nested, mimeType);
+        }
+        return null;
+    }
+
+    private static boolean isAttachment(Part part) throws MessagingException {
+        return Part.ATTACHMENT.equalsIgnoreCase(part.getDisposition());
+    }
+
+    private static String decode(Part part, String mimeType, long maxBytes)
+            throws MessagingException, IOException {
+        int budget = (int) Math.min(maxBytes, MAX_ARRAY_BYTES);
+        Charset charset = resolveCharset(part.getContentType());
+        byte[] bytes;
+        boolean truncated;
+        try (InputStream in = part.getInputStream()) {
+            bytes = in.readNBytes(budget);
+            truncated = bytes.length == budget && in.read() != -1;
+        }
+        String decoded = new String(bytes, charset);
+        if (!truncated) {
+            return decoded;
+        }
+        logger.warn("Truncated {} body part to {} bytes", mimeType, budget);
+        return stripTrailingReplacement(decoded);
+    }
+
+    /** A byte budget can split a multi-byte sequence; drop the replacement char(s) that split produced. */
+    private static String stripTrailingReplacement(String decoded) {
+        int end = decoded.length();
+        while (end > 0 && decoded.charAt(end - 1) == REPLACEMENT_CHAR) {
+            end--;
+        }
+        return decoded.substring(0, end);
+    }
+
+    private static Charset resolveCharset(String contentType) {
+        String declared = null;
+        try {
+            declared = contentType != null ? new ContentType(contentType).getParameter("charset") : null;
+        } catch (ParseException ignored) {
+            // Malformed Content-Type; fall through to the default charset
+        }
+        if (declared == null || declared.isBlank()) {
+            return DEFAULT_PART_CHARSET;
+        }
+        try {
+            return Charset.forName(MimeUtility.javaCharset(declared.trim()));
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException ex) {
+            logger.debug("Unsupported body charset '{}'; decoding as UTF-8", declared);
+            return StandardCharsets.UTF_8;
+        }
+    }
+}
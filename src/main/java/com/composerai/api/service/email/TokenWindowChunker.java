@@ -0,0 +1,153 @@
+package com.composerai.api.service.email;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Splits text into windows of at most {@code maxTokens} estimated tokens (see {@link ChunkTokens}), each
+ * starting with up to {@code overlapTokens} worth of the previous window's trailing words so context is not lost
+ * at the cut.
+ * <p>
+ * Windows break between whitespace-delimited words and are returned as slices of the input, whitespace
+ * included. A word too long to fit a window on its own is cut at the budget (never inside a surrogate pair).
+ * The overlap never includes a window's first word, so every window advances. State is two offsets; the
+ * overlap is found by walking backwards from the cut rather than by remembering word positions.
+ *
+ * @author William Callahan
+ * @since 2025-09-18
+ * @version 0.0.1
+ */
+public final class TokenWindowChunker implements ChunkingStrategy {
+
+    /** Smallest budget that holds a one-word window (a word costs 1.3 tokens). */
+    static final int MIN_TOKENS = 2;
+
+    private final long budget;
+    private final long overlapBudget;
+
+    /**
+     * @param maxTokens window budget; at least {@value #MIN_TOKENS}, so any single word fits
+     * @param overlapTokens tokens carried into the next window, below {@code maxTokens}
+     */
+    public TokenWindowChunker(int maxTokens, int overlapTokens) {
+        if (maxTokens < MIN_TOKENS || overlapTokens < 0 || overlapTokens >= maxTokens) {
+            throw new IllegalArgumentException("Chunk budget must be at least " + MIN_TOKENS
+                    + " tokens with overlap in [0, maxTokens): maxTokens=" + maxTokens + ", overlap=" + overlapTokens);
+        }
+        this.budget = ChunkTokens.budget(maxTokens);
+        this.overlapBudget = ChunkTokens.budget(overlapTokens);
+    }
+
+    @Override
+    public Iterator<String> chunk(CharSequence text) {
+        return text == null ? Collections.emptyIterator() : new Windows(text);
+    }
+
+    private final class Windows implements Iterator<String> {
+
+        private final CharSequence text;
+        private int cursor;
+        /** Start of the words carried over from the previous window, or -1 for none. */
+        private int carryStart = -1;
+        private long carryCost;
+
+        Windows(CharSequence text) {
+            this.text = text;
+        }
+
+        @Override
+        public boolean hasNext() {
+            cursor = skipWhitespace(cursor);
+            return cursor < text.length();
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int start = carryStart >= 0 ? carryStart : cursor;
+            long cost = carryStart >= 0 ? carryCost : 0;
+            int end = cursor;
+            boolean advanced = false;
+            while (true) {
+                int wordStart = skipWhitespace(cursor);
+                if (wordStart >= text.length()) {
+                    break;
+                }
+                int wordEnd = wordEnd(wordStart);
+                long wordCost = ChunkTokens.word(wordEnd - wordStart);
+                if (cost + wordCost > budget) {
+                    if (advanced) {
+                        break;
+                    }
+                    // the carried overlap leaves no room for even one new word: start fresh at this word
+                    start = wordStart;
+                    cost = 0;
+                    if (wordCost > budget) {
+                        wordEnd = cutPoint(wordStart, wordStart + ChunkTokens.maxChars(budget));
+                        wordCost = ChunkTokens.word(wordEnd - wordStart);
+                    }
+                }
+                cost += wordCost;
+                end = wordEnd;
+                cursor = wordEnd;
+                advanced = true;
+            }
+            carryOver(start, end);
+            return text.subSequence(start, end).toString();
+        }
+
+        /** Picks the trailing words of {@code [start, end)} that fit the overlap budget. */
+        private void carryOver(int start, int end) {
+            carryStart = -1;
+            carryCost = 0;
+            int pos = end;
+            while (overlapBudget > 0) {
+                int wordEnd = pos;
+                while (wordEnd > start && Character.isWhitespace(text.charAt(wordEnd - 1))) {
+                    wordEnd--;
+                }
+                int wordStart = wordEnd;
+                while (wordStart > start && !Character.isWhitespace(text.charAt(wordStart - 1))) {
+                    wordStart--;
+                }
+                if (wordStart <= start || wordStart == wordEnd) {
+                    return;
+                }
+                long wordCost = ChunkTokens.word(wordEnd - wordStart);
+                if (carryCost + wordCost > overlapBudget) {
+                    return;
+                }
+                carryCost += wordCost;
+                carryStart = wordStart;
+                pos = wordStart;
+            }
+        }
+
+        private int skipWhitespace(int from) {
+            int i = from;
+            while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            return i;
+        }
+
+        private int wordEnd(int from) {
+            int i = from;
+            while (i < text.length() && !Character.isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            return i;
+        }
+
+        private int cutPoint(int wordStart, int limit) {
+            int cut = Math.min(limit, text.length());
+            if (cut > wordStart + 1 && Character.isHighSurrogate(text.charAt(cut - 1))) {
+                cut--;
+            }
+            return cut;
+        }
+    }
+}
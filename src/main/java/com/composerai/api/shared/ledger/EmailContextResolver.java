@@ -1,7 +1,8 @@
 package com.composerai.api.shared.ledger;
 
+import com.composerai.api.domain.model.MailboxSnapshot;
+import com.composerai.api.domain.port.MailboxSnapshotPort;
 import com.composerai.api.model.EmailMessage;
-import com.composerai.api.service.email.EmailMessageProvider;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -13,19 +14,22 @@ import org.springframework.stereotype.Component;
 
 /**
  * Best-effort resolver that maps a contextId/emailId back to the {@link EmailMessage} that produced
- * it so the ledger can embed the existing DTO. This relies on the configured
- * {@link EmailMessageProvider}; workers should treat the lookup as opportunistic and tolerate
- * misses when the mailbox snapshot is unavailable.
+ * it so the ledger can embed the existing DTO. This relies on the mailbox snapshot, whose contextId and
+ * message-id indexes answer each lookup without scanning the mailbox; workers should treat the lookup as
+ * opportunistic and tolerate misses when the mailbox snapshot is unavailable.
  */
 @Slf4j
 @Component
 public class EmailContextResolver {
 
-    private final EmailMessageProvider emailMessageProvider;
+    // Ledger context refs record emails against this mailbox (see ChatLedgerRecorder)
+    private static final String MAILBOX_ID = "primary";
+
+    private final MailboxSnapshotPort mailboxSnapshotPort;
     private final ConcurrentHashMap<String, EmailMessage> cache = new ConcurrentHashMap<>();
 
-    public EmailContextResolver(EmailMessageProvider emailMessageProvider) {
-        this.emailMessageProvider = emailMessageProvider;
+    public EmailContextResolver(MailboxSnapshotPort mailboxSnapshotPort) {
+        this.mailboxSnapshotPort = mailboxSnapshotPort;
     }
 
     public Optional<EmailObject> resolve(String contextId) {
@@ -52,9 +56,9 @@ public class EmailContextResolver {
 
     private EmailMessage lookup(String contextId) {
         try {
-            return emailMessageProvider.loadEmails().stream()
-                    .filter(email -> contextId.equals(email.contextId()) || contextId.equals(email.id()))
-                    .findFirst()
+            MailboxSnapshot snapshot = mailboxSnapshotPort.loadSnapshot(MAILBOX_ID);
+            return snapshot.findByContextId(contextId)
+                    .or(() -> snapshot.findMessage(contextId))
                     .orElse(null);
         } catch (Exception ex) {
             log.warn("Failed to resolve email context for {}", contextId, ex);
@@ -25,6 +25,8 @@ import com.openai.models.responses.Tool;
 import com.openai.models.responses.ToolChoiceOptions;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
+import java.util.regex.Pattern;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -48,6 +50,9 @@ class OpenAiChatClientTest {
 
     private ErrorMessagesProperties errorMessages;
 
+    /** The pattern {@code removeDangerousBlocks} replaced; the scanner must give the same result. */
+    private static final Pattern DANGEROUS_BLOCKS = Pattern.compile("(?is)<(script|style|iframe)[^>]*>.*?</\\1>");
+
     @BeforeAll
     static void suppressServiceErrorLogs() {
         originalLogLevel = SERVICE_LOGGER.getLevel();
@@ -126,6 +131,55 @@ class OpenAiChatClientTest {
         assertFalse(sanitized.contains("<script>"));
     }
 
+    @Test
+    void removeDangerousBlocksMatchesTheRegexItReplaced() {
+        List<String> cases = List.of(
+                "plain text",
+                "a <b>bold</b> word",
+                "**Hello** <script>alert('x')</script> world",
+                "<script>never closed",
+                "<script>a</style> b",
+                "<ScRiPt>alert(1)</sCrIpT> mixed case",
+                "<STYLE type=\"text/css\">p{}</STYLE>",
+                "<styles>x</style> prefix name",
+                "<scriptx>x</script> prefix name",
+                "<scriptx>x</scriptx> prefix name closing itself",
+                "<script><script>inner</script>outer</script>",
+                "<iframe src=x></iframe><iframe>two</iframe> tail",
+                "<style>a</style> keep <style>b</style> keep",
+                "<script>one</script><style>never closed",
+                "<script src=x never closed tag",
+                "<script>spaced</script > tail",
+                "<script>spaced</ script> tail",
+                "<script\n type=x>\nline\n</script>\n",
+                "<iframe>a<script>b</iframe>c</script>",
+                "<<script>>x</script>>",
+                "</script><script>",
+                "<script",
+                "<");
+        for (String text : cases) {
+            assertEquals(
+                    removeWithRegex(text), OpenAiChatClient.ChatCompletion.removeDangerousBlocks(text), text);
+        }
+    }
+
+    @Test
+    void removeDangerousBlocksMatchesTheRegexOnRandomTagSoup() {
+        String[] fragments = {
+            "<script>", "</script>", "<SCRIPT x=1>", "</Script>", "</script >", "<style>", "</style>", "<styles>",
+            "<iframe", "</iframe>", "<scriptx>", ">", "<", "</", "text", " ", "\n"
+        };
+        Random random = new Random(42);
+        for (int i = 0; i < 5_000; i++) {
+            StringBuilder text = new StringBuilder();
+            for (int f = random.nextInt(12); f > 0; f--) {
+                text.append(fragments[random.nextInt(fragments.length)]);
+            }
+            String input = text.toString();
+            assertEquals(removeWithRegex(input), OpenAiChatClient.ChatCompletion.removeDangerousBlocks(input), input);
+        }
+    }
+
     @Test
     void generateResponse_withCustomModel_isHandledCorrectly() {
         OpenAiProperties customProperties = new OpenAiProperties();
@@ -204,6 +258,10 @@ class OpenAiChatClientTest {
         assertSame(rejection, observed);
     }
 
+    private static String removeWithRegex(String text) {
+        return DANGEROUS_BLOCKS.matcher(text).replaceAll("");
+    }
+
     private Response buildResponseWithText(String text) {
         ResponseOutputText outputText =
                 ResponseOutputText.builder().text(text).annotations(List.of()).build();
@@ -0,0 +1,183 @@
+package com.composerai.api.application.usecase.ingest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.composerai.api.application.dto.ingest.EmailIngestionFileResult;
+import com.composerai.api.application.dto.ingest.EmailIngestionSource;
+import com.composerai.api.application.dto.ingest.EmailIngestionSummary;
+import com.composerai.api.config.AppProperties;
+import com.composerai.api.domain.port.MailboxIngestionPort;
+import com.composerai.api.model.EmailMessage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class BulkEmailIngestionUseCaseTest {
+
+    private static final int WORKERS = 2;
+
+    @TempDir
+    Path tempDir;
+
+    private ExecutorService executor;
+    private AppProperties properties;
+    private RecordingPort port;
+    private BulkEmailIngestionUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(WORKERS);
+        properties = new AppProperties();
+        properties.getEmailIngestion().setWorkers(WORKERS);
+        properties.getEmailIngestion().setDirectoryRoot(tempDir.toString());
+        port = new RecordingPort();
+        useCase = new BulkEmailIngestionUseCase(port, executor, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void failingFileDoesNotStopTheBatch() throws Exception {
+        Path inbox = Files.createDirectories(tempDir.resolve("inbox"));
+        Files.writeString(inbox.resolve("one.eml"), "Subject: one\r\n\r\nbody");
+        Files.writeString(inbox.resolve("broken.eml"), "Subject: broken\r\n\r\nbody");
+        Files.writeString(inbox.resolve("two.eml"), "Subject: two\r\n\r\nbody");
+        Files.writeString(inbox.resolve("notes.pdf"), "not a message");
+        List<EmailIngestionFileResult> results = new CopyOnWriteArrayList<>();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+
+        EmailIngestionSummary summary = useCase.ingest(
+                new EmailIngestionSource.Directory(inbox, false),
+                new IngestionCallbacks(results::add, ignored -> {}, error::set));
+
+        assertNull(error.get());
+        assertEquals(4, summary.processed());
+        assertEquals(2, summary.ingested());
+        assertEquals(1, summary.failed());
+        assertEquals(1, summary.skipped());
+        Map<String, EmailIngestionFileResult.Status> statuses = new ConcurrentHashMap<>();
+        results.forEach(result -> statuses.put(result.fileName(), result.status()));
+        assertEquals(EmailIngestionFileResult.Status.FAILED, statuses.get("broken.eml"));
+        assertEquals(EmailIngestionFileResult.Status.SKIPPED, statuses.get("notes.pdf"));
+        assertEquals(EmailIngestionFileResult.Status.INGESTED, statuses.get("two.eml"));
+    }
+
+    @Test
+    void zipEntriesAreStagedAndCleanedUpWithBoundedConcurrency() throws Exception {
+        Path archive = tempDir.resolve("batch.zip");
+        int entries = 20;
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive))) {
+            for (int i = 0; i < entries; i++) {
+                zip.putNextEntry(new ZipEntry("nested/msg-" + i + ".eml"));
+                zip.write(("Subject: " + i + "\r\n\r\nbody").getBytes(StandardCharsets.US_ASCII));
+                zip.closeEntry();
+            }
+            zip.putNextEntry(new ZipEntry("readme.md"));
+            zip.write("ignore me".getBytes(StandardCharsets.US_ASCII));
+            zip.closeEntry();
+        }
+        port.delayMillis = 5;
+
+        EmailIngestionSummary summary = useCase.ingest(
+                new EmailIngestionSource.ZipArchive(archive, true),
+                new IngestionCallbacks(ignored -> {}, ignored -> {}, ignored -> {}));
+
+        assertEquals(entries, summary.ingested());
+        assertEquals(1, summary.skipped());
+        assertTrue(port.maxConcurrent.get() <= WORKERS, "never exceeds the worker pool");
+        assertTrue(port.importedFiles.stream().allMatch(Files::notExists), "staged entries are deleted");
+        assertTrue(Files.notExists(archive), "temporary archives are removed after the batch");
+    }
+
+    @Test
+    void oversizedFilesAreSkippedWithoutParsing() throws Exception {
+        properties.getEmailIngestion().setMaxFileSize(DataSize.ofBytes(16));
+        Path inbox = Files.createDirectories(tempDir.resolve("big"));
+        try (OutputStream out = Files.newOutputStream(inbox.resolve("large.eml"))) {
+            out.write(new byte[64]);
+        }
+
+        EmailIngestionSummary summary = useCase.ingest(
+                new EmailIngestionSource.Directory(inbox, false),
+                new IngestionCallbacks(ignored -> {}, ignored -> {}, ignored -> {}));
+
+        assertEquals(1, summary.skipped());
+        assertTrue(port.importedFiles.isEmpty());
+    }
+
+    @Test
+    void directoriesOutsideTheConfiguredRootAreRejected() throws Exception {
+        Path outside = Files.createTempDirectory("ingest-outside-");
+        try {
+            properties.getEmailIngestion().setDirectoryRoot(tempDir.resolve("allowed").toString());
+            Files.createDirectories(tempDir.resolve("allowed"));
+            IngestionCallbacks callbacks = new IngestionCallbacks(ignored -> {}, ignored -> {}, ignored -> {});
+            EmailIngestionSource source = new EmailIngestionSource.Directory(outside, false);
+
+            assertThrows(
+                    IllegalArgumentException.class, () -> useCase.start(source, callbacks));
+        } finally {
+            Files.deleteIfExists(outside);
+        }
+    }
+
+    /** Parses nothing; fails files named "broken" and tracks how many imports overlap. */
+    private static final class RecordingPort implements MailboxIngestionPort {
+        final List<Path> importedFiles = new CopyOnWriteArrayList<>();
+        final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicInteger maxConcurrent = new AtomicInteger();
+        volatile long delayMillis;
+
+        @Override
+        public boolean supports(String fileName) {
+            return fileName.endsWith(".eml");
+        }
+
+        @Override
+        public EmailMessage importMessage(Path file, String originalFilename) throws IOException {
+            importedFiles.add(file);
+            int now = concurrent.incrementAndGet();
+            maxConcurrent.accumulateAndGet(now, Math::max);
+            try {
+                if (delayMillis > 0) {
+                    Thread.sleep(delayMillis);
+                }
+                if (originalFilename.startsWith("broken")) {
+                    throw new IOException("malformed headers");
+                }
+                return EmailMessage.builder()
+                        .id(originalFilename)
+                        .subject(Files.readString(file).lines().findFirst().orElse(""))
+                        .build();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            } finally {
+                concurrent.decrementAndGet();
+            }
+        }
+    }
+}
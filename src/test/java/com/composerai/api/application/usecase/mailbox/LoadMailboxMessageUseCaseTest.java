@@ -0,0 +1,68 @@
+package com.composerai.api.application.usecase.mailbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.composerai.api.adapters.out.persistence.SessionScopedMessagePlacementAdapter;
+import com.composerai.api.application.dto.mailbox.MailboxMessageSummary;
+import com.composerai.api.application.dto.mailbox.MailboxStateSnapshotResult;
+import com.composerai.api.application.dto.mailbox.MessageMoveCommand;
+import com.composerai.api.domain.port.MailboxSnapshotPort;
+import com.composerai.api.domain.service.MailboxFolderTransitionService;
+import com.composerai.api.model.EmailMessage;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LoadMailboxMessageUseCaseTest {
+
+    private final List<EmailMessage> messages = List.of(
+            message("m1", "Quarterly numbers", "Revenue is up eleven percent."),
+            message("m2", "Lunch?", "Noon at the usual place."));
+
+    private LoadMailboxStateSnapshotUseCase stateUseCase;
+    private ExecuteMessageMoveUseCase moveUseCase;
+    private LoadMailboxMessageUseCase messageUseCase;
+
+    @BeforeEach
+    void setUp() {
+        MailboxFolderTransitionService transitions = new MailboxFolderTransitionService();
+        MailboxSnapshotPort snapshots = mailboxId -> transitions.createSnapshot(mailboxId, messages, 0L);
+        SessionScopedMessagePlacementAdapter placements = new SessionScopedMessagePlacementAdapter();
+        stateUseCase = new LoadMailboxStateSnapshotUseCase(snapshots, placements, transitions);
+        moveUseCase = new ExecuteMessageMoveUseCase(snapshots, placements, transitions);
+        messageUseCase = new LoadMailboxMessageUseCase(snapshots, placements, transitions);
+    }
+
+    @Test
+    void stateCarriesSummariesAndTheMessageEndpointCarriesTheBody() {
+        MailboxStateSnapshotResult state = stateUseCase.load("primary", "session-1");
+
+        MailboxMessageSummary summary = state.messages().getFirst();
+        assertEquals("Quarterly numbers", summary.subject());
+        assertTrue(summary.preview().startsWith("Revenue is up"));
+
+        EmailMessage full = messageUseCase.load("primary", "session-1", "m1").orElseThrow();
+        assertEquals("Revenue is up eleven percent.", full.emailBodyTransformedText());
+    }
+
+    @Test
+    void loadedMessageReflectsTheSessionsPlacement() {
+        moveUseCase.execute(new MessageMoveCommand("primary", "session-1", "m2", "archive"));
+
+        assertEquals(List.of("archive"), messageUseCase.load("primary", "session-1", "m2").orElseThrow().labels());
+        assertEquals(List.of(), messageUseCase.load("primary", "session-2", "m2").orElseThrow().labels());
+        assertTrue(messageUseCase.load("primary", "session-1", "missing").isEmpty());
+    }
+
+    private static EmailMessage message(String id, String subject, String body) {
+        return EmailMessage.builder()
+                .id(id)
+                .contextId("ctx-" + id)
+                .senderEmail("sender@example.com")
+                .subject(subject)
+                .emailBodyRaw(body)
+                .emailBodyTransformedText(body)
+                .build();
+    }
+}
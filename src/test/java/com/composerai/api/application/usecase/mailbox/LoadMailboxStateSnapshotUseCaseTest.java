@@ -0,0 +1,147 @@
+package com.composerai.api.application.usecase.mailbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.composerai.api.adapters.out.persistence.SessionScopedMessagePlacementAdapter;
+import com.composerai.api.application.dto.mailbox.MailboxMessageSummary;
+import com.composerai.api.application.dto.mailbox.MailboxStateQuery;
+import com.composerai.api.application.dto.mailbox.MailboxStateSnapshotResult;
+import com.composerai.api.application.dto.mailbox.MessageMoveCommand;
+import com.composerai.api.application.dto.mailbox.MessageMoveResult;
+import com.composerai.api.domain.model.MailboxMessageOrder;
+import com.composerai.api.domain.port.MailboxSnapshotPort;
+import com.composerai.api.domain.service.MailboxFolderTransitionService;
+import com.composerai.api.model.EmailMessage;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LoadMailboxStateSnapshotUseCaseTest {
+
+    private final List<EmailMessage> messages = MailboxMessageOrder.sort(List.of(
+            message("m1", "2025-03-01T09:00:00Z", List.of()),
+            message("m2", "2025-03-02T09:00:00Z", List.of()),
+            message("m3", "2025-03-03T09:00:00Z", List.of("archive")),
+            message("m4", "2025-03-04T09:00:00Z", List.of()),
+            message("m5", "2025-03-04T09:00:00Z", List.of()),
+            message("m6", null, List.of())));
+
+    private LoadMailboxStateSnapshotUseCase stateUseCase;
+    private ExecuteMessageMoveUseCase moveUseCase;
+
+    @BeforeEach
+    void setUp() {
+        MailboxFolderTransitionService transitions = new MailboxFolderTransitionService();
+        MailboxSnapshotPort snapshots = mailboxId -> transitions.createSnapshot(mailboxId, messages, 0L);
+        SessionScopedMessagePlacementAdapter placements = new SessionScopedMessagePlacementAdapter();
+        stateUseCase = new LoadMailboxStateSnapshotUseCase(snapshots, placements, transitions);
+        moveUseCase = new ExecuteMessageMoveUseCase(snapshots, placements, transitions);
+    }
+
+    @Test
+    void unpagedLoadReturnsTheWholeMailboxNewestFirst() {
+        MailboxStateSnapshotResult state = stateUseCase.load("primary", "session-1");
+
+        assertEquals(List.of("m4", "m5", "m3", "m2", "m1", "m6"), ids(state));
+        assertEquals(6, state.effectiveFolders().size());
+        assertNull(state.nextCursor());
+    }
+
+    @Test
+    void cursorPagesWalkAFolderAndStayStableAcrossMoves() {
+        MailboxStateSnapshotResult first = page(null);
+        assertEquals(List.of("m4", "m5"), ids(first));
+        assertEquals(5, first.folderCounts().get("inbox").intValue());
+        assertNotNull(first.nextCursor());
+
+        // Moving an already-listed message must not shift the next page
+        moveUseCase.execute(new MessageMoveCommand("primary", "session-1", "m4", "trash"));
+
+        MailboxStateSnapshotResult second = page(first.nextCursor());
+        assertEquals(List.of("m2", "m1"), ids(second));
+        assertEquals(4, second.folderCounts().get("inbox").intValue());
+        assertEquals(Map.of("m2", "inbox", "m1", "inbox"), second.effectiveFolders());
+
+        MailboxStateSnapshotResult last = page(second.nextCursor());
+        assertEquals(List.of("m6"), ids(last));
+        assertNull(last.nextCursor());
+    }
+
+    @Test
+    void sinceAndCountOnlyNarrowTheResponse() {
+        MailboxStateQuery since =
+                new MailboxStateQuery(null, null, null, Instant.parse("2025-03-02T12:00:00Z"), false);
+        assertEquals(List.of("m4", "m5", "m3"), ids(stateUseCase.load("primary", "session-1", since)));
+
+        MailboxStateSnapshotResult counts =
+                stateUseCase.load("primary", "session-1", new MailboxStateQuery(null, null, null, null, true));
+        assertTrue(counts.messages().isEmpty());
+        assertEquals(1, counts.folderCounts().get("archive").intValue());
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> stateUseCase.load("primary", "session-1", new MailboxStateQuery(null, "%%", 2, null, false)));
+        assertThrows(IllegalArgumentException.class, () -> new MailboxStateQuery(null, null, 0, null, false));
+
+        MailboxStateQuery folderOnly = new MailboxStateQuery("archive", null, null, null, false);
+        assertTrue(folderOnly.paged());
+        assertEquals(MailboxStateQuery.DEFAULT_PAGE_SIZE, folderOnly.pageSize());
+        assertEquals(List.of("m3"), ids(stateUseCase.load("primary", "session-1", folderOnly)));
+    }
+
+    @Test
+    void versionsTrackEachSessionsMovesAndMoveResultsCarryOnlyTheDelta() {
+        String before = stateUseCase.load("primary", "session-1").version();
+        assertEquals(before, stateUseCase.currentVersion("primary", "session-1"));
+
+        MessageMoveResult moved =
+                moveUseCase.execute(new MessageMoveCommand("primary", "session-1", "m2", "archive"));
+
+        assertEquals("inbox", moved.previousFolderId());
+        assertEquals("archive", moved.currentFolderId());
+        assertEquals(List.of("archive"), moved.updatedMessage().labels());
+        assertEquals(2, moved.folderCounts().get("archive").intValue());
+        assertNotEquals(before, moved.version());
+        assertEquals(moved.version(), stateUseCase.currentVersion("primary", "session-1"));
+        assertEquals(before, stateUseCase.currentVersion("primary", "session-2"));
+
+        // Back at the baseline the session holds no placements, yet its version moves on rather than back ...
+        MessageMoveResult restored =
+                moveUseCase.execute(new MessageMoveCommand("primary", "session-1", "m2", "inbox"));
+        assertNotEquals(before, restored.version());
+        assertNotEquals(moved.version(), restored.version());
+        assertEquals(restored.version(), stateUseCase.currentVersion("primary", "session-1"));
+        assertEquals(before, stateUseCase.currentVersion("primary", "session-2"));
+        // ... and a version, once issued, is never handed out again
+        moveUseCase.execute(new MessageMoveCommand("primary", "session-1", "m2", "archive"));
+        String again = stateUseCase.currentVersion("primary", "session-1");
+        assertNotEquals(moved.version(), again);
+        assertNotEquals(restored.version(), again);
+    }
+
+    private MailboxStateSnapshotResult page(String cursor) {
+        return stateUseCase.load("primary", "session-1", new MailboxStateQuery("inbox", cursor, 2, null, false));
+    }
+
+    private static List<String> ids(MailboxStateSnapshotResult state) {
+        return state.messages().stream().map(MailboxMessageSummary::id).toList();
+    }
+
+    private static EmailMessage message(String id, String received, List<String> labels) {
+        return EmailMessage.builder()
+                .id(id)
+                .contextId("ctx-" + id)
+                .senderEmail("sender@example.com")
+                .subject("Subject " + id)
+                .receivedTimestampIso(received)
+                .labels(labels)
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.composerai.api.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockPart;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+
+class MultipartLimitsConfigTest {
+
+    private final MultipartLimitsConfig.PathScopedMultipartResolver resolver =
+            new MultipartLimitsConfig.PathScopedMultipartResolver(16, 32);
+
+    @Test
+    void requestsDeclaringMoreThanTheGeneralLimitAreRefusedOutsideBulkIngestion() {
+        MockHttpServletRequest request = upload("/api/parse-email", new byte[64]);
+        request.setContent(new byte[64]);
+
+        MaxUploadSizeExceededException refused =
+                assertThrows(MaxUploadSizeExceededException.class, () -> resolver.resolveMultipart(request));
+        assertEquals(32, refused.getMaxUploadSize());
+    }
+
+    @Test
+    void oversizedPartsWithoutADeclaredLengthAreRefusedAfterParsing() {
+        MockHttpServletRequest request = upload("/api/parse-email", new byte[24]);
+
+        MaxUploadSizeExceededException refused =
+                assertThrows(MaxUploadSizeExceededException.class, () -> resolver.resolveMultipart(request));
+        assertEquals(16, refused.getMaxUploadSize());
+    }
+
+    @Test
+    void bulkIngestionKeepsTheContainerLimits() {
+        MockHttpServletRequest request = upload("/api/ingest/files", new byte[64]);
+        request.setContent(new byte[64]);
+
+        MultipartHttpServletRequest resolved = resolver.resolveMultipart(request);
+
+        assertEquals(64, resolved.getFile("file").getSize());
+    }
+
+    @Test
+    void dotSegmentsCannotBorrowTheBulkIngestionLimits() {
+        MockHttpServletRequest request = upload("/api/parse-email", new byte[24]);
+        request.setRequestURI("/api/ingest/../parse-email");
+
+        assertThrows(MaxUploadSizeExceededException.class, () -> resolver.resolveMultipart(request));
+    }
+
+    private static MockHttpServletRequest upload(String servletPath, byte[] content) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", servletPath);
+        request.setServletPath(servletPath);
+        request.setContentType("multipart/form-data; boundary=test");
+        MockPart part = new MockPart("file", "upload.eml", content);
+        request.addPart(part);
+        return request;
+    }
+}
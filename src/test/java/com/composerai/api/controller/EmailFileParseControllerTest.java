@@ -13,6 +13,7 @@ import com.composerai.api.model.EmailMessage;
 import com.composerai.api.service.CompanyLogoProvider;
 import com.composerai.api.service.ContextBuilder;
 import com.composerai.api.service.EmailParsingService;
+import com.composerai.api.service.email.ParsedEmailDocument;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
@@ -110,7 +111,7 @@ class EmailFileParseControllerTest {
     void parseEmail_withUnsupportedExtension_throwsException() {
         ContextBuilder.EmailContextCache registry = new ContextBuilder.InMemoryEmailContextCache();
         EmailFileParseController controller = new EmailFileParseController(
-                new EmailParsingService(registry, new ObjectMapper(), new CompanyLogoProvider(), new AppProperties()));
+                new EmailParsingService(registry, noLookupLogoProvider(), new AppProperties()));
         MockMultipartFile file = new MockMultipartFile("file", "document.pdf", "application/pdf", new byte[10]);
 
         assertThrows(IllegalArgumentException.class, () -> controller.parseEmail(file));
@@ -120,7 +121,7 @@ class EmailFileParseControllerTest {
     void parseEmail_withReceivedHeaderUsesReceivedDate() throws Exception {
         ContextBuilder.EmailContextCache registry = new ContextBuilder.InMemoryEmailContextCache();
         EmailFileParseController controller = new EmailFileParseController(
-                new EmailParsingService(registry, new ObjectMapper(), new CompanyLogoProvider(), new AppProperties()));
+                new EmailParsingService(registry, noLookupLogoProvider(), new AppProperties()));
         String eml = String.join(
                 "\r\n",
                 "Received: from mail.example.net by inbound.example.net; Wed, 01 Oct 2025 18:45:00 +0530",
@@ -141,9 +142,14 @@ class EmailFileParseControllerTest {
         String display = body.get("date").toString();
         assertTrue(display.contains("+05:30"), "display date should retain offset");
 
-        Map<?, ?> document = (Map<?, ?>) body.get("document");
-        Map<?, ?> metadata = (Map<?, ?>) document.get("metadata");
-        assertEquals("Received", metadata.get("dateSource"));
+        EmailParsingService.ParsedDocumentResponse document =
+                (EmailParsingService.ParsedDocumentResponse) body.get("document");
+        assertEquals("Received", document.document().metadata().dateSource());
+        assertEquals(body.get("contextId"), document.contextId());
+
+        Map<?, ?> json = new ObjectMapper().convertValue(document, Map.class);
+        assertEquals(body.get("contextId"), json.get("contextId"));
+        assertEquals("Received", ((Map<?, ?>) json.get("metadata")).get("dateSource"));
     }
 
     @Test
@@ -315,6 +321,11 @@ class EmailFileParseControllerTest {
         assertTrue(contextId1.matches("[A-Za-z0-9._:-]+"), "Context ID should contain only safe characters");
     }
 
+    /** Logo lookups are queued and dropped so parsing tests never touch the network. */
+    private static CompanyLogoProvider noLookupLogoProvider() {
+        return new CompanyLogoProvider(new AppProperties(), task -> {});
+    }
+
     private EmailFileParseController controllerWithPayload(ContextBuilder.EmailContextCache registry, String payload) {
         return controllerWithPayload(registry, payload, new AppProperties());
     }
@@ -322,10 +333,11 @@ class EmailFileParseControllerTest {
     private EmailFileParseController controllerWithPayload(
             ContextBuilder.EmailContextCache registry, String payload, AppProperties appProperties) {
         EmailParsingService emailParsingService =
-                new EmailParsingService(registry, new ObjectMapper(), new CompanyLogoProvider(), appProperties) {
+                new EmailParsingService(registry, noLookupLogoProvider(), appProperties) {
                     @Override
-                    protected String convertEmail(com.composerai.api.service.HtmlToText.Options options) {
-                        return payload;
+                    protected ParsedEmailDocument parseDocument(com.composerai.api.service.HtmlToText.Options options)
+                            throws Exception {
+                        return new ObjectMapper().readValue(payload, ParsedEmailDocument.class);
                     }
                 };
         return new EmailFileParseController(emailParsingService);
@@ -0,0 +1,95 @@
+package com.composerai.api.domain.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.composerai.api.domain.model.MailFolderIdentifier;
+import com.composerai.api.domain.model.MailboxId;
+import com.composerai.api.domain.model.MailboxSnapshot;
+import com.composerai.api.domain.model.MessageFolderPlacement;
+import com.composerai.api.domain.model.MessageId;
+import com.composerai.api.domain.model.SessionId;
+import com.composerai.api.model.EmailMessage;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class MailboxFolderTransitionServiceTest {
+
+    private final MailboxFolderTransitionService transitionService = new MailboxFolderTransitionService();
+
+    private final List<EmailMessage> messages = List.of(
+            message("plain", false),
+            message("starred", true),
+            message("snoozed", false, "Snoozed"),
+            message("archived", true, " ARCHIVED "),
+            message("trashed-sent", false, "deleted", "sent"),
+            message("draft", false, "draft", "snoozed"),
+            message("sent", false, "sent"));
+
+    @Test
+    void baselineCountsMatchTheLabelRules() {
+        Map<String, Integer> counts = transitionService.computeFolderCounts(messages);
+
+        assertEquals(
+                Map.of("inbox", 3, "starred", 2, "snoozed", 2, "sent", 2, "drafts", 1, "archive", 1, "trash", 1),
+                counts);
+        assertEquals(List.of("inbox", "starred", "snoozed", "sent", "drafts", "archive", "trash"),
+                List.copyOf(counts.keySet()));
+        assertEquals("trash", transitionService.deriveBaselineFolder(messages.get(4)).value());
+        assertEquals("drafts", transitionService.deriveBaselineFolder(messages.get(5)).value());
+    }
+
+    @Test
+    void placementDeltasGiveTheSameCountsAsRecountingTheResolvedMailbox() {
+        MailboxSnapshot snapshot = transitionService.createSnapshot("primary", messages, 1L);
+        Map<MessageId, MessageFolderPlacement> placements = new LinkedHashMap<>();
+        place(placements, "plain", "trash");
+        place(placements, "archived", "inbox");
+        place(placements, "trashed-sent", "archive");
+        place(placements, "draft", "sent");
+        place(placements, "snoozed", "drafts");
+        place(placements, "gone", "archive");
+
+        assertEquals(
+                transitionService.computeFolderCounts(transitionService.applyPlacements(snapshot, placements)),
+                transitionService.computeFolderCounts(snapshot, placements));
+        assertEquals(snapshot.baselineCounts(), transitionService.computeFolderCounts(snapshot, Map.of()));
+    }
+
+    @Test
+    void snapshotsIndexMessagesByIdAndContextId() {
+        MailboxSnapshot snapshot = transitionService.createSnapshot("primary", messages, 1L);
+
+        assertSame(messages.get(3), snapshot.findMessage("archived").orElseThrow());
+        assertSame(messages.get(5), snapshot.findByContextId("ctx-draft").orElseThrow());
+        assertTrue(snapshot.findMessage("ctx-draft").isEmpty());
+        assertTrue(snapshot.findByContextId(null).isEmpty());
+
+        MailboxSnapshot renamed = snapshot.withMailboxId("secondary");
+        assertEquals("secondary", renamed.mailboxId());
+        assertSame(messages.get(6), renamed.findMessage("sent").orElseThrow());
+    }
+
+    private static void place(Map<MessageId, MessageFolderPlacement> placements, String id, String folder) {
+        MessageFolderPlacement placement = MessageFolderPlacement.builder()
+                .mailboxId(new MailboxId("primary"))
+                .sessionId(new SessionId("session-1"))
+                .messageId(new MessageId(id))
+                .folderIdentifier(MailFolderIdentifier.of(folder))
+                .build();
+        placements.put(placement.messageId(), placement);
+    }
+
+    private static EmailMessage message(String id, boolean starred, String... labels) {
+        return EmailMessage.builder()
+                .id(id)
+                .contextId("ctx-" + id)
+                .subject("Subject " + id)
+                .labels(List.of(labels))
+                .starred(starred)
+                .build();
+    }
+}
@@ -0,0 +1,133 @@
+package com.composerai.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.composerai.api.config.AppProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CompanyLogoProviderTest {
+
+    private static final int LOGO_PIXELS = 64;
+    private static final int ICON_PIXELS = 16;
+
+    private final CountDownLatch releaseResponses = new CountDownLatch(1);
+    private final AtomicInteger primaryRequests = new AtomicInteger();
+    private final AtomicInteger fallbackRequests = new AtomicInteger();
+    private HttpServer server;
+    private ExecutorService lookupExecutor;
+    private CompanyLogoProvider provider;
+    private String primaryTemplate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/primary", exchange -> {
+            primaryRequests.incrementAndGet();
+            awaitRelease();
+            boolean known = exchange.getRequestURI().getQuery().contains("domain=acme.example");
+            respond(exchange, known ? 200 : 404, known ? png(LOGO_PIXELS) : new byte[0]);
+        });
+        server.createContext("/fallback", exchange -> {
+            fallbackRequests.incrementAndGet();
+            respond(exchange, 200, png(ICON_PIXELS));
+        });
+        server.start();
+
+        String base = "http://127.0.0.1:" + server.getAddress().getPort();
+        primaryTemplate = base + "/primary?domain=%s&sz=%d";
+        AppProperties properties = new AppProperties();
+        properties.getCompanyLogos().setPrimaryTemplate(primaryTemplate);
+        properties.getCompanyLogos().setFallbackTemplate(base + "/fallback/%s/%d");
+        lookupExecutor = Executors.newFixedThreadPool(2);
+        provider = new CompanyLogoProvider(properties, lookupExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseResponses.countDown();
+        lookupExecutor.shutdownNow();
+        server.stop(0);
+    }
+
+    @Test
+    void missReturnsImmediatelyAndLogoArrivesOnNextCall() throws Exception {
+        // The stub holds every response until released, so a blocking lookup would trip the timeout
+        Optional<String> first =
+                assertTimeoutPreemptively(Duration.ofSeconds(1), () -> provider.logoUrlForDomain("acme.example"));
+        assertTrue(first.isEmpty());
+
+        releaseResponses.countDown();
+        Optional<String> resolved = provider.resolveLogoUrl("acme.example").get(5, TimeUnit.SECONDS);
+
+        String expected = String.format(primaryTemplate, "acme.example", 128);
+        assertEquals(Optional.of(expected), resolved);
+        assertEquals(Optional.of(expected), provider.logoUrlForDomain("ACME.example"));
+    }
+
+    @Test
+    void concurrentMissesShareOneLookup() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(provider.logoUrlForDomain("acme.example").isEmpty());
+        }
+
+        releaseResponses.countDown();
+        provider.resolveLogoUrl("acme.example").get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, primaryRequests.get());
+    }
+
+    @Test
+    void rejectedLogosAreCachedAsMisses() throws Exception {
+        releaseResponses.countDown();
+
+        Optional<String> resolved = provider.resolveLogoUrl("tiny.example").get(5, TimeUnit.SECONDS);
+        assertTrue(resolved.isEmpty(), "undersized fallback icon is rejected");
+        int requests = primaryRequests.get() + fallbackRequests.get();
+
+        assertTrue(provider.logoUrlForDomain("tiny.example").isEmpty());
+        provider.resolveLogoUrl("tiny.example").get(5, TimeUnit.SECONDS);
+        assertEquals(requests, primaryRequests.get() + fallbackRequests.get(), "negative result is cached");
+    }
+
+    private void awaitRelease() {
+        try {
+            releaseResponses.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "image/png");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] png(int pixels) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(pixels, pixels, BufferedImage.TYPE_INT_ARGB), "png", out);
+        return out.toByteArray();
+    }
+}
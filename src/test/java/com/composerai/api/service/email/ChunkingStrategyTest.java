@@ -0,0 +1,157 @@
+package com.composerai.api.service.email;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class ChunkingStrategyTest {
+
+    private static final String WORDS = IntStream.range(0, 200)
+            .mapToObj(i -> "w" + i)
+            .collect(Collectors.joining(" "));
+
+    @Test
+    void tokenWindowsStayWithinBudgetAndOverlap() {
+        List<String> chunks = drain(new TokenWindowChunker(26, 6).chunk(WORDS));
+
+        assertTrue(chunks.size() > 1);
+        for (String chunk : chunks) {
+            assertTrue(ChunkTokens.cost(chunk, 0, chunk.length()) <= ChunkTokens.budget(26), chunk);
+        }
+        for (int i = 1; i < chunks.size(); i++) {
+            List<String> previous = List.of(chunks.get(i - 1).split(" "));
+            List<String> current = List.of(chunks.get(i).split(" "));
+            assertEquals(previous.subList(previous.size() - 4, previous.size()), current.subList(0, 4));
+        }
+        assertEquals("w0", chunks.get(0).split(" ")[0]);
+        assertTrue(chunks.get(chunks.size() - 1).endsWith("w199"));
+    }
+
+    @Test
+    void tokenWindowsCutWordsLongerThanTheBudget() {
+        String blob = "x".repeat(100);
+
+        List<String> chunks = drain(new TokenWindowChunker(10, 2).chunk("start " + blob + " end"));
+
+        assertEquals(List.of("start", "x".repeat(40), "x".repeat(40), "x".repeat(20) + " end"), chunks);
+    }
+
+    @Test
+    void tokenWindowsReadOnlyAsFarAsTheChunksTaken() {
+        CharSequence huge = new GuardedText(WORDS, 60);
+
+        Iterator<String> chunks = new TokenWindowChunker(13, 0).chunk(huge);
+
+        assertEquals("w0 w1 w2 w3 w4 w5 w6 w7 w8 w9", chunks.next());
+    }
+
+    @Test
+    void markdownSectionsStartAtHeadingsAndKeepBlocksWhole() {
+        String markdown = """
+                # Weekly digest
+                Intro paragraph with a few words.
+
+                - first item
+                  continues here
+                - second item
+
+                ```
+                code line one
+
+                code line two
+                ```
+                ## Details
+                Closing words.
+                """;
+
+        List<String> chunks = drain(new MarkdownSectionChunker(40, 0).chunk(markdown));
+
+        assertEquals(2, chunks.size());
+        assertTrue(chunks.get(0).startsWith("# Weekly digest\nIntro paragraph"), chunks.get(0));
+        assertTrue(chunks.get(0).endsWith("code line two\n```"), chunks.get(0));
+        assertEquals("## Details\nClosing words.", chunks.get(1));
+    }
+
+    @Test
+    void markdownPacksBlocksUpToTheBudgetAndSplitsOversizedOnes() {
+        String markdown = "- alpha beta\n- gamma delta\n- epsilon zeta\n\n" + WORDS + "\n";
+
+        List<String> chunks = drain(new MarkdownSectionChunker(8, 0).chunk(markdown));
+
+        assertEquals("- alpha beta\n- gamma delta", chunks.get(0));
+        assertEquals("- epsilon zeta", chunks.get(1));
+        assertEquals("w0 w1 w2 w3 w4 w5", chunks.get(2));
+        assertTrue(chunks.get(chunks.size() - 1).endsWith("w199"));
+    }
+
+    @Test
+    void sentenceWindowsSlideByTheStrideWithoutRepeatingTheTail() {
+        String text = "One is first. Two follows! Is three next? Four ends.";
+
+        assertEquals(
+                List.of("One is first. Two follows!", "Two follows! Is three next?", "Is three next? Four ends."),
+                drain(new SentenceWindowChunker(2, 1).chunk(text)));
+        assertEquals(
+                List.of("One is first. Two follows! Is three next?", "Four ends."),
+                drain(new SentenceWindowChunker(3, 3).chunk(text)));
+        assertEquals(List.of(text), drain(new SentenceWindowChunker(5, 2).chunk(text)));
+    }
+
+    @Test
+    void blankAndNullInputsYieldNoChunks() {
+        List<ChunkingStrategy> strategies = List.of(
+                new TokenWindowChunker(10, 2), new MarkdownSectionChunker(10, 2), new SentenceWindowChunker(2, 1));
+        for (ChunkingStrategy strategy : strategies) {
+            assertFalse(strategy.chunk(null).hasNext());
+            assertFalse(strategy.chunk("").hasNext());
+            assertFalse(strategy.chunk(" \n\t ").hasNext());
+        }
+    }
+
+    @Test
+    void rejectsOverlapsThatWouldNotAdvance() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenWindowChunker(10, 10));
+        assertThrows(IllegalArgumentException.class, () -> new TokenWindowChunker(1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new SentenceWindowChunker(2, 3));
+    }
+
+    private static List<String> drain(Iterator<String> chunks) {
+        List<String> all = new ArrayList<>();
+        chunks.forEachRemaining(all::add);
+        return all;
+    }
+
+    /** Fails the test if a chunker reads past {@code limit}, proving chunks are produced on demand. */
+    private record GuardedText(String text, int limit) implements CharSequence {
+        @Override
+        public int length() {
+            return Integer.MAX_VALUE / 2;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index >= limit) {
+                throw new AssertionError("read ahead to index " + index);
+            }
+            return text.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return text.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.composerai.api.service.email;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.composerai.api.config.AppProperties;
+import com.composerai.api.model.EmailMessage;
+import com.composerai.api.service.CompanyLogoProvider;
+import com.composerai.api.service.ContextBuilder;
+import com.composerai.api.service.EmailParsingService;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CompositeEmailMessageProviderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private EmailParsingService parsingService;
+    private ParsedEmailCache parsedEmailCache;
+    private Path inbox;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        AppProperties properties = new AppProperties();
+        properties.getEmailParsing().setCacheDirectory(tempDir.resolve("cache").toString());
+        parsingService = new EmailParsingService(
+                new ContextBuilder.InMemoryEmailContextCache(),
+                new CompanyLogoProvider(properties, task -> {}),
+                properties);
+        parsedEmailCache = new ParsedEmailCache(properties);
+        inbox = Files.createDirectories(tempDir.resolve("eml"));
+    }
+
+    @Test
+    void messageInTwoSourcesIsServedOnceFromTheInboxDirectory() throws Exception {
+        Files.writeString(inbox.resolve("shared.eml"), message("shared", "inbox copy"));
+        Path mbox = Files.writeString(
+                tempDir.resolve("archive.mbox"),
+                "From sender@example.com Thu Sep 18 10:15:30 2025\n" + message("shared", "archive copy")
+                        + "From sender@example.com Thu Sep 18 10:16:30 2025\n" + message("archived", "only here"));
+        CompositeEmailMessageProvider provider = new CompositeEmailMessageProvider(
+                new DataDirectoryEmailMessageProvider(
+                        parsingService, parsedEmailCache, inbox.toString(), false, Duration.ZERO),
+                parsingService,
+                parsedEmailCache,
+                mbox.toString(),
+                "");
+
+        List<EmailMessage> messages = provider.loadEmails();
+
+        assertEquals(List.of("inbox copy", "only here"), subjects(messages));
+        assertEquals(2, messages.stream().map(EmailMessage::id).distinct().count());
+        assertSame(messages, provider.loadEmails());
+    }
+
+    private static String message(String id, String subject) {
+        return "From: Sender <sender@example.com>\n"
+                + "Subject: " + subject + "\n"
+                + "Message-ID: <" + id + "@example.com>\n"
+                + "\n"
+                + "Body\n"
+                + "\n";
+    }
+
+    private static List<String> subjects(List<EmailMessage> messages) {
+        return messages.stream().map(EmailMessage::subject).toList();
+    }
+}
@@ -0,0 +1,161 @@
+package com.composerai.api.service.email;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.composerai.api.config.AppProperties;
+import com.composerai.api.model.EmailMessage;
+import com.composerai.api.service.CompanyLogoProvider;
+import com.composerai.api.service.ContextBuilder;
+import com.composerai.api.service.EmailParsingService;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DataDirectoryEmailMessageProviderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicInteger parses = new AtomicInteger();
+    private final AtomicBoolean deadlineExceeded = new AtomicBoolean();
+    private Path inbox;
+    private EmailParsingService parsingService;
+    private ParsedEmailCache parsedEmailCache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        AppProperties properties = new AppProperties();
+        properties.getEmailParsing().setCacheDirectory(tempDir.resolve("cache").toString());
+        parsingService = new EmailParsingService(
+                new ContextBuilder.InMemoryEmailContextCache(),
+                new CompanyLogoProvider(properties, task -> {}),
+                properties) {
+            @Override
+            public ParsedEmail parseEmail(Path path, String originalFilename) {
+                parses.incrementAndGet();
+                return super.parseEmail(path, originalFilename)
+                        .toParsedBuilder()
+                        .parseDeadlineExceeded(deadlineExceeded.get())
+                        .build();
+            }
+        };
+        parsedEmailCache = new ParsedEmailCache(properties);
+        inbox = Files.createDirectories(tempDir.resolve("eml"));
+    }
+
+    @Test
+    void unchangedDirectoryServesThePreviousListWithoutParsing() throws Exception {
+        write("a.eml", "first", 1_700_000_000L);
+        write("b.eml", "second", 1_700_000_100L);
+        DataDirectoryEmailMessageProvider provider = polling(Duration.ZERO);
+
+        List<EmailMessage> loaded = provider.loadEmails();
+
+        assertEquals(List.of("second", "first"), subjects(loaded));
+        assertSame(loaded, provider.loadEmails());
+        assertEquals(2, parses.get());
+    }
+
+    @Test
+    void onlyAddedAndChangedFilesAreParsedAndDeletedFilesDisappear() throws Exception {
+        Path first = write("a.eml", "first", 1_700_000_000L);
+        Path second = write("b.eml", "second", 1_700_000_100L);
+        write("c.eml", "third", 1_700_000_200L);
+        DataDirectoryEmailMessageProvider provider = polling(Duration.ZERO);
+        provider.loadEmails();
+
+        Files.delete(first);
+        write(second.getFileName().toString(), "second, edited", 1_700_000_300L);
+        write("d.eml", "fourth", 1_700_000_250L);
+
+        assertEquals(List.of("second, edited", "fourth", "third"), subjects(provider.loadEmails()));
+        assertEquals(5, parses.get());
+    }
+
+    @Test
+    void importedFilesShowUpBeforeTheNextRescan() throws Exception {
+        write("a.eml", "first", 1_700_000_000L);
+        DataDirectoryEmailMessageProvider provider = polling(Duration.ofHours(1));
+        provider.loadEmails();
+
+        Path upload = write(tempDir.resolve("upload.eml"), "uploaded", 1_700_000_100L);
+        provider.importFile(upload, "uploaded.eml");
+
+        assertEquals(List.of("uploaded", "first"), subjects(provider.loadEmails()));
+        assertEquals(2, parses.get());
+    }
+
+    @Test
+    void parsesCutShortByTheDeadlineAreNotCached() throws Exception {
+        write("a.eml", "first", 1_700_000_000L);
+        deadlineExceeded.set(true);
+        polling(Duration.ZERO).loadEmails();
+
+        // A restarted provider finds nothing cached and parses again; the full result is then reused
+        deadlineExceeded.set(false);
+        assertEquals(List.of("first"), subjects(polling(Duration.ZERO).loadEmails()));
+        assertEquals(2, parses.get());
+        polling(Duration.ZERO).loadEmails();
+        assertEquals(2, parses.get());
+    }
+
+    @Test
+    void cacheEntriesLeaveOutRelativeTimesAndRestoreThemOnLoad() throws Exception {
+        Path file = write("a.eml", "first", 1_700_000_000L);
+        EmailMessage parsed = polling(Duration.ZERO).loadEmails().get(0);
+
+        EmailMessage cached = parsedEmailCache.lookup(parsedEmailCache.keyFor(file)).orElseThrow();
+        assertTrue(parsed.receivedTimestampDisplay().endsWith(" ago)"));
+        assertFalse(cached.receivedTimestampDisplay().contains(" ago"));
+        assertNull(cached.contextForAi());
+        assertEquals("2023-11-14T22:13:20Z", cached.receivedTimestampIso());
+
+        EmailMessage restored = polling(Duration.ZERO).loadEmails().get(0);
+        assertEquals(1, parses.get());
+        assertNotNull(restored.contextForAi());
+        assertEquals(parsed.receivedTimestampDisplay(), restored.receivedTimestampDisplay());
+        assertEquals(parsed.contextForAi(), restored.contextForAi());
+    }
+
+    private DataDirectoryEmailMessageProvider polling(Duration pollInterval) {
+        return new DataDirectoryEmailMessageProvider(
+                parsingService, parsedEmailCache, inbox.toString(), false, pollInterval);
+    }
+
+    private Path write(String fileName, String subject, long epochSecond) throws Exception {
+        return write(inbox.resolve(fileName), subject, epochSecond);
+    }
+
+    private static Path write(Path file, String subject, long epochSecond) throws Exception {
+        Files.writeString(
+                file,
+                "From: Sender <sender@example.com>\r\n"
+                        + "Subject: " + subject + "\r\n"
+                        + "Date: " + DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                                Instant.ofEpochSecond(epochSecond).atOffset(ZoneOffset.UTC)) + "\r\n"
+                        + "Message-ID: <" + epochSecond + "@example.com>\r\n"
+                        + "\r\n"
+                        + "Body\r\n");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.ofEpochSecond(epochSecond)));
+        return file;
+    }
+
+    private static List<String> subjects(List<EmailMessage> messages) {
+        return messages.stream().map(EmailMessage::subject).toList();
+    }
+}
@@ -0,0 +1,137 @@
+package com.composerai.api.service.email;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.composerai.api.service.HtmlToText;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.StringWriter;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class EmailBatchPipelineTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void convertsMatchingFilesAndMatchesSingleFileOutput() throws Exception {
+        Path nested = Files.createDirectories(tempDir.resolve("nested"));
+        Path welcome = Files.writeString(tempDir.resolve("welcome.html"), "<p>Hello <strong>world</strong></p>");
+        Files.writeString(nested.resolve("receipt.htm"), "<h1>Receipt</h1><p>Total: $5</p>");
+        Files.writeString(tempDir.resolve("notes.txt"), "not matched by the glob");
+
+        HtmlToText.Options options = batchOptions();
+        StringWriter out = new StringWriter();
+        EmailBatchPipeline.Summary summary = EmailBatchPipeline.run(options, out);
+
+        Map<String, JsonNode> records = records(out);
+        assertEquals(2, summary.files());
+        assertEquals(0, summary.failed());
+        assertEquals(2, records.size());
+        assertEquals("ok", records.get("nested/receipt.htm").path("status").asText());
+        assertEquals(
+                HtmlToText.convert(options.forInputFile(welcome.toString())),
+                records.get("welcome.html").path("content").asText());
+        assertTrue(summary.p99Millis() >= summary.p50Millis());
+        assertTrue(summary.filesPerSecond() > 0);
+    }
+
+    @Test
+    void failingFileProducesErrorRecordAndBatchContinues() throws Exception {
+        Files.writeString(tempDir.resolve("good.html"), "<p>fine</p>");
+        Files.writeString(tempDir.resolve("scan.pdf"), "%PDF-1.7");
+
+        HtmlToText.Options options = batchOptions();
+        options.glob = "*";
+        StringWriter out = new StringWriter();
+        EmailBatchPipeline.Summary summary = EmailBatchPipeline.run(options, out);
+
+        Map<String, JsonNode> records = records(out);
+        assertEquals(2, summary.files());
+        assertEquals(1, summary.failed());
+        assertEquals("error", records.get("scan.pdf").path("status").asText());
+        assertTrue(records.get("scan.pdf").path("error").asText().contains("Unsupported input type"));
+        assertEquals("ok", records.get("good.html").path("status").asText());
+    }
+
+    @Test
+    void perFileOptionsCarryEveryBatchOption() throws Exception {
+        HtmlToText.Options options = batchOptions();
+        options.inputFile = "ignored.eml";
+        options.glob = "*.eml";
+        options.workers = Runtime.getRuntime().availableProcessors() + 1;
+        options.inputType = "eml";
+        options.format = HtmlToText.OutputFormat.PLAIN;
+        options.outputFile = "out.ndjson";
+        options.outputDir = tempDir.resolve("out");
+        options.charset = StandardCharsets.ISO_8859_1;
+        options.urlsPolicy = HtmlToText.UrlPolicy.CLEAN_ONLY;
+        options.includeMetadata = false;
+        options.jsonOutput = true;
+        options.binaryOutput = true;
+        options.suppressUtility = true;
+        options.maxHtmlPartBytes = 11;
+        options.maxTextPartBytes = 12;
+        options.inputOffset = 13;
+        options.inputLength = 14;
+        options.inlineImages = new InlineImageSink() {
+            @Override
+            public long maxBytes() {
+                return 15;
+            }
+
+            @Override
+            public String store(String mediaType, byte[] data) {
+                return null;
+            }
+        };
+        options.parseBudget = new ParseBudget(16, 17, 18, Duration.ofSeconds(19));
+
+        HtmlToText.Options perFile = options.forInputFile("a.eml");
+
+        assertEquals("a.eml", perFile.inputFile);
+        assertNull(perFile.inputDir);
+        HtmlToText.Options defaults = new HtmlToText.Options();
+        for (Field field : HtmlToText.Options.class.getFields()) {
+            String name = field.getName();
+            if (Modifier.isStatic(field.getModifiers()) || name.equals("inputFile") || name.equals("inputDir")) {
+                continue;
+            }
+            assertNotEquals(field.get(defaults), field.get(options), name + " must be set away from its default");
+            assertEquals(field.get(options), field.get(perFile), name);
+        }
+    }
+
+    private HtmlToText.Options batchOptions() {
+        HtmlToText.Options options = new HtmlToText.Options();
+        options.inputDir = tempDir;
+        options.workers = 2;
+        options.format = HtmlToText.OutputFormat.MARKDOWN;
+        return options;
+    }
+
+    private static Map<String, JsonNode> records(StringWriter out) throws Exception {
+        Map<String, JsonNode> byFile = new HashMap<>();
+        for (String line : out.toString().split("\n")) {
+            if (!line.isBlank()) {
+                JsonNode record = JSON.readTree(line);
+                byFile.put(record.path("file").asText(), record);
+            }
+        }
+        return byFile;
+    }
+}
@@ -0,0 +1,117 @@
+package com.composerai.api.service.email;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.composerai.api.model.EmailBodySegments;
+import com.composerai.api.model.EmailBodySegments.Kind;
+import org.junit.jupiter.api.Test;
+
+class EmailBodySegmenterTest {
+
+    @Test
+    void topPostedReplyKeepsOnlyTheNewContent() {
+        String body = """
+                Sounds good, see you Tuesday.
+
+                On Mon, Sep 15, 2025 at 9:02 AM Dana Lee <dana@example.com> wrote:
+
+                > Can we move the review to Tuesday?
+                >
+                > Dana
+                """;
+
+        EmailBodySegments segments = EmailBodySegmenter.segment(body, null);
+
+        assertEquals("Sounds good, see you Tuesday.", segments.newContent(body));
+        assertEquals(body.substring(body.indexOf("On Mon")), slice(body, segments, Kind.QUOTED));
+    }
+
+    @Test
+    void inlineRepliesBetweenQuotesStayNew() {
+        String body = """
+                > Is the deploy done?
+                Yes, finished at noon.
+                > And the migration?
+
+                > It was scheduled for today.
+                Running now.
+                """;
+
+        EmailBodySegments segments = EmailBodySegmenter.segment(body, null);
+
+        assertEquals("Yes, finished at noon.\n\nRunning now.", segments.newContent(body));
+        assertEquals(
+                "> And the migration?\n\n> It was scheduled for today.\n",
+                body.substring(segments.segments().get(2).start(), segments.segments().get(2).end()));
+    }
+
+    @Test
+    void unprefixedHistoryRunsToTheEnd() {
+        String outlook = """
+                Please see below.
+
+                ________________________________
+                **From:** Sam Ortiz
+                **Sent:** Monday, September 15, 2025 9:00 AM
+                **To:** Team
+                **Subject:** Budget
+
+                Numbers attached.
+                """;
+        String forward = "FYI\n\n---------- Forwarded message ---------\nFrom: a@example.com\nHello\n";
+
+        assertEquals("Please see below.", EmailBodySegmenter.segment(outlook, null).newContent(outlook));
+        assertTrue(slice(outlook, EmailBodySegmenter.segment(outlook, null), Kind.QUOTED).startsWith("_____"));
+        assertEquals("FYI", EmailBodySegmenter.segment(forward, null).newContent(forward));
+    }
+
+    @Test
+    void htmlQuoteContainerLocatesLocalizedAttribution() {
+        String html = "<div>Merci !</div><div class=\"gmail_quote\"><div class=\"gmail_attr\">"
+                + "Le lun. 15 sept. 2025, Dana Lee &lt;dana@example.com&gt; a dit :</div>"
+                + "<blockquote class=\"gmail_quote\">Bonjour</blockquote></div>";
+        String body = "Merci !\n\nLe lun. 15 sept. 2025, Dana Lee \\<dana@example.com\\> a dit :\n\nBonjour\n";
+
+        EmailBodySegments segments = EmailBodySegmenter.segment(body, EmailHtmlDocument.parse(html));
+
+        assertEquals("Merci !", segments.newContent(body));
+    }
+
+    @Test
+    void signaturesAreSeparatedFromTheMessage() {
+        String delimited = "Draft attached.\n\n-- \nJo Park\nStaff Engineer\n";
+        String mobile = "On my way.\n\nSent from my iPhone\n";
+        String valediction = "Let me know what you think.\n\nThanks,\nJo Park\nAcme Corp | 555-0100\n";
+
+        assertEquals("Draft attached.", EmailBodySegmenter.segment(delimited, null).newContent(delimited));
+        assertEquals("On my way.", EmailBodySegmenter.segment(mobile, null).newContent(mobile));
+        EmailBodySegments signed = EmailBodySegmenter.segment(valediction, null);
+        assertEquals("Let me know what you think.\n\nThanks,", signed.newContent(valediction));
+        assertEquals("Jo Park\nAcme Corp | 555-0100\n", slice(valediction, signed, Kind.SIGNATURE));
+    }
+
+    @Test
+    void plainMessagesAreEntirelyNewAndSegmentsRoundTrip() {
+        String body = "Thanks for the update, the numbers look right.\nShipping Friday.";
+
+        EmailBodySegments segments = EmailBodySegmenter.segment(body, null);
+
+        assertFalse(segments.hasOmittedContent());
+        assertEquals(EmailBodySegments.allNew(body.length()), segments);
+        String reply = "Yes.\n\nOn Tue, Sep 16, 2025 Dana wrote:\n> Ready?\n";
+        EmailBodySegments replySegments = EmailBodySegmenter.segment(reply, null);
+        assertEquals(replySegments, EmailBodySegments.decode(replySegments.encode()));
+    }
+
+    private static String slice(String body, EmailBodySegments segments, Kind kind) {
+        StringBuilder out = new StringBuilder();
+        for (EmailBodySegments.Segment segment : segments.segments()) {
+            if (segment.kind() == kind) {
+                out.append(body, segment.start(), segment.end());
+            }
+        }
+        return out.toString();
+    }
+}
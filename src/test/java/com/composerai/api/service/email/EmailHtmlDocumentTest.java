@@ -0,0 +1,52 @@
+package com.composerai.api.service.email;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.composerai.api.service.HtmlToText;
+import org.junit.jupiter.api.Test;
+
+class EmailHtmlDocumentTest {
+
+    private static final String NEWSLETTER = """
+            <html><head><style>p { color: red; }</style></head>
+            <body><table><tr><td><p>Hello <b>reader</b></p><a href="https://example.com/?utm_source=x">Read</a>
+            <script>alert('x')</script><p>Unsubscribe here</p></td></tr></table></body></html>
+            """;
+
+    @Test
+    void derivedViewsMatchStringBasedConversion() {
+        EmailHtmlDocument document = EmailHtmlDocument.parse(NEWSLETTER);
+
+        for (HtmlToText.OutputFormat format : HtmlToText.OutputFormat.values()) {
+            assertEquals(
+                    HtmlConverter.convertHtml(NEWSLETTER, format, HtmlToText.UrlPolicy.CLEAN_ONLY, true),
+                    HtmlConverter.convertHtml(document, format, HtmlToText.UrlPolicy.CLEAN_ONLY, true));
+        }
+        assertEquals(EmailHtmlSanitizer.sanitize(NEWSLETTER), EmailHtmlSanitizer.sanitize(document));
+    }
+
+    @Test
+    void viewsDoNotMutateTheSharedParse() {
+        EmailHtmlDocument document = EmailHtmlDocument.parse(NEWSLETTER);
+        String before = document.workingCopy().outerHtml();
+
+        String sanitized = EmailHtmlSanitizer.sanitize(document);
+        HtmlConverter.convertHtml(document, HtmlToText.OutputFormat.PLAIN, HtmlToText.UrlPolicy.STRIP_ALL, true);
+
+        assertFalse(sanitized.contains("<script"));
+        assertEquals(before, document.workingCopy().outerHtml());
+        assertTrue(document.workingCopy().outerHtml().contains("<script"));
+    }
+
+    @Test
+    void blankInputIsNeverParsed() {
+        EmailHtmlDocument document = EmailHtmlDocument.parse("   ");
+
+        assertTrue(document.isBlank());
+        assertEquals("", HtmlConverter.convertHtml(document, HtmlToText.OutputFormat.MARKDOWN, null, true));
+        assertNull(EmailHtmlSanitizer.sanitize(document));
+    }
+}
@@ -0,0 +1,131 @@
+package com.composerai.api.service.email;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.Test;
+
+class EmailHtmlMinifierTest {
+
+    private static final String CELL_STYLE =
+            "padding: 12px 24px; font-family: Helvetica, Arial, sans-serif; color: #333333; line-height: 20px";
+
+    @Test
+    void repeatedInlineStylesBecomeZeroSpecificityImportantRules() {
+        String cell = "<td style=\"" + CELL_STYLE + ";\">item</td>";
+        String html = "<table><tr>" + cell.repeat(6) + "<td style=\"color:red\">x</td></tr></table>";
+
+        String minified = EmailHtmlMinifier.minify(html).html();
+
+        assertTrue(minified.startsWith("<style>:where(._m0){padding: 12px 24px!important;"), minified);
+        assertTrue(minified.contains("line-height: 20px!important}</style>"), minified);
+        assertEquals(6, countOccurrences(minified, "<td class=\"_m0\">item</td>"));
+        assertTrue(minified.contains("<td style=\"color:red\">x</td>"), "single-use style stays inline");
+    }
+
+    @Test
+    void stylesThatCannotMoveSafelyStayInline() {
+        String html = ("<p style=\"width:600px;padding:10px 20px 10px 20px\">a</p>"
+                        + "<p style=\"color:#123456 !important;padding:10px 20px\">b</p>"
+                        + "<p style=\"font-family:'x</style><script>alert(1)</script>'\">c</p>")
+                .repeat(8);
+
+        String minified = EmailHtmlMinifier.minify(html).html();
+
+        assertFalse(minified.contains("<style>"), minified);
+        assertEquals(8, countOccurrences(minified, "style=\"width:600px"));
+        assertEquals(8, countOccurrences(minified, "style=\"color:#123456 !important"));
+        assertEquals(8, countOccurrences(minified, "style=\"font-family:'x</style>"));
+    }
+
+    @Test
+    void classesAreNotAddedWhenStyleSheetsSelectOnAttributes() {
+        String html = "<style>[class] { margin: 0 }</style>"
+                + "<p style=\"padding: 10px 20px; font-size: 14px; color: #222222\">a</p>".repeat(8);
+
+        String minified = EmailHtmlMinifier.minify(html).html();
+
+        assertFalse(minified.contains("_m0"), minified);
+    }
+
+    @Test
+    void dropsCommentsDuplicateStyleBlocksAndCollapsesWhitespace() {
+        String html = "<style>\n  .a {\n    color: red;\n    content: \"  two  \";\n  }\n</style>"
+                + "<style>\n  .a {\n    color: red;\n    content: \"  two  \";\n  }\n</style>"
+                + "<!--[if mso]><table><![endif]-->"
+                + "<div>\n    Hello\n    <b>there</b>\n</div><pre>  keep\n    this  </pre>";
+
+        String minified = EmailHtmlMinifier.minify(html).html();
+
+        assertEquals(
+                "<style>.a { color: red; content: \"  two  \"; }</style>"
+                        + "<div> Hello <b>there</b> </div><pre>  keep\n    this  </pre>",
+                minified);
+    }
+
+    @Test
+    void whitespaceIsKeptWhenStyleSheetsPreserveIt() {
+        String html = "<style>.code { white-space: pre-wrap }</style><div class=\"code\">a\n    b</div>";
+
+        assertTrue(EmailHtmlMinifier.minify(html).html().contains("a\n    b"));
+    }
+
+    @Test
+    void removesEmptyAndAttributeLessInlineElementsUnlessStyled() {
+        String html = "<p>a<span></span><font><b></b></font><span>b</span><i class=\"icon\"></i></p>";
+
+        assertEquals("<p>ab<i class=\"icon\"></i></p>", EmailHtmlMinifier.minify(html).html());
+        assertTrue(EmailHtmlMinifier.minify("<style>span{padding:4px}</style>" + html)
+                .html()
+                .contains("<span></span>"));
+    }
+
+    @Test
+    void sanitizedNewsletterShrinksByAtLeastFortyPercentWithSameText() {
+        String row = """
+                <!-- product row -->
+                <tr>
+                  <td style="padding: 12px 24px; font-family: Helvetica, Arial, sans-serif; color: #333333;">
+                    <span style="font-size: 16px; line-height: 24px; font-weight: bold; color: #111111;">
+                      Weekly pick %d
+                    </span>
+                    <span></span>
+                  </td>
+                  <td style="padding: 12px 24px; font-family: Helvetica, Arial, sans-serif; color: #333333;">
+                    <a href="https://example.com/p/%d" style="color: #0a66c2; text-decoration: none;">Shop now</a>
+                  </td>
+                </tr>
+                """;
+        StringBuilder rows = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            rows.append(row.formatted(i, i));
+        }
+        String styles = "<style>.footer { color: #999999; }</style>";
+        String sanitized = EmailHtmlSanitizer.sanitize("<html><head>" + styles + styles + "</head><body>"
+                + "<table role=\"presentation\" cellpadding=\"0\" cellspacing=\"0\">" + rows + "</table>"
+                + "<p class=\"footer\">Unsubscribe</p></body></html>");
+
+        EmailHtmlMinifier.Result result = EmailHtmlMinifier.minify(sanitized);
+
+        assertTrue(result.savedRatio() >= 0.40, result.toString());
+        assertEquals(result.originalBytes() - result.minifiedBytes(), result.savedBytes());
+        assertEquals(Jsoup.parse(sanitized).text(), Jsoup.parse(result.html()).text());
+        assertEquals(1, countOccurrences(result.html(), ".footer"));
+    }
+
+    @Test
+    void blankInputIsReturnedUnchanged() {
+        assertEquals(0, EmailHtmlMinifier.minify(null).savedBytes());
+        assertEquals(" ", EmailHtmlMinifier.minify(" ").html());
+    }
+
+    private static int countOccurrences(String haystack, String needle) {
+        int count = 0;
+        for (int i = haystack.indexOf(needle); i >= 0; i = haystack.indexOf(needle, i + needle.length())) {
+            count++;
+        }
+        return count;
+    }
+}
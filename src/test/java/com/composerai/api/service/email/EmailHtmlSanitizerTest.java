@@ -0,0 +1,109 @@
+package com.composerai.api.service.email;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Locale;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class EmailHtmlSanitizerTest {
+
+    static Stream<Arguments> xssVectors() {
+        return Stream.of(
+                Arguments.of("<p onclick=\"alert(1)\" ONMOUSEOVER=\"x()\">hi</p>", "onclick", "hi"),
+                Arguments.of("<p>a</p><script>alert(1)</script>", "<script", "<p>a</p>"),
+                Arguments.of("<svg><script>alert(1)</script></svg><p>b</p>", "alert(1)", "<p>b</p>"),
+                Arguments.of("<iframe src=\"https://evil\"></iframe><p>c</p>", "<iframe", "<p>c</p>"),
+                Arguments.of("<object data=\"x\"></object><embed src=\"x\"><p>d</p>", "<object", "<p>d</p>"),
+                Arguments.of("<form action=\"/steal\"><input name=\"pw\"></form><p>e</p>", "<input", "<p>e</p>"),
+                Arguments.of("<noscript><img src=\"x\"></noscript><p>f</p>", "<img", "<p>f</p>"),
+                Arguments.of("<a href=\"javascript:alert(1)\">g</a>", "javascript:", ">g</a>"),
+                Arguments.of("<a href=\" JavaScript:alert(1)\">h</a>", "javascript:", ">h</a>"),
+                Arguments.of("<a href=\"vbscript:msgbox(1)\">i</a>", "vbscript:", ">i</a>"),
+                Arguments.of("<a href=\"data:text/html;base64,PHNjcmlwdD4=\">j</a>", "data:text", ">j</a>"),
+                Arguments.of("<img src=\"data:text/html,x\" alt=\"k\">", "data:text", "alt=\"k\""),
+                Arguments.of("<img src=\"x.png\" onerror=\"alert(1)\">", "onerror", "x.png"),
+                Arguments.of("<svg><a xlink:href=\"javascript:alert(1)\">l</a></svg>", "javascript:", ">l</a>"),
+                Arguments.of(
+                        "<div style=\"background-image: url('javascript:alert(1)')\">m</div>",
+                        "javascript:",
+                        "<div style="),
+                Arguments.of(
+                        "<style>.n{width:expression(alert(1))}</style><p>n</p>", "expression(", "width:alert(1)"),
+                Arguments.of("<style>.o{background:url(javascript:alert(1))}</style><p>o</p>", "javascript:", "url("),
+                Arguments.of("<style>@import 'javascript:alert(1)';</style><p>p</p>", "javascript:", "<p>p</p>"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("xssVectors")
+    void neutralizesXssVector(String html, String forbidden, String preserved) {
+        String sanitized = EmailHtmlSanitizer.sanitize(html);
+
+        assertFalse(sanitized.toLowerCase(Locale.ROOT).contains(forbidden.toLowerCase(Locale.ROOT)), sanitized);
+        assertTrue(sanitized.contains(preserved), sanitized);
+    }
+
+    @Test
+    void keepsSafeUrlsAndDataImages() {
+        String sanitized = EmailHtmlSanitizer.sanitize("<a href=\"https://example.com/a?b=1\">safe</a>"
+                + "<img src=\"data:image/png;base64,iVBORw0KGgo=\"><a href=\"data:image/gif;base64,R0lG\">gif</a>");
+
+        assertTrue(sanitized.contains("href=\"https://example.com/a?b=1\""));
+        assertTrue(sanitized.contains("src=\"data:image/png;base64,iVBORw0KGgo=\""));
+        assertTrue(sanitized.contains("href=\"data:image/gif;base64,R0lG\""));
+    }
+
+    @Test
+    void neutralizesFixedPositioningInStylesAndStyleBlocks() {
+        String sanitized = EmailHtmlSanitizer.sanitize("<html><head><style>.cta{POSITION : FIXED}</style></head>"
+                + "<body><div style=\"position:fixed;top:0\">a</div><div style=\"position:absolute\">b</div></body>"
+                + "</html>");
+
+        assertFalse(sanitized.toLowerCase(Locale.ROOT).contains("fixed"), sanitized);
+        assertTrue(sanitized.contains(".cta{position: relative}"), sanitized);
+        assertTrue(sanitized.contains("style=\"position: relative;top:0\""), sanitized);
+        assertTrue(sanitized.contains("style=\"position:absolute\""), sanitized);
+    }
+
+    @Test
+    void constrainsImagesWithoutOverridingExplicitMaxWidth() {
+        String sanitized = EmailHtmlSanitizer.sanitize(
+                "<img src=\"a.png\" style=\"width:10px\"><img src=\"b.png\" style=\"max-width:50px\">");
+
+        assertTrue(sanitized.contains("style=\"width:10px; max-width: 100%;\""), sanitized);
+        assertTrue(sanitized.contains("style=\"max-width:50px\""), sanitized);
+    }
+
+    @Test
+    void repeatedInlineStylesAreEachNeutralized() {
+        String cell = "<td style=\"padding:0;position:fixed\">x</td>";
+        String sanitized = EmailHtmlSanitizer.sanitize("<table><tr>" + cell.repeat(50) + "</tr></table>");
+
+        assertEquals(50, countOccurrences(sanitized, "style=\"padding:0;position: relative\""));
+        assertFalse(sanitized.contains("fixed"));
+    }
+
+    @Test
+    void wrapsBodyAttributesIntoContainer() {
+        String sanitized = EmailHtmlSanitizer.sanitize("<html><body class=\"promo\" style=\"color:red\""
+                + " bgcolor=\"#fff\" background=\"https://example.com/bg.png\"><p>t</p></body></html>");
+
+        assertTrue(sanitized.startsWith("<div class=\"email-original-body promo\""), sanitized);
+        assertTrue(sanitized.contains("bgcolor=\"#fff\""), sanitized);
+        assertTrue(sanitized.contains("data-email-background=\"https://example.com/bg.png\""), sanitized);
+        assertTrue(sanitized.contains("background-image: url("), sanitized);
+    }
+
+    private static int countOccurrences(String haystack, String needle) {
+        int count = 0;
+        for (int i = haystack.indexOf(needle); i >= 0; i = haystack.indexOf(needle, i + needle.length())) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,71 @@
+package com.composerai.api.service.email;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class EmailPreviewExtractorTest {
+
+    @Test
+    void stripsMarkdownSyntaxLinksAndUrls() {
+        String markdown = """
+                # Weekly **digest**
+
+                > Hello _reader_, see [the launch notes](https://example.com/launch?utm=x) and
+                > ![banner](https://cdn.example.com/b.png) https://example.com/raw <https://example.com/auto>
+
+                - first `item`
+                1. second item
+                | col_a | col b |
+                |---|:---:|
+                """;
+
+        assertEquals(
+                "Weekly digest Hello reader, see the launch notes and first item second item col_a col b",
+                EmailPreviewExtractor.extract(markdown));
+    }
+
+    @Test
+    void skipsBoilerplateRulesFencesAndInvisibleFiller() {
+        String body = """
+                View this email in your browser
+                \u034F\u200C \u034F\u200C \u00AD
+                ***
+                ```
+                tracking code
+                ```
+                Your order has shipped.
+                Unsubscribe | Update your preferences
+                """;
+
+        assertEquals("Your order has shipped.", EmailPreviewExtractor.extract(body));
+    }
+
+    @Test
+    void longProseMentioningBoilerplateIsKept() {
+        String line = "We heard you: the unsubscribe flow was confusing, so ".repeat(4);
+
+        assertTrue(EmailPreviewExtractor.extract(line).startsWith("We heard you: the unsubscribe flow"));
+    }
+
+    @Test
+    void truncatesAtAWordBoundaryWithinTheLimit() {
+        String body = "lorem ipsum ".repeat(100);
+
+        String preview = EmailPreviewExtractor.extract(body, 40);
+
+        assertEquals("lorem ipsum lorem ipsum lorem ipsum...", preview);
+        assertTrue(EmailPreviewExtractor.extract(body).length() <= EmailPreviewExtractor.DEFAULT_MAX_CHARS);
+        assertEquals("x".repeat(17) + "...", EmailPreviewExtractor.extract("x".repeat(100), 20));
+    }
+
+    @Test
+    void shortBodiesAreReturnedWhole() {
+        assertEquals("Hi there, lunch at noon?", EmailPreviewExtractor.extract("Hi there,\n\nlunch at noon?\n"));
+        assertEquals("", EmailPreviewExtractor.extract(null));
+        assertEquals("", EmailPreviewExtractor.extract("  \n\n"));
+        assertThrows(IllegalArgumentException.class, () -> EmailPreviewExtractor.extract("text", 3));
+    }
+}
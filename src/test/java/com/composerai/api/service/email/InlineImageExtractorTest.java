@@ -0,0 +1,104 @@
+package com.composerai.api.service.email;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.composerai.api.config.AppProperties;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Properties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class InlineImageExtractorTest {
+
+    private static final byte[] PIXEL = Base64.getDecoder()
+            .decode("iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mNkYPhfDwAChwGA60e6kgAAAABJRU5ErkJggg==");
+
+    @TempDir
+    Path tempDir;
+
+    private AppProperties properties;
+    private InlineImageStore store;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AppProperties();
+        properties.getEmailParsing().setInlineImageDirectory(tempDir.toString());
+        store = new InlineImageStore(properties);
+    }
+
+    @Test
+    void dataUriImagesMoveToTheStoreOncePerContent() throws Exception {
+        String dataUri = "data:image/png;base64," + Base64.getEncoder().encodeToString(PIXEL);
+        String svg = "data:image/svg+xml;utf8,<svg xmlns='http://www.w3.org/2000/svg'/>";
+        EmailHtmlDocument html = EmailHtmlDocument.parse("<p><img src=\"" + dataUri + "\"><img src=\"" + dataUri
+                + "\"><img src=\"" + svg + "\"><img src=\"https://example.com/a.png\"></p>");
+
+        assertEquals(2, InlineImageExtractor.externalize(html, null, store));
+
+        String rendered = EmailHtmlSanitizer.sanitize(html);
+        int urlStart = rendered.indexOf(InlineImageStore.URL_PREFIX);
+        String url = rendered.substring(urlStart, rendered.indexOf(".png", urlStart) + ".png".length());
+        assertEquals(2, rendered.split(url, -1).length - 1);
+        assertTrue(rendered.contains("https://example.com/a.png"));
+        assertTrue(rendered.contains("data:image/svg+xml"));
+
+        InlineImageStore.StoredImage stored =
+                store.find(url.substring(InlineImageStore.URL_PREFIX.length())).orElseThrow();
+        assertEquals("image/png", stored.mediaType());
+        assertArrayEquals(PIXEL, Files.readAllBytes(stored.file()));
+    }
+
+    @Test
+    void oversizedAndUnsupportedImagesStayInline() {
+        properties.getEmailParsing().setMaxInlineImageSize(DataSize.ofBytes(16));
+        String png = "data:image/png;base64," + Base64.getEncoder().encodeToString(PIXEL);
+        String svg = "data:image/svg+xml;base64," + Base64.getEncoder().encodeToString("<svg/>".getBytes());
+        EmailHtmlDocument html = EmailHtmlDocument.parse("<img src=\"" + png + "\"><img src=\"" + svg + "\">");
+
+        assertEquals(0, InlineImageExtractor.externalize(html, null, store));
+        assertTrue(store.find("../../etc/passwd").isEmpty());
+    }
+
+    @Test
+    void cidReferencesResolveToImagePartsOfTheMessage() throws Exception {
+        String raw = """
+                From: news@example.com
+                Subject: Logo
+                MIME-Version: 1.0
+                Content-Type: multipart/related; boundary="b1"
+
+                --b1
+                Content-Type: text/html; charset=UTF-8
+
+                <p><img src="cid:logo%40example.com"><img src="cid:missing@example.com"></p>
+                --b1
+                Content-Type: image/png
+                Content-Transfer-Encoding: base64
+                Content-ID: <logo@example.com>
+
+                %s
+                --b1--
+                """.formatted(Base64.getEncoder().encodeToString(PIXEL)).replace("\n", "\r\n");
+        MimeMessage message = new MimeMessage(
+                Session.getInstance(new Properties()),
+                new ByteArrayInputStream(raw.getBytes(StandardCharsets.US_ASCII)));
+        EmailHtmlDocument html = EmailHtmlDocument.parse(
+                "<p><img src=\"cid:logo%40example.com\"><img src=\"cid:missing@example.com\"></p>");
+
+        assertEquals(1, InlineImageExtractor.externalize(html, message, store));
+
+        String rendered = EmailHtmlSanitizer.sanitize(html);
+        assertTrue(rendered.contains(InlineImageStore.URL_PREFIX));
+        assertTrue(rendered.contains("cid:missing@example.com"));
+    }
+}
@@ -0,0 +1,163 @@
+package com.composerai.api.service.email;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import jakarta.mail.internet.MailDateFormat;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class MailDateParserTest {
+
+    private static final Path FIXTURES = Path.of("data", "eml");
+
+    static Stream<String> headerVariants() {
+        return Stream.of(
+                "Thu, 18 Sep 2025 10:15:30 -0700",
+                "Thu, 18 Sep 2025 10:15:30 +0000",
+                "Mon, 1 Sep 2025 10:15:30 +0000",
+                "Thu, 18 Sep 2025 10:15 +0200",
+                "18 Sep 2025 10:15:30 +0530",
+                "Thu, 18 Sep 2025 10:15:30 -0700 (PDT)",
+                "Thu, 18 Sep 2025 10:15:30 GMT",
+                "Thu, 18 Sep 2025 10:15:30 EDT",
+                "Wed, 18 Sep 2025 10:15:30 +0000",
+                "Thu,  18  Sep  2025  10:15:30  +0000",
+                "  Thu, 18 Sep 2025 10:15:30 -0700  ",
+                "not a date",
+                "");
+    }
+
+    @ParameterizedTest
+    @MethodSource("headerVariants")
+    void agreesWithFormerParserOnHeaderVariants(String header) {
+        assertSameInstant(legacyParse(header), MailDateParser.parse(header), header);
+    }
+
+    @Test
+    void agreesWithFormerParserOnCorpusHeaders() throws Exception {
+        List<String> dates = corpusDates();
+        assertFalse(dates.isEmpty());
+        for (String date : dates) {
+            OffsetDateTime parsed = MailDateParser.parse(date);
+            assertNotNull(parsed, date);
+            assertSameInstant(legacyParse(date), parsed, date);
+        }
+    }
+
+    @Test
+    void keepsTheHeaderOffset() {
+        OffsetDateTime parsed = MailDateParser.parse("Thu, 18 Sep 2025 10:15:30 -0700 (PDT)");
+
+        assertEquals(OffsetDateTime.of(2025, 9, 18, 10, 15, 30, 0, ZoneOffset.ofHours(-7)), parsed);
+    }
+
+    @Test
+    void readsTolerantVariants() {
+        OffsetDateTime expected = OffsetDateTime.of(2025, 9, 18, 10, 15, 0, 0, ZoneOffset.ofHoursMinutes(5, 30));
+
+        assertEquals(expected, MailDateParser.parse("(sent) Thursday, 18-September-2025 10:15 +05:30"));
+        assertEquals(expected, MailDateParser.parse("thu 18 SEP 2025 10:15:00 GMT+0530 (IST)"));
+        assertEquals(ZoneOffset.UTC, MailDateParser.parse("18 Sep 2025 10:15:30 Z").getOffset());
+        assertEquals(ZoneOffset.UTC, MailDateParser.parse("18 Sep 2025 10:15:30 CEST").getOffset());
+        assertEquals(ZoneOffset.UTC, MailDateParser.parse("18 Sep 2025 10:15:30").getOffset());
+        assertEquals(1925, MailDateParser.parse("18 Sep 025 10:15:30 +0000").getYear());
+        // RFC_1123_DATE_TIME read this as year 25 AD; obs-year rules make it 2025
+        assertEquals(2025, MailDateParser.parse("Thu, 18 Sep 25 10:15:30 +0000").getYear());
+        assertEquals(
+                OffsetDateTime.of(2017, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC),
+                MailDateParser.parse("Sat, 31 Dec 2016 23:59:60 +0000"));
+    }
+
+    @Test
+    void parsesFromAnOffsetWithoutCopying() {
+        String received = "from mx.example.com by mail.example.com;\r\n\tThu, 18 Sep 2025 10:15:30 -0700 (PDT)";
+
+        OffsetDateTime parsed = MailDateParser.parse(received, received.lastIndexOf(';') + 1);
+
+        assertEquals(OffsetDateTime.of(2025, 9, 18, 10, 15, 30, 0, ZoneOffset.ofHours(-7)), parsed);
+        assertNull(MailDateParser.parse(received, received.length()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                "Thu, 31 Sep 2025 10:15:30 +0000",
+                "Thu, 29 Feb 2025 10:15:30 +0000",
+                "Thu, 18 Sep 2025 24:00:00 +0000",
+                "Thu, 18 Sep 2025 10:61:00 +0000",
+                "Thu, 18 Sep 2025 10:15:30 +2500",
+                "Thu, 18 Foo 2025 10:15:30 +0000",
+                "Thu, 18 Sep 2025",
+                "2025-09-18T10:15:30Z",
+                ","
+            })
+    void rejectsUnreadableDatesWithNull(String header) {
+        assertNull(MailDateParser.parse(header), header);
+    }
+
+    private static void assertSameInstant(OffsetDateTime expected, OffsetDateTime actual, String header) {
+        if (expected == null) {
+            assertNull(actual, header);
+            return;
+        }
+        assertNotNull(actual, header);
+        assertEquals(expected.toInstant(), actual.toInstant(), header);
+    }
+
+    /** Date headers plus the date portion of each Received header across the fixture corpus. */
+    private static List<String> corpusDates() throws Exception {
+        List<String> dates = new ArrayList<>();
+        try (Stream<Path> files = Files.list(FIXTURES)) {
+            for (Path file : files.filter(p -> p.toString().endsWith(".eml")).toList()) {
+                String raw = Files.readString(file, StandardCharsets.ISO_8859_1);
+                int headerEnd = raw.indexOf("\n\n") >= 0 ? raw.indexOf("\n\n") : raw.indexOf("\r\n\r\n");
+                String unfolded = raw.substring(0, Math.max(headerEnd, 0)).replaceAll("\r?\n[ \t]+", " ");
+                for (String line : unfolded.split("\r?\n")) {
+                    String lower = line.toLowerCase(Locale.ROOT);
+                    if (lower.startsWith("date:")) {
+                        dates.add(line.substring("date:".length()));
+                    } else if (lower.startsWith("received:") && line.indexOf(';') > 0) {
+                        dates.add(line.substring(line.lastIndexOf(';') + 1));
+                    }
+                }
+            }
+        }
+        return dates;
+    }
+
+    /** The strict-then-lenient chain {@link MailDateParser} replaced in {@link EmailPipeline}. */
+    private static OffsetDateTime legacyParse(String headerValue) {
+        if (headerValue == null || headerValue.isBlank()) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(headerValue.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+        } catch (DateTimeParseException ignored) {
+            try {
+                java.util.Date parsed = new MailDateFormat().parse(headerValue);
+                if (parsed == null) {
+                    return null;
+                }
+                return OffsetDateTime.ofInstant(parsed.toInstant(), ZoneOffset.UTC);
+            } catch (Exception ex) {
+                return null;
+            }
+        }
+    }
+}
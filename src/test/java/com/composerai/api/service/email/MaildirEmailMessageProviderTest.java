@@ -0,0 +1,116 @@
+package com.composerai.api.service.email;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.composerai.api.config.AppProperties;
+import com.composerai.api.model.EmailMessage;
+import com.composerai.api.service.CompanyLogoProvider;
+import com.composerai.api.service.ContextBuilder;
+import com.composerai.api.service.EmailParsingService;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MaildirEmailMessageProviderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicInteger parses = new AtomicInteger();
+    private Path maildir;
+    private MaildirEmailMessageProvider provider;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        AppProperties properties = new AppProperties();
+        properties.getEmailParsing().setCacheDirectory(tempDir.resolve("cache").toString());
+        EmailParsingService parsingService = new EmailParsingService(
+                new ContextBuilder.InMemoryEmailContextCache(),
+                new CompanyLogoProvider(properties, task -> {}),
+                properties) {
+            @Override
+            public ParsedEmail parseEmail(Path path, String originalFilename, long offset, long length) {
+                parses.incrementAndGet();
+                return super.parseEmail(path, originalFilename, offset, length);
+            }
+        };
+        maildir = tempDir.resolve("Maildir");
+        Files.createDirectories(maildir.resolve("new"));
+        Files.createDirectories(maildir.resolve("cur"));
+        Files.createDirectories(maildir.resolve("tmp"));
+        provider = new MaildirEmailMessageProvider(maildir, parsingService, new ParsedEmailCache(properties));
+    }
+
+    @Test
+    void readsNewAndCurNewestFirstAndIgnoresTmp() throws Exception {
+        deliver("cur", "1700000000.M1P1.host:2,S", "older", 1_700_000_000L);
+        deliver("new", "1700000100.M2P1.host", "newer", 1_700_000_100L);
+        deliver("tmp", "1700000200.M3P1.host", "in flight", 1_700_000_200L);
+
+        assertEquals(List.of("newer", "older"), subjects(provider.loadEmails()));
+    }
+
+    @Test
+    void movedAndReflaggedMessagesAreNotParsedAgain() throws Exception {
+        Path delivered = deliver("new", "1700000000.M1P1.host", "hello", 1_700_000_000L);
+        provider.loadEmails();
+
+        Files.move(delivered, maildir.resolve("cur").resolve("1700000000.M1P1.host:2,S"));
+        touchDirectories();
+        List<String> afterMove = subjects(provider.loadEmails());
+
+        assertEquals(List.of("hello"), afterMove);
+        assertEquals(1, parses.get());
+    }
+
+    @Test
+    void onlyNewDeliveriesAreParsedAndRemovedMessagesDisappear() throws Exception {
+        Path first = deliver("cur", "1700000000.M1P1.host:2,S", "first", 1_700_000_000L);
+        deliver("cur", "1700000100.M2P1.host:2,", "second", 1_700_000_100L);
+        provider.loadEmails();
+
+        Files.delete(first);
+        deliver("new", "1700000200.M3P1.host", "third", 1_700_000_200L);
+        touchDirectories();
+
+        assertEquals(List.of("third", "second"), subjects(provider.loadEmails()));
+        assertEquals(3, parses.get());
+    }
+
+    @Test
+    void uniqueNameDropsTheInfoSuffix() {
+        assertEquals("1700000000.M1P1.host", MaildirEmailMessageProvider.uniqueName("1700000000.M1P1.host:2,RS"));
+        assertEquals("1700000000.M1P1.host", MaildirEmailMessageProvider.uniqueName("1700000000.M1P1.host"));
+    }
+
+    private Path deliver(String directory, String fileName, String subject, long epochSecond) throws Exception {
+        Path file = Files.writeString(
+                maildir.resolve(directory).resolve(fileName),
+                "From: Sender <sender@example.com>\r\n"
+                        + "Subject: " + subject + "\r\n"
+                        + "Message-ID: <" + epochSecond + "@example.com>\r\n"
+                        + "\r\n"
+                        + "Body\r\n");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.ofEpochSecond(epochSecond)));
+        return file;
+    }
+
+    /** Filesystems with coarse timestamps may not move a directory's mtime within one test. */
+    private void touchDirectories() throws Exception {
+        for (String name : List.of("new", "cur")) {
+            Path directory = maildir.resolve(name);
+            Files.setLastModifiedTime(
+                    directory, FileTime.from(Files.getLastModifiedTime(directory).toInstant().plusSeconds(1)));
+        }
+    }
+
+    private static List<String> subjects(List<EmailMessage> messages) {
+        return messages.stream().map(EmailMessage::subject).toList();
+    }
+}
@@ -0,0 +1,36 @@
+package com.composerai.api.service.email;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class MarkdownRendererTest {
+
+    private static final int CONCURRENT_RENDERS = 64;
+
+    @Test
+    void concurrentRendersMatchSequentialOutput() throws Exception {
+        MarkdownRenderer renderer = new MarkdownRenderer();
+        List<String> inputs = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_RENDERS; i++) {
+            inputs.add("# Heading " + i + "\n\nLine one\nline two with [link](https://example.com/" + i + ")\n\n- item");
+        }
+        List<String> expected = inputs.stream().map(renderer::render).toList();
+
+        List<Future<String>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String input : inputs) {
+                futures.add(executor.submit(() -> renderer.render(input)));
+            }
+        }
+
+        for (int i = 0; i < inputs.size(); i++) {
+            assertEquals(expected.get(i), futures.get(i).get());
+        }
+    }
+}
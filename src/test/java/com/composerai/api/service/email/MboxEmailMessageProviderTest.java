@@ -0,0 +1,142 @@
+package com.composerai.api.service.email;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.composerai.api.config.AppProperties;
+import com.composerai.api.model.EmailMessage;
+import com.composerai.api.service.CompanyLogoProvider;
+import com.composerai.api.service.ContextBuilder;
+import com.composerai.api.service.EmailParsingService;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MboxEmailMessageProviderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicInteger parses = new AtomicInteger();
+    private Path mbox;
+    private MboxEmailMessageProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties properties = new AppProperties();
+        properties.getEmailParsing().setCacheDirectory(tempDir.resolve("cache").toString());
+        EmailParsingService parsingService = new EmailParsingService(
+                new ContextBuilder.InMemoryEmailContextCache(),
+                new CompanyLogoProvider(properties, task -> {}),
+                properties) {
+            @Override
+            public ParsedEmail parseEmail(Path path, String originalFilename, long offset, long length) {
+                parses.incrementAndGet();
+                return super.parseEmail(path, originalFilename, offset, length);
+            }
+        };
+        mbox = tempDir.resolve("archive.mbox");
+        provider = new MboxEmailMessageProvider(mbox, parsingService, new ParsedEmailCache(properties));
+    }
+
+    @Test
+    void splitsOnFromLinesAndServesNewestFirst() throws Exception {
+        Files.writeString(mbox, message("one", "Fromage is not a separator\n>From quoted is not either")
+                + message("two", "Hello")
+                + message("three", "Bye"));
+
+        List<String> subjects = subjects(provider.loadEmails());
+
+        assertEquals(List.of("three", "two", "one"), subjects);
+        assertEquals(3, parses.get());
+    }
+
+    @Test
+    void reloadOnlyScansAppendedBytes() throws Exception {
+        Files.writeString(mbox, message("one", "Hello") + message("two", "Hello"));
+        provider.loadEmails();
+        List<MboxEmailMessageProvider.Entry> before = provider.index();
+
+        Files.writeString(mbox, message("three", "Hello"), StandardOpenOption.APPEND);
+        List<String> subjects = subjects(provider.loadEmails());
+
+        assertEquals(List.of("three", "two", "one"), subjects);
+        assertEquals(before, provider.index().subList(0, 2));
+        assertEquals(3, parses.get());
+    }
+
+    @Test
+    void messageStillBeingAppendedIsReindexedWhenItGrows() throws Exception {
+        String complete = message("one", "Hello world");
+        Files.writeString(mbox, complete.substring(0, complete.length() - 7));
+        assertEquals(1, provider.index().size());
+
+        Files.writeString(mbox, complete.substring(complete.length() - 7), StandardOpenOption.APPEND);
+
+        List<MboxEmailMessageProvider.Entry> index = provider.index();
+        assertEquals(1, index.size());
+        assertEquals(sha256(Files.readAllBytes(mbox), index.get(0)), index.get(0).contentHash());
+    }
+
+    @Test
+    void rewrittenArchiveIsReindexedFromTheStart() throws Exception {
+        Files.writeString(mbox, message("one", "Hello") + message("two", "Hello"));
+        provider.loadEmails();
+
+        Files.writeString(mbox, message("two", "Hello"));
+
+        assertEquals(List.of("two"), subjects(provider.loadEmails()));
+    }
+
+    @Test
+    void scanSkipsPreambleAndFindsSeparatorsStraddlingReadBuffers() throws Exception {
+        String preamble = "not part of any message\n";
+        String first = message("one", "Hello");
+        int separator = 64 * 1024 - 2;
+        // pad the first body so the second "From " line starts two bytes before the first 64 KiB read ends
+        first = first.substring(0, first.length() - 1)
+                + "y".repeat(separator - preamble.length() - first.length()) + "\n";
+        Files.writeString(mbox, preamble + first + message("two", "Hello"));
+        byte[] bytes = Files.readAllBytes(mbox);
+
+        List<MboxEmailMessageProvider.Entry> entries;
+        try (FileChannel channel = FileChannel.open(mbox, StandardOpenOption.READ)) {
+            entries = MboxEmailMessageProvider.scan(channel, 0, bytes.length);
+        }
+
+        assertEquals(2, entries.size());
+        assertEquals(preamble.length(), entries.get(0).separatorOffset());
+        assertEquals(separator, entries.get(1).separatorOffset());
+        assertEquals(bytes.length, entries.get(1).offset() + entries.get(1).length());
+        for (MboxEmailMessageProvider.Entry entry : entries) {
+            assertEquals(sha256(bytes, entry), entry.contentHash());
+        }
+    }
+
+    private static String message(String subject, String body) {
+        return "From sender@example.com Thu Sep 18 10:15:30 2025\n"
+                + "From: Sender <sender@example.com>\n"
+                + "Subject: " + subject + "\n"
+                + "Message-ID: <" + subject + "@example.com>\n"
+                + "\n"
+                + body + "\n"
+                + "\n";
+    }
+
+    private static List<String> subjects(List<EmailMessage> messages) {
+        return messages.stream().map(EmailMessage::subject).toList();
+    }
+
+    private static String sha256(byte[] file, MboxEmailMessageProvider.Entry entry) throws Exception {
+        byte[] slice = Arrays.copyOfRange(file, (int) entry.offset(), (int) (entry.offset() + entry.length()));
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(slice));
+    }
+}
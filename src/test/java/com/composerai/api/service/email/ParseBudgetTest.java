@@ -0,0 +1,116 @@
+package com.composerai.api.service.email;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.composerai.api.service.HtmlToText;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ParseBudgetTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        Metrics.addRegistry(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Metrics.removeRegistry(registry);
+    }
+
+    @Test
+    void inputAndDomLimitsTripWithTheirReason() {
+        ParseBudget budget = new ParseBudget(1_000, 8, 50, Duration.ofSeconds(5));
+        EmailHtmlDocument deep = EmailHtmlDocument.parse("<div>".repeat(20) + "deep" + "</div>".repeat(20));
+        EmailHtmlDocument wide = EmailHtmlDocument.parse("<p>x</p>".repeat(40));
+
+        assertEquals(
+                ParseBudget.Reason.INPUT_SIZE,
+                assertThrows(ParseBudget.BudgetExceededException.class, () -> budget.checkInputSize(1_001))
+                        .reason());
+        assertEquals(
+                ParseBudget.Reason.DOM_DEPTH,
+                assertThrows(ParseBudget.BudgetExceededException.class, () -> deep.checkWithin(budget))
+                        .reason());
+        assertEquals(
+                ParseBudget.Reason.DOM_NODES,
+                assertThrows(ParseBudget.BudgetExceededException.class, () -> wide.checkWithin(budget))
+                        .reason());
+        assertEquals(1.0, registry.counter(ParseBudget.TRIP_METRIC, "reason", "dom_depth").count());
+    }
+
+    @Test
+    void watchdogStopsRunawayRegexWithoutInterruptingTheThread() {
+        ParseBudget budget = new ParseBudget(1_000, 8, 50, Duration.ofMillis(50));
+        // The sanitizer's CSS pattern: adjacent \s* runs make this input quadratic (seconds unguarded)
+        Pattern catastrophic = Pattern.compile("(?i)url\\s*\\(\\s*['\"]?\\s*javascript:");
+        String input = "url(" + " ".repeat(30_000);
+
+        try (ParseBudget.Scope scope = budget.start()) {
+            ParseBudget.BudgetExceededException tripped = assertThrows(
+                    ParseBudget.BudgetExceededException.class,
+                    () -> catastrophic.matcher(ParseBudget.guard(input)).find());
+
+            assertEquals(ParseBudget.Reason.DEADLINE, tripped.reason());
+            assertTrue(scope.deadlineExceeded());
+            assertFalse(Thread.currentThread().isInterrupted());
+            ParseBudget.checkpoint(); // trips once; the fallback runs under the same scope
+        }
+        ParseBudget.checkpoint();
+        assertFalse(Thread.currentThread().isInterrupted());
+        assertEquals(1.0, registry.counter(ParseBudget.TRIP_METRIC, "reason", "deadline").count());
+    }
+
+    @Test
+    void deadlinePassingAfterTheLastCheckpointStillCountsAsExceeded() throws Exception {
+        ParseBudget budget = new ParseBudget(1_000, 8, 50, Duration.ofMillis(20));
+
+        try (ParseBudget.Scope scope = budget.start(); ParseBudget.Scope nested = budget.start()) {
+            ParseBudget.checkpoint();
+            Path image = tempDir.resolve("inline.png");
+            Thread.sleep(200);
+            // No interrupt: writes made after the deadline (inline images) still succeed
+            Files.write(image, new byte[] {1, 2, 3});
+
+            assertFalse(Thread.currentThread().isInterrupted());
+            assertEquals(3, Files.size(image));
+            assertTrue(scope.deadlineExceeded());
+            assertTrue(nested.deadlineExceeded());
+        }
+        assertEquals(0.0, registry.counter(ParseBudget.TRIP_METRIC, "reason", "deadline").count());
+    }
+
+    @Test
+    void overBudgetHtmlIsRenderedAsPlainText() throws Exception {
+        Path file = tempDir.resolve("nested.html");
+        Files.writeString(file, "<div>".repeat(300) + "<p>Quarterly numbers attached.</p>" + "</div>".repeat(300));
+        HtmlToText.Options options = new HtmlToText.Options();
+        options.inputFile = file.toString();
+        options.inputType = "html";
+        options.format = HtmlToText.OutputFormat.PLAIN;
+        options.parseBudget = new ParseBudget(1_000_000, 100, 100_000, Duration.ofSeconds(5));
+
+        ParsedEmailDocument document = EmailPipeline.parse(options);
+
+        assertNull(document.content().originalHtml());
+        assertTrue(document.content().plainText().contains("Quarterly numbers attached."));
+        assertEquals(document.content().plainText(), document.content().markdown());
+    }
+}
@@ -0,0 +1,107 @@
+package com.composerai.api.service.email;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.composerai.api.config.AppProperties;
+import com.composerai.api.model.EmailMessage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class ParsedEmailCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private AppProperties properties;
+    private Path emailFile;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties = new AppProperties();
+        properties.getEmailParsing().setCacheDirectory(tempDir.resolve("cache").toString());
+        emailFile = Files.writeString(tempDir.resolve("welcome.eml"), "Subject: Welcome\r\n\r\nHello\r\n");
+    }
+
+    @Test
+    void persistedEntriesSurviveRestart() throws Exception {
+        EmailMessage message = sampleMessage();
+        ParsedEmailCache first = new ParsedEmailCache(properties);
+        first.store(first.keyFor(emailFile), message);
+
+        ParsedEmailCache restarted = new ParsedEmailCache(properties);
+
+        assertEquals(message, restarted.lookup(restarted.keyFor(emailFile)).orElseThrow());
+    }
+
+    @Test
+    void renderModeAndContentChangesInvalidateEntries() throws Exception {
+        ParsedEmailCache cache = new ParsedEmailCache(properties);
+        ParsedEmailCache.Key original = cache.keyFor(emailFile);
+        cache.store(original, sampleMessage());
+
+        properties.getEmailRendering().setMode(AppProperties.EmailRenderMode.MARKDOWN);
+        ParsedEmailCache.Key markdownKey = cache.keyFor(emailFile);
+        assertNotEquals(original, markdownKey);
+        assertTrue(new ParsedEmailCache(properties).lookup(markdownKey).isEmpty());
+
+        Files.writeString(emailFile, "Subject: Welcome back\r\n\r\nHello again\r\n");
+        assertNotEquals(markdownKey.contentHash(), cache.keyFor(emailFile).contentHash());
+    }
+
+    @Test
+    void inlineImageSettingsInvalidateEntries() throws Exception {
+        ParsedEmailCache cache = new ParsedEmailCache(properties);
+        ParsedEmailCache.Key original = cache.keyFor(emailFile);
+        cache.store(original, sampleMessage());
+
+        properties.getEmailParsing().setMaxInlineImageSize(DataSize.ofKilobytes(64));
+        ParsedEmailCache.Key smallerImages = cache.keyFor(emailFile);
+        assertNotEquals(original, smallerImages);
+        assertTrue(new ParsedEmailCache(properties).lookup(smallerImages).isEmpty());
+
+        properties.getEmailParsing().setInlineImageDirectory(tempDir.resolve("images").toString());
+        ParsedEmailCache.Key movedImages = cache.keyFor(emailFile);
+        assertNotEquals(smallerImages, movedImages);
+        assertTrue(new ParsedEmailCache(properties).lookup(movedImages).isEmpty());
+    }
+
+    @Test
+    void corruptEntriesAreTreatedAsMisses() throws Exception {
+        ParsedEmailCache cache = new ParsedEmailCache(properties);
+        cache.store(cache.keyFor(emailFile), sampleMessage());
+        List<Path> entries;
+        try (Stream<Path> files = Files.walk(tempDir.resolve("cache"))) {
+            entries = files.filter(path -> path.toString().endsWith(".bin")).toList();
+        }
+        assertEquals(1, entries.size());
+        Files.writeString(entries.get(0), "not a cache entry");
+
+        ParsedEmailCache restarted = new ParsedEmailCache(properties);
+
+        assertTrue(restarted.lookup(restarted.keyFor(emailFile)).isEmpty());
+        assertTrue(Files.notExists(entries.get(0)));
+    }
+
+    private static EmailMessage sampleMessage() {
+        return EmailMessage.builder()
+                .id("<welcome@example.com>")
+                .contextId("welcome-example.com")
+                .senderName("Example Team")
+                .senderEmail("team@example.com")
+                .subject("Welcome")
+                .emailBodyRaw("Hello")
+                .emailBodyTransformedMarkdown("**Hello**")
+                .emailBodyHtml("<p><strong>Hello</strong></p>")
+                .receivedTimestampIso("2025-09-18T10:15:00Z")
+                .receivedTimestampDisplay("Sep 18, 2025 at 10:15 AM Z")
+                .build();
+    }
+}
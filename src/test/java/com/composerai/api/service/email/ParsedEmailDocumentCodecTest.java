@@ -0,0 +1,158 @@
+package com.composerai.api.service.email;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.composerai.api.service.HtmlToText;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+class ParsedEmailDocumentCodecTest {
+
+    private static final Path FIXTURES = Path.of("data", "eml");
+
+    private static final ParsedEmailDocument.Metadata METADATA = new ParsedEmailDocument.Metadata(
+            "<digest@example.com>",
+            "Weekly digest — ünïcödé ✉",
+            "News <news@example.com>",
+            "reader@example.com",
+            "",
+            "Sep 18, 2025 at 10:15 AM -07:00",
+            "2025-09-18T17:15:30Z",
+            "Thu, 18 Sep 2025 10:15:30 -0700",
+            "date",
+            "eml",
+            "/tmp/digest.eml");
+
+    @Test
+    void roundTripsEveryComponent() throws Exception {
+        ParsedEmailDocument document = document(
+                "Hello\n".repeat(400),
+                "# Hello\n".repeat(400),
+                "<p>Hello</p>".repeat(400),
+                new ParsedEmailDocument.CleanupPolicies(true, true, "clean-only", null, false));
+
+        assertEquals(document, ParsedEmailDocumentCodec.decode(ParsedEmailDocumentCodec.encode(document)));
+    }
+
+    @Test
+    void absentOptionalPartsStayAbsent() throws Exception {
+        ParsedEmailDocument document = new ParsedEmailDocument(
+                "html-only", ParsedEmailDocument.Metadata.forHtmlFile("a.html"), null, null, "now", null);
+
+        ParsedEmailDocument decoded = ParsedEmailDocumentCodec.decode(ParsedEmailDocumentCodec.encode(document));
+
+        assertEquals(document, decoded);
+        assertNull(decoded.cleanupPolicies());
+        assertNull(decoded.content().originalHtml());
+    }
+
+    @Test
+    void metadataAndSingleFieldsAreReadWithoutTouchingBodies() throws Exception {
+        byte[] encoded = ParsedEmailDocumentCodec.encode(
+                document("body ".repeat(2_000), "", "<p>" + "x".repeat(5_000) + "</p>", null));
+        // bodies are written last; scribble over the tail so inflating them must fail
+        Arrays.fill(encoded, encoded.length - 40, encoded.length, (byte) 0x5A);
+
+        assertEquals(METADATA, ParsedEmailDocumentCodec.decodeMetadata(encoded));
+        assertEquals(
+                METADATA.subject(),
+                ParsedEmailDocumentCodec.readField(encoded, ParsedEmailDocumentCodec.Field.SUBJECT));
+        assertThrows(StreamCorruptedException.class, () -> ParsedEmailDocumentCodec.decode(encoded));
+    }
+
+    @Test
+    void rejectsForeignAndTruncatedData() throws Exception {
+        byte[] encoded = ParsedEmailDocumentCodec.encode(document("a", "b", null, null));
+
+        assertThrows(
+                StreamCorruptedException.class,
+                () -> ParsedEmailDocumentCodec.decode("{\"id\":\"x\"}".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(
+                StreamCorruptedException.class,
+                () -> ParsedEmailDocumentCodec.decode(Arrays.copyOf(encoded, encoded.length - 1)));
+    }
+
+    @Test
+    void corpusDocumentsRoundTripSmallerThanJson() throws Exception {
+        ObjectMapper json = new ObjectMapper();
+        long jsonBytes = 0;
+        long binaryBytes = 0;
+        List<Path> fixtures;
+        try (Stream<Path> files = Files.list(FIXTURES)) {
+            fixtures = files.filter(path -> path.toString().endsWith(".eml")).sorted().toList();
+        }
+        assertFalse(fixtures.isEmpty());
+        for (Path fixture : fixtures) {
+            ParsedEmailDocument parsed = EmailPipeline.parse(options(fixture));
+            ParsedEmailDocument document = new ParsedEmailDocument(
+                    parsed.id(),
+                    parsed.metadata(),
+                    parsed.content(),
+                    parsed.cleanupPolicies(),
+                    parsed.createdAt(),
+                    null);
+            byte[] encoded = ParsedEmailDocumentCodec.encode(document);
+
+            assertEquals(document, ParsedEmailDocumentCodec.decode(encoded), fixture.toString());
+            jsonBytes += json.writeValueAsBytes(document).length;
+            binaryBytes += encoded.length;
+        }
+        assertTrue(binaryBytes < jsonBytes / 2, "binary " + binaryBytes + " vs JSON " + jsonBytes);
+    }
+
+    @Test
+    void cliBinaryOutputIsTheEncodedDocument() throws Exception {
+        Path fixture;
+        try (Stream<Path> files = Files.list(FIXTURES)) {
+            fixture = files.filter(path -> path.toString().endsWith(".eml")).sorted().findFirst().orElseThrow();
+        }
+        HtmlToText.Options options = HtmlToText.Options.parseFromArgs(new String[] {
+            "--input-file", fixture.toString(), "--input-type", "eml", "--binary", "true", "--urls", "cleanOnly"
+        });
+        assertTrue(options.isValid());
+
+        ParsedEmailDocument decoded = ParsedEmailDocumentCodec.decode(HtmlToText.convertToBinary(options));
+        ParsedEmailDocument parsed = EmailPipeline.parse(options);
+
+        assertEquals(parsed.metadata(), decoded.metadata());
+        assertEquals(parsed.content(), decoded.content());
+        assertEquals(parsed.cleanupPolicies(), decoded.cleanupPolicies());
+
+        options.inputFile = null;
+        options.inputDir = FIXTURES;
+        assertFalse(options.isValid());
+    }
+
+    private static ParsedEmailDocument document(
+            String plainText, String markdown, String originalHtml, ParsedEmailDocument.CleanupPolicies policies) {
+        return new ParsedEmailDocument(
+                "digest",
+                METADATA,
+                new ParsedEmailDocument.Content(plainText, markdown, originalHtml),
+                policies,
+                "2025-09-18T17:16:00Z",
+                null);
+    }
+
+    private static HtmlToText.Options options(Path path) {
+        HtmlToText.Options options = new HtmlToText.Options();
+        options.inputFile = path.toString();
+        options.inputType = "eml";
+        options.format = HtmlToText.OutputFormat.PLAIN;
+        options.urlsPolicy = HtmlToText.UrlPolicy.CLEAN_ONLY;
+        options.includeMetadata = true;
+        options.suppressUtility = true;
+        return options;
+    }
+}
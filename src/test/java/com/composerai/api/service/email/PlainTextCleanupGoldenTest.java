@@ -0,0 +1,97 @@
+package com.composerai.api.service.email;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Golden-file check that the single-pass cleanup scanner reproduces the former regex pipeline byte for byte.
+ * Each fixture in {@code data/eml} is fed both as-is and with CRLF line endings; digests live in
+ * {@code src/test/resources/golden/plain-text-cleanup.tsv}.
+ */
+class PlainTextCleanupGoldenTest {
+
+    private static final Path FIXTURES = Path.of("data", "eml");
+    private static final String GOLDEN_RESOURCE = "/golden/plain-text-cleanup.tsv";
+
+    @Test
+    void outputsMatchGoldenDigests() throws Exception {
+        List<GoldenEntry> entries = loadGolden();
+        assertTrue(!entries.isEmpty(), "golden manifest is empty");
+
+        for (GoldenEntry entry : entries) {
+            String input = entry.view().apply(Files.readAllBytes(FIXTURES.resolve(entry.fixture())));
+            assertEquals(
+                    entry.digest(),
+                    sha256(entry.operation().apply(input)),
+                    () -> "Output drifted for " + entry.fixture() + " [" + entry.viewName() + ", "
+                            + entry.operationName() + "]");
+        }
+    }
+
+    @Test
+    void goldenManifestCoversEveryFixture() throws Exception {
+        Set<String> covered = loadGolden().stream().map(GoldenEntry::fixture).collect(Collectors.toSet());
+        try (var files = Files.list(FIXTURES)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(".eml"))
+                    .forEach(name -> assertTrue(covered.contains(name), "No golden digest for " + name));
+        }
+    }
+
+    private static List<GoldenEntry> loadGolden() throws IOException {
+        try (InputStream in = PlainTextCleanupGoldenTest.class.getResourceAsStream(GOLDEN_RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing golden resource " + GOLDEN_RESOURCE);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8)
+                    .lines()
+                    .filter(line -> !line.isBlank() && !line.startsWith("#"))
+                    .map(line -> line.split("\t"))
+                    .map(cols -> new GoldenEntry(cols[0], cols[1], cols[2], cols[3]))
+                    .toList();
+        }
+    }
+
+    private static String sha256(String value) throws NoSuchAlgorithmException {
+        byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(hash);
+    }
+
+    private record GoldenEntry(String fixture, String viewName, String operationName, String digest) {
+
+        Function<byte[], String> view() {
+            return switch (viewName) {
+                case "raw" -> bytes -> new String(bytes, StandardCharsets.UTF_8);
+                case "crlf" -> GoldenEntry::withCrlfLineEndings;
+                default -> throw new IllegalArgumentException("Unknown input view: " + viewName);
+            };
+        }
+
+        private static String withCrlfLineEndings(byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8).replace("\r\n", "\n").replace("\n", "\r\n");
+        }
+
+        Function<String, String> operation() {
+            return switch (operationName) {
+                case "cleanup-suppress" -> input -> HtmlConverter.cleanupOutput(input, true);
+                case "cleanup-keep" -> input -> HtmlConverter.cleanupOutput(input, false);
+                case "markdown-to-plain" -> HtmlConverter::markdownToPlain;
+                default -> throw new IllegalArgumentException("Unknown operation: " + operationName);
+            };
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.composerai.api.service.email;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.util.SharedByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import org.junit.jupiter.api.Test;
+
+class StreamingBodyExtractorTest {
+
+    private static final String MIXED_WITH_ATTACHMENT = """
+            From: sender@example.com
+            To: reader@example.com
+            Subject: Invoice
+            MIME-Version: 1.0
+            Content-Type: multipart/mixed; boundary="outer"
+
+            --outer
+            Content-Type: text/html; charset=UTF-8
+            Content-Disposition: attachment; filename="invoice.html"
+
+            <p>ATTACHED</p>
+            --outer
+            Content-Type: multipart/alternative; boundary="alt"
+
+            --alt
+            Content-Type: text/plain; charset=UTF-8
+
+            Plain caf\u00e9
+            --alt
+            Content-Type: text/html; charset=UTF-8
+            Content-Transfer-Encoding: quoted-printable
+
+            <p>Rich caf=C3=A9</p>
+            --alt--
+            --outer--
+            """;
+
+    @Test
+    void picksAlternativeBodyAndSkipsAttachments() throws Exception {
+        MimeMessage message = load(MIXED_WITH_ATTACHMENT);
+
+        assertEquals("<p>Rich caf\u00e9</p>", EmailExtractor.extractFirstHtml(message).orElseThrow());
+        assertEquals("Plain caf\u00e9", EmailExtractor.extractFirstPlainText(message).orElseThrow());
+    }
+
+    @Test
+    void alternativesPickTheFirstPlainTextAndTheLastHtml() throws Exception {
+        MimeMessage message = load("""
+                From: sender@example.com
+                To: reader@example.com
+                Subject: Versions
+                MIME-Version: 1.0
+                Content-Type: multipart/alternative; boundary="alt"
+
+                --alt
+                Content-Type: text/plain; charset=UTF-8
+
+                First plain
+                --alt
+                Content-Type: text/plain; charset=UTF-8
+
+                Second plain
+                --alt
+                Content-Type: text/html; charset=UTF-8
+
+                <p>First html</p>
+                --alt
+                Content-Type: text/html; charset=UTF-8
+
+                <p>Second html</p>
+                --alt--
+                """);
+
+        assertEquals("First plain", EmailExtractor.extractFirstPlainText(message).orElseThrow());
+        assertEquals("<p>Second html</p>", EmailExtractor.extractFirstHtml(message).orElseThrow());
+    }
+
+    @Test
+    void truncatesAtByteBudgetWithoutSplitCharacters() throws Exception {
+        MimeMessage message = load(MIXED_WITH_ATTACHMENT);
+
+        assertEquals("<p>Ric", EmailExtractor.extractFirstHtml(message, 6).orElseThrow());
+        // "<p>Rich caf" is 11 bytes; a 12-byte budget cuts the two-byte UTF-8 sequence for the accent
+        assertEquals("<p>Rich caf", EmailExtractor.extractFirstHtml(message, 12).orElseThrow());
+    }
+
+    @Test
+    void reportsMissingBodiesAndRejectsEmptyBudgets() throws Exception {
+        MimeMessage message = load("""
+                From: sender@example.com
+                Subject: Attachment only
+                MIME-Version: 1.0
+                Content-Type: multipart/mixed; boundary="outer"
+
+                --outer
+                Content-Type: application/pdf
+                Content-Disposition: attachment; filename="statement.pdf"
+                Content-Transfer-Encoding: base64
+
+                JVBERi0xLjQK
+                --outer--
+                """);
+
+        assertTrue(EmailExtractor.extractFirstHtml(message).isEmpty());
+        assertTrue(EmailExtractor.extractFirstPlainText(message).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> EmailExtractor.extractFirstHtml(message, 0));
+    }
+
+    private static MimeMessage load(String eml) throws Exception {
+        byte[] bytes = eml.replace("\n", "\r\n").getBytes(StandardCharsets.UTF_8);
+        return new MimeMessage(Session.getInstance(new Properties()), new SharedByteArrayInputStream(bytes));
+    }
+}